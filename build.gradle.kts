@@ -220,6 +220,63 @@ tasks.run.configure {
         jvmArgs("-Dorrery.dollySensitivity=${project.property("dollySensitivity")}")
     }
 
+    // Frame pacing: -PnoVsync hands pacing to the frame limiter (target FPS unless
+    // -PframeLimit=N; 0 = unlimited)
+    if (project.hasProperty("noVsync")) {
+        jvmArgs("-Dorrery.vsync=false")
+    }
+    if (project.hasProperty("frameLimit")) {
+        jvmArgs("-Dorrery.frameLimit=${project.property("frameLimit")}")
+    }
+
+    // Anti-aliasing: -Paa=auto|msaa2|msaa4|msaa8|fxaa|none (see AntiAliasing)
+    if (project.hasProperty("aa")) {
+        jvmArgs("-Dorrery.aa=${project.property("aa")}")
+    }
+
+    // Quality governor: -PnoGovernor pins full quality; -PminRenderScale and -PmaxMsaa bound
+    // how far it may go (see QualityGovernor).
+    if (project.hasProperty("noGovernor")) {
+        jvmArgs("-Dorrery.governor=false")
+    }
+    if (project.hasProperty("minRenderScale")) {
+        jvmArgs("-Dorrery.minRenderScale=${project.property("minRenderScale")}")
+    }
+    if (project.hasProperty("maxMsaa")) {
+        jvmArgs("-Dorrery.maxMsaa=${project.property("maxMsaa")}")
+    }
+
+    // Program binary cache (see ProgramBinaryCache): -PnoShaderCache compiles every shader
+    // from source, as on a first run.
+    if (project.hasProperty("noShaderCache")) {
+        jvmArgs("-Dorrery.shaderCacheDir=")
+    }
+
+    // Specialized celestial shader variants (see CelestialVariant): -PnoShaderVariants draws
+    // every body with the general program, to compare the per-variant GPU pass times against.
+    if (project.hasProperty("noShaderVariants")) {
+        jvmArgs("-Dorrery.shaderVariants=false")
+    }
+
+    // PNG frame capture (see FrameCapture): -Pcapture records from launch (F10 toggles any time).
+    // -PcaptureOffline advances time by exactly 1/fps per frame, unpaced; -PcaptureFps and
+    // -PcaptureFrames set the rate and length, -PcaptureDir where the sequences go.
+    if (project.hasProperty("capture")) {
+        jvmArgs("-Dorrery.capture=true")
+    }
+    if (project.hasProperty("captureOffline")) {
+        jvmArgs("-Dorrery.captureOffline=true")
+    }
+    if (project.hasProperty("captureFps")) {
+        jvmArgs("-Dorrery.captureFps=${project.property("captureFps")}")
+    }
+    if (project.hasProperty("captureFrames")) {
+        jvmArgs("-Dorrery.captureFrames=${project.property("captureFrames")}")
+    }
+    if (project.hasProperty("captureDir")) {
+        jvmArgs("-Dorrery.captureDir=${file(project.property("captureDir").toString())}")
+    }
+
     // macOS specific - REQUIRED for GLFW
     if (os.isMacOsX) {
         jvmArgs("-XstartOnFirstThread")
@@ -230,6 +287,71 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// CPU-side frame benchmark without a window or GL context (see HeadlessBenchmark).
+// Frame counts with -PbenchFrames and -PbenchWarmup; -PbenchExport writes CSV/JSON.
+tasks.register<JavaExec>("benchHeadless") {
+    group = "verification"
+    description = "Run the GL-free CPU frame benchmark."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.jda.orrery.app.OrreryApplication")
+    jvmArgs("-Xmx1G", "-XX:+UseG1GC")
+    args("--headless-bench")
+    if (project.hasProperty("benchFrames")) {
+        args("--frames=${project.property("benchFrames")}")
+    }
+    if (project.hasProperty("benchWarmup")) {
+        args("--warmup=${project.property("benchWarmup")}")
+    }
+    if (project.hasProperty("benchExport")) {
+        args("--export")
+    }
+}
+
+// Full-renderer benchmark in an invisible window with vsync off (see OffscreenBenchmark).
+// Works on Mesa llvmpipe; -PbenchContext=egl|osmesa picks the context API, -PbenchFrames the
+// path length. osmesa runs without a display server.
+tasks.register<JavaExec>("benchOffscreen") {
+    group = "verification"
+    description = "Run the offscreen render benchmark with image hashes."
+    dependsOn("fetchTextures")
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.jda.orrery.app.OrreryApplication")
+    jvmArgs("-Xmx2G", "-XX:+UseG1GC")
+    args("--offscreen-bench")
+    if (project.hasProperty("aa")) {
+        jvmArgs("-Dorrery.aa=${project.property("aa")}")
+    }
+    if (project.hasProperty("benchFrames")) {
+        args("--frames=${project.property("benchFrames")}")
+    }
+    if (project.hasProperty("benchContext")) {
+        args("--context=${project.property("benchContext")}")
+    }
+    if (os.isMacOsX) {
+        jvmArgs("-XstartOnFirstThread")
+    }
+}
+
+// Star catalog for the starfield (see StarCatalogConverter): converts a HYG or Tycho-2 style CSV
+// given with -PstarCsv into ~/.cache/orrery/stars.bin. -PstarMaxMag caps the magnitude kept
+// (default 11); -PstarOut writes elsewhere (then run with -Dorrery.starCatalog).
+tasks.register<JavaExec>("convertStars") {
+    group = "build setup"
+    description = "Convert a star catalog CSV into the starfield's binary catalog."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.jda.orrery.app.OrreryApplication")
+    args("--convert-stars")
+    if (project.hasProperty("starCsv")) {
+        args("--in=${file(project.property("starCsv").toString())}")
+    }
+    if (project.hasProperty("starOut")) {
+        args("--out=${file(project.property("starOut").toString())}")
+    }
+    if (project.hasProperty("starMaxMag")) {
+        args("--max-mag=${project.property("starMaxMag")}")
+    }
+}
+
 // Task to check if resources are properly packaged
 tasks.register("checkResources") {
     doLast {
@@ -2,25 +2,35 @@ package com.jda.orrery.app;
 
 import com.jda.orrery.core.frames.BuiltInFrameKernel;
 import com.jda.orrery.core.frames.FrameManager;
+import com.jda.orrery.core.frames.FrameNames;
 import com.jda.orrery.core.logging.Logging;
 import com.jda.orrery.core.time.TimeManager;
 import com.jda.orrery.domain.astronomy.SolarSystem;
+import com.jda.orrery.domain.astronomy.catalog.StarCatalog;
 import com.jda.orrery.domain.ephemeris.AnalyticalEphemerisProvider;
 import com.jda.orrery.domain.ephemeris.EphemerisProvider;
 import com.jda.orrery.domain.ephemeris.cache.EphemerisCache;
 import com.jda.orrery.domain.ephemeris.cache.SimpleFrameCache;
+import com.jda.orrery.graphics.capture.FrameCapture;
 import com.jda.orrery.graphics.core.DrawContext;
 import com.jda.orrery.graphics.core.FrameController;
+import com.jda.orrery.graphics.core.FrameStatistics;
+import com.jda.orrery.graphics.core.GpuTimer;
+import com.jda.orrery.graphics.core.QualityGovernor;
 import com.jda.orrery.graphics.core.SceneController;
 import com.jda.orrery.graphics.geometry.MeshLibrary;
 import com.jda.orrery.graphics.illumination.IlluminationManager;
 import com.jda.orrery.graphics.layers.DebugAxisLayer;
 import com.jda.orrery.graphics.layers.DirectSolarSystemLayer;
+import com.jda.orrery.graphics.layers.StarfieldLayer;
 import com.jda.orrery.graphics.pipeline.CelestialRenderer;
+import com.jda.orrery.graphics.postfx.AntiAliasing;
 import com.jda.orrery.graphics.postfx.PostFXPipeline;
 import com.jda.orrery.graphics.postfx.PostFXTarget;
 import com.jda.orrery.graphics.resources.ResourceManager;
+import com.jda.orrery.graphics.textures.GPUCapabilities;
 import com.jda.orrery.graphics.textures.TextureArraySystem;
+import com.jda.orrery.graphics.ubo.FrameDataUBO;
 import java.util.logging.Logger;
 
 /**
@@ -60,9 +70,12 @@ public class ApplicationContext {
 
     // GL-dependent components (initialized in initializeGL())
     private TextureArraySystem textureArraySystem;
+    private FrameDataUBO frameData;
+    private GpuTimer gpuTimer;
     private CelestialRenderer celestialRenderer;
     private PostFXTarget postFXTarget;
     private PostFXPipeline postFXPipeline;
+    private FrameCapture frameCapture;
 
     // Configuration
     private final ApplicationConfig config;
@@ -79,7 +92,7 @@ public class ApplicationContext {
         public final boolean debug;
         public final long textureCacheMemoryMB;
         public final int textureLoaderThreads;
-        public final double targetFPS;
+        public final double targetFPS; // held by the quality governor; 0 disables it
 
         public ApplicationConfig(
                 int windowWidth,
@@ -154,9 +167,12 @@ public class ApplicationContext {
 
         // GL-dependent components initialized in initializeGL()
         this.textureArraySystem = null;
+        this.frameData = null;
+        this.gpuTimer = null;
         this.celestialRenderer = null;
         this.postFXTarget = null;
         this.postFXPipeline = null;
+        this.frameCapture = null;
 
         // Configure component connections
         configureComponentGraph();
@@ -195,11 +211,23 @@ public class ApplicationContext {
         LOGGER.info("Initializing OpenGL resources");
 
         // Detect GPU capabilities first
-        com.jda.orrery.graphics.textures.GPUCapabilities.getGPUInfo();
+        GPUCapabilities.getGPUInfo();
+
+        // MSAA, FXAA or none: -Dorrery.aa, else picked from the GPU tier
+        AntiAliasing antiAliasing =
+                AntiAliasing.fromSystemProperty(GPUCapabilities.detectGPUTier());
 
         // Initialize texture system (requires GL context)
         this.textureArraySystem = new TextureArraySystem();
 
+        // Frame-constant uniform block shared by the body, ring and post-FX shaders
+        this.frameData = new FrameDataUBO();
+        drawContext.setFrameData(frameData);
+
+        // Per-pass GPU timer queries, read back a few frames late into FrameStatistics
+        this.gpuTimer = new GpuTimer();
+        drawContext.setGpuTimer(gpuTimer);
+
         // Initialize renderer now that texture system is ready
         this.celestialRenderer =
                 new CelestialRenderer(
@@ -211,15 +239,41 @@ public class ApplicationContext {
 
         // Post-FX target + pipeline. Sized from config; FrameController.init() corrects
         // to the real framebuffer size before the first frame.
-        this.postFXTarget = new PostFXTarget(config.windowWidth, config.windowHeight, 4);
-        this.postFXPipeline = new PostFXPipeline(postFXTarget, illuminationManager);
+        this.postFXTarget =
+                new PostFXTarget(config.windowWidth, config.windowHeight, antiAliasing.msaaSamples);
+        this.postFXPipeline = new PostFXPipeline(postFXTarget, frameData, antiAliasing, gpuTimer);
         this.postFXPipeline.initialize();
 
         frameController.setPostFXTarget(postFXTarget);
         sceneController.attachPostFX(postFXTarget, postFXPipeline);
 
+        // PNG sequence recording of the presented frames (F10, or -Dorrery.capture*)
+        this.frameCapture = FrameCapture.fromSystemProperties();
+        frameController.setFrameCapture(frameCapture);
+
+        // Trade render scale, MSAA and mesh LOD for frame rate. The top rung renders the AA
+        // mode's samples; -Dorrery.maxMsaa lowers that (never raises it) and
+        // -Dorrery.minRenderScale bounds the bottom. -Dorrery.governor=false pins full quality.
+        if (config.targetFPS > 0
+                && Boolean.parseBoolean(System.getProperty("orrery.governor", "true"))) {
+            frameController.setQualityGovernor(
+                    new QualityGovernor(
+                            config.targetFPS,
+                            floatProperty("orrery.minRenderScale", 0.5f),
+                            Math.min(
+                                    intProperty("orrery.maxMsaa", antiAliasing.msaaSamples),
+                                    antiAliasing.msaaSamples)));
+        }
+
         // Compose scene: create layers and register them with the scene controller.
         // Done here (not in FrameController) so composition lives in one place.
+        // The starfield goes first: it is drawn at infinity, behind everything.
+        sceneController.addLayer(
+                new StarfieldLayer(
+                        StarCatalog.defaultPath(),
+                        builtInFrameKernel.getStaticTransform(
+                                FrameNames.J2000, FrameNames.OPENGL_RENDER)));
+
         DirectSolarSystemLayer solarSystemLayer =
                 new DirectSolarSystemLayer(solarSystem, celestialRenderer);
         solarSystemLayer.init(drawContext);
@@ -233,6 +287,30 @@ public class ApplicationContext {
         LOGGER.info("OpenGL resources initialized");
     }
 
+    private static float floatProperty(String name, float fallback) {
+        String override = System.getProperty(name);
+        if (override != null) {
+            try {
+                return Float.parseFloat(override);
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid " + name + ": " + override);
+            }
+        }
+        return fallback;
+    }
+
+    private static int intProperty(String name, int fallback) {
+        String override = System.getProperty(name);
+        if (override != null) {
+            try {
+                return Integer.parseInt(override);
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid " + name + ": " + override);
+            }
+        }
+        return fallback;
+    }
+
     /**
      * Process one frame. Must be called from thread with GL context.
      *
@@ -259,6 +337,16 @@ public class ApplicationContext {
 
         // Update and render frame (includes time advancement)
         frameController.processFrame(deltaTime);
+
+        // Queue the finished frame's readback before the swap
+        if (frameCapture != null && frameCapture.isRecording()) {
+            long captureStart = System.nanoTime();
+            frameCapture.captureFrame(
+                    postFXTarget.getOutputWidth(), postFXTarget.getOutputHeight());
+            drawContext
+                    .getFrameStatistics()
+                    .recordPhase(FrameStatistics.Phase.CAPTURE, System.nanoTime() - captureStart);
+        }
     }
 
     /**
@@ -291,6 +379,9 @@ public class ApplicationContext {
         }
 
         // GL resource disposal in reverse initialization order.
+        if (frameCapture != null) {
+            frameCapture.dispose();
+        }
         if (postFXPipeline != null) {
             postFXPipeline.dispose();
         }
@@ -300,6 +391,12 @@ public class ApplicationContext {
         if (celestialRenderer != null) {
             celestialRenderer.dispose();
         }
+        if (frameData != null) {
+            frameData.dispose();
+        }
+        if (gpuTimer != null) {
+            gpuTimer.dispose();
+        }
         if (textureArraySystem != null) {
             textureArraySystem.shutdown();
         }
@@ -331,6 +428,11 @@ public class ApplicationContext {
         return frameController;
     }
 
+    /** Frame recorder, or null before GL init. */
+    public FrameCapture getFrameCapture() {
+        return frameCapture;
+    }
+
     public SceneController getSceneController() {
         return sceneController;
     }
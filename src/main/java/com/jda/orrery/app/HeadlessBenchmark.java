@@ -0,0 +1,297 @@
+package com.jda.orrery.app;
+
+import com.jda.orrery.core.frames.BuiltInFrameKernel;
+import com.jda.orrery.core.frames.FrameManager;
+import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.core.time.TimeContext;
+import com.jda.orrery.core.time.TimeManager;
+import com.jda.orrery.domain.astronomy.CelestialBody;
+import com.jda.orrery.domain.astronomy.Planet;
+import com.jda.orrery.domain.astronomy.SolarSystem;
+import com.jda.orrery.domain.ephemeris.AnalyticalEphemerisProvider;
+import com.jda.orrery.domain.ephemeris.cache.SimpleFrameCache;
+import com.jda.orrery.graphics.camera.OrbitCamera;
+import com.jda.orrery.graphics.core.DrawContext;
+import com.jda.orrery.graphics.core.FrameStatistics;
+import com.jda.orrery.graphics.core.FrameStatisticsExport;
+import com.jda.orrery.graphics.pipeline.CelestialRenderer;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * GL-free benchmark of the per-frame CPU work: time advance, camera, ephemeris lookups, scaled body
+ * transforms and culling — everything {@link CelestialRenderer} does before it touches GL (the
+ * per-body MVP products happen in the vertex shader). No window or context is created, so it
+ * runs on a build box without a GPU.
+ *
+ * The scenario is scripted and driven by a simulated 60 Hz clock from a fixed epoch, so every run
+ * does the same work: four equal segments tracking the Sun, Earth, Saturn and Jupiter at different
+ * time speeds while the camera orbits and zooms. Reports ns/frame percentiles, heap bytes allocated
+ * per frame (where the JVM can count them) and the phase breakdown from {@link FrameStatistics}.
+ *
+ * Usage: {@code --headless-bench [--frames=N] [--warmup=N] [--export]}; {@code --export} also
+ * writes the frame windows through {@link FrameStatisticsExport}.
+ */
+public final class HeadlessBenchmark {
+    private static final Logger LOGGER = Logging.logger(HeadlessBenchmark.class);
+
+    public static final String FLAG = "--headless-bench";
+
+    static final int DEFAULT_FRAMES = 3600;
+    static final int DEFAULT_WARMUP = 600;
+
+    private static final long FRAME_NANOS = 16_666_667L;
+    private static final double START_JD_TDB = 2460676.5; // 2025-01-01 00:00 TDB
+    private static final int VIEWPORT_WIDTH = 1920;
+    private static final int VIEWPORT_HEIGHT = 1080;
+
+    // Scenario segments: tracked planet index (-1 = Sun) and simulation speed (sim s per real s)
+    private static final int[] SEGMENT_TARGETS = {-1, 2, 5, 4};
+    private static final double[] SEGMENT_SPEEDS = {86400.0, 604800.0, 2592000.0, 1.0};
+
+    /** DrawContext without the GL default-state setup. */
+    private static final class HeadlessDrawContext extends DrawContext {
+        HeadlessDrawContext(int windowFrames) {
+            this.frameStatistics = new FrameStatistics(windowFrames);
+        }
+
+        @Override
+        protected void configureDefaultState() {
+            // No context to configure
+        }
+    }
+
+    private final int frames;
+    private final int warmup;
+    private final TimeManager timeManager;
+    private final SolarSystem solarSystem;
+    private final OrbitCamera camera;
+    private final DrawContext drawContext;
+    private final CelestialRenderer renderer;
+    private long clockNanos = 1; // simulated; 0 means "first frame" to TimeManager
+    private long visibleBodies = 0;
+
+    HeadlessBenchmark(int frames, int warmup) {
+        this.frames = frames;
+        this.warmup = warmup;
+
+        BuiltInFrameKernel frameKernel = new BuiltInFrameKernel();
+        FrameManager frameManager = new FrameManager(frameKernel);
+        this.timeManager = new TimeManager(START_JD_TDB);
+        this.solarSystem =
+                new SolarSystem(new AnalyticalEphemerisProvider(), new SimpleFrameCache());
+
+        this.drawContext = new HeadlessDrawContext(frames);
+        drawContext.setSolarSystem(solarSystem);
+        drawContext.setViewportWidth(VIEWPORT_WIDTH);
+        drawContext.setViewportHeight(VIEWPORT_HEIGHT);
+
+        this.camera = new OrbitCamera(frameManager);
+        camera.setViewport(0, 0, VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+
+        this.renderer = new CelestialRenderer(null, null, null, frameKernel, frameManager);
+        renderer.initializeHeadless();
+    }
+
+    /** Run from the command line; returns the process exit code. */
+    public static int run(String[] args) {
+        int frames = DEFAULT_FRAMES;
+        int warmup = DEFAULT_WARMUP;
+        boolean export = false;
+        for (String arg : args) {
+            if (arg.startsWith("--frames=")) {
+                frames = parseCount(arg, frames);
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = parseCount(arg, warmup);
+            } else if (arg.equals("--export")) {
+                export = true;
+            } else if (!arg.equals(FLAG)) {
+                LOGGER.warning("Ignoring unknown benchmark argument: " + arg);
+            }
+        }
+        if (frames <= 0) {
+            LOGGER.severe("--frames must be positive");
+            return 2;
+        }
+
+        HeadlessBenchmark bench = new HeadlessBenchmark(frames, warmup);
+        Report report = bench.execute();
+        System.out.print(report.format());
+        if (export) {
+            FrameStatisticsExport.export(bench.drawContext.getFrameStatistics());
+        }
+        return 0;
+    }
+
+    /** Integer value of a {@code --name=value} argument, or {@code fallback} if it is invalid. */
+    static int parseCount(String arg, int fallback) {
+        String value = arg.substring(arg.indexOf('=') + 1);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid " + arg + "; using " + fallback);
+            return fallback;
+        }
+    }
+
+    /** Warm up (JIT, ephemeris caches), rewind the scenario, then measure. */
+    Report execute() {
+        LOGGER.info(
+                String.format("Headless benchmark: %d warmup + %d measured frames", warmup, frames));
+        for (int i = 0; i < warmup; i++) {
+            step(i % frames);
+        }
+        rewind();
+
+        FrameStatistics stats = drawContext.getFrameStatistics();
+        visibleBodies = 0;
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            stats.beginFrame();
+            step(i);
+            stats.endFrame();
+        }
+        stats.beginFrame(); // close the last interval
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+
+        double bytesPerFrame =
+                allocatedBefore < 0 || allocatedAfter < 0
+                        ? -1.0
+                        : (double) (allocatedAfter - allocatedBefore) / frames;
+        return new Report(stats, frames, elapsed, bytesPerFrame, (double) visibleBodies / frames);
+    }
+
+    private void rewind() {
+        timeManager.setCurrentTime(START_JD_TDB);
+        camera.reset();
+        camera.notifyBodySwitch(null);
+        drawContext.setTrackedBody(null);
+    }
+
+    /** One scripted frame. */
+    private void step(int frame) {
+        script(frame);
+
+        FrameStatistics stats = drawContext.getFrameStatistics();
+        long t0 = System.nanoTime();
+        clockNanos += FRAME_NANOS;
+        TimeContext timeContext = timeManager.advanceTime(clockNanos);
+        stats.recordPhase(FrameStatistics.Phase.TIME_ADVANCE, System.nanoTime() - t0);
+
+        drawContext.setDeltaTime(FRAME_NANOS / 1_000_000_000.0);
+        drawContext.setTimeContext(timeContext);
+        camera.setSimulationState(timeManager.isPaused(), timeManager.getSimulationSpeed());
+        camera.apply(drawContext);
+
+        visibleBodies += renderer.simulateFrame(solarSystem, drawContext);
+    }
+
+    /** Camera and time input for a frame of the scenario. */
+    private void script(int frame) {
+        int segments = SEGMENT_TARGETS.length;
+        int segment = (int) ((long) frame * segments / frames);
+        int segmentStart = (int) ((long) segment * frames + segments - 1) / segments;
+
+        if (frame == segmentStart) {
+            CelestialBody target = bodyAt(SEGMENT_TARGETS[segment]);
+            drawContext.setTrackedBody(target);
+            camera.notifyBodySwitch(target);
+            timeManager.setSimulationSpeed(SEGMENT_SPEEDS[segment]);
+        }
+
+        // Orbit continuously, alternating pitch direction; dolly in early in each segment
+        int local = frame - segmentStart;
+        camera.rotate(0.5f, (local / 240) % 2 == 0 ? 0.1f : -0.1f);
+        if (local < 120) {
+            camera.zoom(-1.0f);
+        }
+    }
+
+    private CelestialBody bodyAt(int planetIndex) {
+        if (planetIndex < 0) {
+            return solarSystem.getSun();
+        }
+        List<Planet> planets = solarSystem.getPlanets();
+        return planetIndex < planets.size() ? planets.get(planetIndex) : solarSystem.getSun();
+    }
+
+    /** Heap bytes allocated by this thread so far, or -1 if the JVM cannot count them. */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counting = (com.sun.management.ThreadMXBean) threads;
+            if (counting.isThreadAllocatedMemorySupported()
+                    && counting.isThreadAllocatedMemoryEnabled()) {
+                return counting.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /** Results of a measured run. */
+    static final class Report {
+        final FrameStatistics stats;
+        final int frames;
+        final long elapsedNanos;
+        final double bytesPerFrame;
+        final double visibleBodiesPerFrame;
+
+        Report(
+                FrameStatistics stats,
+                int frames,
+                long elapsedNanos,
+                double bytesPerFrame,
+                double visibleBodiesPerFrame) {
+            this.stats = stats;
+            this.frames = frames;
+            this.elapsedNanos = elapsedNanos;
+            this.bytesPerFrame = bytesPerFrame;
+            this.visibleBodiesPerFrame = visibleBodiesPerFrame;
+        }
+
+        String format() {
+            StringBuilder out = new StringBuilder();
+            out.append(
+                    String.format(
+                            Locale.ROOT,
+                            "frames=%d elapsed_ms=%.1f ns_per_frame=%.0f%n",
+                            frames,
+                            elapsedNanos / 1e6,
+                            (double) elapsedNanos / frames));
+            out.append(
+                    String.format(
+                            Locale.ROOT,
+                            "frame_ns p50=%.0f p90=%.0f p99=%.0f p99.9=%.0f max=%.0f%n",
+                            stats.getFrameTimePercentile(50.0) * 1e6,
+                            stats.getFrameTimePercentile(90.0) * 1e6,
+                            stats.getFrameTimePercentile(99.0) * 1e6,
+                            stats.getFrameTimePercentile(99.9) * 1e6,
+                            stats.getWindowMaxFrameTime() * 1e6));
+            out.append(
+                    bytesPerFrame < 0
+                            ? "alloc_bytes_per_frame=unavailable\n"
+                            : String.format(
+                                    Locale.ROOT, "alloc_bytes_per_frame=%.1f%n", bytesPerFrame));
+            out.append(
+                    String.format(
+                            Locale.ROOT,
+                            "visible_bodies_per_frame=%.2f%n",
+                            visibleBodiesPerFrame));
+            for (FrameStatistics.Phase phase : FrameStatistics.Phase.values()) {
+                out.append(
+                        String.format(
+                                Locale.ROOT,
+                                "phase %-10s mean_ns=%.0f p50_ns=%.0f p99_ns=%.0f%n",
+                                phase.label,
+                                stats.getPhaseMean(phase) * 1e6,
+                                stats.getPhasePercentile(phase, 50.0) * 1e6,
+                                stats.getPhasePercentile(phase, 99.0) * 1e6));
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.jda.orrery.app;
+
+import static org.lwjgl.glfw.GLFW.*;
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.system.MemoryUtil.*;
+
+import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.core.time.TimeManager;
+import com.jda.orrery.graphics.camera.OrbitCamera;
+import com.jda.orrery.graphics.core.FrameController;
+import com.jda.orrery.graphics.core.FrameStatistics;
+import com.jda.orrery.graphics.core.GLUtilities;
+import com.jda.orrery.graphics.core.GpuTimer;
+import com.jda.orrery.graphics.core.SampleWindow;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.logging.Logger;
+import org.lwjgl.glfw.GLFWErrorCallback;
+import org.lwjgl.opengl.GL;
+
+/**
+ * End-to-end render benchmark in an invisible window: the full renderer (bodies, rings, post-FX)
+ * at a fixed resolution with vsync off, over a scripted camera path and epoch sequence. Runs on a
+ * software rasterizer such as Mesa llvmpipe, so renderer changes can be compared on machines
+ * without a display or GPU.
+ *
+ * Time is paused and set explicitly each frame, and the camera sees a fixed 60 Hz delta, so every
+ * run renders the same frames. Per frame it records the CPU time of the frame (render and swap)
+ * and the GPU time of its passes, which {@link GpuTimer} delivers a few frames late and is matched
+ * back to its frame here. Every {@code --hash-every} frames the back buffer is read back and
+ * hashed; the hashes catch rendering changes, the timings performance changes. Readback drains
+ * the pipeline, so sampled frames are excluded from the CPU percentiles.
+ *
+ * Textures load asynchronously, so the path is rendered once untimed and the first frame is then
+ * held for {@code --settle-ms} before measuring; hashes are only comparable between runs with the
+ * same texture set and anti-aliasing mode (-Dorrery.aa, which otherwise follows the GPU tier).
+ *
+ * Usage: {@code --offscreen-bench [--frames=N] [--width=W] [--height=H] [--hash-every=N]
+ * [--settle-ms=N] [--context=native|egl|osmesa]}. With {@code osmesa} GLFW uses its null platform
+ * where available, which needs no display server at all. Per-frame results go to a CSV in
+ * -Dorrery.statsDir (default {@code stats}).
+ */
+public final class OffscreenBenchmark {
+    private static final Logger LOGGER = Logging.logger(OffscreenBenchmark.class);
+
+    public static final String FLAG = "--offscreen-bench";
+
+    static final int DEFAULT_FRAMES = 600;
+    static final int DEFAULT_WIDTH = 1280;
+    static final int DEFAULT_HEIGHT = 720;
+    static final int DEFAULT_HASH_EVERY = 60;
+    static final int DEFAULT_SETTLE_MS = 3000;
+
+    private static final double FRAME_SECONDS = 1.0 / 60.0;
+    private static final double START_JD_TDB = 2460676.5; // 2025-01-01 00:00 TDB
+    private static final double DAYS_PER_FRAME = 0.25;
+
+    // Camera path: focus per segment (-1 = Sun, then planet index)
+    private static final int[] SEGMENT_FOCUS = {-1, 2, 4, 5};
+
+    private int frames = DEFAULT_FRAMES;
+    private int width = DEFAULT_WIDTH;
+    private int height = DEFAULT_HEIGHT;
+    private int hashEvery = DEFAULT_HASH_EVERY;
+    private int settleMs = DEFAULT_SETTLE_MS;
+    private String contextApi = "native";
+
+    private long window = NULL;
+    private ApplicationContext context;
+    private ByteBuffer pixels;
+    private boolean measuring = false;
+
+    // Per-frame results
+    private double[] cpuMs;
+    private double[] gpuMs;
+    private String[] hashes;
+
+    private OffscreenBenchmark() {}
+
+    /** Run from the command line; returns the process exit code. */
+    public static int run(String[] args) {
+        OffscreenBenchmark bench = new OffscreenBenchmark();
+        if (!bench.parse(args)) {
+            return 2;
+        }
+        try {
+            bench.init();
+            bench.execute();
+            bench.report();
+            return 0;
+        } catch (RuntimeException e) {
+            LOGGER.severe("Offscreen benchmark failed: " + e.getMessage());
+            return 1;
+        } finally {
+            bench.cleanup();
+        }
+    }
+
+    private boolean parse(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--frames=")) {
+                frames = HeadlessBenchmark.parseCount(arg, frames);
+            } else if (arg.startsWith("--width=")) {
+                width = HeadlessBenchmark.parseCount(arg, width);
+            } else if (arg.startsWith("--height=")) {
+                height = HeadlessBenchmark.parseCount(arg, height);
+            } else if (arg.startsWith("--hash-every=")) {
+                hashEvery = HeadlessBenchmark.parseCount(arg, hashEvery);
+            } else if (arg.startsWith("--settle-ms=")) {
+                settleMs = HeadlessBenchmark.parseCount(arg, settleMs);
+            } else if (arg.startsWith("--context=")) {
+                contextApi = arg.substring(arg.indexOf('=') + 1);
+            } else if (!arg.equals(FLAG)) {
+                LOGGER.warning("Ignoring unknown benchmark argument: " + arg);
+            }
+        }
+        if (frames <= 0 || width <= 0 || height <= 0) {
+            LOGGER.severe("--frames, --width and --height must be positive");
+            return false;
+        }
+        return true;
+    }
+
+    private void init() {
+        GLFWErrorCallback.createPrint(System.err).set();
+
+        boolean osmesa = contextApi.equals("osmesa");
+        if (osmesa && glfwPlatformSupported(GLFW_PLATFORM_NULL)) {
+            glfwInitHint(GLFW_PLATFORM, GLFW_PLATFORM_NULL);
+        }
+        if (!glfwInit()) {
+            throw new IllegalStateException("Unable to initialize GLFW");
+        }
+
+        glfwDefaultWindowHints();
+        glfwWindowHint(GLFW_VISIBLE, GLFW_FALSE);
+        glfwWindowHint(GLFW_RESIZABLE, GLFW_FALSE);
+        glfwWindowHint(GLFW_CONTEXT_VERSION_MAJOR, 4);
+        glfwWindowHint(GLFW_CONTEXT_VERSION_MINOR, 1);
+        glfwWindowHint(GLFW_OPENGL_PROFILE, GLFW_OPENGL_CORE_PROFILE);
+        glfwWindowHint(GLFW_OPENGL_FORWARD_COMPAT, GL_TRUE);
+        glfwWindowHint(GLFW_SAMPLES, 0);
+        switch (contextApi) {
+            case "egl":
+                glfwWindowHint(GLFW_CONTEXT_CREATION_API, GLFW_EGL_CONTEXT_API);
+                break;
+            case "osmesa":
+                glfwWindowHint(GLFW_CONTEXT_CREATION_API, GLFW_OSMESA_CONTEXT_API);
+                break;
+            case "native":
+                break;
+            default:
+                LOGGER.warning("Unknown --context " + contextApi + "; using native");
+        }
+
+        window = glfwCreateWindow(width, height, "Orrery offscreen benchmark", NULL, NULL);
+        if (window == NULL) {
+            throw new IllegalStateException("Failed to create " + contextApi + " GL context");
+        }
+        glfwMakeContextCurrent(window);
+        glfwSwapInterval(0); // Never wait for a display
+        GL.createCapabilities();
+        GLUtilities.logGLCapabilities();
+
+        int[] fbWidth = new int[1];
+        int[] fbHeight = new int[1];
+        glfwGetFramebufferSize(window, fbWidth, fbHeight);
+        width = fbWidth[0];
+        height = fbHeight[0];
+
+        // Target FPS 0: no quality governor, every run renders every frame at full quality
+        context =
+                new ApplicationContext(
+                        new ApplicationContext.ApplicationConfig(
+                                width, height, false, false, 512, 2, 0.0));
+        context.initializeGL();
+        context.getFrameController().init(window);
+
+        TimeManager timeManager = context.getTimeManager();
+        timeManager.setPaused(true);
+        timeManager.setCurrentTime(START_JD_TDB);
+
+        pixels = memAlloc(width * height * 4);
+        cpuMs = new double[frames];
+        gpuMs = new double[frames];
+        hashes = new String[frames];
+    }
+
+    private void execute() {
+        // Untimed pass over the whole path so every texture is requested, then let loads finish
+        LOGGER.info("Offscreen benchmark: warming up");
+        for (int i = 0; i < frames; i++) {
+            renderFrame(i);
+        }
+        long settleEnd = System.nanoTime() + settleMs * 1_000_000L;
+        while (System.nanoTime() < settleEnd) {
+            renderFrame(0);
+        }
+        glFinish();
+
+        LOGGER.info(
+                String.format("Offscreen benchmark: %d frames at %dx%d", frames, width, height));
+        Arrays.fill(gpuMs, Double.NaN);
+        FrameStatistics stats = context.getDrawContext().getFrameStatistics();
+        GpuTimer gpuTimer = context.getDrawContext().getGpuTimer();
+        int latency = gpuTimer != null ? gpuTimer.getLatencyFrames() : 0;
+        measuring = true;
+
+        // Run past the end until the last frames' GPU times have come back
+        for (int i = 0; i < frames + latency; i++) {
+            int frame = Math.min(i, frames - 1);
+            long gpuBefore = stats.getGpuFramesRecorded();
+            long start = System.nanoTime();
+            renderFrame(frame);
+            long elapsed = System.nanoTime() - start;
+
+            if (i < frames) {
+                cpuMs[i] = elapsed / 1_000_000.0;
+            }
+            int source = i - latency;
+            if (stats.getGpuFramesRecorded() != gpuBefore && source >= 0 && source < frames) {
+                double total = 0;
+                for (GpuTimer.Pass pass : GpuTimer.Pass.values()) {
+                    total += stats.getLastGpuPassTime(pass);
+                }
+                gpuMs[source] = total;
+            }
+        }
+    }
+
+    /** Script, render, optionally hash, and present one frame of the path. */
+    private void renderFrame(int frame) {
+        script(frame);
+        context.processFrame(FRAME_SECONDS);
+        if (measuring && hashEvery > 0 && frame % hashEvery == 0 && hashes[frame] == null) {
+            hashes[frame] = hashBackBuffer();
+        }
+        glfwSwapBuffers(window);
+        glfwPollEvents();
+    }
+
+    /** Epoch and camera input for a frame of the path. */
+    private void script(int frame) {
+        context.getTimeManager().setCurrentTime(START_JD_TDB + frame * DAYS_PER_FRAME);
+
+        FrameController controller = context.getFrameController();
+        int segments = SEGMENT_FOCUS.length;
+        int segment = (int) ((long) frame * segments / frames);
+        int segmentStart = (int) ((long) segment * frames + segments - 1) / segments;
+        if (frame == segmentStart) {
+            if (controller.getView() instanceof OrbitCamera) {
+                ((OrbitCamera) controller.getView()).reset();
+            }
+            controller.focusBody(SEGMENT_FOCUS[segment]);
+        }
+        if (controller.getView() instanceof OrbitCamera) {
+            OrbitCamera camera = (OrbitCamera) controller.getView();
+            camera.rotate(0.6f, 0.05f);
+            if (frame - segmentStart < 90) {
+                camera.zoom(-1.0f);
+            }
+        }
+    }
+
+    /** SHA-256 of the back buffer's RGBA8 pixels, as the first 16 hex digits. */
+    private String hashBackBuffer() {
+        glPixelStorei(GL_PACK_ALIGNMENT, 1);
+        glReadBuffer(GL_BACK);
+        pixels.clear();
+        glReadPixels(0, 0, width, height, GL_RGBA, GL_UNSIGNED_BYTE, pixels);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(pixels);
+            StringBuilder hex = new StringBuilder(16);
+            byte[] bytes = digest.digest();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", bytes[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private void report() {
+        // Sampled frames waited on a readback; keep them out of the CPU percentiles
+        double[] timed = new double[frames];
+        int count = 0;
+        double cpuMax = 0.0;
+        double[] gpuTimed = new double[frames];
+        int gpuCount = 0;
+        double gpuMax = 0.0;
+        StringBuilder digest = new StringBuilder();
+        for (int i = 0; i < frames; i++) {
+            if (hashes[i] == null) {
+                timed[count++] = cpuMs[i];
+                cpuMax = Math.max(cpuMax, cpuMs[i]);
+            } else {
+                digest.append(hashes[i]);
+            }
+            if (!Double.isNaN(gpuMs[i])) {
+                gpuTimed[gpuCount++] = gpuMs[i];
+                gpuMax = Math.max(gpuMax, gpuMs[i]);
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        out.append(
+                String.format(
+                        Locale.ROOT,
+                        "renderer=%s resolution=%dx%d frames=%d%n",
+                        glGetString(GL_RENDERER),
+                        width,
+                        height,
+                        frames));
+        out.append(
+                String.format(
+                        Locale.ROOT,
+                        "cpu_ms p50=%.3f p90=%.3f p99=%.3f max=%.3f (%d unsampled frames)%n",
+                        SampleWindow.nearestRank(timed, count, 50),
+                        SampleWindow.nearestRank(timed, count, 90),
+                        SampleWindow.nearestRank(timed, count, 99),
+                        cpuMax,
+                        count));
+        out.append(
+                gpuCount == 0
+                        ? "gpu_ms unavailable\n"
+                        : String.format(
+                                Locale.ROOT,
+                                "gpu_ms p50=%.3f p90=%.3f p99=%.3f max=%.3f (%d frames)%n",
+                                SampleWindow.nearestRank(gpuTimed, gpuCount, 50),
+                                SampleWindow.nearestRank(gpuTimed, gpuCount, 90),
+                                SampleWindow.nearestRank(gpuTimed, gpuCount, 99),
+                                gpuMax,
+                                gpuCount));
+        out.append("image_digest=").append(digestOf(digest.toString())).append('\n');
+        System.out.print(out);
+
+        writeCsv();
+    }
+
+    private static String digestOf(String hashes) {
+        try {
+            byte[] bytes =
+                    MessageDigest.getInstance("SHA-256")
+                            .digest(hashes.getBytes(StandardCharsets.US_ASCII));
+            StringBuilder hex = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", bytes[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private void writeCsv() {
+        Path directory = Paths.get(System.getProperty("orrery.statsDir", "stats"));
+        Path csv = directory.resolve("offscreen-" + System.currentTimeMillis() + ".csv");
+        try {
+            Files.createDirectories(directory);
+            try (Writer out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                out.write("frame,jd_tdb,cpu_ms,gpu_ms,image_hash\n");
+                for (int i = 0; i < frames; i++) {
+                    out.write(
+                            String.format(
+                                    Locale.ROOT,
+                                    "%d,%.6f,%.4f,%s,%s%n",
+                                    i,
+                                    START_JD_TDB + i * DAYS_PER_FRAME,
+                                    cpuMs[i],
+                                    Double.isNaN(gpuMs[i])
+                                            ? ""
+                                            : String.format(Locale.ROOT, "%.4f", gpuMs[i]),
+                                    hashes[i] != null ? hashes[i] : ""));
+                }
+            }
+            LOGGER.info("Wrote per-frame results to " + csv);
+        } catch (IOException e) {
+            LOGGER.warning("Failed to write benchmark results: " + e.getMessage());
+        }
+    }
+
+    private void cleanup() {
+        if (context != null) {
+            context.shutdown();
+        }
+        if (pixels != null) {
+            memFree(pixels);
+        }
+        if (window != NULL) {
+            glfwDestroyWindow(window);
+        }
+        glfwTerminate();
+        GLFWErrorCallback callback = glfwSetErrorCallback(null);
+        if (callback != null) {
+            callback.free();
+        }
+    }
+}
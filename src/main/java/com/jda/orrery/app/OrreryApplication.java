@@ -8,7 +8,12 @@ import static org.lwjgl.system.MemoryStack.*;
 import static org.lwjgl.system.MemoryUtil.*;
 
 import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.core.time.FramePacer;
+import com.jda.orrery.domain.astronomy.catalog.StarCatalogConverter;
+import com.jda.orrery.graphics.capture.FrameCapture;
 import com.jda.orrery.graphics.core.FrameController;
+import com.jda.orrery.graphics.core.FrameStatistics;
+import com.jda.orrery.graphics.resources.Shader;
 import java.nio.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -37,11 +42,18 @@ public class OrreryApplication {
     private static final boolean START_FULLSCREEN =
             Boolean.parseBoolean(System.getProperty("orrery.fullscreen", "true"));
 
+    // Set via -Dorrery.vsync=false or -PnoVsync; the frame limiter then paces the loop.
+    private static final boolean VSYNC =
+            Boolean.parseBoolean(System.getProperty("orrery.vsync", "true"));
+
     private long window;
     private ApplicationContext context;
     private FrameController frameController;
     private Thread glThread;
-    private long lastFrameTime;
+    private FramePacer framePacer;
+
+    // Offline frame capture steps time by a fixed delta with vsync and the limiter off
+    private boolean offlineStepping;
 
     // Window mode state for the fullscreen toggle (F11, or Cmd+Ctrl+F on macOS).
     private boolean fullscreen;
@@ -92,7 +104,7 @@ public class OrreryApplication {
             glfwWindowHint(GLFW_OPENGL_DEBUG_CONTEXT, GLFW_TRUE);
         }
 
-        // MSAA disabled - was killing performance on integrated graphics
+        // Default framebuffer stays single-sampled; anti-aliasing is done in post-FX (AntiAliasing)
         glfwWindowHint(GLFW_SAMPLES, 0);
 
         // Start with focus
@@ -147,8 +159,8 @@ public class OrreryApplication {
         // Make OpenGL context current
         glfwMakeContextCurrent(window);
 
-        // Enable v-sync to cap at monitor refresh rate
-        glfwSwapInterval(1); // VSync enabled
+        // V-sync caps at the monitor refresh rate; without it the frame limiter does
+        glfwSwapInterval(VSYNC ? 1 : 0);
 
         // Make window visible
         glfwShowWindow(window);
@@ -180,7 +192,7 @@ public class OrreryApplication {
                 new ApplicationContext.ApplicationConfig(
                         fbWidth[0] > 0 ? fbWidth[0] : INITIAL_WIDTH,
                         fbHeight[0] > 0 ? fbHeight[0] : INITIAL_HEIGHT,
-                        false, // vsync - DISABLED (was causing VSync timing jitter)
+                        VSYNC,
                         DEBUG_MODE,
                         512, // texture cache memory MB
                         2, // texture loader threads
@@ -198,8 +210,9 @@ public class OrreryApplication {
             frameController = context.getFrameController();
             frameController.init(window);
 
-            // Initialize timing
-            lastFrameTime = System.nanoTime();
+            // Limit to the target rate when nothing else paces the loop; -Dorrery.frameLimit
+            // overrides (0 = unlimited)
+            framePacer = FramePacer.fromSystemProperty(config.vsync ? 0.0 : config.targetFPS);
 
             // Warmup phase: Render a few frames to trigger JIT and shader compilation
             LOGGER.info("Running warmup frames...");
@@ -209,6 +222,12 @@ public class OrreryApplication {
                 glfwPollEvents();
             }
             LOGGER.info("Warmup complete");
+            Shader.logLoadSummary();
+
+            FrameCapture capture = context.getFrameCapture();
+            if (capture != null && capture.isAutoStart()) {
+                capture.start();
+            }
 
             LOGGER.info("Application context initialized successfully");
         } catch (Exception e) {
@@ -427,7 +446,11 @@ public class OrreryApplication {
         }
 
         // Swap interval is per-context; some drivers reset it on monitor changes.
-        glfwSwapInterval(1);
+        applySwapInterval();
+    }
+
+    private void applySwapInterval() {
+        glfwSwapInterval(VSYNC && !offlineStepping ? 1 : 0);
     }
 
     private void loop() {
@@ -437,26 +460,46 @@ public class OrreryApplication {
                     "OpenGL calls must be made from the thread that created the context");
         }
 
+        FrameStatistics stats = context.getDrawContext().getFrameStatistics();
+        FrameCapture capture = context.getFrameCapture();
+
         // Run rendering loop until user closes window
         while (!glfwWindowShouldClose(window)) {
+            // Wait for the frame's slot before polling, so input is as fresh as possible. Offline
+            // capture runs unpaced, as fast as rendering and encoding allow.
+            long paceStart = System.nanoTime();
+            if (!offlineStepping) {
+                framePacer.awaitNextFrame();
+            }
+            stats.recordPhase(FrameStatistics.Phase.PACE, System.nanoTime() - paceStart);
+
             // Poll for window events
             glfwPollEvents();
 
-            try {
-                // Calculate delta time
-                long currentTime = System.nanoTime();
-                double deltaTime = (currentTime - lastFrameTime) / 1_000_000_000.0;
-                lastFrameTime = currentTime;
+            // Recording may have started or stopped in the callbacks just polled
+            boolean stepping = capture != null && capture.isOfflineStepping();
+            if (stepping != offlineStepping) {
+                offlineStepping = stepping;
+                applySwapInterval();
+            }
 
-                // Process frame through context (handles time, textures, rendering)
-                context.processFrame(deltaTime);
+            try {
+                // Process frame through context (handles time, textures, rendering), advancing
+                // by the smoothed present interval rather than this iteration's raw delta, or by
+                // exactly one capture frame when recording offline
+                context.processFrame(
+                        stepping ? capture.getFrameSeconds() : framePacer.getDeltaSeconds());
 
                 // glGetError() intentionally disabled in the render loop; debug mode re-enables it.
                 // This synchronous call causes CPU-GPU sync and kills performance (1-5ms per frame)
                 // Using asynchronous debug callbacks instead (see setupDebugCallbacks)
 
-                // Swap buffers
+                // Swap buffers (blocks here under vsync, so it is timed as its own phase)
+                long swapStart = System.nanoTime();
                 glfwSwapBuffers(window);
+                long presented = System.nanoTime();
+                stats.recordPhase(FrameStatistics.Phase.SWAP, presented - swapStart);
+                framePacer.framePresented(presented);
             } catch (Exception e) {
                 LOGGER.log(Level.SEVERE, "Error during render", e);
                 // Continue running unless it's a critical error
@@ -496,6 +539,20 @@ public class OrreryApplication {
         // Set system properties for better macOS compatibility
         System.setProperty("java.awt.headless", "true");
 
+        // Benchmarks: CPU-only with no GL context, or the full renderer in an invisible window;
+        // and the star catalog converter
+        for (String arg : args) {
+            if (HeadlessBenchmark.FLAG.equals(arg)) {
+                System.exit(HeadlessBenchmark.run(args));
+            }
+            if (OffscreenBenchmark.FLAG.equals(arg)) {
+                System.exit(OffscreenBenchmark.run(args));
+            }
+            if (StarCatalogConverter.FLAG.equals(arg)) {
+                System.exit(StarCatalogConverter.run(args));
+            }
+        }
+
         new OrreryApplication().run();
     }
 }
@@ -0,0 +1,155 @@
+package com.jda.orrery.core.time;
+
+import com.jda.orrery.core.logging.Logging;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Frame pacing for the render loop: an optional frame-rate limiter plus smoothed frame deltas
+ * measured from present times.
+ *
+ * Limiter: {@link #awaitNextFrame()} parks the thread until shortly before the next frame is due
+ * and spins on {@link Thread#onSpinWait()} for the rest, so frames start on a fixed schedule
+ * without a core running flat out. The spin window follows how late parks actually wake (timer
+ * granularity differs by OS), between {@link #MIN_SPIN_NANOS} and {@link #MAX_SPIN_NANOS}. The
+ * schedule advances by whole intervals; a loop that falls more than an interval behind restarts it
+ * from now instead of rendering a burst of frames to catch up.
+ *
+ * Deltas: {@link #framePresented(long)} measures the interval between buffer swaps and smooths it
+ * with an exponential average. The smoothed delta also repays, a fraction per frame, the gap
+ * between its running total and the measured one, so simulation time stays locked to wall time
+ * over hours instead of drifting by the smoothing error. Intervals over {@link #HITCH_SECONDS}
+ * (window drags, a sleeping machine) are passed through as-is and restart the average.
+ *
+ * Render-thread confined. No allocation per frame.
+ */
+public final class FramePacer {
+    private static final Logger LOGGER = Logging.logger(FramePacer.class);
+
+    /** Shortest spin before a deadline; parks are never trusted closer than this. */
+    static final long MIN_SPIN_NANOS = 200_000;
+
+    /** Longest spin; beyond this the wake-up lateness is preemption, not timer granularity. */
+    static final long MAX_SPIN_NANOS = 2_000_000;
+
+    /** Weight of the newest present interval in the smoothed delta. */
+    static final double SMOOTHING = 0.1;
+
+    /** Fraction of the accumulated smoothing error paid back each frame. */
+    static final double DRIFT_GAIN = 0.1;
+
+    /** Present intervals longer than this are hitches and bypass the smoothing. */
+    static final double HITCH_SECONDS = 0.25;
+
+    private final long intervalNanos; // 0 = no limit
+
+    private long deadline = 0; // start of the next frame; 0 until the first wait
+    private long spinNanos = 1_000_000;
+    private double lateWakeNanos = 0; // average park overshoot
+
+    private long lastPresentNanos = 0;
+    private double smoothedInterval = 0; // seconds; 0 until the first measured interval
+    private double drift = 0; // measured minus delivered seconds
+    private double deltaSeconds;
+
+    /** @param limitFps frame rate to hold; 0 for no limit (vsync or nothing paces the loop) */
+    public FramePacer(double limitFps) {
+        if (limitFps < 0 || Double.isNaN(limitFps)) {
+            throw new IllegalArgumentException("Frame limit must be 0 or positive: " + limitFps);
+        }
+        this.intervalNanos = limitFps > 0 ? Math.round(1_000_000_000.0 / limitFps) : 0;
+        this.deltaSeconds = limitFps > 0 ? 1.0 / limitFps : 0.0;
+    }
+
+    /** The limit from -Dorrery.frameLimit (0 = none), falling back to the given default. */
+    public static FramePacer fromSystemProperty(double defaultLimitFps) {
+        double limitFps = defaultLimitFps;
+        String override = System.getProperty("orrery.frameLimit");
+        if (override != null) {
+            try {
+                double parsed = Double.parseDouble(override.trim());
+                if (parsed >= 0) {
+                    limitFps = parsed;
+                } else {
+                    LOGGER.warning("Invalid orrery.frameLimit: " + override + "; using default");
+                }
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid orrery.frameLimit: " + override + "; using default");
+            }
+        }
+        LOGGER.info(
+                limitFps > 0
+                        ? String.format("Frame limiter at %.1f FPS", limitFps)
+                        : "Frame limiter off");
+        return new FramePacer(limitFps);
+    }
+
+    /** Block until the next frame is due. Returns at once when there is no limit. */
+    public void awaitNextFrame() {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long remaining = deadline - now;
+        if (deadline == 0 || remaining < -intervalNanos) {
+            // First frame, or more than a frame behind: restart the schedule from here
+            deadline = now + intervalNanos;
+            return;
+        }
+
+        while (remaining > spinNanos) {
+            long park = remaining - spinNanos;
+            LockSupport.parkNanos(park);
+            long woke = System.nanoTime();
+            adaptSpin(woke - now - park);
+            now = woke;
+            remaining = deadline - now;
+        }
+        while (deadline - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+        deadline += intervalNanos;
+    }
+
+    private void adaptSpin(long lateNanos) {
+        // Early wakes (spurious unparks) say nothing about granularity
+        lateWakeNanos += SMOOTHING * (Math.max(0, lateNanos) - lateWakeNanos);
+        spinNanos = spinWindow(lateWakeNanos);
+    }
+
+    /** Spin window for an average park overshoot: twice the overshoot, within the bounds. */
+    static long spinWindow(double lateWakeNanos) {
+        return Math.max(MIN_SPIN_NANOS, Math.min(MAX_SPIN_NANOS, (long) (2 * lateWakeNanos)));
+    }
+
+    /**
+     * Record a buffer swap and update the delta for the next frame.
+     *
+     * @param presentNanos {@link System#nanoTime()} right after the swap returned
+     * @return the smoothed delta in seconds, as {@link #getDeltaSeconds()}
+     */
+    public double framePresented(long presentNanos) {
+        if (lastPresentNanos != 0) {
+            double interval = (presentNanos - lastPresentNanos) / 1_000_000_000.0;
+            if (interval > HITCH_SECONDS) {
+                smoothedInterval = 0; // the next interval seeds the average
+                drift = 0;
+                deltaSeconds = interval;
+            } else if (smoothedInterval == 0) {
+                smoothedInterval = interval;
+                deltaSeconds = interval;
+            } else {
+                smoothedInterval += SMOOTHING * (interval - smoothedInterval);
+                deltaSeconds = Math.max(0, smoothedInterval + DRIFT_GAIN * drift);
+                drift += interval - deltaSeconds;
+            }
+        }
+        lastPresentNanos = presentNanos;
+        return deltaSeconds;
+    }
+
+    /** Delta to simulate the coming frame with: smoothed present interval, in seconds. */
+    public double getDeltaSeconds() {
+        return deltaSeconds;
+    }
+}
@@ -79,6 +79,22 @@ public class TimeManager {
 
         // Calculate real-world delta time (always computed for camera/animation)
         double deltaSeconds = (currentNanos - lastFrameNanos) / 1_000_000_000.0;
+        return advanceTime(currentNanos, deltaSeconds);
+    }
+
+    /**
+     * Advance time by a caller-supplied real-world delta, such as the smoothed present interval from
+     * {@link FramePacer}, instead of the difference between calls. Same clamping and pause
+     * semantics as {@link #advanceTime(long)}; the two may be mixed.
+     *
+     * @param currentNanos Current system time in nanoseconds
+     * @param deltaSeconds Real-world seconds since the previous frame
+     * @return Immutable TimeContext for this frame
+     */
+    public TimeContext advanceTime(long currentNanos, double deltaSeconds) {
+        if (lastFrameNanos == 0) {
+            return advanceTime(currentNanos);
+        }
         lastFrameNanos = currentNanos;
 
         // Clamp delta to prevent huge jumps (e.g., when debugging or computer sleeps)
@@ -0,0 +1,145 @@
+package com.jda.orrery.domain.astronomy.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary star catalog written by {@link StarCatalogConverter}: stars as J2000 equatorial unit
+ * vectors with their visual magnitude and B-V colour index, sorted brightest first. The file is
+ * memory-mapped and its star records are laid out as vertices, so the whole catalog can go to a
+ * vertex buffer in one upload; because of the sort, the stars brighter than any magnitude are a
+ * prefix of it ({@link #countBrighterThan}).
+ *
+ * File layout (native byte order; the file is derived data for this machine): header of 4 ints
+ * (magic, version, star count, reserved), then per star 5 floats: x, y, z, magnitude, B-V.
+ */
+public final class StarCatalog {
+    public static final int FORMAT_VERSION = 1;
+
+    public static final int FLOATS_PER_STAR = 5;
+    public static final int STAR_BYTES = FLOATS_PER_STAR * Float.BYTES;
+
+    static final int MAGIC = 0x4F525354; // "ORST"
+    static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+    private static final int MAGNITUDE = 3;
+
+    private final ByteBuffer stars;
+    private final int count;
+
+    private StarCatalog(ByteBuffer stars, int count) {
+        this.stars = stars;
+        this.count = count;
+    }
+
+    /** Catalog location from -Dorrery.starCatalog, default ~/.cache/orrery/stars.bin. */
+    public static Path defaultPath() {
+        String path = System.getProperty("orrery.starCatalog");
+        if (path != null && !path.isEmpty()) {
+            return Paths.get(path);
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "orrery", "stars.bin");
+    }
+
+    /**
+     * Map a catalog file.
+     *
+     * @throws IOException if the file cannot be read, or is truncated or not a catalog of this
+     *     {@link #FORMAT_VERSION}
+     */
+    public static StarCatalog open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Truncated star catalog " + file);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            map.order(ByteOrder.nativeOrder());
+
+            int count = map.getInt(2 * Integer.BYTES);
+            if (map.getInt(0) != MAGIC || map.getInt(Integer.BYTES) != FORMAT_VERSION) {
+                throw new IOException("Not a version " + FORMAT_VERSION + " star catalog: " + file);
+            }
+            if (count < 0 || size != HEADER_BYTES + (long) count * STAR_BYTES) {
+                throw new IOException("Star catalog size does not match its count: " + file);
+            }
+            map.position(HEADER_BYTES);
+            return new StarCatalog(map.slice().order(ByteOrder.nativeOrder()), count);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /** The star records, brightest first, as a direct buffer positioned at the first star. */
+    public ByteBuffer getStarData() {
+        return stars.duplicate().order(ByteOrder.nativeOrder());
+    }
+
+    public float getMagnitude(int index) {
+        return stars.getFloat(index * STAR_BYTES + MAGNITUDE * Float.BYTES);
+    }
+
+    /** Number of stars with magnitude at most {@code magnitude}: the drawn prefix. */
+    public int countBrighterThan(float magnitude) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getMagnitude(mid) <= magnitude) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Write a catalog through a temporary file and a rename.
+     *
+     * @param records {@code count} star records of {@link #FLOATS_PER_STAR} floats, already
+     *     sorted by magnitude
+     */
+    static void write(Path file, float[] records, int count) throws IOException {
+        ByteBuffer header =
+                ByteBuffer.allocate(HEADER_BYTES)
+                        .order(ByteOrder.nativeOrder())
+                        .putInt(MAGIC)
+                        .putInt(FORMAT_VERSION)
+                        .putInt(count)
+                        .putInt(0);
+        header.flip();
+        ByteBuffer body = ByteBuffer.allocate(count * STAR_BYTES).order(ByteOrder.nativeOrder());
+        FloatBuffer floats = body.asFloatBuffer();
+        floats.put(records, 0, count * FLOATS_PER_STAR);
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining() || body.hasRemaining()) {
+                    channel.write(new ByteBuffer[] {header, body});
+                }
+            }
+            Files.move(
+                    temp,
+                    file,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.jda.orrery.domain.astronomy.catalog;
+
+import com.jda.orrery.core.logging.Logging;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Converts a star catalog CSV into a {@link StarCatalog} file. Run with {@code --convert-stars
+ * --in=catalog.csv [--out=stars.bin] [--max-mag=11]} (the convertStars Gradle task).
+ *
+ * Columns are found by header name (case-insensitive), which covers HYG and Tycho-2 exports:
+ *
+ * <ul>
+ *   <li>Right ascension: {@code ra} in hours (HYG), or in degrees as {@code radeg}, {@code
+ *       ra_deg}, {@code ramdeg}, {@code raj2000}, {@code _raj2000} or {@code ra_icrs}.
+ *   <li>Declination in degrees: {@code dec}, {@code de}, {@code dedeg}, {@code dec_deg}, {@code
+ *       demdeg}, {@code dej2000}, {@code _dej2000} or {@code de_icrs}.
+ *   <li>Visual magnitude: {@code mag}, {@code vmag} or {@code v}; or Tycho {@code vtmag}, with
+ *       {@code btmag} converted to Johnson V.
+ *   <li>Colour index: {@code ci}, {@code b-v}, {@code bv} or {@code b_v}; or from BT - VT. Stars
+ *       without one get {@link #DEFAULT_COLOR_INDEX}.
+ * </ul>
+ *
+ * Rows missing a position or magnitude are skipped, as are the Sun (HYG row 0) and stars fainter
+ * than the magnitude cap. Positions are taken as J2000; proper motion is ignored.
+ */
+public final class StarCatalogConverter {
+    private static final Logger LOGGER = Logging.logger(StarCatalogConverter.class);
+
+    public static final String FLAG = "--convert-stars";
+
+    static final float DEFAULT_MAX_MAGNITUDE = 11.0f;
+
+    /** Roughly solar, for stars without photometry. */
+    static final float DEFAULT_COLOR_INDEX = 0.65f;
+
+    /** Anything brighter than this is the Sun, not a star. */
+    private static final float BRIGHTEST_STAR = -5.0f;
+
+    private static final List<String> RA_HOURS = List.of("ra");
+    private static final List<String> RA_DEGREES =
+            List.of("radeg", "ra_deg", "ramdeg", "raj2000", "_raj2000", "ra_icrs");
+    private static final List<String> DEC_DEGREES =
+            List.of("dec", "de", "dedeg", "dec_deg", "demdeg", "dej2000", "_dej2000", "de_icrs");
+    private static final List<String> MAGNITUDE = List.of("mag", "vmag", "v");
+    private static final List<String> COLOR_INDEX = List.of("ci", "b-v", "bv", "b_v");
+
+    private StarCatalogConverter() {}
+
+    public static int run(String[] args) {
+        Path in = null;
+        Path out = StarCatalog.defaultPath();
+        float maxMagnitude = DEFAULT_MAX_MAGNITUDE;
+        for (String arg : args) {
+            if (arg.startsWith("--in=")) {
+                in = Paths.get(arg.substring(5));
+            } else if (arg.startsWith("--out=")) {
+                out = Paths.get(arg.substring(6));
+            } else if (arg.startsWith("--max-mag=")) {
+                try {
+                    maxMagnitude = Float.parseFloat(arg.substring(10));
+                } catch (NumberFormatException e) {
+                    LOGGER.warning("Invalid " + arg + "; using " + maxMagnitude);
+                }
+            } else if (!arg.equals(FLAG)) {
+                LOGGER.warning("Ignoring unknown converter argument: " + arg);
+            }
+        }
+        if (in == null) {
+            LOGGER.severe("--in=<catalog.csv> is required");
+            return 2;
+        }
+
+        long start = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(in, StandardCharsets.UTF_8)) {
+            int count = convert(reader, out, maxMagnitude);
+            LOGGER.info(
+                    String.format(
+                            "Wrote %d stars (V <= %.1f) to %s in %.1fs",
+                            count, maxMagnitude, out, (System.nanoTime() - start) / 1e9));
+            return 0;
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.severe("Star catalog conversion failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Convert CSV text to a catalog file.
+     *
+     * @return the number of stars written
+     * @throws IllegalArgumentException if the header lacks a position or magnitude column
+     */
+    static int convert(BufferedReader reader, Path out, float maxMagnitude) throws IOException {
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("empty catalog");
+        }
+        List<String> header = new ArrayList<>();
+        for (String name : splitCsv(headerLine)) {
+            header.add(name.trim().toLowerCase(Locale.ROOT));
+        }
+
+        int raHours = find(header, RA_HOURS);
+        int raDegrees = find(header, RA_DEGREES);
+        int dec = find(header, DEC_DEGREES);
+        int vMag = find(header, MAGNITUDE);
+        int vtMag = header.indexOf("vtmag");
+        int btMag = header.indexOf("btmag");
+        int colorIndex = find(header, COLOR_INDEX);
+        if ((raHours < 0 && raDegrees < 0) || dec < 0 || (vMag < 0 && vtMag < 0)) {
+            throw new IllegalArgumentException(
+                    "catalog header needs right ascension, declination and magnitude columns: "
+                            + headerLine);
+        }
+
+        float[] records = new float[1 << 16];
+        int count = 0;
+        int skipped = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            String[] fields = splitCsv(line);
+            double ra =
+                    raDegrees >= 0
+                            ? Math.toRadians(parse(fields, raDegrees))
+                            : parse(fields, raHours) * (Math.PI / 12.0);
+            double declination = Math.toRadians(parse(fields, dec));
+
+            float magnitude;
+            float color = (float) parse(fields, colorIndex);
+            if (vMag >= 0) {
+                magnitude = (float) parse(fields, vMag);
+            } else {
+                // Tycho BT/VT to Johnson V and B-V (ESA 1997, Hipparcos and Tycho Catalogues)
+                float vt = (float) parse(fields, vtMag);
+                float bt = (float) parse(fields, btMag);
+                if (Float.isNaN(bt)) {
+                    magnitude = vt;
+                } else {
+                    magnitude = vt - 0.090f * (bt - vt);
+                    if (Float.isNaN(color)) {
+                        color = 0.850f * (bt - vt);
+                    }
+                }
+            }
+            if (Double.isNaN(ra) || Double.isNaN(declination) || Float.isNaN(magnitude)) {
+                skipped++;
+                continue;
+            }
+            if (magnitude < BRIGHTEST_STAR || magnitude > maxMagnitude) {
+                continue;
+            }
+
+            if ((count + 1) * StarCatalog.FLOATS_PER_STAR > records.length) {
+                records = Arrays.copyOf(records, records.length * 2);
+            }
+            int base = count * StarCatalog.FLOATS_PER_STAR;
+            double cosDec = Math.cos(declination);
+            records[base] = (float) (cosDec * Math.cos(ra));
+            records[base + 1] = (float) (cosDec * Math.sin(ra));
+            records[base + 2] = (float) Math.sin(declination);
+            records[base + 3] = magnitude;
+            records[base + 4] = Float.isNaN(color) ? DEFAULT_COLOR_INDEX : color;
+            count++;
+        }
+        if (skipped > 0) {
+            LOGGER.info("Skipped " + skipped + " rows without a position or magnitude");
+        }
+
+        StarCatalog.write(out, sortByMagnitude(records, count), count);
+        return count;
+    }
+
+    /** Records reordered brightest first; equal magnitudes keep their input order. */
+    static float[] sortByMagnitude(float[] records, int count) {
+        // Key: magnitude as an order-preserving int in the high word, input index in the low
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            int bits = Float.floatToIntBits(records[i * StarCatalog.FLOATS_PER_STAR + 3]);
+            bits ^= (bits >> 31) & 0x7FFFFFFF;
+            keys[i] = ((long) bits << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        float[] sorted = new float[count * StarCatalog.FLOATS_PER_STAR];
+        for (int i = 0; i < count; i++) {
+            int from = (int) keys[i] * StarCatalog.FLOATS_PER_STAR;
+            System.arraycopy(
+                    records,
+                    from,
+                    sorted,
+                    i * StarCatalog.FLOATS_PER_STAR,
+                    StarCatalog.FLOATS_PER_STAR);
+        }
+        return sorted;
+    }
+
+    private static int find(List<String> header, List<String> names) {
+        for (String name : names) {
+            int index = header.indexOf(name);
+            if (index >= 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /** The field as a number, or NaN if the column is absent or the field empty or malformed. */
+    private static double parse(String[] fields, int column) {
+        if (column < 0 || column >= fields.length) {
+            return Double.NaN;
+        }
+        String field = fields[column].trim();
+        if (field.isEmpty()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(field);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /** Split one CSV line, honouring double-quoted fields (HYG quotes names with commas). */
+    static String[] splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,378 @@
+package com.jda.orrery.graphics.capture;
+
+import static org.lwjgl.opengl.GL11.GL_BACK;
+import static org.lwjgl.opengl.GL11.GL_RGBA;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL11.glReadBuffer;
+import static org.lwjgl.opengl.GL11.glReadPixels;
+import static org.lwjgl.opengl.GL15.GL_STREAM_READ;
+import static org.lwjgl.opengl.GL15.glBindBuffer;
+import static org.lwjgl.opengl.GL15.glBufferData;
+import static org.lwjgl.opengl.GL15.glDeleteBuffers;
+import static org.lwjgl.opengl.GL15.glGenBuffers;
+import static org.lwjgl.opengl.GL15.glUnmapBuffer;
+import static org.lwjgl.opengl.GL21.GL_PIXEL_PACK_BUFFER;
+import static org.lwjgl.opengl.GL30.GL_MAP_READ_BIT;
+import static org.lwjgl.opengl.GL30.GL_READ_FRAMEBUFFER;
+import static org.lwjgl.opengl.GL30.glMapBufferRange;
+import static org.lwjgl.opengl.GL32.GL_ALREADY_SIGNALED;
+import static org.lwjgl.opengl.GL32.GL_CONDITION_SATISFIED;
+import static org.lwjgl.opengl.GL32.GL_SYNC_FLUSH_COMMANDS_BIT;
+import static org.lwjgl.opengl.GL32.GL_SYNC_GPU_COMMANDS_COMPLETE;
+import static org.lwjgl.opengl.GL32.GL_TIMEOUT_EXPIRED;
+import static org.lwjgl.opengl.GL32.glClientWaitSync;
+import static org.lwjgl.opengl.GL32.glDeleteSync;
+import static org.lwjgl.opengl.GL32.glFenceSync;
+import static org.lwjgl.system.MemoryUtil.memAddress;
+import static org.lwjgl.system.MemoryUtil.memCopy;
+
+import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.graphics.core.GLState;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Records the presented frames to a numbered PNG sequence without stalling the render loop.
+ *
+ * Each captured frame's back buffer (the tonemapped, anti-aliased output) is read into one of a
+ * ring of {@link #RING_SIZE} pixel pack buffers with an asynchronous glReadPixels and a fence. A
+ * readback is mapped once it is {@link #MAP_LATENCY} frames old and its fence has signalled, by
+ * which time the GPU has long finished with it; the pixels are copied into a pooled buffer and
+ * encoded on {@link FrameEncoder}'s worker threads. Only a full ring waits on a fence.
+ *
+ * Realtime capture drops a frame when every encoder buffer is busy. Offline capture
+ * (-Dorrery.captureOffline) drops nothing: the render loop advances time by exactly 1 / fps per
+ * frame regardless of the wall clock, without vsync or the frame limiter, and waits for the
+ * encoders when they fall behind, so the sequence plays back at the capture rate and recording
+ * runs as fast as rendering and encoding allow.
+ *
+ * Frames go to {@code capture-<millis>/frame-NNNNNN.png}, numbered without gaps, under
+ * -Dorrery.captureDir (default {@code capture}). -Dorrery.captureFps sets the rate (default 60),
+ * -Dorrery.captureFrames stops after that many frames (default 0, until toggled off),
+ * -Dorrery.capture=true starts recording at launch and -Dorrery.captureThreads sets the encoder
+ * count.
+ */
+public final class FrameCapture {
+    private static final Logger LOGGER = Logging.logger(FrameCapture.class);
+
+    /** Readbacks in flight. */
+    static final int RING_SIZE = 3;
+
+    /** Frames between a readback and its mapping. */
+    static final int MAP_LATENCY = 2;
+
+    static final double DEFAULT_FPS = 60.0;
+
+    private static final long FENCE_TIMEOUT_NANOS = 1_000_000_000L;
+
+    private final Path baseDirectory;
+    private final double fps;
+    private final boolean offline;
+    private final int frameLimit; // 0 = until stopped
+    private final boolean autoStart;
+    private final int encoderThreads;
+
+    private final ReadbackRing ring = new ReadbackRing(RING_SIZE);
+    private final int[] buffers = new int[RING_SIZE];
+    private final long[] fences = new long[RING_SIZE];
+    private int width = 0;
+    private int height = 0;
+    private ByteBuffer mapping; // reused view of the mapped buffer
+    private FrameEncoder encoder; // created on first start
+
+    // Current recording
+    private boolean recording = false;
+    private Path directory;
+    private long frameIndex; // frames read back
+    private long delivered; // frames handed to the encoder, numbering the files
+    private long dropped;
+    private long stalls;
+    private long startNanos;
+
+    public FrameCapture(
+            Path baseDirectory,
+            double fps,
+            boolean offline,
+            int frameLimit,
+            boolean autoStart,
+            int encoderThreads) {
+        if (!(fps > 0)) {
+            throw new IllegalArgumentException("Capture rate must be positive: " + fps);
+        }
+        this.baseDirectory = baseDirectory;
+        this.fps = fps;
+        this.offline = offline;
+        this.frameLimit = Math.max(0, frameLimit);
+        this.autoStart = autoStart;
+        this.encoderThreads = Math.max(1, encoderThreads);
+    }
+
+    /** Settings from the -Dorrery.capture* properties (see the class comment). */
+    public static FrameCapture fromSystemProperties() {
+        double fps = DEFAULT_FPS;
+        String override = System.getProperty("orrery.captureFps");
+        if (override != null) {
+            try {
+                double parsed = Double.parseDouble(override.trim());
+                if (parsed > 0) {
+                    fps = parsed;
+                } else {
+                    LOGGER.warning("orrery.captureFps must be positive: " + override);
+                }
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid orrery.captureFps: " + override);
+            }
+        }
+        return new FrameCapture(
+                Paths.get(System.getProperty("orrery.captureDir", "capture")),
+                fps,
+                Boolean.parseBoolean(System.getProperty("orrery.captureOffline", "false")),
+                intProperty("orrery.captureFrames", 0),
+                Boolean.parseBoolean(System.getProperty("orrery.capture", "false")),
+                intProperty(
+                        "orrery.captureThreads",
+                        Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+    }
+
+    private static int intProperty(String name, int fallback) {
+        String override = System.getProperty(name);
+        if (override != null) {
+            try {
+                return Integer.parseInt(override.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid " + name + ": " + override);
+            }
+        }
+        return fallback;
+    }
+
+    /** File name of a frame within its sequence. */
+    static String frameFileName(long frame) {
+        return String.format(Locale.ROOT, "frame-%06d.png", frame);
+    }
+
+    /** Whether recording should start as soon as the application is up (-Dorrery.capture). */
+    public boolean isAutoStart() {
+        return autoStart;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * True while an offline recording runs: the render loop must then advance time by {@link
+     * #getFrameSeconds()} per frame, unpaced.
+     */
+    public boolean isOfflineStepping() {
+        return recording && offline;
+    }
+
+    /** Frame delta for offline stepping, 1 / fps (scaled by the simulation speed as usual). */
+    public double getFrameSeconds() {
+        return 1.0 / fps;
+    }
+
+    public void toggle() {
+        if (recording) {
+            stop();
+        } else {
+            start();
+        }
+    }
+
+    /** Start a new sequence in a fresh directory. */
+    public void start() {
+        if (recording) {
+            return;
+        }
+        Path target = baseDirectory.resolve("capture-" + System.currentTimeMillis());
+        try {
+            Files.createDirectories(target);
+        } catch (IOException e) {
+            LOGGER.warning("Cannot create capture directory " + target + ": " + e.getMessage());
+            return;
+        }
+        if (encoder == null) {
+            encoder = new FrameEncoder(encoderThreads, encoderThreads + RING_SIZE);
+        }
+        directory = target;
+        frameIndex = 0;
+        delivered = 0;
+        dropped = 0;
+        stalls = 0;
+        startNanos = System.nanoTime();
+        recording = true;
+        LOGGER.info(
+                String.format(
+                        Locale.ROOT,
+                        "Recording to %s at %.0f fps%s",
+                        directory,
+                        fps,
+                        offline ? " (offline, fixed timestep)" : ""));
+    }
+
+    /** Stop recording; readbacks still in flight are waited for and queued for encoding. */
+    public void stop() {
+        if (!recording) {
+            return;
+        }
+        while (ring.pending() > 0) {
+            retireOldest(true);
+        }
+        recording = false;
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        LOGGER.info(
+                String.format(
+                        Locale.ROOT,
+                        "Stopped recording: %d frames to %s in %.1fs (%.1f fps), %d dropped,"
+                                + " %d readback waits",
+                        delivered,
+                        directory,
+                        seconds,
+                        seconds > 0 ? delivered / seconds : 0.0,
+                        dropped,
+                        stalls));
+    }
+
+    /**
+     * Capture the frame just rendered to the default framebuffer. Call after the frame is drawn
+     * and before the buffer swap; does nothing unless recording.
+     *
+     * @param frameWidth framebuffer width in pixels
+     * @param frameHeight framebuffer height in pixels
+     */
+    public void captureFrame(int frameWidth, int frameHeight) {
+        if (!recording || frameWidth <= 0 || frameHeight <= 0) {
+            return;
+        }
+        if (frameWidth != width || frameHeight != height) {
+            while (ring.pending() > 0) {
+                retireOldest(true);
+            }
+            allocate(frameWidth, frameHeight);
+        }
+
+        // Map readbacks old enough to have finished; a full ring has to wait for its oldest
+        while (ring.pending() > 0) {
+            boolean full = ring.isFull();
+            if (!full && ring.oldestFrame() > frameIndex - MAP_LATENCY) {
+                break;
+            }
+            if (!retireOldest(full)) {
+                break;
+            }
+        }
+
+        int slot = ring.issue(frameIndex++);
+        GLState.bindFramebuffer(GL_READ_FRAMEBUFFER, 0);
+        glReadBuffer(GL_BACK);
+        glBindBuffer(GL_PIXEL_PACK_BUFFER, buffers[slot]);
+        glReadPixels(0, 0, width, height, GL_RGBA, GL_UNSIGNED_BYTE, 0L);
+        glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+        fences[slot] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+
+        if (frameLimit > 0 && frameIndex >= frameLimit) {
+            stop();
+        }
+    }
+
+    private void allocate(int frameWidth, int frameHeight) {
+        deleteBuffers();
+        long bytes = (long) frameWidth * frameHeight * 4;
+        for (int i = 0; i < RING_SIZE; i++) {
+            buffers[i] = glGenBuffers();
+            glBindBuffer(GL_PIXEL_PACK_BUFFER, buffers[i]);
+            glBufferData(GL_PIXEL_PACK_BUFFER, bytes, GL_STREAM_READ);
+        }
+        glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+        width = frameWidth;
+        height = frameHeight;
+        mapping = null;
+    }
+
+    /**
+     * Map the oldest readback and hand its pixels to the encoder.
+     *
+     * @param wait block on the readback's fence; otherwise give up if it has not signalled
+     * @return false if not waiting and the readback is still in progress
+     */
+    private boolean retireOldest(boolean wait) {
+        int slot = ring.oldest();
+        int status =
+                wait
+                        ? glClientWaitSync(
+                                fences[slot], GL_SYNC_FLUSH_COMMANDS_BIT, FENCE_TIMEOUT_NANOS)
+                        : glClientWaitSync(fences[slot], 0, 0L);
+        if (!wait && status == GL_TIMEOUT_EXPIRED) {
+            return false;
+        }
+        if (status == GL_CONDITION_SATISFIED) {
+            stalls++;
+        }
+        if (status == GL_ALREADY_SIGNALED || status == GL_CONDITION_SATISFIED) {
+            deliver(slot);
+        } else {
+            LOGGER.warning("Readback of frame " + ring.oldestFrame() + " timed out; dropped");
+            dropped++;
+        }
+        glDeleteSync(fences[slot]);
+        fences[slot] = 0;
+        ring.retire();
+        return true;
+    }
+
+    private void deliver(int slot) {
+        int bytes = width * height * 4;
+        // Take the encoder buffer before mapping, so a wait for one never holds a mapping
+        ByteBuffer pixels = encoder.acquire(bytes, offline);
+        if (pixels == null) {
+            dropped++;
+            return;
+        }
+        glBindBuffer(GL_PIXEL_PACK_BUFFER, buffers[slot]);
+        mapping = glMapBufferRange(GL_PIXEL_PACK_BUFFER, 0, bytes, GL_MAP_READ_BIT, mapping);
+        if (mapping != null) {
+            memCopy(memAddress(mapping), memAddress(pixels), bytes);
+            glUnmapBuffer(GL_PIXEL_PACK_BUFFER);
+            encoder.submit(pixels, width, height, directory.resolve(frameFileName(delivered++)));
+        } else {
+            encoder.release(pixels);
+            dropped++;
+        }
+        glBindBuffer(GL_PIXEL_PACK_BUFFER, 0);
+    }
+
+    private void deleteBuffers() {
+        for (int i = 0; i < RING_SIZE; i++) {
+            if (buffers[i] != 0) {
+                glDeleteBuffers(buffers[i]);
+                buffers[i] = 0;
+            }
+        }
+    }
+
+    /** Stop any recording, wait for its encodes to finish and free the buffers. */
+    public void dispose() {
+        stop();
+        deleteBuffers();
+        width = 0;
+        height = 0;
+        if (encoder != null) {
+            encoder.close();
+            LOGGER.info(
+                    "Frame capture wrote "
+                            + encoder.getWritten()
+                            + " frames"
+                            + (encoder.getFailed() > 0
+                                    ? " (" + encoder.getFailed() + " failed)"
+                                    : ""));
+            encoder = null;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.jda.orrery.graphics.capture;
+
+import static org.lwjgl.stb.STBImageWrite.stbi_flip_vertically_on_write;
+import static org.lwjgl.stb.STBImageWrite.stbi_write_png;
+import static org.lwjgl.system.MemoryUtil.memAlloc;
+import static org.lwjgl.system.MemoryUtil.memFree;
+import static org.lwjgl.system.MemoryUtil.memRealloc;
+
+import com.jda.orrery.core.logging.Logging;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * PNG encoding off the render thread: worker threads write frames with stb_image_write from a pool
+ * of direct pixel buffers that the render thread fills and the workers hand back. The pool bounds
+ * the frames queued; with every buffer taken the render thread either waits for one (offline
+ * capture) or drops the frame.
+ *
+ * Pixels are RGBA8 rows bottom-up, as glReadPixels returns them; stb flips them on write.
+ */
+final class FrameEncoder {
+    private static final Logger LOGGER = Logging.logger(FrameEncoder.class);
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 60;
+
+    private final ExecutorService workers;
+    private final BlockingQueue<ByteBuffer> free;
+    private final int poolSize;
+    private int allocated = 0; // render thread only
+
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    /**
+     * @param threads encoder threads
+     * @param buffers pixel buffers in the pool; frames queued or being encoded at most
+     */
+    FrameEncoder(int threads, int buffers) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers =
+                Executors.newFixedThreadPool(
+                        threads,
+                        runnable -> {
+                            Thread thread =
+                                    new Thread(
+                                            runnable,
+                                            "frame-encoder-" + threadIndex.incrementAndGet());
+                            thread.setDaemon(true);
+                            thread.setPriority(Thread.NORM_PRIORITY - 1);
+                            return thread;
+                        });
+        this.free = new ArrayBlockingQueue<>(buffers);
+        this.poolSize = buffers;
+        stbi_flip_vertically_on_write(true);
+    }
+
+    /**
+     * A pixel buffer of {@code bytes} for the next frame; allocated until the pool is full, then
+     * recycled from finished encodes.
+     *
+     * @param wait block until a buffer is free rather than return null
+     * @return the buffer, limited to {@code bytes}, or null if none is free (or the wait was
+     *     interrupted)
+     */
+    ByteBuffer acquire(int bytes, boolean wait) {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null && allocated < poolSize) {
+            allocated++;
+            buffer = memAlloc(bytes);
+        } else if (buffer == null && wait) {
+            try {
+                buffer = free.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        if (buffer == null) {
+            return null;
+        }
+        if (buffer.capacity() < bytes) {
+            buffer = memRealloc(buffer, bytes);
+        }
+        buffer.clear().limit(bytes);
+        return buffer;
+    }
+
+    /** Return an acquired buffer that was not submitted. */
+    void release(ByteBuffer buffer) {
+        free.offer(buffer);
+    }
+
+    /** Queue a filled buffer for encoding to {@code file}; the buffer returns to the pool after. */
+    void submit(ByteBuffer pixels, int width, int height, Path file) {
+        workers.execute(
+                () -> {
+                    try {
+                        if (stbi_write_png(file.toString(), width, height, 4, pixels, width * 4)) {
+                            written.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                            LOGGER.warning("Failed to write " + file);
+                        }
+                    } finally {
+                        free.offer(pixels);
+                    }
+                });
+    }
+
+    /** Frames encoded to disk so far. */
+    int getWritten() {
+        return written.get();
+    }
+
+    /** Frames whose PNG could not be written. */
+    int getFailed() {
+        return failed.get();
+    }
+
+    /** Finish the queued encodes and free the buffer pool. */
+    void close() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warning("Frame encoder still busy after " + CLOSE_TIMEOUT_SECONDS + "s");
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        ByteBuffer buffer;
+        while ((buffer = free.poll()) != null) {
+            memFree(buffer);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.jda.orrery.graphics.capture;
+
+/**
+ * Slot bookkeeping for a ring of in-flight readbacks: slots are issued in order, each remembering
+ * the frame it holds, and retired oldest first. Holds no GL objects; {@link FrameCapture} keeps a
+ * pixel buffer and a fence per slot.
+ */
+final class ReadbackRing {
+    private final long[] frames;
+    private int next = 0; // slot the next issue takes
+    private int pending = 0;
+
+    ReadbackRing(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Ring size must be positive: " + size);
+        }
+        this.frames = new long[size];
+    }
+
+    int size() {
+        return frames.length;
+    }
+
+    /** Readbacks issued and not yet retired. */
+    int pending() {
+        return pending;
+    }
+
+    boolean isFull() {
+        return pending == frames.length;
+    }
+
+    /**
+     * Claim the next slot for a frame's readback.
+     *
+     * @throws IllegalStateException if every slot is in flight
+     */
+    int issue(long frame) {
+        if (isFull()) {
+            throw new IllegalStateException("All " + frames.length + " readback slots in flight");
+        }
+        int slot = next;
+        frames[slot] = frame;
+        next = (next + 1) % frames.length;
+        pending++;
+        return slot;
+    }
+
+    /** Slot of the oldest readback in flight, or -1 if none. */
+    int oldest() {
+        return pending == 0 ? -1 : (next - pending + frames.length) % frames.length;
+    }
+
+    /** Frame held by the oldest slot; only meaningful while {@link #pending()} is positive. */
+    long oldestFrame() {
+        return frames[oldest()];
+    }
+
+    /** Retire the oldest readback, freeing its slot. */
+    void retire() {
+        if (pending == 0) {
+            throw new IllegalStateException("No readback in flight");
+        }
+        pending--;
+    }
+}
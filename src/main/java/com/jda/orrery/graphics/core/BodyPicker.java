@@ -0,0 +1,328 @@
+package com.jda.orrery.graphics.core;
+
+import com.jda.orrery.domain.astronomy.CelestialBody;
+import com.jda.orrery.graphics.api.View;
+import java.util.Arrays;
+import org.joml.Matrix3dc;
+import org.joml.Matrix4d;
+import org.joml.Vector3d;
+
+/**
+ * CPU ray picking against the bodies drawn this frame. The renderer records each body's visual
+ * ellipsoid and ring annulus as it builds the body's transform, in the same camera-relative render
+ * space and double precision; a pick casts a ray from the cursor through the {@link View} and
+ * returns the nearest surface it crosses. Nothing is read back from the GPU, so a pick costs a
+ * few microseconds and can run every frame for hover.
+ *
+ * Each body also carries a bounding sphere (the ellipsoid widened to the ring extent): the ray is
+ * tested against the spheres first and only the bodies it passes through get the exact ellipsoid
+ * and ring-plane tests. A body too small on screen to hit is still picked when the ray passes
+ * within the caller's angular tolerance of its disc.
+ *
+ * Zero allocation once the body list has reached its size; the returned {@link Hit} is reused.
+ */
+public final class BodyPicker {
+
+    /** The nearest body under the ray. Reused: valid until the next pick. */
+    public static final class Hit {
+        private CelestialBody body;
+        private int index;
+        private double distance;
+        private boolean ring;
+        private boolean exact;
+
+        /** The picked body, as recorded by the renderer. */
+        public CelestialBody getBody() {
+            return body;
+        }
+
+        /** Position of the body in this frame's recording order. */
+        public int getIndex() {
+            return index;
+        }
+
+        /** Ray distance to the surface hit, or to the body's centre for a near miss. */
+        public double getDistance() {
+            return distance;
+        }
+
+        /** True if the ray hit the ring annulus rather than the body. */
+        public boolean isRing() {
+            return ring;
+        }
+
+        /** False for a body picked only by the angular tolerance. */
+        public boolean isExact() {
+            return exact;
+        }
+    }
+
+    // Per-body record layout in volumes[]
+    private static final int CX = 0; // centre, render space relative to the ray frame
+    private static final int R = 3; // body X, Y, Z axes in render space (9)
+    private static final int EQUATORIAL = 12;
+    private static final int POLAR = 13;
+    private static final int RING_INNER = 14; // in equatorial radii
+    private static final int RING_OUTER = 15;
+    private static final int BOUND = 16;
+    private static final int STRIDE = 17;
+
+    private CelestialBody[] bodies = new CelestialBody[16];
+    private double[] volumes = new double[16 * STRIDE];
+    private int count = 0;
+
+    // Ray: origin and unit direction in render space
+    private double originX, originY, originZ;
+    private double dirX, dirY, dirZ = -1.0;
+
+    private final Matrix4d viewMatrix = new Matrix4d();
+    private final Matrix4d inverseViewProjection = new Matrix4d();
+    private final Vector3d nearPoint = new Vector3d();
+    private final Vector3d farPoint = new Vector3d();
+    private final Hit hit = new Hit();
+
+    /** Forget last frame's bodies. */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Record a body's pick volume.
+     *
+     * @param x body centre in render space (camera-relative when the renderer is)
+     * @param bodyToRender body-fixed to render rotation (spin axis = body Z), or null for axes
+     *     aligned with render space
+     * @param equatorialRadius visual equatorial radius
+     * @param polarRadius visual polar radius
+     * @param ringInner inner ring radius in equatorial radii (0 without rings)
+     * @param ringOuter outer ring radius in equatorial radii (0 without rings)
+     */
+    public void add(
+            CelestialBody body,
+            double x,
+            double y,
+            double z,
+            Matrix3dc bodyToRender,
+            double equatorialRadius,
+            double polarRadius,
+            double ringInner,
+            double ringOuter) {
+        if (count == bodies.length) {
+            bodies = Arrays.copyOf(bodies, count * 2);
+            volumes = Arrays.copyOf(volumes, count * 2 * STRIDE);
+        }
+        bodies[count] = body;
+        int base = count * STRIDE;
+        double[] v = volumes;
+        v[base + CX] = x;
+        v[base + CX + 1] = y;
+        v[base + CX + 2] = z;
+        if (bodyToRender != null) {
+            v[base + R] = bodyToRender.m00();
+            v[base + R + 1] = bodyToRender.m01();
+            v[base + R + 2] = bodyToRender.m02();
+            v[base + R + 3] = bodyToRender.m10();
+            v[base + R + 4] = bodyToRender.m11();
+            v[base + R + 5] = bodyToRender.m12();
+            v[base + R + 6] = bodyToRender.m20();
+            v[base + R + 7] = bodyToRender.m21();
+            v[base + R + 8] = bodyToRender.m22();
+        } else {
+            Arrays.fill(v, base + R, base + R + 9, 0.0);
+            v[base + R] = 1.0;
+            v[base + R + 4] = 1.0;
+            v[base + R + 8] = 1.0;
+        }
+        v[base + EQUATORIAL] = equatorialRadius;
+        v[base + POLAR] = polarRadius;
+        v[base + RING_INNER] = ringOuter > 0.0 ? ringInner : 0.0;
+        v[base + RING_OUTER] = ringOuter;
+        v[base + BOUND] =
+                Math.max(Math.max(equatorialRadius, polarRadius), ringOuter * equatorialRadius);
+        count++;
+    }
+
+    /** Bodies recorded this frame. */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Cast the ray through a point of the view, in normalized device coordinates (x right, y up,
+     * both -1..1), by unprojecting it onto the near plane and the depth midpoint.
+     *
+     * @return false if the view's matrices cannot be inverted
+     */
+    public boolean setRay(View view, double ndcX, double ndcY) {
+        view.fillViewMatrixDouble(viewMatrix);
+        view.fillProjectionMatrixDouble(inverseViewProjection);
+        inverseViewProjection.mul(viewMatrix).invert();
+        if (!inverseViewProjection.isFinite()) {
+            return false;
+        }
+        inverseViewProjection.transformProject(ndcX, ndcY, -1.0, nearPoint);
+        inverseViewProjection.transformProject(ndcX, ndcY, 0.0, farPoint);
+        setRay(
+                nearPoint.x,
+                nearPoint.y,
+                nearPoint.z,
+                farPoint.x - nearPoint.x,
+                farPoint.y - nearPoint.y,
+                farPoint.z - nearPoint.z);
+        return true;
+    }
+
+    /** Cast the ray from an origin along a direction (normalized here), in render space. */
+    public void setRay(double ox, double oy, double oz, double dx, double dy, double dz) {
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        originX = ox;
+        originY = oy;
+        originZ = oz;
+        dirX = dx / length;
+        dirY = dy / length;
+        dirZ = dz / length;
+    }
+
+    /**
+     * The nearest body surface or ring along the ray; failing that, the body whose disc the ray
+     * passes closest to within {@code toleranceRadians}.
+     *
+     * @return the hit, or null if the ray meets nothing
+     */
+    public Hit pick(double toleranceRadians) {
+        double bestT = Double.POSITIVE_INFINITY;
+        int best = -1;
+        boolean bestRing = false;
+        double bestMiss = toleranceRadians;
+        int nearMiss = -1;
+        double[] v = volumes;
+
+        for (int i = 0; i < count; i++) {
+            int base = i * STRIDE;
+            double cx = v[base + CX] - originX;
+            double cy = v[base + CX + 1] - originY;
+            double cz = v[base + CX + 2] - originZ;
+            double along = cx * dirX + cy * dirY + cz * dirZ;
+            double bound = v[base + BOUND];
+            if (along + bound < 0.0) {
+                continue; // behind the ray origin
+            }
+            double centre2 = cx * cx + cy * cy + cz * cz;
+            double offAxis2 = Math.max(0.0, centre2 - along * along);
+
+            if (offAxis2 <= bound * bound && along - bound < bestT) {
+                double t = intersectEllipsoid(base, cx, cy, cz);
+                if (t < bestT) {
+                    bestT = t;
+                    best = i;
+                    bestRing = false;
+                }
+                t = intersectRing(base, cx, cy, cz);
+                if (t < bestT) {
+                    bestT = t;
+                    best = i;
+                    bestRing = true;
+                }
+            }
+
+            if (best < 0 && along > 0.0 && toleranceRadians > 0.0) {
+                double distance = Math.sqrt(centre2);
+                double radius = v[base + EQUATORIAL];
+                double miss =
+                        Math.atan2(Math.sqrt(offAxis2), along)
+                                - Math.asin(Math.min(1.0, radius / distance));
+                if (miss <= bestMiss) {
+                    bestMiss = miss;
+                    nearMiss = i;
+                }
+            }
+        }
+
+        if (best >= 0) {
+            return fill(best, bestT, bestRing, true);
+        }
+        if (nearMiss >= 0) {
+            int base = nearMiss * STRIDE;
+            double cx = v[base + CX] - originX;
+            double cy = v[base + CX + 1] - originY;
+            double cz = v[base + CX + 2] - originZ;
+            return fill(nearMiss, Math.sqrt(cx * cx + cy * cy + cz * cz), false, false);
+        }
+        return null;
+    }
+
+    private Hit fill(int index, double distance, boolean ring, boolean exact) {
+        hit.body = bodies[index];
+        hit.index = index;
+        hit.distance = distance;
+        hit.ring = ring;
+        hit.exact = exact;
+        return hit;
+    }
+
+    /**
+     * Ray distance to the ellipsoid: the ray is taken into body-fixed axes and scaled so the
+     * ellipsoid becomes the unit sphere (ray parameter t is unchanged by both).
+     *
+     * @param cx ray origin to body centre, render space
+     * @return the entry distance (exit distance from inside), or +infinity on a miss
+     */
+    private double intersectEllipsoid(int base, double cx, double cy, double cz) {
+        double[] v = volumes;
+        double eq = v[base + EQUATORIAL];
+        double polar = v[base + POLAR];
+        // Origin relative to the centre, and direction, in body-fixed axes: R^T (o - c), R^T d
+        double px = -(v[base + R] * cx + v[base + R + 1] * cy + v[base + R + 2] * cz) / eq;
+        double py = -(v[base + R + 3] * cx + v[base + R + 4] * cy + v[base + R + 5] * cz) / eq;
+        double pz = -(v[base + R + 6] * cx + v[base + R + 7] * cy + v[base + R + 8] * cz) / polar;
+        double qx = (v[base + R] * dirX + v[base + R + 1] * dirY + v[base + R + 2] * dirZ) / eq;
+        double qy = (v[base + R + 3] * dirX + v[base + R + 4] * dirY + v[base + R + 5] * dirZ) / eq;
+        double qz =
+                (v[base + R + 6] * dirX + v[base + R + 7] * dirY + v[base + R + 8] * dirZ) / polar;
+
+        double a = qx * qx + qy * qy + qz * qz;
+        double b = px * qx + py * qy + pz * qz;
+        double c = px * px + py * py + pz * pz - 1.0;
+        double discriminant = b * b - a * c;
+        if (discriminant < 0.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double root = Math.sqrt(discriminant);
+        double t = (-b - root) / a;
+        if (t < 0.0) {
+            t = (-b + root) / a;
+        }
+        return t >= 0.0 ? t : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Ray distance to the ring annulus on the body's equatorial plane (body-fixed z = 0).
+     *
+     * @return the crossing distance, or +infinity if the ray misses the annulus
+     */
+    private double intersectRing(int base, double cx, double cy, double cz) {
+        double[] v = volumes;
+        double outer = v[base + RING_OUTER];
+        if (outer <= 0.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double pz = -(v[base + R + 6] * cx + v[base + R + 7] * cy + v[base + R + 8] * cz);
+        double qz = v[base + R + 6] * dirX + v[base + R + 7] * dirY + v[base + R + 8] * dirZ;
+        if (qz == 0.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double t = -pz / qz;
+        if (t < 0.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        // Crossing point relative to the centre, in render space (rotation preserves radius)
+        double x = dirX * t - cx;
+        double y = dirY * t - cy;
+        double z = dirZ * t - cz;
+        double r2 = x * x + y * y + z * z;
+        double eq = v[base + EQUATORIAL];
+        double inner = v[base + RING_INNER] * eq;
+        outer *= eq;
+        return r2 >= inner * inner && r2 <= outer * outer ? t : Double.POSITIVE_INFINITY;
+    }
+}
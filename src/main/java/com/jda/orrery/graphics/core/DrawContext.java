@@ -8,7 +8,10 @@ import com.jda.orrery.domain.astronomy.CelestialBody;
 import com.jda.orrery.domain.astronomy.SolarSystem;
 import com.jda.orrery.graphics.api.View;
 import com.jda.orrery.graphics.illumination.IlluminationManager;
+import com.jda.orrery.graphics.postfx.BloomPipeline;
 import com.jda.orrery.graphics.resources.Shader;
+import com.jda.orrery.graphics.resources.Uniform;
+import com.jda.orrery.graphics.ubo.FrameDataUBO;
 import org.joml.Matrix4f;
 import org.joml.Vector4f;
 
@@ -29,6 +32,7 @@ public class DrawContext {
     // Timing
     protected long frameTimeStamp;
     protected double deltaTime; // Time since last frame in seconds
+    private long firstFrameTimeStamp = -1;
 
     // Pre-allocated; reused each frame.
     private final Matrix4f tempViewMatrix = new Matrix4f();
@@ -46,12 +50,25 @@ public class DrawContext {
     protected IlluminationManager illuminationManager;
     protected Shader currentShader;
 
+    // Frame-constant uniform block (camera, sun, illumination, time); null until GL init
+    protected FrameDataUBO frameData;
+
+    // Per-pass GPU/CPU timing; null until GL init
+    protected GpuTimer gpuTimer;
+
+    // Quality knobs the renderers read each frame; set by the quality governor
+    protected QualityGovernor.Level qualityLevel = QualityGovernor.Level.FULL;
+
     // Solar system reference (for lighting)
     protected SolarSystem solarSystem;
 
     // Camera tracking: the body the camera follows this frame.
     protected CelestialBody trackedBody;
 
+    // Picking: volumes the renderer records each frame, and the body under the cursor
+    protected final BodyPicker bodyPicker = new BodyPicker();
+    protected CelestialBody hoveredBody;
+
     public DrawContext() {
         this.frameStatistics = new FrameStatistics();
 
@@ -60,20 +77,23 @@ public class DrawContext {
     }
 
     protected void configureDefaultState() {
+        // Start from a clean cache; whatever ran before may have bypassed GLState
+        GLState.invalidate();
+
         // Enable depth testing
-        glEnable(GL_DEPTH_TEST);
+        GLState.setDepthTest(true);
         glDepthFunc(GL_LEQUAL);
 
         // Enable back face culling
-        glEnable(GL_CULL_FACE);
+        GLState.setCullFace(true);
         glCullFace(GL_BACK);
 
         // Set clear color
         glClearColor(clearColor.x, clearColor.y, clearColor.z, clearColor.w);
 
         // Enable blending for transparency
-        glEnable(GL_BLEND);
-        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        GLState.setBlend(true);
+        GLState.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
 
         // Fragment shader outputs linear light values; the framebuffer encodes to sRGB
         // at write time. Alpha blending for rings then happens correctly in linear space.
@@ -84,10 +104,25 @@ public class DrawContext {
     public void beginFrame() {
         glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
         frameStatistics.beginFrame();
+
+        if (frameData != null) {
+            if (firstFrameTimeStamp < 0) {
+                firstFrameTimeStamp = frameTimeStamp;
+            }
+            float seconds = (frameTimeStamp - firstFrameTimeStamp) / 1000.0f;
+            frameData.updateTime(seconds, (float) deltaTime);
+        }
     }
 
     /** End a rendering frame */
     public void endFrame() {
+        frameStatistics.recordUniformCalls(Uniform.getIssuedCount(), Uniform.getSkippedCount());
+        Uniform.resetCounters();
+        frameStatistics.recordStateChanges(GLState.getChangeCount(), GLState.getSkippedCount());
+        GLState.resetCounters();
+        if (gpuTimer != null) {
+            gpuTimer.endFrame(frameStatistics);
+        }
         frameStatistics.endFrame();
 
         // Log performance periodically (every 600 frames = ~10 seconds at 60 FPS)
@@ -108,6 +143,37 @@ public class DrawContext {
                                     "Performance: %.1f FPS (avg: %.1fms, min: %.1fms, max: %.1fms, σ: %.1fms)",
                                     fps, avgFrameTime, minFrameTime, maxFrameTime, stdDev));
 
+            getLogger()
+                    .info(
+                            String.format(
+                                    "Uniforms/frame: %.1f issued, %.1f skipped (unchanged)",
+                                    frameStatistics.getAverageUniformsIssued(),
+                                    frameStatistics.getAverageUniformsSkipped()));
+
+            getLogger()
+                    .info(
+                            String.format(
+                                    "GL state/frame: %.1f changes, %.1f skipped (redundant)",
+                                    frameStatistics.getAverageStateChanges(),
+                                    frameStatistics.getAverageStateSkipped()));
+
+            getLogger()
+                    .info(
+                            String.format(
+                                    "Bodies/frame: %.1f culled, %.1f as sprites, %.1f as impostors",
+                                    frameStatistics.getAverageBodiesCulled(),
+                                    frameStatistics.getAverageBodiesAsSprites(),
+                                    frameStatistics.getAverageBodiesAsImpostors()));
+
+            getLogger()
+                    .info(
+                            String.format(
+                                    "Triangles/frame: %.0f",
+                                    frameStatistics.getAverageTriangles()));
+
+            logPassTimes();
+            logPercentiles();
+
             // Report spikes if any occurred
             if (spikes16 > 0) {
                 double spike16Percent = (spikes16 * 100.0) / frameStatistics.getFrameCount();
@@ -137,8 +203,71 @@ public class DrawContext {
         }
     }
 
+    /** Rolling-window frame time percentiles and pacing, then p50/p99 of each frame phase. */
+    private void logPercentiles() {
+        FrameStatistics stats = frameStatistics;
+        getLogger()
+                .info(
+                        String.format(
+                                "Frame ms over %d frames: p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f;"
+                                        + " %d stutters (>%.0fx p50), jitter %.2fms",
+                                stats.getWindowFrameCount(),
+                                stats.getFrameTimePercentile(50.0),
+                                stats.getFrameTimePercentile(90.0),
+                                stats.getFrameTimePercentile(99.0),
+                                stats.getFrameTimePercentile(99.9),
+                                stats.getStutterCount(),
+                                FrameStatistics.STUTTER_FACTOR,
+                                stats.getFrameTimeJitter()));
+
+        StringBuilder line = new StringBuilder("Phase p50/p99 ms:");
+        for (FrameStatistics.Phase phase : FrameStatistics.Phase.values()) {
+            line.append(
+                    String.format(
+                            " %s %.2f/%.2f",
+                            phase.label,
+                            stats.getPhasePercentile(phase, 50.0),
+                            stats.getPhasePercentile(phase, 99.0)));
+        }
+        getLogger().info(line.toString());
+    }
+
+    /** One line per timed pass: average GPU time (when available) next to CPU issue time. */
+    private void logPassTimes() {
+        boolean gpu = frameStatistics.hasGpuPassTimes();
+        StringBuilder line = new StringBuilder(gpu ? "Pass GPU/CPU ms:" : "Pass CPU ms:");
+        for (GpuTimer.Pass pass : GpuTimer.Pass.values()) {
+            double cpu = frameStatistics.getAverageCpuPassTime(pass);
+            if (gpu) {
+                line.append(
+                        String.format(
+                                " %s %.2f/%.2f",
+                                pass.label, frameStatistics.getAverageGpuPassTime(pass), cpu));
+            } else {
+                line.append(String.format(" %s %.2f", pass.label, cpu));
+            }
+        }
+        getLogger().info(line.toString());
+
+        if (gpu) {
+            double bloomMs = frameStatistics.getAverageGpuPassTime(GpuTimer.Pass.BLOOM);
+            double budgetMs = BloomPipeline.budgetMs(viewportWidth, viewportHeight);
+            if (bloomMs > budgetMs) {
+                getLogger()
+                        .warning(
+                                String.format(
+                                        "Bloom over budget: %.2fms GPU, budget %.2fms at %dx%d",
+                                        bloomMs, budgetMs, viewportWidth, viewportHeight));
+            }
+        }
+    }
+
     // Getters and setters
 
+    public FrameStatistics getFrameStatistics() {
+        return frameStatistics;
+    }
+
     public View getView() {
         return view;
     }
@@ -211,6 +340,7 @@ public class DrawContext {
         return tempProjMatrix;
     }
 
+    /** Whether the body under the cursor is picked every frame (hover). */
     public boolean isPickingMode() {
         return pickingMode;
     }
@@ -219,6 +349,11 @@ public class DrawContext {
         this.pickingMode = pickingMode;
     }
 
+    /** Pick volumes of the bodies drawn this frame, filled by the renderer. */
+    public BodyPicker getBodyPicker() {
+        return bodyPicker;
+    }
+
     public TimeContext getTimeContext() {
         return timeContext;
     }
@@ -227,6 +362,31 @@ public class DrawContext {
         this.timeContext = timeContext;
     }
 
+    public FrameDataUBO getFrameData() {
+        return frameData;
+    }
+
+    public void setFrameData(FrameDataUBO frameData) {
+        this.frameData = frameData;
+    }
+
+    /** Pass timer, or null before GL init. */
+    public GpuTimer getGpuTimer() {
+        return gpuTimer;
+    }
+
+    public void setGpuTimer(GpuTimer gpuTimer) {
+        this.gpuTimer = gpuTimer;
+    }
+
+    public QualityGovernor.Level getQualityLevel() {
+        return qualityLevel;
+    }
+
+    public void setQualityLevel(QualityGovernor.Level qualityLevel) {
+        this.qualityLevel = qualityLevel;
+    }
+
     public IlluminationManager getIlluminationManager() {
         return illuminationManager;
     }
@@ -269,6 +429,19 @@ public class DrawContext {
         this.trackedBody = trackedBody;
     }
 
+    /**
+     * Get the body under the cursor, for highlighting.
+     *
+     * @return The hovered body, or null if none or picking mode is off
+     */
+    public CelestialBody getHoveredBody() {
+        return hoveredBody;
+    }
+
+    public void setHoveredBody(CelestialBody hoveredBody) {
+        this.hoveredBody = hoveredBody;
+    }
+
     private static java.util.logging.Logger getLogger() {
         return com.jda.orrery.core.logging.Logging.logger(DrawContext.class);
     }
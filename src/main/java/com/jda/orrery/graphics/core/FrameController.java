@@ -13,6 +13,7 @@ import com.jda.orrery.domain.astronomy.Planet;
 import com.jda.orrery.domain.astronomy.SolarSystem;
 import com.jda.orrery.graphics.api.View;
 import com.jda.orrery.graphics.camera.OrbitCamera;
+import com.jda.orrery.graphics.capture.FrameCapture;
 import com.jda.orrery.graphics.geometry.MeshLibrary;
 import com.jda.orrery.graphics.postfx.PostFXTarget;
 import java.util.logging.Logger;
@@ -83,6 +84,12 @@ public class FrameController {
         return 0.85f;
     }
 
+    // Picking: a near miss within this many window pixels of a body's disc still picks it, so
+    // bodies drawn as sub-pixel sprites can be clicked; a left press released within the click
+    // slop is a click, not an orbit drag.
+    private static final double PICK_TOLERANCE_PX = 4.0;
+    private static final double CLICK_SLOP_PX = 3.0;
+
     private long window;
     private final DrawContext drawContext;
     private final SceneController sceneController;
@@ -99,12 +106,22 @@ public class FrameController {
     private double lastMouseX, lastMouseY;
     private boolean isDragging;
     private boolean isZoomDragging;
+    private double pressX, pressY;
+    private double cursorX = -1.0, cursorY = -1.0;
+    private final int[] windowWidth = new int[1];
+    private final int[] windowHeight = new int[1];
 
     // Planet cycling for camera focus
     private int currentBodyIndex = -1; // -1 = Sun, 0-7 = planets
     private CelestialBody trackedBody = null; // The actual body being tracked
 
     private PostFXTarget postFXTarget;
+    private FrameCapture frameCapture;
+
+    // Frame-budget governor; null renders at full quality
+    private QualityGovernor qualityGovernor;
+    private long gpuFramesSeen = 0;
+    private double lastGpuFrameMs = 0;
 
     /**
      * Create frame controller with injected dependencies.
@@ -132,6 +149,14 @@ public class FrameController {
         this.postFXTarget = target;
     }
 
+    public void setFrameCapture(FrameCapture capture) {
+        this.frameCapture = capture;
+    }
+
+    public void setQualityGovernor(QualityGovernor governor) {
+        this.qualityGovernor = governor;
+    }
+
     public void init(long window) {
         this.window = window;
 
@@ -149,7 +174,7 @@ public class FrameController {
         drawContext.setViewportHeight(height[0]);
 
         // OpenGL initialization
-        glEnable(GL_DEPTH_TEST);
+        GLState.setDepthTest(true);
         glEnable(GL_MULTISAMPLE);
         // Space is black. Pixel writes are subject to GL_FRAMEBUFFER_SRGB, so any
         // non-zero channel here would be interpreted as linear and brightened on write.
@@ -179,6 +204,9 @@ public class FrameController {
         if (postFXTarget != null && width[0] > 0 && height[0] > 0) {
             postFXTarget.resize(width[0], height[0]);
         }
+        if (qualityGovernor != null) {
+            applyQuality(qualityGovernor.getLevel());
+        }
 
         // Initial camera focus on the Sun.
         // Scene layer creation now happens in ApplicationContext.initializeGL().
@@ -189,10 +217,14 @@ public class FrameController {
         }
         trackedBody = solarSystem.getSun();
         currentBodyIndex = -1;
+        drawContext.setPickingMode(true);
         LOGGER.info("Camera initially tracking: Sun");
         LOGGER.info(
                 "Controls: SPACE=pause, ,/.=speed down/up, 1-4=preset speeds, N=now, J=J2000, R=reset view");
         LOGGER.info("Controls: LEFT/RIGHT arrows=cycle through planets");
+        LOGGER.info("Controls: click=track body under cursor, H=toggle hover picking");
+        LOGGER.info("Controls: F9=export frame-time statistics (CSV/JSON)");
+        LOGGER.info("Controls: F10=start/stop recording frames to PNG");
 
         lastFrameTime = System.currentTimeMillis();
     }
@@ -204,7 +236,8 @@ public class FrameController {
      * Single time authority per frame — this is the only place where time advances in the entire
      * application.
      *
-     * @param deltaTime Time since last frame in seconds
+     * @param deltaTime Real seconds to advance by; the render loop passes the paced, smoothed
+     *     present interval (see {@link com.jda.orrery.core.time.FramePacer})
      */
     public void processFrame(double deltaTime) {
         // Update timing - THIS IS THE SINGLE TIME AUTHORITY
@@ -212,7 +245,11 @@ public class FrameController {
         long currentTime = System.currentTimeMillis();
 
         // Advance time and get snapshot for this frame
-        TimeContext timeContext = timeManager.advanceTime(currentNanos);
+        TimeContext timeContext = timeManager.advanceTime(currentNanos, deltaTime);
+        drawContext
+                .getFrameStatistics()
+                .recordPhase(
+                        FrameStatistics.Phase.TIME_ADVANCE, System.nanoTime() - currentNanos);
 
         // SMART CACHE CLEARING: Only clear when time actually changes!
         // This is a key optimization - when paused or at same time, keep cache
@@ -272,12 +309,65 @@ public class FrameController {
         // Render scene
         sceneController.drawFrame(drawContext);
 
+        // Hover against the volumes just recorded, with the view they were drawn with
+        if (drawContext.isPickingMode()) {
+            updateHover();
+        }
+
+        if (qualityGovernor != null) {
+            governQuality(System.nanoTime() - currentNanos);
+        }
+
         // Update frame counter
         frameCount++;
 
         lastFrameTime = currentTime;
     }
 
+    /**
+     * Feed the governor this frame's cost — the larger of the CPU work just done and the newest GPU
+     * frame time — and apply a level change before the next frame. Without GPU timer queries the
+     * frame interval less the frame limiter's wait stands in, which under vsync can show a missed
+     * budget but not the headroom to step back up.
+     */
+    private void governQuality(long cpuNanos) {
+        FrameStatistics stats = drawContext.getFrameStatistics();
+        GpuTimer gpuTimer = drawContext.getGpuTimer();
+        double costMs;
+        if (gpuTimer != null && gpuTimer.isGpuTimingAvailable()) {
+            costMs = cpuNanos / 1_000_000.0;
+            long gpuFrames = stats.getGpuFramesRecorded();
+            if (gpuFrames != gpuFramesSeen) {
+                gpuFramesSeen = gpuFrames;
+                lastGpuFrameMs = 0;
+                for (GpuTimer.Pass pass : GpuTimer.Pass.values()) {
+                    lastGpuFrameMs += stats.getLastGpuPassTime(pass);
+                }
+            }
+            costMs = Math.max(costMs, lastGpuFrameMs);
+        } else {
+            costMs = stats.getFrameTime();
+            int newest = stats.getWindowFrameCount() - 1;
+            if (newest >= 0) {
+                costMs -= stats.getWindowPhaseTime(FrameStatistics.Phase.PACE, newest);
+            }
+        }
+
+        if (qualityGovernor.observe(costMs)) {
+            applyQuality(qualityGovernor.getLevel());
+        }
+    }
+
+    private void applyQuality(QualityGovernor.Level level) {
+        drawContext.setQualityLevel(level);
+        if (postFXTarget != null) {
+            postFXTarget.setSampleCount(level.msaaSamples);
+            postFXTarget.setRenderScale(level.renderScale);
+            drawContext.setViewportWidth(postFXTarget.getWidth());
+            drawContext.setViewportHeight(postFXTarget.getHeight());
+        }
+    }
+
     public void dispose() {
         LOGGER.info("Disposing FrameController");
 
@@ -381,6 +471,22 @@ public class FrameController {
                 case GLFW_KEY_C:
                     // C key available for future use
                     break;
+                case GLFW_KEY_H:
+                    // Toggle per-frame hover picking
+                    drawContext.setPickingMode(!drawContext.isPickingMode());
+                    drawContext.setHoveredBody(null);
+                    LOGGER.info("Hover picking " + (drawContext.isPickingMode() ? "on" : "off"));
+                    break;
+                case GLFW_KEY_F9:
+                    // Dump the rolling frame-time windows to CSV/JSON
+                    FrameStatisticsExport.export(drawContext.getFrameStatistics());
+                    break;
+                case GLFW_KEY_F10:
+                    // Start/stop a PNG sequence recording
+                    if (frameCapture != null) {
+                        frameCapture.toggle();
+                    }
+                    break;
             }
         }
     }
@@ -416,6 +522,22 @@ public class FrameController {
         updateCameraFocus();
     }
 
+    /**
+     * Focus the camera on a body by cycle index, as the arrow keys do: -1 = Sun, 0-7 = planets.
+     * For scripted camera paths.
+     */
+    public void focusBody(int index) {
+        if (drawContext == null || drawContext.getSolarSystem() == null) {
+            return;
+        }
+        currentBodyIndex = Math.max(-1, Math.min(7, index));
+        updateCameraFocus();
+    }
+
+    public View getView() {
+        return view;
+    }
+
     /** Update camera focus based on current body index. */
     private void updateCameraFocus() {
         SolarSystem solarSystem = drawContext.getSolarSystem();
@@ -432,6 +554,11 @@ public class FrameController {
             }
         }
 
+        trackBody(targetBody);
+    }
+
+    /** Track a body and notify the camera of the switch. */
+    private void trackBody(CelestialBody targetBody) {
         // Update the tracked body reference
         trackedBody = targetBody;
 
@@ -448,6 +575,72 @@ public class FrameController {
         }
     }
 
+    /**
+     * Pick the body under the cursor into {@link DrawContext#setHoveredBody}. Runs after the frame
+     * is drawn, against the pick volumes the renderer recorded for it; skipped during drags.
+     */
+    private void updateHover() {
+        CelestialBody hovered = null;
+        if (!isDragging && !isZoomDragging && cursorX >= 0.0) {
+            BodyPicker.Hit hit = pickAt(cursorX, cursorY);
+            hovered = hit != null ? hit.getBody() : null;
+        }
+        if (hovered != drawContext.getHoveredBody()) {
+            drawContext.setHoveredBody(hovered);
+            LOGGER.fine("Hovering: " + (hovered != null ? hovered.getName() : "nothing"));
+        }
+    }
+
+    /**
+     * Cast a pick ray through a cursor position (window coordinates, origin top-left).
+     *
+     * @return the nearest hit, or null
+     */
+    private BodyPicker.Hit pickAt(double x, double y) {
+        glfwGetWindowSize(window, windowWidth, windowHeight);
+        if (windowWidth[0] <= 0 || windowHeight[0] <= 0) {
+            return null;
+        }
+        double ndcX = 2.0 * x / windowWidth[0] - 1.0;
+        double ndcY = 1.0 - 2.0 * y / windowHeight[0];
+        BodyPicker picker = drawContext.getBodyPicker();
+        if (!picker.setRay(view, ndcX, ndcY)) {
+            return null;
+        }
+        // Radians per window pixel at the screen centre
+        double tangentPerPixel =
+                2.0 * Math.tan(Math.toRadians(view.getFieldOfView()) * 0.5) / windowHeight[0];
+        return picker.pick(PICK_TOLERANCE_PX * tangentPerPixel);
+    }
+
+    /** Track the body under a click, keeping the arrow-key cycle in step with it. */
+    private void selectAt(double x, double y) {
+        SolarSystem solarSystem = drawContext.getSolarSystem();
+        if (solarSystem == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        BodyPicker.Hit hit = pickAt(x, y);
+        if (hit == null || hit.getBody() == null) {
+            return;
+        }
+        CelestialBody body = hit.getBody();
+        LOGGER.fine(
+                String.format(
+                        "Picked %s%s in %.1fus",
+                        body.getName(),
+                        hit.isRing() ? " (rings)" : "",
+                        (System.nanoTime() - start) / 1000.0));
+
+        // Satellites cycle on from their planet
+        CelestialBody planet = body.isSatellite() ? body.getParentOrNull() : body;
+        int index = solarSystem.getPlanets().indexOf(planet);
+        currentBodyIndex = index >= 0 ? index : -1;
+        if (body != trackedBody) {
+            trackBody(body);
+        }
+    }
+
     public void mouseButtonCallback(long window, int button, int action, int mods) {
         if (button == GLFW_MOUSE_BUTTON_LEFT) {
             if (action == GLFW_PRESS && !isZoomDragging) {
@@ -457,7 +650,14 @@ public class FrameController {
                 glfwGetCursorPos(window, xpos, ypos);
                 lastMouseX = xpos[0];
                 lastMouseY = ypos[0];
+                pressX = xpos[0];
+                pressY = ypos[0];
             } else if (action == GLFW_RELEASE) {
+                if (isDragging
+                        && Math.abs(cursorX - pressX) <= CLICK_SLOP_PX
+                        && Math.abs(cursorY - pressY) <= CLICK_SLOP_PX) {
+                    selectAt(pressX, pressY);
+                }
                 isDragging = false;
             }
         } else if (button == GLFW_MOUSE_BUTTON_MIDDLE) {
@@ -503,6 +703,10 @@ public class FrameController {
     }
 
     public void cursorPosCallback(long window, double xpos, double ypos) {
+        if (!isZoomDragging) {
+            cursorX = xpos;
+            cursorY = ypos;
+        }
         if (isZoomDragging) {
             double dy = ypos - lastMouseY;
 
@@ -546,13 +750,16 @@ public class FrameController {
     }
 
     public void framebufferSizeCallback(long window, int width, int height) {
-        glViewport(0, 0, width, height);
+        GLState.viewport(0, 0, width, height);
         drawContext.setViewportWidth(width);
         drawContext.setViewportHeight(height);
         view.setViewport(0, 0, width, height);
 
         if (postFXTarget != null && width > 0 && height > 0) {
             postFXTarget.resize(width, height);
+            // Pixel-size decisions (LOD, sprites, culling) are made in render-target pixels
+            drawContext.setViewportWidth(postFXTarget.getWidth());
+            drawContext.setViewportHeight(postFXTarget.getHeight());
         }
 
         LOGGER.fine(String.format("Viewport resized to %dx%d", width, height));
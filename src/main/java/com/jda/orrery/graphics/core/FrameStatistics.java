@@ -1,7 +1,45 @@
 package com.jda.orrery.graphics.core;
 
-/** Tracks frame rendering statistics for performance monitoring. */
+import com.jda.orrery.core.logging.Logging;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Tracks frame rendering statistics for performance monitoring.
+ *
+ * Besides the per-reset averages, frame times and per-phase times go into rolling windows of the
+ * last {@code orrery.statsWindow} frames (default {@link #DEFAULT_WINDOW_FRAMES}), which give exact
+ * percentiles and pacing metrics independent of {@link #reset()}. Phase times are grouped by frame
+ * interval: everything recorded between two {@link #beginFrame()} calls counts toward the interval
+ * they close.
+ */
 public class FrameStatistics {
+    private static final Logger LOGGER = Logging.logger(FrameStatistics.class);
+
+    /** CPU-side phases of a frame, timed by the code that runs them. */
+    public enum Phase {
+        TIME_ADVANCE("time"), // TimeManager.advanceTime
+        EPHEMERIS("ephemeris"), // body state lookups
+        TRANSFORMS("transforms"), // model matrices and culling
+        SUBMIT("submit"), // UBO/instance writes and draw calls
+        POST_FX("postfx"), // MSAA resolve, bloom, tonemap
+        CAPTURE("capture"), // frame capture readback and copy (FrameCapture)
+        SWAP("swap"), // glfwSwapBuffers, including any vsync wait
+        PACE("pace"); // frame limiter sleep and spin (FramePacer)
+
+        public final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    static final int DEFAULT_WINDOW_FRAMES = 3600;
+
+    /** A frame is a stutter if it takes more than this multiple of the window's median. */
+    public static final double STUTTER_FACTOR = 2.0;
+
+    private static final int PHASES = Phase.values().length;
     private long frameCount = 0;
     private long frameStartTime;
     private long lastFrameTime;
@@ -23,6 +61,75 @@ public class FrameStatistics {
     private int spikesOver33ms = 0;
     private long lastResetTime = System.nanoTime();
 
+    // Uniform traffic (Uniform handle counters, folded in once per frame)
+    private int lastUniformsIssued = 0;
+    private int lastUniformsSkipped = 0;
+    private long totalUniformsIssued = 0;
+    private long totalUniformsSkipped = 0;
+
+    // GL state traffic (GLState counters, folded in once per frame)
+    private int lastStateChanges = 0;
+    private int lastStateSkipped = 0;
+    private long totalStateChanges = 0;
+    private long totalStateSkipped = 0;
+
+    // Body visibility (CelestialRenderer culling, folded in once per frame)
+    private int lastBodiesCulled = 0;
+    private int lastBodiesAsSprites = 0;
+    private int lastBodiesAsImpostors = 0;
+    private long totalBodiesCulled = 0;
+    private long totalBodiesAsSprites = 0;
+    private long totalBodiesAsImpostors = 0;
+
+    // Geometry submitted (CelestialRenderer mesh LOD, folded in once per frame)
+    private long lastTriangles = 0;
+    private long totalTriangles = 0;
+
+    // Per-pass timings in ms, indexed by GpuTimer.Pass (GpuTimer, folded in once per frame). GPU
+    // results arrive a few frames late and not every frame, so they keep their own sample count.
+    private static final int PASSES = GpuTimer.Pass.values().length;
+    private final double[] lastCpuPassMs = new double[PASSES];
+    private final double[] totalCpuPassMs = new double[PASSES];
+    private final double[] lastGpuPassMs = new double[PASSES];
+    private final double[] totalGpuPassMs = new double[PASSES];
+    private long gpuPassSamples = 0;
+    private long gpuFramesRecorded = 0; // since start; not cleared by reset
+
+    // Rolling windows (not cleared by reset) and the phase times of the frame in progress
+    private final SampleWindow frameWindow;
+    private final SampleWindow[] phaseWindows = new SampleWindow[PHASES];
+    private final long[] pendingPhaseNanos = new long[PHASES];
+    private final double[] percentileScratch;
+
+    public FrameStatistics() {
+        this(resolveWindowFrames());
+    }
+
+    /** @param windowFrames frames kept for percentiles and pacing metrics */
+    public FrameStatistics(int windowFrames) {
+        frameWindow = new SampleWindow(windowFrames);
+        for (int i = 0; i < PHASES; i++) {
+            phaseWindows[i] = new SampleWindow(windowFrames);
+        }
+        percentileScratch = new double[windowFrames];
+    }
+
+    private static int resolveWindowFrames() {
+        String override = System.getProperty("orrery.statsWindow");
+        if (override != null) {
+            try {
+                int value = Integer.parseInt(override);
+                if (value > 0) {
+                    return value;
+                }
+                LOGGER.warning("orrery.statsWindow must be positive: " + override);
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid orrery.statsWindow: " + override);
+            }
+        }
+        return DEFAULT_WINDOW_FRAMES;
+    }
+
     /** Call at the beginning of each frame */
     public void beginFrame() {
         frameStartTime = System.nanoTime();
@@ -34,6 +141,12 @@ public class FrameStatistics {
             // Track frame time samples for averaging
             frameTimeSamples[sampleIndex] = frameTime;
 
+            // Close the interval in the rolling windows
+            frameWindow.add(frameTime);
+            for (int i = 0; i < PHASES; i++) {
+                phaseWindows[i].add(pendingPhaseNanos[i] / 1_000_000.0);
+            }
+
             // Track spikes
             if (frameTime > 16.67) spikesOver16ms++; // 60 FPS threshold
             if (frameTime > 33.33) spikesOver33ms++; // 30 FPS threshold
@@ -79,6 +192,12 @@ public class FrameStatistics {
         }
 
         lastFrameTime = frameStartTime;
+        Arrays.fill(pendingPhaseNanos, 0L);
+    }
+
+    /** Add time spent in a phase during the current frame. May be called several times. */
+    public void recordPhase(Phase phase, long nanos) {
+        pendingPhaseNanos[phase.ordinal()] += nanos;
     }
 
     /** Call at the end of each frame */
@@ -86,6 +205,169 @@ public class FrameStatistics {
         frameCount++;
     }
 
+    /** Record this frame's glUniform calls issued vs skipped as unchanged. */
+    public void recordUniformCalls(int issued, int skipped) {
+        lastUniformsIssued = issued;
+        lastUniformsSkipped = skipped;
+        totalUniformsIssued += issued;
+        totalUniformsSkipped += skipped;
+    }
+
+    /** glUniform calls issued in the last frame */
+    public int getLastFrameUniformsIssued() {
+        return lastUniformsIssued;
+    }
+
+    /** Uniform writes skipped (value unchanged) in the last frame */
+    public int getLastFrameUniformsSkipped() {
+        return lastUniformsSkipped;
+    }
+
+    /** Average glUniform calls issued per frame since last reset */
+    public double getAverageUniformsIssued() {
+        return frameCount > 0 ? (double) totalUniformsIssued / frameCount : 0;
+    }
+
+    /** Average uniform writes skipped per frame since last reset */
+    public double getAverageUniformsSkipped() {
+        return frameCount > 0 ? (double) totalUniformsSkipped / frameCount : 0;
+    }
+
+    /** Record this frame's GL state changes issued vs skipped as redundant. */
+    public void recordStateChanges(int changes, int skipped) {
+        lastStateChanges = changes;
+        lastStateSkipped = skipped;
+        totalStateChanges += changes;
+        totalStateSkipped += skipped;
+    }
+
+    /** GL state changes issued in the last frame */
+    public int getLastFrameStateChanges() {
+        return lastStateChanges;
+    }
+
+    /** Redundant GL state changes skipped in the last frame */
+    public int getLastFrameStateSkipped() {
+        return lastStateSkipped;
+    }
+
+    /** Average GL state changes issued per frame since last reset */
+    public double getAverageStateChanges() {
+        return frameCount > 0 ? (double) totalStateChanges / frameCount : 0;
+    }
+
+    /** Average redundant GL state changes skipped per frame since last reset */
+    public double getAverageStateSkipped() {
+        return frameCount > 0 ? (double) totalStateSkipped / frameCount : 0;
+    }
+
+    /** Record this frame's bodies culled off-screen, drawn as point sprites and as impostors. */
+    public void recordBodyVisibility(int culled, int sprites, int impostors) {
+        lastBodiesCulled = culled;
+        lastBodiesAsSprites = sprites;
+        lastBodiesAsImpostors = impostors;
+        totalBodiesCulled += culled;
+        totalBodiesAsSprites += sprites;
+        totalBodiesAsImpostors += impostors;
+    }
+
+    /** Bodies culled (outside the view frustum) in the last frame */
+    public int getLastFrameBodiesCulled() {
+        return lastBodiesCulled;
+    }
+
+    /** Bodies drawn as point sprites in the last frame */
+    public int getLastFrameBodiesAsSprites() {
+        return lastBodiesAsSprites;
+    }
+
+    /** Bodies drawn as ray-cast impostors in the last frame */
+    public int getLastFrameBodiesAsImpostors() {
+        return lastBodiesAsImpostors;
+    }
+
+    /** Average bodies culled per frame since last reset */
+    public double getAverageBodiesCulled() {
+        return frameCount > 0 ? (double) totalBodiesCulled / frameCount : 0;
+    }
+
+    /** Average bodies drawn as point sprites per frame since last reset */
+    public double getAverageBodiesAsSprites() {
+        return frameCount > 0 ? (double) totalBodiesAsSprites / frameCount : 0;
+    }
+
+    /** Average bodies drawn as ray-cast impostors per frame since last reset */
+    public double getAverageBodiesAsImpostors() {
+        return frameCount > 0 ? (double) totalBodiesAsImpostors / frameCount : 0;
+    }
+
+    /** Record the triangles submitted by this frame's draw calls. */
+    public void recordTriangles(long triangles) {
+        lastTriangles = triangles;
+        totalTriangles += triangles;
+    }
+
+    /** Triangles submitted in the last frame */
+    public long getLastFrameTriangles() {
+        return lastTriangles;
+    }
+
+    /** Average triangles submitted per frame since last reset */
+    public double getAverageTriangles() {
+        return frameCount > 0 ? (double) totalTriangles / frameCount : 0;
+    }
+
+    /** Record this frame's CPU time spent issuing each pass, in ms indexed by pass ordinal. */
+    public void recordCpuPassTimes(double[] ms) {
+        for (int i = 0; i < PASSES; i++) {
+            lastCpuPassMs[i] = ms[i];
+            totalCpuPassMs[i] += ms[i];
+        }
+    }
+
+    /** Record one frame's GPU time per pass, in ms indexed by pass ordinal. */
+    public void recordGpuPassTimes(double[] ms) {
+        for (int i = 0; i < PASSES; i++) {
+            lastGpuPassMs[i] = ms[i];
+            totalGpuPassMs[i] += ms[i];
+        }
+        gpuPassSamples++;
+        gpuFramesRecorded++;
+    }
+
+    /** CPU time spent issuing a pass in the last frame, in ms */
+    public double getLastCpuPassTime(GpuTimer.Pass pass) {
+        return lastCpuPassMs[pass.ordinal()];
+    }
+
+    /** Most recent GPU time of a pass, in ms (from a frame a few frames back) */
+    public double getLastGpuPassTime(GpuTimer.Pass pass) {
+        return lastGpuPassMs[pass.ordinal()];
+    }
+
+    /** Average CPU time per frame spent issuing a pass since last reset, in ms */
+    public double getAverageCpuPassTime(GpuTimer.Pass pass) {
+        return frameCount > 0 ? totalCpuPassMs[pass.ordinal()] / frameCount : 0;
+    }
+
+    /** Average GPU time of a pass since last reset, in ms */
+    public double getAverageGpuPassTime(GpuTimer.Pass pass) {
+        return gpuPassSamples > 0 ? totalGpuPassMs[pass.ordinal()] / gpuPassSamples : 0;
+    }
+
+    /**
+     * Frames of GPU pass times received since start (not cleared by {@link #reset()}). A change
+     * between two calls means {@link #getLastGpuPassTime} holds a new frame's results.
+     */
+    public long getGpuFramesRecorded() {
+        return gpuFramesRecorded;
+    }
+
+    /** Whether any GPU pass times arrived since last reset */
+    public boolean hasGpuPassTimes() {
+        return gpuPassSamples > 0;
+    }
+
     /** Get total number of frames rendered */
     public long getFrameCount() {
         return frameCount;
@@ -121,10 +403,65 @@ public class FrameStatistics {
         return frameTimeStdDev;
     }
 
-    /** Get 99th percentile frame time (approximation using max) */
+    /** Get 99th percentile frame time over the rolling window */
     public double get99thPercentileFrameTime() {
-        // Simple approximation - in practice you'd track this properly
-        return maxFrameTime;
+        return getFrameTimePercentile(99.0);
+    }
+
+    /** Frame time percentile (0-100, nearest rank) over the rolling window, in ms */
+    public double getFrameTimePercentile(double percent) {
+        return frameWindow.percentile(percent, percentileScratch);
+    }
+
+    /** Phase time percentile (0-100, nearest rank) over the rolling window, in ms */
+    public double getPhasePercentile(Phase phase, double percent) {
+        return phaseWindows[phase.ordinal()].percentile(percent, percentileScratch);
+    }
+
+    /** Mean phase time over the rolling window, in ms */
+    public double getPhaseMean(Phase phase) {
+        return phaseWindows[phase.ordinal()].mean();
+    }
+
+    /** Longest phase time in the rolling window, in ms */
+    public double getPhaseMax(Phase phase) {
+        return phaseWindows[phase.ordinal()].max();
+    }
+
+    /** Frames in the rolling window */
+    public int getWindowFrameCount() {
+        return frameWindow.count();
+    }
+
+    /** Mean frame time over the rolling window, in ms */
+    public double getWindowMeanFrameTime() {
+        return frameWindow.mean();
+    }
+
+    /** Longest frame in the rolling window, in ms */
+    public double getWindowMaxFrameTime() {
+        return frameWindow.max();
+    }
+
+    /** Frames in the rolling window longer than {@link #STUTTER_FACTOR} × its median */
+    public int getStutterCount() {
+        if (frameWindow.count() == 0) return 0;
+        return frameWindow.countAbove(getFrameTimePercentile(50.0) * STUTTER_FACTOR);
+    }
+
+    /** Mean change in frame time between consecutive frames of the rolling window, in ms */
+    public double getFrameTimeJitter() {
+        return frameWindow.meanAbsoluteDelta();
+    }
+
+    /** Frame time of the i-th frame in the rolling window (oldest first), in ms */
+    public double getWindowFrameTime(int i) {
+        return frameWindow.get(i);
+    }
+
+    /** Phase time of the i-th frame in the rolling window (oldest first), in ms */
+    public double getWindowPhaseTime(Phase phase, int i) {
+        return phaseWindows[phase.ordinal()].get(i);
     }
 
     /** Get count of frames that exceeded 16.67ms (60 FPS threshold) */
@@ -155,6 +492,27 @@ public class FrameStatistics {
         frameTimeStdDev = 0;
         spikesOver16ms = 0;
         spikesOver33ms = 0;
+        lastUniformsIssued = 0;
+        lastUniformsSkipped = 0;
+        totalUniformsIssued = 0;
+        totalUniformsSkipped = 0;
+        lastStateChanges = 0;
+        lastStateSkipped = 0;
+        totalStateChanges = 0;
+        totalStateSkipped = 0;
+        lastBodiesCulled = 0;
+        lastBodiesAsSprites = 0;
+        lastBodiesAsImpostors = 0;
+        totalBodiesCulled = 0;
+        totalBodiesAsSprites = 0;
+        totalBodiesAsImpostors = 0;
+        lastTriangles = 0;
+        totalTriangles = 0;
+        Arrays.fill(lastCpuPassMs, 0);
+        Arrays.fill(totalCpuPassMs, 0);
+        Arrays.fill(lastGpuPassMs, 0);
+        Arrays.fill(totalGpuPassMs, 0);
+        gpuPassSamples = 0;
         fpsSamples = new double[FPS_SAMPLE_SIZE];
         frameTimeSamples = new double[FPS_SAMPLE_SIZE];
         sampleIndex = 0;
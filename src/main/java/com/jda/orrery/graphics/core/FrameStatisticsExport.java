@@ -0,0 +1,115 @@
+package com.jda.orrery.graphics.core;
+
+import com.jda.orrery.core.logging.Logging;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * On-demand export of the rolling timing windows in {@link FrameStatistics}: a CSV with one row per
+ * frame (frame time, then each phase) and a JSON summary with the percentiles and pacing metrics of
+ * each series. Numbers are written in the root locale so the files parse the same everywhere.
+ *
+ * Runs outside the render loop (on a key press), so it is free to allocate.
+ */
+public final class FrameStatisticsExport {
+    private static final Logger LOGGER = Logging.logger(FrameStatisticsExport.class);
+
+    /** Percentiles in the JSON summary. */
+    static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private FrameStatisticsExport() {}
+
+    /** One header row, then one row per frame in the window, oldest first. Times in ms. */
+    public static void writeCsv(FrameStatistics stats, Appendable out) throws IOException {
+        out.append("frame,frame_ms");
+        for (FrameStatistics.Phase phase : FrameStatistics.Phase.values()) {
+            out.append(',').append(phase.label).append("_ms");
+        }
+        out.append('\n');
+
+        for (int i = 0, n = stats.getWindowFrameCount(); i < n; i++) {
+            out.append(Integer.toString(i)).append(',').append(number(stats.getWindowFrameTime(i)));
+            for (FrameStatistics.Phase phase : FrameStatistics.Phase.values()) {
+                out.append(',').append(number(stats.getWindowPhaseTime(phase, i)));
+            }
+            out.append('\n');
+        }
+    }
+
+    /** Summary of the window: frame time and per-phase mean, percentiles and max, in ms. */
+    public static void writeJson(FrameStatistics stats, Appendable out) throws IOException {
+        out.append("{\n  \"frames\": ").append(Integer.toString(stats.getWindowFrameCount()));
+        out.append(",\n  \"frame_ms\": {");
+        out.append("\"mean\": ").append(number(stats.getWindowMeanFrameTime()));
+        for (double p : PERCENTILES) {
+            out.append(", \"").append(percentileKey(p)).append("\": ");
+            out.append(number(stats.getFrameTimePercentile(p)));
+        }
+        out.append(", \"max\": ").append(number(stats.getWindowMaxFrameTime())).append('}');
+
+        out.append(",\n  \"stutter_frames\": ").append(Integer.toString(stats.getStutterCount()));
+        out.append(",\n  \"stutter_factor\": ").append(number(FrameStatistics.STUTTER_FACTOR));
+        out.append(",\n  \"jitter_ms\": ").append(number(stats.getFrameTimeJitter()));
+
+        out.append(",\n  \"phases_ms\": {");
+        FrameStatistics.Phase[] phases = FrameStatistics.Phase.values();
+        for (int i = 0; i < phases.length; i++) {
+            FrameStatistics.Phase phase = phases[i];
+            out.append(i == 0 ? "\n    \"" : ",\n    \"").append(phase.label).append("\": {");
+            out.append("\"mean\": ").append(number(stats.getPhaseMean(phase)));
+            for (double p : PERCENTILES) {
+                out.append(", \"").append(percentileKey(p)).append("\": ");
+                out.append(number(stats.getPhasePercentile(phase, p)));
+            }
+            out.append(", \"max\": ").append(number(stats.getPhaseMax(phase))).append('}');
+        }
+        out.append("\n  }\n}\n");
+    }
+
+    /**
+     * Write {@code frames-<millis>.csv} and {@code frames-<millis>.json} into -Dorrery.statsDir
+     * (default {@code stats}). Failures are logged, not thrown.
+     *
+     * @return the CSV path, or null if the export failed
+     */
+    public static Path export(FrameStatistics stats) {
+        Path directory = Paths.get(System.getProperty("orrery.statsDir", "stats"));
+        String stem = "frames-" + System.currentTimeMillis();
+        Path csv = directory.resolve(stem + ".csv");
+        Path json = directory.resolve(stem + ".json");
+        try {
+            Files.createDirectories(directory);
+            try (Writer out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                writeCsv(stats, out);
+            }
+            try (Writer out = Files.newBufferedWriter(json, StandardCharsets.UTF_8)) {
+                writeJson(stats, out);
+            }
+            LOGGER.info(
+                    "Exported " + stats.getWindowFrameCount() + " frames to " + csv + " and " + json);
+            return csv;
+        } catch (IOException e) {
+            LOGGER.warning("Failed to export frame statistics: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** JSON key for a percentile: 50 -> "p50", 99.9 -> "p99_9". */
+    static String percentileKey(double percent) {
+        String digits =
+                percent == Math.rint(percent)
+                        ? Long.toString((long) percent)
+                        : Double.toString(percent).replace('.', '_');
+        return "p" + digits;
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+}
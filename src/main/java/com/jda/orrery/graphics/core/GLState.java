@@ -0,0 +1,176 @@
+package com.jda.orrery.graphics.core;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static org.lwjgl.opengl.GL20.glDeleteProgram;
+import static org.lwjgl.opengl.GL20.glUseProgram;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL32.GL_PROGRAM_POINT_SIZE;
+
+/**
+ * Render-thread cache of the GL state the renderers touch: bound program, VAO, textures per unit,
+ * blend/depth/cull/point-size toggles, blend function, framebuffers and viewport.
+ *
+ * Every call compares against the cached value and only reaches the driver on a change. Code that
+ * binds or deletes these objects must go through this class (including the delete helpers, since
+ * GL silently unbinds a deleted object and reuses its name). Anything that changes state behind
+ * its back must call {@link #invalidate()}.
+ *
+ * Changes and skipped calls are counted; DrawContext folds them into FrameStatistics each frame.
+ */
+public final class GLState {
+    /** Texture units tracked (GL 4.1 guarantees at least 16 per stage). */
+    public static final int MAX_TEXTURE_UNITS = 16;
+
+    private static final GLStateCache CACHE = new GLStateCache();
+
+    private GLState() {}
+
+    /** Forget all cached state so the next call of each kind reaches the driver. */
+    public static void invalidate() {
+        CACHE.invalidate();
+    }
+
+    // Objects
+
+    public static void useProgram(int id) {
+        if (CACHE.useProgram(id)) glUseProgram(id);
+    }
+
+    public static void bindVertexArray(int id) {
+        if (CACHE.bindVertexArray(id)) glBindVertexArray(id);
+    }
+
+    /**
+     * Bind {@code texture} to {@code target} on texture unit {@code unit} (an index below {@link
+     * #MAX_TEXTURE_UNITS}, not GL_TEXTUREn), selecting the unit first if needed.
+     *
+     * @throws IllegalArgumentException if the unit is out of range
+     */
+    public static void bindTexture(int unit, int target, int texture) {
+        if (CACHE.bindTexture(unit, target, texture)) {
+            activeTexture(unit);
+            glBindTexture(target, texture);
+        }
+    }
+
+    /**
+     * Bind on the currently active unit, for callers that do not care which unit they use (upload
+     * paths). Selects unit 0 if the active unit is unknown.
+     */
+    public static void bindTexture(int target, int texture) {
+        int unit = CACHE.activeUnit();
+        bindTexture(unit == GLStateCache.UNKNOWN ? 0 : unit, target, texture);
+    }
+
+    /**
+     * Select the active texture unit (index below {@link #MAX_TEXTURE_UNITS}, not GL_TEXTUREn).
+     *
+     * @throws IllegalArgumentException if the unit is out of range
+     */
+    public static void activeTexture(int unit) {
+        if (CACHE.activeTexture(unit)) glActiveTexture(GL_TEXTURE0 + unit);
+    }
+
+    /**
+     * Bind a framebuffer. GL_FRAMEBUFFER sets both draw and read bindings, as in GL; only the
+     * bindings that differ from the cache count as a change.
+     */
+    public static void bindFramebuffer(int target, int fbo) {
+        if (CACHE.bindFramebuffer(target, fbo)) glBindFramebuffer(target, fbo);
+    }
+
+    // Fixed-function toggles
+
+    public static void setBlend(boolean enabled) {
+        toggle(GLStateCache.BLEND, GL_BLEND, enabled);
+    }
+
+    public static void setDepthTest(boolean enabled) {
+        toggle(GLStateCache.DEPTH_TEST, GL_DEPTH_TEST, enabled);
+    }
+
+    public static void setCullFace(boolean enabled) {
+        toggle(GLStateCache.CULL_FACE, GL_CULL_FACE, enabled);
+    }
+
+    /** Let vertex shaders set gl_PointSize (sprite passes); off, points are 1 px. */
+    public static void setProgramPointSize(boolean enabled) {
+        toggle(GLStateCache.PROGRAM_POINT_SIZE, GL_PROGRAM_POINT_SIZE, enabled);
+    }
+
+    public static void setDepthMask(boolean enabled) {
+        if (CACHE.setFlag(GLStateCache.DEPTH_MASK, enabled)) glDepthMask(enabled);
+    }
+
+    public static void blendFunc(int src, int dst) {
+        if (CACHE.blendFunc(src, dst)) glBlendFunc(src, dst);
+    }
+
+    public static void viewport(int x, int y, int width, int height) {
+        if (CACHE.viewport(x, y, width, height)) glViewport(x, y, width, height);
+    }
+
+    private static void toggle(int flag, int cap, boolean enabled) {
+        if (!CACHE.setFlag(flag, enabled)) return;
+        if (enabled) {
+            glEnable(cap);
+        } else {
+            glDisable(cap);
+        }
+    }
+
+    // Deletion — GL unbinds deleted objects, so the cache must follow
+
+    public static void deleteProgram(int id) {
+        glDeleteProgram(id);
+        CACHE.programDeleted(id);
+    }
+
+    public static void deleteVertexArray(int id) {
+        glDeleteVertexArrays(id);
+        CACHE.vertexArrayDeleted(id);
+    }
+
+    public static void deleteTexture(int id) {
+        glDeleteTextures(id);
+        CACHE.textureDeleted(id);
+    }
+
+    public static void deleteFramebuffer(int id) {
+        glDeleteFramebuffers(id);
+        CACHE.framebufferDeleted(id);
+    }
+
+    // Accounting
+
+    /** State changes that reached the driver since the last {@link #resetCounters()}. */
+    public static int getChangeCount() {
+        return CACHE.changeCount();
+    }
+
+    /** Calls dropped because the cached state already matched. */
+    public static int getSkippedCount() {
+        return CACHE.skippedCount();
+    }
+
+    public static void resetCounters() {
+        CACHE.resetCounters();
+    }
+
+    /** Currently bound program according to the cache (-1 if unknown). */
+    public static int getProgram() {
+        return CACHE.program();
+    }
+
+    /** Currently bound draw framebuffer according to the cache (-1 if unknown). */
+    public static int getDrawFramebuffer() {
+        return CACHE.drawFramebuffer();
+    }
+
+    /** Copy the cached viewport (x, y, width, height) into {@code out}; -1s if unknown. */
+    public static void getViewport(int[] out) {
+        CACHE.getViewport(out);
+    }
+}
@@ -0,0 +1,209 @@
+package com.jda.orrery.graphics.core;
+
+import static org.lwjgl.opengl.GL30.GL_DRAW_FRAMEBUFFER;
+import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
+
+/**
+ * The bookkeeping behind {@link GLState}: cached values, comparison and change/skip counters,
+ * without any GL calls. Each update returns true when the value changed and the caller must issue
+ * the GL call.
+ */
+final class GLStateCache {
+    // Sentinels: -1 is never a valid GL name, and a tri-state flag of -1 means "unknown"
+    static final int UNKNOWN = -1;
+
+    // Indices for setFlag
+    static final int BLEND = 0;
+    static final int DEPTH_TEST = 1;
+    static final int CULL_FACE = 2;
+    static final int DEPTH_MASK = 3;
+    static final int PROGRAM_POINT_SIZE = 4;
+    private static final int FLAGS = 5;
+
+    private int program;
+    private int vertexArray;
+    private int activeUnit;
+    private final int[] textureTargets = new int[GLState.MAX_TEXTURE_UNITS];
+    private final int[] textures = new int[GLState.MAX_TEXTURE_UNITS];
+    private int drawFramebuffer;
+    private int readFramebuffer;
+    private final int[] flags = new int[FLAGS];
+    private int blendSrc;
+    private int blendDst;
+    private final int[] viewport = new int[4];
+
+    private int changeCount = 0;
+    private int skippedCount = 0;
+
+    GLStateCache() {
+        invalidate();
+    }
+
+    /** Forget all cached state so the next update of each kind is a change. */
+    void invalidate() {
+        program = UNKNOWN;
+        vertexArray = UNKNOWN;
+        activeUnit = UNKNOWN;
+        for (int i = 0; i < GLState.MAX_TEXTURE_UNITS; i++) {
+            textureTargets[i] = UNKNOWN;
+            textures[i] = UNKNOWN;
+        }
+        drawFramebuffer = UNKNOWN;
+        readFramebuffer = UNKNOWN;
+        for (int i = 0; i < FLAGS; i++) {
+            flags[i] = UNKNOWN;
+        }
+        blendSrc = UNKNOWN;
+        blendDst = UNKNOWN;
+        for (int i = 0; i < 4; i++) {
+            viewport[i] = UNKNOWN;
+        }
+    }
+
+    boolean useProgram(int id) {
+        if (program == id) return skip();
+        program = id;
+        return change();
+    }
+
+    boolean bindVertexArray(int id) {
+        if (vertexArray == id) return skip();
+        vertexArray = id;
+        return change();
+    }
+
+    /** Unit index, not GL_TEXTUREn. */
+    boolean activeTexture(int unit) {
+        checkUnit(unit);
+        if (activeUnit == unit) return skip();
+        activeUnit = unit;
+        return change();
+    }
+
+    /** The binding on {@code unit} only; the caller selects the unit through activeTexture. */
+    boolean bindTexture(int unit, int target, int texture) {
+        checkUnit(unit);
+        if (textures[unit] == texture && textureTargets[unit] == target) return skip();
+        textures[unit] = texture;
+        textureTargets[unit] = target;
+        return change();
+    }
+
+    /** Active unit, or {@link #UNKNOWN}. */
+    int activeUnit() {
+        return activeUnit;
+    }
+
+    /**
+     * GL_FRAMEBUFFER sets both draw and read bindings, as in GL; it is a change if either binding
+     * differs.
+     */
+    boolean bindFramebuffer(int target, int fbo) {
+        if (target == GL_FRAMEBUFFER) {
+            if (drawFramebuffer == fbo && readFramebuffer == fbo) return skip();
+            drawFramebuffer = fbo;
+            readFramebuffer = fbo;
+        } else if (target == GL_DRAW_FRAMEBUFFER) {
+            if (drawFramebuffer == fbo) return skip();
+            drawFramebuffer = fbo;
+        } else {
+            if (readFramebuffer == fbo) return skip();
+            readFramebuffer = fbo;
+        }
+        return change();
+    }
+
+    /** @param flag one of {@link #BLEND}, {@link #DEPTH_TEST}, ... */
+    boolean setFlag(int flag, boolean enabled) {
+        int value = enabled ? 1 : 0;
+        if (flags[flag] == value) return skip();
+        flags[flag] = value;
+        return change();
+    }
+
+    boolean blendFunc(int src, int dst) {
+        if (blendSrc == src && blendDst == dst) return skip();
+        blendSrc = src;
+        blendDst = dst;
+        return change();
+    }
+
+    boolean viewport(int x, int y, int width, int height) {
+        if (viewport[0] == x
+                && viewport[1] == y
+                && viewport[2] == width
+                && viewport[3] == height) {
+            return skip();
+        }
+        viewport[0] = x;
+        viewport[1] = y;
+        viewport[2] = width;
+        viewport[3] = height;
+        return change();
+    }
+
+    // Deletion — GL unbinds deleted objects, so the cache must follow
+
+    void programDeleted(int id) {
+        if (program == id) program = 0;
+    }
+
+    void vertexArrayDeleted(int id) {
+        if (vertexArray == id) vertexArray = 0;
+    }
+
+    void textureDeleted(int id) {
+        for (int i = 0; i < GLState.MAX_TEXTURE_UNITS; i++) {
+            if (textures[i] == id) textures[i] = 0;
+        }
+    }
+
+    void framebufferDeleted(int id) {
+        if (drawFramebuffer == id) drawFramebuffer = 0;
+        if (readFramebuffer == id) readFramebuffer = 0;
+    }
+
+    // Accounting
+
+    int changeCount() {
+        return changeCount;
+    }
+
+    int skippedCount() {
+        return skippedCount;
+    }
+
+    void resetCounters() {
+        changeCount = 0;
+        skippedCount = 0;
+    }
+
+    int program() {
+        return program;
+    }
+
+    int drawFramebuffer() {
+        return drawFramebuffer;
+    }
+
+    void getViewport(int[] out) {
+        System.arraycopy(viewport, 0, out, 0, 4);
+    }
+
+    private boolean change() {
+        changeCount++;
+        return true;
+    }
+
+    private boolean skip() {
+        skippedCount++;
+        return false;
+    }
+
+    private static void checkUnit(int unit) {
+        if (unit < 0 || unit >= GLState.MAX_TEXTURE_UNITS) {
+            throw new IllegalArgumentException(
+                    "Texture unit " + unit + " outside 0.." + (GLState.MAX_TEXTURE_UNITS - 1));
+        }
+    }
+}
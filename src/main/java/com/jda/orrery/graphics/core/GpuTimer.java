@@ -0,0 +1,197 @@
+package com.jda.orrery.graphics.core;
+
+import static org.lwjgl.opengl.GL15.GL_QUERY_RESULT;
+import static org.lwjgl.opengl.GL15.GL_QUERY_RESULT_AVAILABLE;
+import static org.lwjgl.opengl.GL15.glBeginQuery;
+import static org.lwjgl.opengl.GL15.glDeleteQueries;
+import static org.lwjgl.opengl.GL15.glEndQuery;
+import static org.lwjgl.opengl.GL15.glGenQueries;
+import static org.lwjgl.opengl.GL15.glGetQueryObjecti;
+import static org.lwjgl.opengl.GL33.GL_TIME_ELAPSED;
+import static org.lwjgl.opengl.GL33.glGetQueryObjecti64;
+
+import com.jda.orrery.core.logging.Logging;
+import java.util.Arrays;
+import java.util.logging.Logger;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+
+/**
+ * Per-pass GPU timing with GL_TIME_ELAPSED queries (ARB_timer_query, core since GL 3.3), next to
+ * the CPU time spent issuing the same pass.
+ *
+ * Each frame gets its own slice of a query pool, and a slice is only read back when the pool comes
+ * round to it again, {@link #FRAMES_IN_FLIGHT} - 1 frames later, by which time the GPU has long
+ * finished with it — so reading results never stalls the pipeline. A slice that is still not
+ * available then is dropped rather than waited for.
+ *
+ * Only one GL_TIME_ELAPSED query may be active at a time, so intervals must not nest. A pass may
+ * be timed in several intervals per frame; they are summed. -Dorrery.gpuTimers=false disables the
+ * queries (CPU times are still recorded).
+ */
+public final class GpuTimer {
+    private static final Logger LOGGER = Logging.logger(GpuTimer.class);
+
+    /**
+     * Render passes with their own timings. Body draws made with a specialized shader variant are
+     * timed per variant (ROCKY to SUN); BODIES has the rest and the sprites.
+     */
+    public enum Pass {
+        STARS("stars"),
+        BODIES("bodies"),
+        ROCKY("rocky"),
+        GIANTS("giants"),
+        RINGED("ringed"),
+        UNTEXTURED("untextured"),
+        SUN("sun"),
+        RINGS("rings"),
+        RESOLVE("resolve"),
+        BLOOM("bloom"),
+        TONEMAP("tonemap"),
+        AA("aa"); // post-process AA; MSAA's cost is in RESOLVE
+
+        public final String label;
+
+        Pass(String label) {
+            this.label = label;
+        }
+    }
+
+    /** Frame slices in the query pool. */
+    static final int FRAMES_IN_FLIGHT = 4;
+
+    /** Timed intervals per frame; further begin() calls in a frame are ignored. */
+    static final int MAX_INTERVALS = 32;
+
+    private static final int PASSES = Pass.values().length;
+
+    private final boolean queriesEnabled;
+    private final int[] queries;
+    private final int[] intervalPass = new int[FRAMES_IN_FLIGHT * MAX_INTERVALS];
+    private final int[] intervalCount = new int[FRAMES_IN_FLIGHT];
+    private int frameSlot = 0;
+
+    // Interval in progress
+    private int activePass = -1;
+    private long activeCpuStart;
+
+    // Per-frame results in milliseconds, handed to FrameStatistics (reused every frame)
+    private final double[] cpuMs = new double[PASSES];
+    private final double[] gpuMs = new double[PASSES];
+    private long droppedFrames = 0;
+
+    public GpuTimer() {
+        GLCapabilities caps = GL.getCapabilities();
+        boolean supported = caps.OpenGL33 || caps.GL_ARB_timer_query;
+        boolean requested = Boolean.parseBoolean(System.getProperty("orrery.gpuTimers", "true"));
+        queriesEnabled = supported && requested;
+
+        if (queriesEnabled) {
+            queries = new int[FRAMES_IN_FLIGHT * MAX_INTERVALS];
+            glGenQueries(queries);
+            LOGGER.info(
+                    String.format(
+                            "GPU timers enabled (%d queries, %d frames latency)",
+                            queries.length, FRAMES_IN_FLIGHT - 1));
+        } else {
+            queries = null;
+            if (requested) {
+                LOGGER.warning("GL_TIME_ELAPSED queries unsupported; GPU pass times unavailable");
+            }
+        }
+    }
+
+    /** Start timing a pass. Ignored while another interval is open. */
+    public void begin(Pass pass) {
+        if (activePass >= 0) {
+            return;
+        }
+        activePass = pass.ordinal();
+        activeCpuStart = System.nanoTime();
+
+        if (queriesEnabled && intervalCount[frameSlot] < MAX_INTERVALS) {
+            int index = frameSlot * MAX_INTERVALS + intervalCount[frameSlot];
+            intervalPass[index] = activePass;
+            glBeginQuery(GL_TIME_ELAPSED, queries[index]);
+        }
+    }
+
+    /** Stop timing the pass started by the last {@link #begin}. */
+    public void end() {
+        if (activePass < 0) {
+            return;
+        }
+        cpuMs[activePass] += (System.nanoTime() - activeCpuStart) / 1_000_000.0;
+
+        if (queriesEnabled && intervalCount[frameSlot] < MAX_INTERVALS) {
+            glEndQuery(GL_TIME_ELAPSED);
+            intervalCount[frameSlot]++;
+        }
+        activePass = -1;
+    }
+
+    /**
+     * Close the frame: hand this frame's CPU times and the GPU times of the frame issued {@link
+     * #FRAMES_IN_FLIGHT} - 1 frames ago to {@code stats}, then recycle that frame's queries.
+     */
+    public void endFrame(FrameStatistics stats) {
+        end(); // an interval left open would otherwise never close
+        stats.recordCpuPassTimes(cpuMs);
+        Arrays.fill(cpuMs, 0.0);
+
+        if (!queriesEnabled) {
+            return;
+        }
+        frameSlot = (frameSlot + 1) % FRAMES_IN_FLIGHT;
+        if (collect(frameSlot)) {
+            stats.recordGpuPassTimes(gpuMs);
+        }
+        intervalCount[frameSlot] = 0;
+    }
+
+    /**
+     * Read back a frame slice into {@link #gpuMs} without blocking.
+     *
+     * @return false if the slice was empty or not yet available
+     */
+    private boolean collect(int slot) {
+        int count = intervalCount[slot];
+        if (count == 0) {
+            return false;
+        }
+        int base = slot * MAX_INTERVALS;
+
+        // Queries complete in submission order: once the last is available, all of them are
+        if (glGetQueryObjecti(queries[base + count - 1], GL_QUERY_RESULT_AVAILABLE) == 0) {
+            droppedFrames++;
+            return false;
+        }
+        Arrays.fill(gpuMs, 0.0);
+        for (int i = 0; i < count; i++) {
+            long nanos = glGetQueryObjecti64(queries[base + i], GL_QUERY_RESULT);
+            gpuMs[intervalPass[base + i]] += nanos / 1_000_000.0;
+        }
+        return true;
+    }
+
+    /** Frames between issuing a pass and its GPU time reaching {@link FrameStatistics}. */
+    public int getLatencyFrames() {
+        return FRAMES_IN_FLIGHT - 1;
+    }
+
+    public boolean isGpuTimingAvailable() {
+        return queriesEnabled;
+    }
+
+    /** Frames whose GPU results were not ready when their slice was recycled. */
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public void dispose() {
+        if (queries != null) {
+            glDeleteQueries(queries);
+        }
+        LOGGER.fine("GPU timers disposed (" + droppedFrames + " frames dropped)");
+    }
+}
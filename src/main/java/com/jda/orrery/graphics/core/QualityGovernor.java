@@ -0,0 +1,216 @@
+package com.jda.orrery.graphics.core;
+
+import com.jda.orrery.core.logging.Logging;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Frame-budget governor: watches recent frame costs and steps a quality ladder down when the
+ * target frame rate is being missed and back up when there is clear headroom.
+ *
+ * Each rung is a {@link Level} — internal render scale, MSAA samples and mesh LOD bias — ordered
+ * so the least visible savings are taken first. Sample counts are relative to the top rung's (the
+ * anti-aliasing mode's), halving down the ladder, so 8x MSAA steps 8-4-2 and 2x steps 2-1. The
+ * cost of a frame is the larger of its CPU work and its GPU time; when the CPU is the bound, lower
+ * rungs stop paying off and the governor settles at the bottom rung rather than oscillating.
+ *
+ * Hysteresis: a step down needs the p90 cost of a full evaluation window above {@link
+ * #DEGRADE_RATIO} of the budget; a step up needs it below {@link #UPGRADE_RATIO} for {@link
+ * #UPGRADE_HOLD_FRAMES} frames in a row. Every change clears the window (the new level has to prove
+ * itself, and GPU times arrive a few frames late), and a step up that is undone within {@link
+ * #UPGRADE_HOLD_FRAMES} frames doubles the hold before the next attempt, so a level that doesn't fit
+ * is not retried every few seconds. Pure logic — no GL context required; {@link FrameController}
+ * applies the level.
+ */
+public final class QualityGovernor {
+    private static final Logger LOGGER = Logging.logger(QualityGovernor.class);
+
+    /** Frames of cost history a decision is based on. */
+    static final int WINDOW_FRAMES = 30;
+
+    /** Step down when the window's p90 cost exceeds this fraction of the frame budget. */
+    static final double DEGRADE_RATIO = 0.95;
+
+    /** Step up only while the window's p90 cost stays under this fraction of the budget. */
+    static final double UPGRADE_RATIO = 0.70;
+
+    /** Consecutive frames of headroom before stepping up (before backoff). */
+    static final int UPGRADE_HOLD_FRAMES = 120;
+
+    /** Upper limit on the step-up backoff multiplier. */
+    static final int MAX_BACKOFF = 8;
+
+    private static final double DECISION_PERCENTILE = 90.0;
+
+    /** One rung of the ladder. */
+    public static final class Level {
+        /**
+         * Best quality; what is rendered when no governor is attached. Its sample count is nominal:
+         * without a governor the target keeps the anti-aliasing mode's samples.
+         */
+        public static final Level FULL = new Level(1.0f, 4, 1.0f);
+
+        /** Internal resolution as a fraction of the framebuffer, per axis. */
+        public final float renderScale;
+
+        public final int msaaSamples;
+
+        /** Divides projected radii before mesh LOD selection; above 1 picks coarser tiers. */
+        public final float lodBias;
+
+        public Level(float renderScale, int msaaSamples, float lodBias) {
+            this.renderScale = renderScale;
+            this.msaaSamples = msaaSamples;
+            this.lodBias = lodBias;
+        }
+
+        boolean sameAs(Level other) {
+            return renderScale == other.renderScale
+                    && msaaSamples == other.msaaSamples
+                    && lodBias == other.lodBias;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "scale %.2f, %dx MSAA, LOD bias %.1f", renderScale, msaaSamples, lodBias);
+        }
+    }
+
+    // Best first. LOD and samples go before resolution; resolution goes last. Samples per rung
+    // are the top rung's shifted right by SAMPLE_SHIFTS (4x: 4, 4, 2, 2, 2, 1, 1)
+    private static final float[] RENDER_SCALES = {1.0f, 1.0f, 1.0f, 0.85f, 0.75f, 0.67f, 0.5f};
+    private static final int[] SAMPLE_SHIFTS = {0, 0, 1, 1, 1, 2, 2};
+    private static final float[] LOD_BIASES = {1.0f, 1.5f, 1.5f, 2.0f, 2.0f, 2.5f, 3.0f};
+
+    private final double budgetMs;
+    private final Level[] levels;
+    private final SampleWindow window = new SampleWindow(WINDOW_FRAMES);
+    private final double[] scratch = new double[WINDOW_FRAMES];
+
+    private int current = 0;
+    private int headroomFrames = 0;
+    private int backoff = 1;
+    private long frame = 0;
+    private long lastUpgradeFrame = -1; // none yet
+
+    /**
+     * @param targetFps frame rate to hold
+     * @param minRenderScale lowest render scale the ladder may reach (0, 1]
+     * @param msaaSamples MSAA samples of the top rung (1 = none); lower rungs halve it
+     */
+    public QualityGovernor(double targetFps, float minRenderScale, int msaaSamples) {
+        if (!(targetFps > 0)) {
+            throw new IllegalArgumentException("Target FPS must be positive: " + targetFps);
+        }
+        this.budgetMs = 1000.0 / targetFps;
+        this.levels = clampLadder(ladder(msaaSamples), minRenderScale, msaaSamples);
+        LOGGER.info(
+                String.format(
+                        "Quality governor: %.0f FPS target (%.2fms), %d levels down to %s",
+                        targetFps, budgetMs, levels.length, levels[levels.length - 1]));
+    }
+
+    /** The full ladder for a top rung of {@code msaaSamples}, before bounds. */
+    static Level[] ladder(int msaaSamples) {
+        int top = Math.max(1, msaaSamples);
+        Level[] ladder = new Level[RENDER_SCALES.length];
+        for (int i = 0; i < ladder.length; i++) {
+            ladder[i] =
+                    new Level(
+                            RENDER_SCALES[i], Math.max(1, top >> SAMPLE_SHIFTS[i]), LOD_BIASES[i]);
+        }
+        return ladder;
+    }
+
+    /** Apply the bounds to each rung and drop rungs that end up identical to the one above. */
+    static Level[] clampLadder(Level[] ladder, float minRenderScale, int maxMsaaSamples) {
+        float minScale = Math.max(0.25f, Math.min(1.0f, minRenderScale));
+        int maxSamples = Math.max(1, maxMsaaSamples);
+        List<Level> clamped = new ArrayList<>();
+        for (Level level : ladder) {
+            Level bounded =
+                    new Level(
+                            Math.max(minScale, level.renderScale),
+                            Math.min(maxSamples, level.msaaSamples),
+                            level.lodBias);
+            if (clamped.isEmpty() || !bounded.sameAs(clamped.get(clamped.size() - 1))) {
+                clamped.add(bounded);
+            }
+        }
+        return clamped.toArray(new Level[0]);
+    }
+
+    /**
+     * Record one frame's cost and possibly change level.
+     *
+     * @param frameCostMs the larger of the frame's CPU work and GPU time
+     * @return true if {@link #getLevel()} changed and must be applied before the next frame
+     */
+    public boolean observe(double frameCostMs) {
+        frame++;
+        window.add(frameCostMs);
+        if (window.count() < WINDOW_FRAMES) {
+            return false;
+        }
+        double p90 = window.percentile(DECISION_PERCENTILE, scratch);
+
+        if (p90 > budgetMs * DEGRADE_RATIO) {
+            headroomFrames = 0;
+            if (current == levels.length - 1) {
+                return false;
+            }
+            // Undoing a recent step up: that level doesn't fit, wait longer before retrying it.
+            // Otherwise the load itself changed and the next step up starts from a clean slate.
+            if (lastUpgradeFrame >= 0
+                    && frame - lastUpgradeFrame <= (long) UPGRADE_HOLD_FRAMES * backoff) {
+                backoff = Math.min(MAX_BACKOFF, backoff * 2);
+            } else {
+                backoff = 1;
+            }
+            return change(current + 1, p90);
+        }
+
+        if (p90 < budgetMs * UPGRADE_RATIO && current > 0) {
+            if (++headroomFrames >= UPGRADE_HOLD_FRAMES * backoff) {
+                lastUpgradeFrame = frame;
+                return change(current - 1, p90);
+            }
+        } else {
+            headroomFrames = 0;
+        }
+        return false;
+    }
+
+    private boolean change(int next, double p90) {
+        LOGGER.info(
+                String.format(
+                        "Quality %s to level %d (%s): p90 frame cost %.2fms, budget %.2fms",
+                        next > current ? "down" : "up",
+                        next,
+                        levels[next],
+                        p90,
+                        budgetMs));
+        current = next;
+        headroomFrames = 0;
+        window.clear();
+        return true;
+    }
+
+    public Level getLevel() {
+        return levels[current];
+    }
+
+    public int getLevelIndex() {
+        return current;
+    }
+
+    public int getLevelCount() {
+        return levels.length;
+    }
+
+    public double getBudgetMs() {
+        return budgetMs;
+    }
+}
@@ -0,0 +1,145 @@
+package com.jda.orrery.graphics.core;
+
+/**
+ * Rolling window of the last {@code capacity} timing samples (ms), in a fixed ring. Percentiles
+ * are exact over the window: the samples are copied into a caller-owned scratch array and the
+ * requested rank is found by in-place quickselect, so neither recording nor reporting allocates.
+ * Pure math — no GL context required. {@link #nearestRank} is public so reports outside the window
+ * (the benchmarks) rank their samples the same way.
+ */
+public final class SampleWindow {
+    private final double[] samples;
+    private int next = 0;
+    private int count = 0;
+
+    SampleWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Window capacity must be positive: " + capacity);
+        }
+        samples = new double[capacity];
+    }
+
+    void add(double ms) {
+        samples[next] = ms;
+        next = next + 1 == samples.length ? 0 : next + 1;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /** Drop every sample; the capacity is kept. */
+    void clear() {
+        next = 0;
+        count = 0;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int capacity() {
+        return samples.length;
+    }
+
+    /** The i-th sample in the window, oldest first. */
+    double get(int i) {
+        int start = count < samples.length ? 0 : next;
+        int at = start + i;
+        return samples[at >= samples.length ? at - samples.length : at];
+    }
+
+    double mean() {
+        if (count == 0) return 0;
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += samples[i];
+        }
+        return sum / count;
+    }
+
+    double max() {
+        double max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Nearest-rank percentile: the smallest sample with at least {@code percent}% of the window at
+     * or below it.
+     *
+     * @param percent 0 to 100
+     * @param scratch at least {@link #capacity()} long; overwritten
+     * @return the percentile, or 0 for an empty window
+     */
+    double percentile(double percent, double[] scratch) {
+        System.arraycopy(samples, 0, scratch, 0, count);
+        return nearestRank(scratch, count, percent);
+    }
+
+    /**
+     * Nearest-rank percentile of {@code values[0, n)}: the smallest value with at least {@code
+     * percent}% of them at or below it. Reorders the array.
+     *
+     * @param percent 0 to 100
+     * @return the percentile, or 0 if {@code n} is 0
+     */
+    public static double nearestRank(double[] values, int n, double percent) {
+        if (n == 0) return 0;
+        int rank = (int) Math.ceil(percent / 100.0 * n);
+        return select(values, n, Math.max(0, Math.min(n - 1, rank - 1)));
+    }
+
+    /** Samples above {@code thresholdMs}. */
+    int countAbove(double thresholdMs) {
+        int above = 0;
+        for (int i = 0; i < count; i++) {
+            if (samples[i] > thresholdMs) above++;
+        }
+        return above;
+    }
+
+    /** Mean absolute change between consecutive samples: how unevenly frames are paced. */
+    double meanAbsoluteDelta() {
+        if (count < 2) return 0;
+        double sum = 0;
+        double previous = get(0);
+        for (int i = 1; i < count; i++) {
+            double current = get(i);
+            sum += Math.abs(current - previous);
+            previous = current;
+        }
+        return sum / (count - 1);
+    }
+
+    /** k-th smallest of values[0, n) by Hoare quickselect; reorders the array. */
+    static double select(double[] values, int n, int k) {
+        int lo = 0;
+        int hi = n - 1;
+        while (lo < hi) {
+            double pivot = values[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    double swap = values[i];
+                    values[i] = values[j];
+                    values[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return values[k];
+            }
+        }
+        return values[k];
+    }
+}
@@ -55,9 +55,15 @@ public class SceneController {
                     layer.render(dc);
                 }
             }
+            long postFXStart = System.nanoTime();
+            GpuTimer timer = dc.getGpuTimer();
+            if (timer != null) timer.begin(GpuTimer.Pass.RESOLVE);
             postFXTarget.resolve();
+            if (timer != null) timer.end();
             postFXTarget.unbindToDefault();
             postFXPipeline.execute();
+            dc.getFrameStatistics()
+                    .recordPhase(FrameStatistics.Phase.POST_FX, System.nanoTime() - postFXStart);
         } finally {
             postFXTarget.unbindToDefault();
         }
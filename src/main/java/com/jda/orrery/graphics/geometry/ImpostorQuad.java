@@ -0,0 +1,41 @@
+package com.jda.orrery.graphics.geometry;
+
+import static org.lwjgl.opengl.GL11.GL_TRIANGLE_STRIP;
+import static org.lwjgl.opengl.GL11.glDrawArrays;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static org.lwjgl.opengl.GL31.glDrawArraysInstanced;
+
+import com.jda.orrery.graphics.core.GLState;
+
+/**
+ * Four-vertex triangle strip for ray-cast body impostors. Like {@code FullScreenTriangle} it is an
+ * empty VAO: the IMPOSTOR variant of celestial_unified_ubo.vert builds the camera-facing quad from
+ * {@code gl_VertexID} and the body's UBO block, so no vertex data is uploaded.
+ */
+public class ImpostorQuad {
+    public static final int VERTEX_COUNT = 4;
+
+    private int vao = 0;
+
+    public ImpostorQuad() {
+        vao = glGenVertexArrays();
+    }
+
+    public void draw() {
+        GLState.bindVertexArray(vao);
+        glDrawArrays(GL_TRIANGLE_STRIP, 0, VERTEX_COUNT);
+    }
+
+    /** One quad per instance; instances are distinguished in the shader by gl_InstanceID. */
+    public void drawInstanced(int instanceCount) {
+        GLState.bindVertexArray(vao);
+        glDrawArraysInstanced(GL_TRIANGLE_STRIP, 0, VERTEX_COUNT, instanceCount);
+    }
+
+    public void dispose() {
+        if (vao != 0) {
+            GLState.deleteVertexArray(vao);
+            vao = 0;
+        }
+    }
+}
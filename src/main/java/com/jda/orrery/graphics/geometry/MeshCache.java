@@ -0,0 +1,173 @@
+package com.jda.orrery.graphics.geometry;
+
+import com.jda.orrery.core.logging.Logging;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+/**
+ * On-disk cache of generated sphere meshes, so startup maps finished vertex and index data instead
+ * of regenerating it. One file per (topology, quality), named and headed with {@link
+ * #FORMAT_VERSION}; bump the version whenever {@link SphereMeshData}'s output changes.
+ *
+ * Files are written in native byte order and loaded with a read-only memory map; the mapped
+ * buffers go to glBufferData as-is. A file that is missing, truncated, from another version or
+ * written with the other byte order is a miss and gets regenerated. Enabled by pointing
+ * -Dorrery.meshCacheDir at a writable directory.
+ *
+ * File layout: header of 6 ints (magic, version, topology ordinal, quality ordinal, float count,
+ * index count), then the vertex floats, then the indices.
+ */
+final class MeshCache {
+    private static final Logger LOGGER = Logging.logger(MeshCache.class);
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x4F524D53; // "ORMS"
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+
+    private final Path directory;
+
+    MeshCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /** Cache configured by -Dorrery.meshCacheDir, or null if the property is unset. */
+    static MeshCache fromSystemProperty() {
+        String dir = System.getProperty("orrery.meshCacheDir");
+        if (dir == null || dir.isEmpty()) {
+            return null;
+        }
+        return new MeshCache(Paths.get(dir));
+    }
+
+    /** Vertex and index data mapped from a cache file; valid until garbage collected. */
+    static final class Entry {
+        final FloatBuffer vertices;
+        final IntBuffer indices;
+
+        Entry(FloatBuffer vertices, IntBuffer indices) {
+            this.vertices = vertices;
+            this.indices = indices;
+        }
+    }
+
+    Path fileFor(MeshTopology topology, SphereMesh.Quality quality) {
+        return directory.resolve(
+                "sphere-"
+                        + topology.name().toLowerCase()
+                        + "-"
+                        + quality.name().toLowerCase()
+                        + "-v"
+                        + FORMAT_VERSION
+                        + ".mesh");
+    }
+
+    /**
+     * Map a cached mesh.
+     *
+     * @return the mesh data, or null on a miss
+     */
+    Entry load(MeshTopology topology, SphereMesh.Quality quality) {
+        Path file = fileFor(topology, quality);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                LOGGER.warning("Ignoring truncated mesh cache file " + file);
+                return null;
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            map.order(ByteOrder.nativeOrder());
+
+            int floatCount = map.getInt(4 * Integer.BYTES);
+            int indexCount = map.getInt(5 * Integer.BYTES);
+            if (map.getInt(0) != MAGIC
+                    || map.getInt(Integer.BYTES) != FORMAT_VERSION
+                    || map.getInt(2 * Integer.BYTES) != topology.ordinal()
+                    || map.getInt(3 * Integer.BYTES) != quality.ordinal()
+                    || floatCount < 0
+                    || indexCount < 0
+                    || size != HEADER_BYTES + ((long) floatCount + indexCount) * 4) {
+                LOGGER.warning("Ignoring stale or foreign mesh cache file " + file);
+                return null;
+            }
+
+            map.position(HEADER_BYTES);
+            FloatBuffer vertices = map.slice().order(ByteOrder.nativeOrder()).asFloatBuffer();
+            vertices.limit(floatCount);
+            map.position(HEADER_BYTES + floatCount * Float.BYTES);
+            IntBuffer indices = map.slice().order(ByteOrder.nativeOrder()).asIntBuffer();
+            indices.limit(indexCount);
+
+            LOGGER.fine("Mapped cached mesh " + file);
+            return new Entry(vertices, indices);
+        } catch (IOException e) {
+            LOGGER.warning("Failed to read mesh cache file " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write a generated mesh. Goes through a temporary file and a rename, so a crash mid-write
+     * never leaves a partial file under the real name. Failures are logged and otherwise ignored;
+     * the cache is only an optimization.
+     */
+    void store(MeshTopology topology, SphereMesh.Quality quality, SphereMeshData data) {
+        Path file = fileFor(topology, quality);
+        ByteBuffer buffer =
+                ByteBuffer.allocate(
+                                HEADER_BYTES
+                                        + (data.vertices.length + data.indices.length) * 4)
+                        .order(ByteOrder.nativeOrder());
+        buffer.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(topology.ordinal())
+                .putInt(quality.ordinal())
+                .putInt(data.vertices.length)
+                .putInt(data.indices.length);
+        buffer.asFloatBuffer().put(data.vertices);
+        buffer.position(buffer.position() + data.vertices.length * Float.BYTES);
+        buffer.asIntBuffer().put(data.indices);
+        buffer.rewind();
+
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(
+                    temp,
+                    file,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.fine("Cached mesh " + file);
+        } catch (IOException e) {
+            LOGGER.warning("Failed to write mesh cache file " + file + ": " + e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // A stray .tmp file is never mistaken for a cache entry
+                }
+            }
+        }
+    }
+}
@@ -18,6 +18,9 @@ public class MeshLibrary {
 
     private final Map<MeshTopology, Map<SphereMesh.Quality, SphereMesh>> meshCache;
 
+    // Generated geometry on disk (-Dorrery.meshCacheDir); null = generate every run
+    private final MeshCache diskCache = MeshCache.fromSystemProperty();
+
     private int cacheMisses = 0;
 
     public MeshLibrary() {
@@ -27,7 +30,12 @@ public class MeshLibrary {
             meshCache.put(topology, new EnumMap<>(SphereMesh.Quality.class));
         }
 
-        LOGGER.info("MeshLibrary initialized");
+        LOGGER.info(
+                diskCache != null
+                        ? "MeshLibrary initialized (disk cache: "
+                                + System.getProperty("orrery.meshCacheDir")
+                                + ")"
+                        : "MeshLibrary initialized");
     }
 
     /**
@@ -49,7 +57,7 @@ public class MeshLibrary {
                             "Creating new %s mesh at %s quality (cache miss #%d)",
                             topology, quality, cacheMisses));
 
-            mesh = new SphereMesh(topology, quality);
+            mesh = new SphereMesh(topology, quality, diskCache);
             topologyCache.put(quality, mesh);
         }
 
@@ -91,13 +99,23 @@ public class MeshLibrary {
         LOGGER.info("Preloading common meshes...");
 
         // Only preload UV_SPHERE meshes — always used for equirectangular textures.
-        // CelestialRenderer is hard-coded to use UV_SPHERE for proper texture mapping
-        get(MeshTopology.UV_SPHERE, SphereMesh.Quality.HIGH); // Planets and Moon
-        get(MeshTopology.UV_SPHERE, SphereMesh.Quality.MEDIUM); // Distant bodies
+        // CelestialRenderer uses UV_SPHERE for proper texture mapping and picks the tier per body
+        // each frame, so every tier must be ready before the first frame.
+        preloadTiers(MeshTopology.UV_SPHERE);
 
         LOGGER.info(String.format("Preloaded %d meshes", getTotalMeshCount()));
     }
 
+    /**
+     * Create every quality tier of a topology up front, so per-frame LOD switches never build a
+     * mesh on the render path.
+     */
+    public void preloadTiers(MeshTopology topology) {
+        for (SphereMesh.Quality quality : SphereMesh.Quality.values()) {
+            get(topology, quality);
+        }
+    }
+
     /** Dispose all cached meshes and free GPU resources. */
     public void dispose() {
         LOGGER.info("Disposing MeshLibrary...");
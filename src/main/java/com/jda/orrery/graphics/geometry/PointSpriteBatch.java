@@ -0,0 +1,116 @@
+package com.jda.orrery.graphics.geometry;
+
+import static org.lwjgl.opengl.GL11.GL_FLOAT;
+import static org.lwjgl.opengl.GL11.GL_POINTS;
+import static org.lwjgl.opengl.GL11.glDrawArrays;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+
+import com.jda.orrery.graphics.core.GLState;
+import java.nio.FloatBuffer;
+import org.joml.Vector3f;
+import org.lwjgl.BufferUtils;
+
+/**
+ * Streamed point list for bodies too small on screen to be worth a sphere mesh. Sprites are added
+ * during the frame and drawn with one glDrawArrays(GL_POINTS) by the celestial_sprite shader.
+ *
+ * Vertex layout (8 floats): location 0 = camera-relative world position + projected radius in
+ * pixels; location 1 = colour (albedo, or emission for self-luminous bodies) + emissive flag.
+ */
+public class PointSpriteBatch {
+    public static final int MAX_SPRITES = 64;
+
+    private static final int FLOATS_PER_SPRITE = 8;
+    private static final int STRIDE = FLOATS_PER_SPRITE * Float.BYTES;
+
+    private final FloatBuffer data;
+    private int vao = 0;
+    private int vbo = 0;
+    private int count = 0;
+
+    public PointSpriteBatch() {
+        data = BufferUtils.createFloatBuffer(MAX_SPRITES * FLOATS_PER_SPRITE);
+
+        vao = glGenVertexArrays();
+        GLState.bindVertexArray(vao);
+
+        vbo = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        glBufferData(GL_ARRAY_BUFFER, (long) MAX_SPRITES * STRIDE, GL_STREAM_DRAW);
+
+        glVertexAttribPointer(0, 4, GL_FLOAT, false, STRIDE, 0);
+        glEnableVertexAttribArray(0);
+        glVertexAttribPointer(1, 4, GL_FLOAT, false, STRIDE, 4 * Float.BYTES);
+        glEnableVertexAttribArray(1);
+
+        GLState.bindVertexArray(0);
+    }
+
+    /** Start a new frame's batch. */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Queue one sprite.
+     *
+     * @return false if the batch is full
+     */
+    public boolean add(
+            float x,
+            float y,
+            float z,
+            float radiusPx,
+            Vector3f color,
+            float colorScale,
+            boolean emissive) {
+        if (count == MAX_SPRITES) {
+            return false;
+        }
+        int base = count * FLOATS_PER_SPRITE;
+        data.put(base, x);
+        data.put(base + 1, y);
+        data.put(base + 2, z);
+        data.put(base + 3, radiusPx);
+        data.put(base + 4, color.x * colorScale);
+        data.put(base + 5, color.y * colorScale);
+        data.put(base + 6, color.z * colorScale);
+        data.put(base + 7, emissive ? 1.0f : 0.0f);
+        count++;
+        return true;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** Upload the queued sprites (orphaning last frame's storage) and draw them as points. */
+    public void draw() {
+        if (count == 0) return;
+
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        glBufferData(GL_ARRAY_BUFFER, (long) MAX_SPRITES * STRIDE, GL_STREAM_DRAW);
+        data.limit(count * FLOATS_PER_SPRITE);
+        data.position(0);
+        glBufferSubData(GL_ARRAY_BUFFER, 0, data);
+        data.clear();
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+        GLState.bindVertexArray(vao);
+        glDrawArrays(GL_POINTS, 0, count);
+    }
+
+    public void dispose() {
+        if (vbo != 0) {
+            glDeleteBuffers(vbo);
+            vbo = 0;
+        }
+        if (vao != 0) {
+            GLState.deleteVertexArray(vao);
+            vao = 0;
+        }
+    }
+}
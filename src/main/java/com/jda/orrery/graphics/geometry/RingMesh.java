@@ -1,5 +1,6 @@
 package com.jda.orrery.graphics.geometry;
 
+import com.jda.orrery.graphics.core.GLState;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import org.lwjgl.opengl.GL46;
@@ -84,7 +85,7 @@ public class RingMesh {
 
             // Create VAO
             vao = GL46.glGenVertexArrays();
-            GL46.glBindVertexArray(vao);
+            GLState.bindVertexArray(vao);
 
             // Create VBO
             vbo = GL46.glGenBuffers();
@@ -111,7 +112,7 @@ public class RingMesh {
                     2, 2, GL46.GL_FLOAT, false, 8 * Float.BYTES, 6 * Float.BYTES);
             GL46.glEnableVertexAttribArray(2);
 
-            GL46.glBindVertexArray(0);
+            GLState.bindVertexArray(0);
 
             this.vertexCount = indices.limit();
 
@@ -122,19 +123,22 @@ public class RingMesh {
     }
 
     public void render() {
-        GL46.glBindVertexArray(vao);
+        GLState.bindVertexArray(vao);
         GL46.glDrawElements(GL46.GL_TRIANGLES, vertexCount, GL46.GL_UNSIGNED_INT, 0);
-        GL46.glBindVertexArray(0);
     }
 
     public void dispose() {
         if (disposed) return;
         GL46.glDeleteBuffers(vbo);
         GL46.glDeleteBuffers(ebo);
-        GL46.glDeleteVertexArrays(vao);
+        GLState.deleteVertexArray(vao);
         disposed = true;
     }
 
+    public int getTriangleCount() {
+        return vertexCount / 3;
+    }
+
     public float getInnerRadius() {
         return innerRadius;
     }
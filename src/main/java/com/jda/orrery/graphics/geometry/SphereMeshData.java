@@ -0,0 +1,246 @@
+package com.jda.orrery.graphics.geometry;
+
+import java.util.Arrays;
+
+/**
+ * CPU-side sphere geometry, generated straight into exactly-sized primitive arrays — no boxed
+ * lists, no resizing. Vertex and index counts are known in closed form for both topologies, so
+ * each array is allocated once and filled in place.
+ *
+ * Vertex layout (8 floats): position xyz, normal xyz (equal to the position on the unit sphere),
+ * parametric (theta, phi). Body-fixed convention: Z-up (north pole), X through prime meridian.
+ * Pure math — no GL context required.
+ */
+final class SphereMeshData {
+    static final int FLOATS_PER_VERTEX = 8;
+
+    final float[] vertices;
+    final int[] indices;
+    private int vertexCount = 0;
+
+    private SphereMeshData(int vertexCount, int indexCount) {
+        this.vertices = new float[vertexCount * FLOATS_PER_VERTEX];
+        this.indices = new int[indexCount];
+    }
+
+    /** Generate a mesh; topologies without a generator of their own use the icosphere. */
+    static SphereMeshData generate(MeshTopology topology, SphereMesh.Quality quality) {
+        return topology == MeshTopology.UV_SPHERE
+                ? generateUVSphere(quality.latitudeSegments, quality.longitudeSegments)
+                : generateIcosphere(quality.subdivisions);
+    }
+
+    int getVertexCount() {
+        return vertexCount;
+    }
+
+    // UV sphere
+
+    /**
+     * Latitude/longitude grid with a duplicated seam column (phi = 0 and 2π), so equirectangular
+     * textures do not wrap across a triangle.
+     */
+    static SphereMeshData generateUVSphere(int latSegments, int lonSegments) {
+        SphereMeshData mesh =
+                new SphereMeshData(
+                        (latSegments + 1) * (lonSegments + 1), latSegments * lonSegments * 6);
+
+        for (int lat = 0; lat <= latSegments; lat++) {
+            // theta: angle from +Z axis (0 at north pole, π at south pole)
+            float theta = (float) (lat * Math.PI / latSegments);
+            float sinTheta = (float) Math.sin(theta);
+            float cosTheta = (float) Math.cos(theta);
+
+            for (int lon = 0; lon <= lonSegments; lon++) {
+                // phi: angle around Z axis from +X (longitude from prime meridian), 0 to 2π
+                float phi = (float) (lon * 2.0 * Math.PI / lonSegments);
+                float x = sinTheta * (float) Math.cos(phi);
+                float y = sinTheta * (float) Math.sin(phi);
+                mesh.putVertex(x, y, cosTheta, theta, phi);
+            }
+        }
+
+        // Two triangles per quad
+        int[] indices = mesh.indices;
+        int i = 0;
+        for (int lat = 0; lat < latSegments; lat++) {
+            for (int lon = 0; lon < lonSegments; lon++) {
+                int current = lat * (lonSegments + 1) + lon;
+                int next = current + lonSegments + 1;
+
+                indices[i++] = current;
+                indices[i++] = next;
+                indices[i++] = current + 1;
+
+                indices[i++] = current + 1;
+                indices[i++] = next;
+                indices[i++] = next + 1;
+            }
+        }
+        return mesh;
+    }
+
+    // Icosphere
+
+    // Initial icosahedron, transformed from Y-up to Z-up: (x,y,z) -> (x,z,y)
+    private static final float T = (float) ((1.0 + Math.sqrt(5.0)) / 2.0);
+    private static final float[] ICOSAHEDRON_VERTICES = {
+        -1, 0, T, 1, 0, T, -1, 0, -T, 1, 0, -T,
+        0, T, -1, 0, T, 1, 0, -T, -1, 0, -T, 1,
+        T, -1, 0, T, 1, 0, -T, -1, 0, -T, 1, 0
+    };
+    private static final int[] ICOSAHEDRON_FACES = {
+        // 5 faces around vertex 0
+        0, 11, 5, 0, 5, 1, 0, 1, 7, 0, 7, 10, 0, 10, 11,
+        // 5 adjacent faces
+        1, 5, 9, 5, 11, 4, 11, 10, 2, 10, 7, 6, 7, 1, 8,
+        // 5 faces around vertex 3
+        3, 9, 4, 3, 4, 2, 3, 2, 6, 3, 6, 8, 3, 8, 9,
+        // 5 adjacent faces
+        4, 9, 5, 2, 4, 11, 6, 2, 10, 8, 6, 7, 9, 8, 1
+    };
+
+    /**
+     * Subdivided icosahedron. Each level splits every face in four; midpoints are shared between
+     * neighbouring faces through {@link EdgeMidpoints}. After s levels there are 20·4^s faces and,
+     * by Euler's formula, 10·4^s + 2 vertices.
+     */
+    static SphereMeshData generateIcosphere(int subdivisions) {
+        int scale = 1 << (2 * subdivisions);
+        int faceCount = 20 * scale;
+        SphereMeshData mesh = new SphereMeshData(10 * scale + 2, faceCount * 3);
+
+        float[] base = ICOSAHEDRON_VERTICES;
+        for (int v = 0; v < base.length; v += 3) {
+            mesh.putIcosphereVertex(base[v], base[v + 1], base[v + 2]);
+        }
+
+        // Ping-pong between two full-size face arrays; the last level writes mesh.indices
+        int[] faces = subdivisions % 2 == 0 ? mesh.indices : new int[faceCount * 3];
+        int[] next = faces == mesh.indices ? new int[faceCount * 3] : mesh.indices;
+        System.arraycopy(ICOSAHEDRON_FACES, 0, faces, 0, ICOSAHEDRON_FACES.length);
+        int length = ICOSAHEDRON_FACES.length;
+
+        // Sized for the last level: 3 edges per face, each shared by two faces
+        EdgeMidpoints midpoints = new EdgeMidpoints(faceCount / 4 * 3 / 2);
+        for (int level = 0; level < subdivisions; level++) {
+            midpoints.clear();
+            int out = 0;
+            for (int i = 0; i < length; i += 3) {
+                int v1 = faces[i];
+                int v2 = faces[i + 1];
+                int v3 = faces[i + 2];
+                int m1 = mesh.midpoint(v1, v2, midpoints);
+                int m2 = mesh.midpoint(v2, v3, midpoints);
+                int m3 = mesh.midpoint(v3, v1, midpoints);
+
+                out = putTriangle(next, out, v1, m1, m3);
+                out = putTriangle(next, out, v2, m2, m1);
+                out = putTriangle(next, out, v3, m3, m2);
+                out = putTriangle(next, out, m1, m2, m3);
+            }
+            int[] swap = faces;
+            faces = next;
+            next = swap;
+            length = out;
+        }
+        return mesh;
+    }
+
+    private static int putTriangle(int[] faces, int at, int v1, int v2, int v3) {
+        faces[at] = v1;
+        faces[at + 1] = v2;
+        faces[at + 2] = v3;
+        return at + 3;
+    }
+
+    /** Get or create the normalized midpoint of an edge. */
+    private int midpoint(int v1, int v2, EdgeMidpoints cache) {
+        long key = ((long) Math.min(v1, v2) << 32) | Math.max(v1, v2);
+        int cached = cache.get(key);
+        if (cached >= 0) {
+            return cached;
+        }
+
+        int a = v1 * FLOATS_PER_VERTEX;
+        int b = v2 * FLOATS_PER_VERTEX;
+        int index = vertexCount;
+        putIcosphereVertex(
+                (vertices[a] + vertices[b]) * 0.5f,
+                (vertices[a + 1] + vertices[b + 1]) * 0.5f,
+                (vertices[a + 2] + vertices[b + 2]) * 0.5f);
+        cache.put(key, index);
+        return index;
+    }
+
+    /** Normalize onto the unit sphere and derive (theta, phi) from the position. */
+    private void putIcosphereVertex(float x, float y, float z) {
+        float length = (float) Math.sqrt(x * x + y * y + z * z);
+        x /= length;
+        y /= length;
+        z /= length;
+
+        float theta = (float) Math.acos(z); // angle from +Z
+        float phi = (float) Math.atan2(y, x);
+        if (phi < 0) phi += 2.0f * (float) Math.PI; // Normalize to [0, 2π]
+        putVertex(x, y, z, theta, phi);
+    }
+
+    private void putVertex(float x, float y, float z, float theta, float phi) {
+        int at = vertexCount++ * FLOATS_PER_VERTEX;
+        vertices[at] = x;
+        vertices[at + 1] = y;
+        vertices[at + 2] = z;
+        vertices[at + 3] = x; // Normal equals position on the unit sphere
+        vertices[at + 4] = y;
+        vertices[at + 5] = z;
+        vertices[at + 6] = theta;
+        vertices[at + 7] = phi;
+    }
+
+    /**
+     * Open-addressing edge → midpoint-index map on primitive arrays (replaces a boxed {@code
+     * Map<Long, Integer>}). Keys are never 0 since an edge joins two distinct vertices, so 0 marks
+     * an empty slot.
+     */
+    static final class EdgeMidpoints {
+        private final long[] keys;
+        private final int[] values;
+        private final int mask;
+
+        EdgeMidpoints(int expectedEdges) {
+            // Power of two at least twice the edge count keeps probe chains short
+            int capacity = Integer.highestOneBit(Math.max(2, expectedEdges) * 2 - 1) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0L);
+        }
+
+        /** @return the stored index, or -1 if the edge has no midpoint yet */
+        int get(long key) {
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                long k = keys[slot];
+                if (k == key) return values[slot];
+                if (k == 0L) return -1;
+            }
+        }
+
+        void put(long key, int value) {
+            int slot = slot(key);
+            while (keys[slot] != 0L && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -2,7 +2,7 @@ package com.jda.orrery.graphics.illumination;
 
 import com.jda.orrery.core.logging.Logging;
 import com.jda.orrery.graphics.core.DrawContext;
-import com.jda.orrery.graphics.resources.Shader;
+import com.jda.orrery.graphics.ubo.FrameDataUBO;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.logging.Logger;
@@ -28,6 +28,11 @@ public class IlluminationManager {
     // Sun properties
     private static final Vector3f SUN_COLOR = new Vector3f(1.0f, 0.95f, 0.8f); // D65 adjusted
 
+    // Profile last written to FrameData, and the block it went to. The block keeps the values
+    // until overwritten, so a write is only needed when either changes.
+    private IlluminationProfile uploadedProfile;
+    private FrameDataUBO uploadedTo;
+
     /** Illumination profile defining how scene lighting is calculated. Immutable. */
     public static class IlluminationProfile {
         public static final int TONEMAP_REINHARD = 0;
@@ -54,7 +59,7 @@ public class IlluminationManager {
         // Post-FX
         public final float exposure; // Exposure multiplier consumed by the tonemap pass
         public final float bloomStrength; // 0 disables bloom
-        public final float bloomThreshold; // luminance contribution threshold (Step 4)
+        public final float bloomThreshold; // bloom prefilter knee, on the brightest channel
         public final int toneMapOperator; // TONEMAP_REINHARD or TONEMAP_ACES
         public final float contrastLift; // pow exponent applied after tonemap
 
@@ -338,55 +343,22 @@ public class IlluminationManager {
         LOGGER.info("IlluminationManager ready with profile: " + activeProfile.name);
     }
 
-    /** Per-frame hook. Currently a no-op — the renderer owns sun position transforms. */
-    public void update(DrawContext dc) {}
-
-    /** Apply illumination to the current shader. */
-    public void apply(DrawContext dc) {
-        Shader currentShader = dc.getCurrentShader();
-        if (currentShader != null && currentShader.isValid()) {
-            applyToShader(currentShader);
-        }
-    }
-
     /**
-     * Apply illumination parameters to shader uniforms.
-     *
-     * @param shader The shader to configure
+     * Per-frame hook: writes the active profile into the FrameData block when it has changed.
+     * Positions and directions are not set here — CelestialRenderer owns those (with the right
+     * coordinate-frame transforms).
      */
-    public void applyToShader(Shader shader) {
-        // IlluminationManager only sets profile and color parameters.
-        // Position and direction uniforms are handled by the renderer so they
-        // get the correct coordinate-frame transforms.
-
-        // Profile parameters as structured uniform
-        shader.setUniform("illumination.physicalWeight", activeProfile.physicalWeight);
-        shader.setUniform("illumination.artisticWeight", activeProfile.artisticWeight);
-        shader.setUniform("illumination.falloffExponent", activeProfile.falloffExponent);
-        shader.setUniform("illumination.brightnessBoost", activeProfile.brightnessBoost);
-        shader.setUniform("illumination.minIntensity", activeProfile.minimumIntensity);
-        shader.setUniform("illumination.maxIntensity", activeProfile.maximumIntensity);
-
-        // Light colors and intensities (NOT positions)
-        shader.setUniform("sunColor", SUN_COLOR);
-        shader.setUniform("sunIntensity", 1.0f); // Base intensity (modified by profile)
-        shader.setUniform("lightColor", SUN_COLOR); // Legacy compatibility
-
-        // Ambient
-        shader.setUniform("ambientColor", activeProfile.ambientColor);
-        shader.setUniform("ambientStrength", activeProfile.ambientStrength);
-
-        // Lighting mode flags
-        shader.setUniform("lightingEnabled", true);
-
-        // For old shaders expecting lightingRealism
-        float realism =
-                activeProfile.physicalWeight
-                        / (activeProfile.physicalWeight + activeProfile.artisticWeight);
-        shader.setUniform("lightingRealism", realism);
-
-        // Do not set sunPosition, sunPositionAU, lightDirection, or sunDirection here —
-        // CelestialRenderer owns those uniforms (with the right coordinate transforms).
+    public void update(DrawContext dc) {
+        FrameDataUBO frameData = dc.getFrameData();
+        if (frameData == null) {
+            return;
+        }
+        if (uploadedProfile == activeProfile && uploadedTo == frameData) {
+            return;
+        }
+        frameData.updateIllumination(activeProfile, SUN_COLOR, 1.0f);
+        uploadedProfile = activeProfile;
+        uploadedTo = frameData;
     }
 
     /** Get current active profile. */
@@ -7,6 +7,7 @@ import static org.lwjgl.opengl.GL30.*;
 
 import com.jda.orrery.core.logging.Logging;
 import com.jda.orrery.graphics.core.DrawContext;
+import com.jda.orrery.graphics.core.GLState;
 import com.jda.orrery.graphics.resources.Shader;
 import java.nio.FloatBuffer;
 import java.util.logging.Logger;
@@ -86,9 +87,7 @@ public class DebugAxisLayer implements Layer {
             return;
         }
 
-        // Save state
-        boolean depthTest = glIsEnabled(GL_DEPTH_TEST);
-        glDisable(GL_DEPTH_TEST); // Render on top
+        GLState.setDepthTest(false); // Render on top
 
         // Use shader
         shader.use();
@@ -108,56 +107,50 @@ public class DebugAxisLayer implements Layer {
 
         // Draw X axis - Red (use pre-allocated color)
         shader.setUniform("color", redColor);
-        glBindVertexArray(xAxisVAO);
+        GLState.bindVertexArray(xAxisVAO);
         glDrawArrays(GL_LINES, 0, 2);
 
         // Draw Y axis - Green (use pre-allocated color)
         shader.setUniform("color", greenColor);
-        glBindVertexArray(yAxisVAO);
+        GLState.bindVertexArray(yAxisVAO);
         glDrawArrays(GL_LINES, 0, 2);
 
         // Draw Z axis - Blue (use pre-allocated color)
         shader.setUniform("color", blueColor);
-        glBindVertexArray(zAxisVAO);
+        GLState.bindVertexArray(zAxisVAO);
         glDrawArrays(GL_LINES, 0, 2);
 
-        glBindVertexArray(0);
-
         // Draw axis labels using points at the ends
         // Note: glPointSize may not be supported on all platforms in core profile
         // glPointSize(10.0f);  // This can cause GL_INVALID_VALUE on some systems
 
         // X end point (reuse red color)
         shader.setUniform("color", redColor);
-        glBindVertexArray(xAxisVAO);
+        GLState.bindVertexArray(xAxisVAO);
         glDrawArrays(GL_POINTS, 1, 1); // Just the end point
 
         // Y end point (reuse green color)
         shader.setUniform("color", greenColor);
-        glBindVertexArray(yAxisVAO);
+        GLState.bindVertexArray(yAxisVAO);
         glDrawArrays(GL_POINTS, 1, 1);
 
         // Z end point (reuse blue color)
         shader.setUniform("color", blueColor);
-        glBindVertexArray(zAxisVAO);
+        GLState.bindVertexArray(zAxisVAO);
         glDrawArrays(GL_POINTS, 1, 1);
 
-        glBindVertexArray(0);
-
         // Draw ecliptic grid (XZ plane) in gray (use pre-allocated color)
         if (gridVAO != -1) {
             shader.setUniform("color", grayColor);
-            glBindVertexArray(gridVAO);
+            GLState.bindVertexArray(gridVAO);
             glDrawArrays(GL_LINES, 0, gridLineCount * 2);
-            glBindVertexArray(0);
         }
 
         // Draw light direction arrow in yellow (use pre-allocated color)
         if (lightArrowVAO != -1) {
             shader.setUniform("color", yellowColor);
-            glBindVertexArray(lightArrowVAO);
+            GLState.bindVertexArray(lightArrowVAO);
             glDrawArrays(GL_LINES, 0, 10); // 5 lines * 2 vertices
-            glBindVertexArray(0);
         }
 
         // Draw camera indicator in magenta at camera position
@@ -174,9 +167,8 @@ public class DebugAxisLayer implements Layer {
 
             shader.setUniform("mvpMatrix", cameraMvpMatrix);
             shader.setUniform("color", magentaColor);
-            glBindVertexArray(cameraVAO);
+            GLState.bindVertexArray(cameraVAO);
             glDrawArrays(GL_LINES, 0, 6); // 3 lines * 2 vertices
-            glBindVertexArray(0);
 
             // Restore original MVP for subsequent rendering
             shader.setUniform("mvpMatrix", mvpMatrix);
@@ -192,10 +184,8 @@ public class DebugAxisLayer implements Layer {
             hasLoggedAxes = true;
         }
 
-        // Restore state
-        if (depthTest) {
-            glEnable(GL_DEPTH_TEST);
-        }
+        // Restore the scene default (DrawContext enables depth testing for every layer)
+        GLState.setDepthTest(true);
     }
 
     private void initialize(DrawContext dc) {
@@ -307,7 +297,7 @@ public class DebugAxisLayer implements Layer {
         buffer.put(data).flip();
 
         int vao = glGenVertexArrays();
-        glBindVertexArray(vao);
+        GLState.bindVertexArray(vao);
 
         int vbo = glGenBuffers();
         glBindBuffer(GL_ARRAY_BUFFER, vbo);
@@ -327,7 +317,7 @@ public class DebugAxisLayer implements Layer {
         glVertexAttribPointer(2, 2, GL_FLOAT, false, stride, 6 * Float.BYTES);
         glEnableVertexAttribArray(2);
 
-        glBindVertexArray(0);
+        GLState.bindVertexArray(0);
 
         return new int[] {vao, vbo};
     }
@@ -578,7 +568,7 @@ public class DebugAxisLayer implements Layer {
             xAxisVBO = -1;
         }
         if (xAxisVAO != -1) {
-            glDeleteVertexArrays(xAxisVAO);
+            GLState.deleteVertexArray(xAxisVAO);
             xAxisVAO = -1;
         }
         if (yAxisVBO != -1) {
@@ -586,7 +576,7 @@ public class DebugAxisLayer implements Layer {
             yAxisVBO = -1;
         }
         if (yAxisVAO != -1) {
-            glDeleteVertexArrays(yAxisVAO);
+            GLState.deleteVertexArray(yAxisVAO);
             yAxisVAO = -1;
         }
         if (zAxisVBO != -1) {
@@ -594,7 +584,7 @@ public class DebugAxisLayer implements Layer {
             zAxisVBO = -1;
         }
         if (zAxisVAO != -1) {
-            glDeleteVertexArrays(zAxisVAO);
+            GLState.deleteVertexArray(zAxisVAO);
             zAxisVAO = -1;
         }
         if (gridVBO != -1) {
@@ -602,7 +592,7 @@ public class DebugAxisLayer implements Layer {
             gridVBO = -1;
         }
         if (gridVAO != -1) {
-            glDeleteVertexArrays(gridVAO);
+            GLState.deleteVertexArray(gridVAO);
             gridVAO = -1;
         }
         if (lightArrowVBO != -1) {
@@ -610,7 +600,7 @@ public class DebugAxisLayer implements Layer {
             lightArrowVBO = -1;
         }
         if (lightArrowVAO != -1) {
-            glDeleteVertexArrays(lightArrowVAO);
+            GLState.deleteVertexArray(lightArrowVAO);
             lightArrowVAO = -1;
         }
         if (cameraVBO != -1) {
@@ -618,7 +608,7 @@ public class DebugAxisLayer implements Layer {
             cameraVBO = -1;
         }
         if (cameraVAO != -1) {
-            glDeleteVertexArrays(cameraVAO);
+            GLState.deleteVertexArray(cameraVAO);
             cameraVAO = -1;
         }
 
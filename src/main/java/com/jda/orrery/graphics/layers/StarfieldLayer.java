@@ -0,0 +1,257 @@
+package com.jda.orrery.graphics.layers;
+
+import static org.lwjgl.opengl.GL11.GL_FLOAT;
+import static org.lwjgl.opengl.GL11.GL_ONE;
+import static org.lwjgl.opengl.GL11.GL_ONE_MINUS_SRC_ALPHA;
+import static org.lwjgl.opengl.GL11.GL_POINTS;
+import static org.lwjgl.opengl.GL11.GL_SRC_ALPHA;
+import static org.lwjgl.opengl.GL11.glDrawArrays;
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_STATIC_DRAW;
+import static org.lwjgl.opengl.GL15.glBindBuffer;
+import static org.lwjgl.opengl.GL15.glBufferData;
+import static org.lwjgl.opengl.GL15.glDeleteBuffers;
+import static org.lwjgl.opengl.GL15.glGenBuffers;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+
+import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.domain.astronomy.catalog.StarCatalog;
+import com.jda.orrery.graphics.api.View;
+import com.jda.orrery.graphics.core.DrawContext;
+import com.jda.orrery.graphics.core.GLState;
+import com.jda.orrery.graphics.core.GpuTimer;
+import com.jda.orrery.graphics.illumination.IlluminationManager;
+import com.jda.orrery.graphics.resources.Shader;
+import com.jda.orrery.graphics.resources.Uniform;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+import org.joml.Matrix3d;
+import org.joml.Matrix4d;
+import org.joml.Matrix4f;
+
+/**
+ * Catalog starfield: every star of a {@link StarCatalog} as a magnitude-scaled point sprite,
+ * uploaded once to a static vertex buffer and drawn with a single glDrawArrays.
+ *
+ * Stars are directions at infinity, transformed by the view rotation alone (the camera-relative
+ * scheme with the translation dropped entirely), and drawn first, additively and without depth,
+ * so every body drawn after covers them. The catalog is sorted brightest first, so the stars shown
+ * are a prefix of the buffer: the draw count follows the limiting magnitude, which rises with the
+ * exposure and as the field of view narrows.
+ *
+ * The catalog comes from -Dorrery.starCatalog (default ~/.cache/orrery/stars.bin, written by the
+ * convertStars task). Without one the layer draws nothing. -Dorrery.starBrightness scales the
+ * stars' flux.
+ */
+public class StarfieldLayer implements Layer {
+    private static final Logger LOGGER = Logging.logger(StarfieldLayer.class);
+
+    /** Limiting magnitude at exposure 1 and the reference field of view: a dark naked-eye sky. */
+    static final float NAKED_EYE_LIMIT = 6.5f;
+
+    static final double REFERENCE_FOV_DEGREES = 60.0;
+
+    /** Flux of a magnitude-0 star, in scene radiance × pixels. */
+    private static final float DEFAULT_ZERO_MAGNITUDE_FLUX = 4.0f;
+
+    private final Path catalogPath;
+
+    private String name = "Starfield";
+    private boolean enabled = true;
+
+    private StarCatalog catalog;
+    private Shader shader;
+    private Uniform.Mat4 starMatrixUniform;
+    private Uniform.Float limitingMagnitudeUniform;
+    private int vao = 0;
+    private int vbo = 0;
+    private boolean initialized = false;
+    private int drawnCount = 0;
+
+    // J2000 equatorial to the render frame, then the per-frame camera matrices
+    private final Matrix4d frameRotation = new Matrix4d();
+    private final Matrix4d viewRotation = new Matrix4d();
+    private final Matrix4d projection = new Matrix4d();
+    private final Matrix4d starMatrixDouble = new Matrix4d();
+    private final Matrix4f starMatrix = new Matrix4f();
+
+    /**
+     * @param catalogPath catalog file; a missing file leaves the layer empty
+     * @param j2000ToRender J2000 to OPENGL_RENDER rotation (from the frame kernel)
+     */
+    public StarfieldLayer(Path catalogPath, Matrix3d j2000ToRender) {
+        this.catalogPath = catalogPath;
+        this.frameRotation.set(j2000ToRender);
+    }
+
+    /**
+     * Limiting magnitude for an exposure and vertical field of view: a 2.5× exposure shows one
+     * magnitude fainter, and so does narrowing the view by 2.5×, as through a telescope.
+     */
+    static float limitingMagnitude(float exposure, double fovDegrees) {
+        double zoom = REFERENCE_FOV_DEGREES / Math.max(fovDegrees, 1e-3);
+        return (float)
+                (NAKED_EYE_LIMIT
+                        + 2.5 * Math.log10(Math.max(exposure, 1e-3))
+                        + 2.5 * Math.log10(zoom));
+    }
+
+    @Override
+    public void render(DrawContext dc) {
+        if (!enabled) return;
+        if (!initialized) {
+            initialize();
+            initialized = true;
+        }
+        if (catalog == null || dc.getView() == null) return;
+
+        View view = dc.getView();
+        IlluminationManager illumination = dc.getIlluminationManager();
+        float exposure =
+                illumination != null && illumination.getActiveProfile() != null
+                        ? illumination.getActiveProfile().exposure
+                        : 1.0f;
+        float limit = limitingMagnitude(exposure, view.getFieldOfView());
+        drawnCount = catalog.countBrighterThan(limit);
+        if (drawnCount == 0) return;
+
+        view.fillViewMatrixDouble(viewRotation);
+        viewRotation.setTranslation(0.0, 0.0, 0.0);
+        view.fillProjectionMatrixDouble(projection);
+        starMatrixDouble.set(projection).mul(viewRotation).mul(frameRotation);
+        starMatrix.set(starMatrixDouble);
+
+        GpuTimer timer = dc.getGpuTimer();
+        if (timer != null) timer.begin(GpuTimer.Pass.STARS);
+        shader.use();
+        starMatrixUniform.set(starMatrix);
+        limitingMagnitudeUniform.set(limit);
+
+        GLState.setDepthTest(false);
+        GLState.setDepthMask(false);
+        GLState.setBlend(true);
+        GLState.blendFunc(GL_ONE, GL_ONE);
+        GLState.setProgramPointSize(true);
+
+        GLState.bindVertexArray(vao);
+        glDrawArrays(GL_POINTS, 0, drawnCount);
+
+        // Restore the scene defaults (DrawContext.configureDefaultState)
+        GLState.setProgramPointSize(false);
+        GLState.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        GLState.setDepthMask(true);
+        GLState.setDepthTest(true);
+        if (timer != null) timer.end();
+    }
+
+    private void initialize() {
+        if (!Files.isRegularFile(catalogPath)) {
+            LOGGER.info(
+                    "No star catalog at "
+                            + catalogPath
+                            + "; convert one with ./gradlew convertStars -PstarCsv=<catalog.csv>");
+            return;
+        }
+
+        long start = System.nanoTime();
+        StarCatalog stars;
+        try {
+            stars = StarCatalog.open(catalogPath);
+        } catch (IOException e) {
+            LOGGER.warning("Failed to load star catalog: " + e.getMessage());
+            return;
+        }
+
+        shader = new Shader("starfield");
+        if (!shader.isValid()) {
+            LOGGER.warning("Starfield shader unavailable; drawing no stars");
+            shader = null;
+            return;
+        }
+        starMatrixUniform = shader.mat4Uniform("starMatrix");
+        limitingMagnitudeUniform = shader.floatUniform("limitingMagnitude");
+        shader.use();
+        shader.setUniform("zeroMagnitudeFlux", zeroMagnitudeFlux());
+
+        vao = glGenVertexArrays();
+        GLState.bindVertexArray(vao);
+        vbo = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        glBufferData(GL_ARRAY_BUFFER, stars.getStarData(), GL_STATIC_DRAW);
+        glVertexAttribPointer(0, 3, GL_FLOAT, false, StarCatalog.STAR_BYTES, 0);
+        glEnableVertexAttribArray(0);
+        glVertexAttribPointer(1, 2, GL_FLOAT, false, StarCatalog.STAR_BYTES, 3 * Float.BYTES);
+        glEnableVertexAttribArray(1);
+        GLState.bindVertexArray(0);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+        catalog = stars;
+        LOGGER.info(
+                String.format(
+                        "Loaded %d stars (V <= %.1f) from %s in %.1fms",
+                        stars.getCount(),
+                        stars.getCount() > 0 ? stars.getMagnitude(stars.getCount() - 1) : 0.0f,
+                        catalogPath,
+                        (System.nanoTime() - start) / 1_000_000.0));
+    }
+
+    private static float zeroMagnitudeFlux() {
+        String override = System.getProperty("orrery.starBrightness");
+        if (override != null) {
+            try {
+                return DEFAULT_ZERO_MAGNITUDE_FLUX * Float.parseFloat(override);
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid orrery.starBrightness: " + override);
+            }
+        }
+        return DEFAULT_ZERO_MAGNITUDE_FLUX;
+    }
+
+    /** Stars drawn last frame. */
+    public int getDrawnCount() {
+        return drawnCount;
+    }
+
+    @Override
+    public void dispose(DrawContext dc) {
+        if (vbo != 0) {
+            glDeleteBuffers(vbo);
+            vbo = 0;
+        }
+        if (vao != 0) {
+            GLState.deleteVertexArray(vao);
+            vao = 0;
+        }
+        if (shader != null) {
+            shader.dispose();
+            shader = null;
+        }
+        catalog = null;
+        initialized = false;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        LOGGER.info("Starfield layer " + (enabled ? "enabled" : "disabled"));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,93 @@
+package com.jda.orrery.graphics.pipeline;
+
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
+
+/**
+ * Per-frame visibility test for celestial bodies. A body's bounding sphere (visual radius, widened
+ * to the ring extent for ringed bodies) is tested against the view frustum; survivors are sorted
+ * by projected radius into point sprites (below the sprite threshold), ray-cast impostors (below
+ * the impostor limit) and the full sphere mesh.
+ *
+ * Works on view-space centres, so only the projection matrix and viewport height are needed. Pure
+ * JOML math — no GL context required.
+ */
+final class BodyCuller {
+    static final int CULLED = 0;
+    static final int SPRITE = 1;
+    static final int IMPOSTOR = 2;
+    static final int MESH = 3;
+
+    private final FrustumIntersection frustum = new FrustumIntersection();
+
+    // Pixels per unit of tan(angle) at the screen centre: (height / 2) / tan(fovY / 2)
+    private float pixelsPerTangent = 0.0f;
+    private final float spriteThresholdPx;
+    private final float impostorMaxPx;
+
+    /**
+     * @param spriteThresholdPx projected radius below which a body is a sprite (0 = never)
+     * @param impostorMaxPx projected radius below which a body is an impostor (at or below the
+     *     sprite threshold = never)
+     */
+    BodyCuller(float spriteThresholdPx, float impostorMaxPx) {
+        this.spriteThresholdPx = spriteThresholdPx;
+        this.impostorMaxPx = impostorMaxPx;
+    }
+
+    /**
+     * Set up for a frame. The focal length is read from the projection matrix (m11 = 1 / tan(fovY
+     * / 2)) so the pixel test matches what the rasterizer will produce.
+     */
+    void update(Matrix4f projection, double viewportHeight) {
+        frustum.set(projection, false);
+        pixelsPerTangent = (float) (projection.m11() * viewportHeight * 0.5);
+    }
+
+    /**
+     * Classify a body by its view-space centre and bounding radius.
+     *
+     * @return {@link #CULLED}, {@link #SPRITE}, {@link #IMPOSTOR} or {@link #MESH}
+     */
+    int classify(float viewX, float viewY, float viewZ, float radius) {
+        if (!frustum.testSphere(viewX, viewY, viewZ, radius)) {
+            return CULLED;
+        }
+        float distance = (float) Math.sqrt(viewX * viewX + viewY * viewY + viewZ * viewZ);
+        float radiusPx = projectedRadiusPx(distance, radius, pixelsPerTangent);
+        if (radiusPx < spriteThresholdPx) {
+            return SPRITE;
+        }
+        return radiusPx < impostorMaxPx ? IMPOSTOR : MESH;
+    }
+
+    /** Projected radius in pixels of the last frame's projection (for sprite sizing). */
+    float projectedRadiusPx(float distance, float radius) {
+        return projectedRadiusPx(distance, radius, pixelsPerTangent);
+    }
+
+    /**
+     * Screen radius of a sphere's silhouette: tan(asin(r / d)) scaled to pixels. Infinite when the
+     * camera is inside the sphere.
+     */
+    static float projectedRadiusPx(float distance, float radius, float pixelsPerTangent) {
+        float d2 = distance * distance - radius * radius;
+        if (d2 <= 0.0f) {
+            return Float.POSITIVE_INFINITY;
+        }
+        return radius / (float) Math.sqrt(d2) * pixelsPerTangent;
+    }
+
+    /** Viewport height / 2 / tan(fovY / 2) of the last frame's projection. */
+    float getPixelsPerTangent() {
+        return pixelsPerTangent;
+    }
+
+    float getSpriteThresholdPx() {
+        return spriteThresholdPx;
+    }
+
+    float getImpostorMaxPx() {
+        return impostorMaxPx;
+    }
+}
@@ -1,8 +1,6 @@
 package com.jda.orrery.graphics.pipeline;
 
 import static org.lwjgl.opengl.GL11.*;
-import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
 import static org.lwjgl.opengl.GL30.GL_TEXTURE_2D_ARRAY;
 
 import com.jda.orrery.core.frames.*;
@@ -14,23 +12,34 @@ import com.jda.orrery.domain.astronomy.SolarSystem;
 import com.jda.orrery.domain.astronomy.catalog.BodyData;
 import com.jda.orrery.domain.astronomy.catalog.CelestialCatalog;
 import com.jda.orrery.graphics.celestial.ScaleManager;
+import com.jda.orrery.graphics.core.BodyPicker;
 import com.jda.orrery.graphics.core.DrawContext;
+import com.jda.orrery.graphics.core.FrameStatistics;
+import com.jda.orrery.graphics.core.GLState;
+import com.jda.orrery.graphics.core.GpuTimer;
+import com.jda.orrery.graphics.geometry.ImpostorQuad;
 import com.jda.orrery.graphics.geometry.MeshLibrary;
 import com.jda.orrery.graphics.geometry.MeshTopology;
+import com.jda.orrery.graphics.geometry.PointSpriteBatch;
 import com.jda.orrery.graphics.geometry.RingMesh;
 import com.jda.orrery.graphics.geometry.SphereMesh;
 import com.jda.orrery.graphics.materials.MaterialCatalog;
 import com.jda.orrery.graphics.materials.MaterialProperties;
 import com.jda.orrery.graphics.resources.ResourceManager;
 import com.jda.orrery.graphics.resources.Shader;
+import com.jda.orrery.graphics.resources.ShaderVariants;
+import com.jda.orrery.graphics.resources.Uniform;
+import com.jda.orrery.graphics.terrain.TerrainRenderer;
 import com.jda.orrery.graphics.textures.TextureArraySystem;
+import com.jda.orrery.graphics.ubo.CelestialInstanceBuffer;
 import com.jda.orrery.graphics.ubo.CelestialUBO;
+import com.jda.orrery.graphics.ubo.FrameDataUBO;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.logging.Logger;
 import org.joml.Matrix3d;
-import org.joml.Matrix3f;
 import org.joml.Matrix4d;
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
@@ -51,6 +60,74 @@ public class CelestialRenderer {
     // umbra fill plausible rather than black).
     private static final Vector3f SATURNSHINE_COLOR_FALLBACK = new Vector3f(0.5f, 0.5f, 0.5f);
 
+    // Draw all sphere bodies with one instanced call per texture array instead of one draw (and
+    // one UBO orphan + ~15 uniform calls) per body. -Dorrery.instancing=false restores the
+    // per-body path for A/B comparison.
+    private static final boolean INSTANCING_ENABLED =
+            Boolean.parseBoolean(System.getProperty("orrery.instancing", "true"));
+
+    // Skip bodies outside the view frustum and draw those smaller than SPRITE_THRESHOLD_PX
+    // (projected radius) as one batch of point sprites. -Dorrery.culling=false draws every body
+    // as a mesh for A/B comparison.
+    private static final boolean CULLING_ENABLED =
+            Boolean.parseBoolean(System.getProperty("orrery.culling", "true"));
+
+    private static final float SPRITE_THRESHOLD_PX =
+            resolvePixelProperty("orrery.spriteThresholdPx", 1.0f);
+
+    // Bodies between the sprite threshold and IMPOSTOR_MAX_PX (projected radius) are drawn as a
+    // ray-cast ellipsoid on a four-vertex quad instead of the tessellated sphere: exact
+    // silhouette, no faceting, and a fraction of the vertex work. Requires culling.
+    // -Dorrery.impostors=false keeps every visible body on the mesh.
+    private static final boolean IMPOSTORS_ENABLED =
+            Boolean.parseBoolean(System.getProperty("orrery.impostors", "true"));
+
+    private static final float IMPOSTOR_MAX_PX =
+            resolvePixelProperty("orrery.impostorMaxPx", 128.0f);
+
+    // Pick each body's sphere tier every frame as the coarsest whose silhouette error, at the
+    // body's projected radius, stays under LOD_ERROR_PX. -Dorrery.meshLod=false draws every body
+    // with the HIGH tier for A/B comparison.
+    private static final boolean MESH_LOD_ENABLED =
+            Boolean.parseBoolean(System.getProperty("orrery.meshLod", "true"));
+
+    private static final float LOD_ERROR_PX = resolvePixelProperty("orrery.lodErrorPx", 0.5f);
+
+    // Close-up bodies at least TERRAIN_MIN_RADIUS_PX across (projected radius) with ELEVATION
+    // data are drawn from streamed, displaced quadtree tiles instead of the sphere mesh.
+    // -Dorrery.terrain=false keeps every body on the mesh.
+    private static final boolean TERRAIN_ENABLED =
+            Boolean.parseBoolean(System.getProperty("orrery.terrain", "true"));
+
+    // Draw mesh bodies with the CelestialVariant specialization of the unified shader that
+    // matches them, sorted by variant, instead of the general program for everything.
+    // -Dorrery.shaderVariants=false keeps the general program for A/B comparison.
+    private static final boolean SHADER_VARIANTS_ENABLED =
+            Boolean.parseBoolean(System.getProperty("orrery.shaderVariants", "true"));
+
+    private static final String[] INSTANCED_DEFINES = {
+        "INSTANCED", "MAX_INSTANCES " + CelestialInstanceBuffer.MAX_INSTANCES
+    };
+
+    private static final float TERRAIN_MIN_RADIUS_PX =
+            resolvePixelProperty("orrery.terrainMinRadiusPx", 1024.0f);
+
+    private static float resolvePixelProperty(String name, float fallback) {
+        String override = System.getProperty(name);
+        if (override != null) {
+            try {
+                float value = Float.parseFloat(override);
+                if (value >= 0) {
+                    return value;
+                }
+                LOGGER.warning(name + " must not be negative: " + override);
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid " + name + ": " + override);
+            }
+        }
+        return fallback;
+    }
+
     // Dependencies & resources
 
     private final MeshLibrary meshLibrary;
@@ -60,9 +137,89 @@ public class CelestialRenderer {
     private final FrameManager frameManager;
 
     private Shader uboShader;
+    private BodyUniforms bodyUniforms;
+    private ShaderVariants<CelestialVariant> bodyVariants;
+    private final BodyUniforms[] variantUniforms = new BodyUniforms[CelestialVariant.VALUES.length];
     private CelestialUBO celestialUbo;
+    private Shader instancedShader;
+    private ShaderVariants<CelestialVariant> instancedVariants;
+    private final InstancedUniforms[] instancedUniforms =
+            new InstancedUniforms[CelestialVariant.VALUES.length];
+    private Shader impostorShader;
+    private BodyUniforms impostorUniforms;
+    private Shader instancedImpostorShader;
+    private InstancedUniforms instancedImpostorUniforms;
+    private ImpostorQuad impostorQuad;
+    private CelestialInstanceBuffer instanceBuffer;
     private SphereMesh sphereMesh;
+    private final SphereMesh[] sphereMeshes = new SphereMesh[SphereMesh.Quality.values().length];
+    private MeshLodSelector lodSelector;
+    private TerrainRenderer terrain;
     private RingMesh saturnRings;
+    private RingshineLut ringshineLut;
+    private BodyCuller bodyCuller;
+    private Shader spriteShader;
+    private PointSpriteBatch spriteBatch;
+
+    /**
+     * Handles for the per-body uniforms of the UBO shader, resolved once after linking. Values
+     * that repeat between draws (textureArray, isRing, most ring optics) skip the GL call.
+     * Uniforms a variant folds to constants are inactive handles.
+     */
+    private static final class BodyUniforms {
+        final Shader shader;
+        final Uniform.Int bodyType;
+        final Uniform.Int bodyId;
+        final Uniform.Int textureArray;
+        final Uniform.Int ringshineLut;
+        final Uniform.Int textureLayer;
+        final Uniform.Vec2 texCoordScale;
+        final Uniform.Int hasTexture;
+        final Uniform.Int isRing;
+        final Uniform.Vec3 planetPositionView;
+        final Uniform.Vec3 planetAxisView;
+        final Uniform.Int ringTextureLayer;
+        final Uniform.Float atmosphericRefraction;
+        final Uniform.Float ringForwardG;
+        final Uniform.Float ringBackwardG;
+        final Uniform.Float ringParticleMix;
+        final Uniform.Float saturnshineAlbedo;
+        final Uniform.Vec3 saturnshineColor;
+
+        BodyUniforms(Shader shader) {
+            this.shader = shader;
+            bodyType = shader.intUniform("bodyType");
+            bodyId = shader.intUniform("bodyId");
+            textureArray = shader.intUniform("textureArray");
+            ringshineLut = shader.intUniform("ringshineLut");
+            textureLayer = shader.intUniform("textureLayer");
+            texCoordScale = shader.vec2Uniform("texCoordScale");
+            hasTexture = shader.intUniform("hasTexture");
+            isRing = shader.intUniform("isRing");
+            planetPositionView = shader.vec3Uniform("planetPositionView");
+            planetAxisView = shader.vec3Uniform("planetAxisView");
+            ringTextureLayer = shader.intUniform("ringTextureLayer");
+            atmosphericRefraction = shader.floatUniform("atmosphericRefraction");
+            ringForwardG = shader.floatUniform("ringForwardG");
+            ringBackwardG = shader.floatUniform("ringBackwardG");
+            ringParticleMix = shader.floatUniform("ringParticleMix");
+            saturnshineAlbedo = shader.floatUniform("saturnshineAlbedo");
+            saturnshineColor = shader.vec3Uniform("saturnshineColor");
+        }
+    }
+
+    /** Handles for the per-batch uniforms of an instanced program. */
+    private static final class InstancedUniforms {
+        final Shader shader;
+        final Uniform.Int instanceBase;
+        final Uniform.Int textureArray;
+
+        InstancedUniforms(Shader shader) {
+            this.shader = shader;
+            instanceBase = shader.intUniform("instanceBase");
+            textureArray = shader.intUniform("textureArray");
+        }
+    }
 
     // Frame state — updated once per frame
 
@@ -96,6 +253,9 @@ public class CelestialRenderer {
 
     private final FrameState frameState = new FrameState();
 
+    // This frame's pick volumes (DrawContext-owned); null until the first prepareFrame
+    private BodyPicker bodyPicker;
+
     // Transform work objects — used while building per-body transforms
 
     private static class TransformWork {
@@ -114,7 +274,6 @@ public class CelestialRenderer {
         final Matrix4f modelMatrix = new Matrix4f();
 
         // Rotation work
-        final Matrix4d rotation4d = new Matrix4d();
         final Matrix3d workRotation = new Matrix3d();
 
         // Pre-allocated transform for satellite offset
@@ -171,12 +330,10 @@ public class CelestialRenderer {
     // Render work objects — used while uploading per-body GPU state
 
     private static class RenderWork {
-        // Combined matrices for GPU
-        final Matrix4f modelViewMatrix = new Matrix4f();
+        // Terrain selection matrices (computeBodyMatrices); the shaders form their own
         final Matrix4f mvpMatrix = new Matrix4f();
-        final Matrix3f normalMatrix = new Matrix3f();
 
-        // Double precision work matrices (for updateGPUState)
+        // Double precision work matrices (for computeBodyMatrices)
         final Matrix4d modelViewDouble = new Matrix4d();
         final Matrix4d mvpDouble = new Matrix4d();
         final Matrix4d modelMatrixDouble = new Matrix4d();
@@ -201,12 +358,163 @@ public class CelestialRenderer {
         final Vector3f planetAxisView = new Vector3f();
 
         // Body geometry for UBO upload (eq, polar, ringInner, ringOuter) — visual-space.
-        // Computed in buildTransform, consumed in updateGPUState/renderRings.
+        // Computed in buildTransform, consumed in writeBodyBlock/recordRings.
         final Vector4f bodyGeometry = new Vector4f();
     }
 
     private final RenderWork renderWork = new RenderWork();
 
+    // Instanced draw work — pre-allocated, refilled each frame
+
+    /**
+     * Per-frame gather and batching arrays for the instanced path. Bodies are transformed and
+     * culled in list order (satellites need their parent's cached position); the visible ones are
+     * then assigned instance slots by a stable counting sort on texture ID so each texture array
+     * is bound once.
+     */
+    private static class InstanceWork {
+        static final int MAX = CelestialInstanceBuffer.MAX_INSTANCES;
+
+        final CelestialBody[] bodies = new CelestialBody[MAX];
+        final TextureArraySystem.TextureHandle[] textures =
+                new TextureArraySystem.TextureHandle[MAX];
+        final Matrix4f[] modelMatrices = new Matrix4f[MAX];
+        final Vector3d[] positions = new Vector3d[MAX];
+        final Vector4f[] bodyGeometry = new Vector4f[MAX];
+        final int[] bodyBatch = new int[MAX];
+        int count = 0;
+
+        // Batches keyed by GL texture ID (0 = texture not ready, drawn with fallback shading), the
+        // geometry drawn (an impostor quad, or the sphere tier chosen by mesh LOD) and the shader
+        // variant
+        final int[] batchTexture = new int[MAX];
+        final boolean[] batchImpostor = new boolean[MAX];
+        final SphereMesh[] batchMesh = new SphereMesh[MAX];
+        final CelestialVariant[] batchVariant = new CelestialVariant[MAX];
+        final int[] batchStart = new int[MAX];
+        final int[] batchSize = new int[MAX];
+        final int[] batchCursor = new int[MAX];
+        int batchCount = 0;
+
+        InstanceWork() {
+            for (int i = 0; i < MAX; i++) {
+                modelMatrices[i] = new Matrix4f();
+                positions[i] = new Vector3d();
+                bodyGeometry[i] = new Vector4f();
+            }
+        }
+
+        void reset() {
+            // Drop references so bodies/textures are not retained between frames
+            Arrays.fill(bodies, 0, count, null);
+            Arrays.fill(textures, 0, count, null);
+            Arrays.fill(batchMesh, 0, batchCount, null);
+            count = 0;
+            batchCount = 0;
+        }
+
+        /** @param mesh sphere tier for mesh batches; null for impostor batches */
+        int batchFor(
+                int textureId, boolean impostor, SphereMesh mesh, CelestialVariant variant) {
+            for (int b = 0; b < batchCount; b++) {
+                if (batchTexture[b] == textureId
+                        && batchImpostor[b] == impostor
+                        && batchMesh[b] == mesh
+                        && batchVariant[b] == variant) {
+                    return b;
+                }
+            }
+            batchTexture[batchCount] = textureId;
+            batchImpostor[batchCount] = impostor;
+            batchMesh[batchCount] = mesh;
+            batchVariant[batchCount] = variant;
+            batchSize[batchCount] = 0;
+            return batchCount++;
+        }
+
+        /** Prefix-sum batch sizes into start offsets; resets the per-batch write cursors. */
+        void layoutBatches() {
+            int start = 0;
+            for (int b = 0; b < batchCount; b++) {
+                batchStart[b] = start;
+                batchCursor[b] = 0;
+                start += batchSize[b];
+            }
+        }
+
+        int nextSlot(int batch) {
+            return batchStart[batch] + batchCursor[batch]++;
+        }
+    }
+
+    private final InstanceWork instanceWork = new InstanceWork();
+
+    // Visibility work — view-space centre of the body being classified, and which bodies were
+    // drawn as a mesh or impostor this frame (their rings are only drawn if they were). Indexed
+    // like BodyPositionCache.
+
+    private final Vector3d cullCenter = new Vector3d();
+    private final boolean[] bodyDrawn = new boolean[16];
+
+    // Mesh LOD — projected radius of the body just classified, and each body's sphere tier from
+    // the previous frame (for hysteresis), indexed like bodyDrawn. Persist across frames.
+    private float bodyRadiusPx;
+    private float meshLodBias = 1.0f; // from the quality level, per frame
+    private final SphereMesh.Quality[] bodyLod = new SphereMesh.Quality[16];
+
+    // Per-body draw records — pre-allocated, refilled each frame
+
+    /**
+     * Everything a per-body or ring draw needs besides its UBO block. Recording first and drawing
+     * after lets the frame's UBO blocks go to the GPU in one upload.
+     */
+    private static class DrawRecord {
+        int slot; // CelestialUBO block
+        boolean ring;
+        boolean impostor;
+        CelestialVariant variant; // GENERAL for impostors
+        SphereMesh mesh; // sphere tier for mesh body records
+        int terrainStart; // run of TerrainRenderer's selection drawn instead of the mesh
+        int terrainCount;
+
+        int textureId;
+        int textureLayer;
+        float scaleU;
+        float scaleV;
+        boolean hasTexture;
+
+        int bodyType;
+        int bodyId;
+        int ringTextureLayer;
+        float atmosphericRefraction;
+
+        // Ring-shadow inputs; only uploaded for ring-bearing bodies and rings
+        boolean hasShadow;
+        boolean hasAxis;
+        final Vector3f planetPosView = new Vector3f();
+        final Vector3f planetAxisView = new Vector3f();
+
+        // Ring-only optical properties (catalog references, not copies)
+        MaterialProperties ringMaterial;
+        Vector3f saturnshineColor;
+
+        void setTexture(TextureArraySystem.TextureHandle texture) {
+            hasTexture = texture != null && texture.isReady();
+            textureId = hasTexture ? texture.getTextureId() : 0;
+            textureLayer = hasTexture ? texture.getArrayLayer() : 0;
+            scaleU = hasTexture ? texture.getScaleU() : 1.0f;
+            scaleV = hasTexture ? texture.getScaleV() : 1.0f;
+        }
+    }
+
+    private final DrawRecord[] drawRecords = new DrawRecord[CelestialUBO.MAX_BLOCKS_PER_FRAME];
+    private int drawRecordCount = 0;
+
+    // Record indices in draw order (by variant, then mesh before impostor; stable), and the
+    // counting-sort buckets that produce it
+    private final int[] drawOrder = new int[CelestialUBO.MAX_BLOCKS_PER_FRAME];
+    private final int[] drawKeyStart = new int[2 * CelestialVariant.VALUES.length + 1];
+
     // Reusable collections & contexts
 
     private final List<CelestialBody> bodiesList = new ArrayList<>(30);
@@ -216,11 +524,19 @@ public class CelestialRenderer {
     // Statistics
     private long frameCount = 0;
     private int bodiesRendered = 0;
-
-    // Performance profiling
+    private int drawCalls = 0;
+    private int culledBodies = 0;
+    private int spriteBodies = 0;
+    private int impostorBodies = 0;
+    private long trianglesSubmitted = 0;
+
+    // CPU profiling (wall time around the calls, not GPU cost). GPU time per pass comes from the
+    // DrawContext's GpuTimer: BODIES covers every body draw, RINGS the ring draws.
+    private GpuTimer passTimer;
     private long prepareTime = 0;
+    private long ephemerisTime = 0;
     private long transformTime = 0;
-    private long gpuTime = 0;
+    private long recordTime = 0;
     private long drawTime = 0;
 
     // Initialization
@@ -236,6 +552,9 @@ public class CelestialRenderer {
         this.resourceManager = resourceManager;
         this.builtInFrameKernel = builtInFrameKernel;
         this.frameManager = frameManager;
+        for (int i = 0; i < drawRecords.length; i++) {
+            drawRecords[i] = new DrawRecord();
+        }
         LOGGER.info("CelestialRenderer initialized");
     }
 
@@ -248,12 +567,99 @@ public class CelestialRenderer {
                     "FATAL: UBO shader 'celestial_unified_ubo' is required for precision.");
         }
 
+        this.bodyUniforms = new BodyUniforms(this.uboShader);
+
         // Create UBO
         this.celestialUbo = new CelestialUBO(0);
-        this.celestialUbo.linkToShader(this.uboShader.getProgramId(), "CelestialData");
 
-        // Get sphere mesh
+        // Specialized variants of the same shader; any that fail to compile use the general one
+        this.bodyVariants =
+                new ShaderVariants<>(
+                        resourceManager,
+                        "celestial_unified_ubo",
+                        List.of(),
+                        uboShader,
+                        CelestialVariant.class,
+                        SHADER_VARIANTS_ENABLED
+                                ? EnumSet.allOf(CelestialVariant.class)
+                                : EnumSet.noneOf(CelestialVariant.class));
+        bodyVariants.forEachProgram(
+                program -> {
+                    celestialUbo.linkToShader(program.getProgramId(), "CelestialData");
+                    FrameDataUBO.linkToShader(program.getProgramId());
+                });
+        for (CelestialVariant v : CelestialVariant.VALUES) {
+            variantUniforms[v.ordinal()] =
+                    bodyVariants.isSpecialized(v)
+                            ? new BodyUniforms(bodyVariants.get(v))
+                            : bodyUniforms;
+        }
+
+        // Instanced variant of the same shader. Optional: if it fails to compile (e.g. a driver
+        // with a smaller uniform block limit) the per-body path is used for everything.
+        if (INSTANCING_ENABLED) {
+            Shader variant =
+                    resourceManager.getShaderVariant("celestial_unified_ubo", INSTANCED_DEFINES);
+            if (variant != null && variant.isValid()) {
+                this.instancedShader = variant;
+                this.instanceBuffer = new CelestialInstanceBuffer(1);
+                // Rings are never instanced
+                this.instancedVariants =
+                        new ShaderVariants<>(
+                                resourceManager,
+                                "celestial_unified_ubo",
+                                List.of(INSTANCED_DEFINES),
+                                variant,
+                                CelestialVariant.class,
+                                SHADER_VARIANTS_ENABLED
+                                        ? EnumSet.complementOf(EnumSet.of(CelestialVariant.RING))
+                                        : EnumSet.noneOf(CelestialVariant.class));
+                instancedVariants.forEachProgram(
+                        program -> {
+                            instanceBuffer.linkToShader(
+                                    program.getProgramId(), "CelestialInstances");
+                            FrameDataUBO.linkToShader(program.getProgramId());
+                        });
+                InstancedUniforms general = new InstancedUniforms(variant);
+                for (CelestialVariant v : CelestialVariant.VALUES) {
+                    instancedUniforms[v.ordinal()] =
+                            instancedVariants.isSpecialized(v)
+                                    ? new InstancedUniforms(instancedVariants.get(v))
+                                    : general;
+                }
+            } else {
+                LOGGER.warning("Instanced celestial shader unavailable; drawing bodies singly");
+            }
+        }
+
+        // Visibility culling, the sprite pass for sub-pixel bodies and impostors for mid-size ones.
+        // Without the sprite or impostor shaders bodies are still frustum-culled, but keep their
+        // mesh.
+        // The culler is always built: mesh LOD needs its projected radius even without culling.
+        boolean impostors = CULLING_ENABLED && IMPOSTORS_ENABLED && initializeImpostors();
+        this.bodyCuller = new BodyCuller(SPRITE_THRESHOLD_PX, impostors ? IMPOSTOR_MAX_PX : 0.0f);
+        if (CULLING_ENABLED) {
+            Shader sprites = resourceManager.getShader("celestial_sprite");
+            if (sprites != null && sprites.isValid()) {
+                this.spriteShader = sprites;
+                FrameDataUBO.linkToShader(sprites.getProgramId());
+                this.spriteBatch = new PointSpriteBatch();
+            } else {
+                LOGGER.warning("Sprite shader unavailable; drawing sub-pixel bodies as meshes");
+            }
+        }
+
+        // Sphere meshes: HIGH alone, or every tier for per-body LOD (preloaded by MeshLibrary)
         this.sphereMesh = meshLibrary.get(MeshTopology.UV_SPHERE, SphereMesh.Quality.HIGH);
+        if (MESH_LOD_ENABLED) {
+            for (SphereMesh.Quality quality : SphereMesh.Quality.values()) {
+                sphereMeshes[quality.ordinal()] = meshLibrary.get(MeshTopology.UV_SPHERE, quality);
+            }
+            this.lodSelector = new MeshLodSelector(MeshTopology.UV_SPHERE, LOD_ERROR_PX);
+        }
+        if (TERRAIN_ENABLED) {
+            this.terrain = new TerrainRenderer();
+        }
 
         // Create Saturn's ring mesh from BodyData (single source of truth).
         // The catalog values (currently 1.1 / 2.2) are an artistic compression of
@@ -267,6 +673,15 @@ public class CelestialRenderer {
                         saturnData.ringInnerRadius().floatValue(),
                         saturnData.ringOuterRadius().floatValue(),
                         128);
+        this.ringshineLut = new RingshineLut();
+        this.ringshineLut.initialize(saturnData, MaterialCatalog.getMaterial("saturn_rings"));
+
+        LOGGER.info(
+                String.format(
+                        "Shader variants: %d per-body, %d instanced%s",
+                        bodyVariants.getSpecializedCount(),
+                        instancedVariants != null ? instancedVariants.getSpecializedCount() : 0,
+                        SHADER_VARIANTS_ENABLED ? "" : " (disabled)"));
 
         // Cache static transforms
         frameState.j2000ToRender =
@@ -275,6 +690,108 @@ public class CelestialRenderer {
         LOGGER.info("CelestialRenderer initialized - Ready for rendering");
     }
 
+    /**
+     * Load the IMPOSTOR shader variants (plain, and instanced if the instanced path is active).
+     *
+     * @return false if a needed variant failed to compile; impostors are then not used
+     */
+    private boolean initializeImpostors() {
+        Shader variant = resourceManager.getShaderVariant("celestial_unified_ubo", "IMPOSTOR");
+        if (variant == null || !variant.isValid()) {
+            LOGGER.warning("Impostor celestial shader unavailable; drawing bodies as meshes");
+            return false;
+        }
+        Shader instancedVariant = null;
+        if (instancedShader != null) {
+            instancedVariant =
+                    resourceManager.getShaderVariant(
+                            "celestial_unified_ubo",
+                            INSTANCED_DEFINES[0],
+                            INSTANCED_DEFINES[1],
+                            "IMPOSTOR");
+            if (instancedVariant == null || !instancedVariant.isValid()) {
+                LOGGER.warning("Instanced impostor shader unavailable; drawing bodies as meshes");
+                return false;
+            }
+        }
+
+        this.impostorShader = variant;
+        this.impostorUniforms = new BodyUniforms(variant);
+        this.celestialUbo.linkToShader(variant.getProgramId(), "CelestialData");
+        FrameDataUBO.linkToShader(variant.getProgramId());
+        if (instancedVariant != null) {
+            this.instancedImpostorShader = instancedVariant;
+            this.instancedImpostorUniforms = new InstancedUniforms(instancedVariant);
+            this.instanceBuffer.linkToShader(
+                    instancedVariant.getProgramId(), "CelestialInstances");
+            FrameDataUBO.linkToShader(instancedVariant.getProgramId());
+        }
+        this.impostorQuad = new ImpostorQuad();
+        return true;
+    }
+
+    /**
+     * Set up for {@link #simulateFrame} without a GL context: the culler and the static frame
+     * transform, nothing else. Use instead of {@link #initializeDirectRendering}; such a renderer
+     * can never draw.
+     */
+    public void initializeHeadless() {
+        float impostorMaxPx = CULLING_ENABLED && IMPOSTORS_ENABLED ? IMPOSTOR_MAX_PX : 0.0f;
+        this.bodyCuller = new BodyCuller(SPRITE_THRESHOLD_PX, impostorMaxPx);
+        frameState.j2000ToRender =
+                builtInFrameKernel.getStaticTransform(FrameNames.J2000, FrameNames.OPENGL_RENDER);
+        LOGGER.info("CelestialRenderer initialized headless (CPU stages only)");
+    }
+
+    /**
+     * The CPU half of {@link #renderSolarSystem}: camera and sun state, then per body the state
+     * fetch, scaled transform and culling. Nothing is written to GL. Ephemeris and transform
+     * times go to the frame's phase breakdown. Requires {@link #initializeHeadless} or {@link
+     * #initializeDirectRendering}.
+     *
+     * @return bodies that would have been drawn as meshes or impostors
+     */
+    public int simulateFrame(SolarSystem solarSystem, DrawContext dc) {
+        if (solarSystem == null || dc == null) return 0;
+
+        culledBodies = 0;
+        spriteBodies = 0;
+        impostorBodies = 0;
+        ephemerisTime = 0;
+        transformTime = 0;
+        prepareFrame(dc, solarSystem);
+
+        if (!bodiesCollected) {
+            collectBodies(solarSystem);
+            sortBodies();
+            bodiesCollected = true;
+        }
+        positionCache.reset();
+        Arrays.fill(bodyDrawn, false);
+
+        int visible = 0;
+        for (int i = 0, n = bodiesList.size(); i < n; i++) {
+            CelestialBody body = bodiesList.get(i);
+            long t0 = System.nanoTime();
+            FramedState bodyState = body.getState(dc.getTimeContext());
+            long t1 = System.nanoTime();
+            ephemerisTime += t1 - t0;
+            if (bodyState == null) continue;
+
+            buildTransform(body, bodyState, dc);
+            int visibility = classifyBody(body, CelestialBodyId.fromString(body.getId()));
+            if (visibility == BodyCuller.MESH || visibility == BodyCuller.IMPOSTOR) {
+                visible++;
+            }
+            transformTime += System.nanoTime() - t1;
+        }
+
+        dc.getFrameStatistics().recordBodyVisibility(culledBodies, spriteBodies, impostorBodies);
+        dc.getFrameStatistics().recordPhase(FrameStatistics.Phase.EPHEMERIS, ephemerisTime);
+        dc.getFrameStatistics().recordPhase(FrameStatistics.Phase.TRANSFORMS, transformTime);
+        return visible;
+    }
+
     // Main render pipeline
 
     /**
@@ -286,7 +803,8 @@ public class CelestialRenderer {
 
         long frameStart = System.nanoTime();
 
-        // Prepare frame state (once per frame).
+        // Prepare frame state (once per frame); the sun's state lookup counts as ephemeris time.
+        ephemerisTime = 0;
         long t0 = System.nanoTime();
         prepareFrame(dc, solarSystem);
         prepareTime = System.nanoTime() - t0;
@@ -298,31 +816,56 @@ public class CelestialRenderer {
             bodiesCollected = true;
         }
 
-        // Reset position cache for this frame.
+        // Reset position cache and visibility for this frame.
         positionCache.reset();
+        Arrays.fill(bodyDrawn, false);
+        if (spriteBatch != null) {
+            spriteBatch.clear();
+        }
 
         // Render in two passes for proper transparency (opaque then ring).
         bodiesRendered = 0;
+        drawCalls = 0;
+        culledBodies = 0;
+        spriteBodies = 0;
+        impostorBodies = 0;
+        trianglesSubmitted = 0;
         transformTime = 0;
-        gpuTime = 0;
+        recordTime = 0;
         drawTime = 0;
+        passTimer = dc.getGpuTimer();
 
         // Pass 1: Render opaque objects (planets and sun)
         // Pass 2: Render transparent objects (rings only)
-        // This ensures correct alpha blending without any allocations
-        for (int pass = 0; pass < 2; pass++) {
+        // This ensures correct alpha blending without any allocations.
+        // Per-body draws are recorded into this frame's UBO region, uploaded once, then drawn.
+        celestialUbo.beginFrame();
+        drawRecordCount = 0;
+        if (terrain != null) {
+            terrain.beginFrame();
+        }
+        if (instancedShader != null) {
+            renderBodiesInstanced(dc);
+        } else {
             for (int i = 0, n = bodiesList.size(); i < n; i++) {
-                CelestialBody body = bodiesList.get(i);
-                if (pass == 0) {
-                    renderBody(body, dc, false);
-                } else {
-                    renderBodyRings(body, dc);
-                }
+                recordBody(bodiesList.get(i), dc);
             }
         }
+        for (int i = 0, n = bodiesList.size(); i < n; i++) {
+            recordBodyRings(bodiesList.get(i), dc);
+        }
+        celestialUbo.flush();
+        drawRecorded(dc);
+        celestialUbo.endFrame();
+        drawSprites();
 
         // Update statistics
         frameCount++;
+        dc.getFrameStatistics().recordBodyVisibility(culledBodies, spriteBodies, impostorBodies);
+        dc.getFrameStatistics().recordTriangles(trianglesSubmitted);
+        dc.getFrameStatistics().recordPhase(FrameStatistics.Phase.EPHEMERIS, ephemerisTime);
+        dc.getFrameStatistics().recordPhase(FrameStatistics.Phase.TRANSFORMS, transformTime);
+        dc.getFrameStatistics().recordPhase(FrameStatistics.Phase.SUBMIT, recordTime + drawTime);
     }
 
     /** STEP 1: Prepare all frame-constant state. */
@@ -335,10 +878,16 @@ public class CelestialRenderer {
         // Camera state - cache this ONCE
         frameState.cameraWorldPos = dc.getView().getCameraWorldPosition();
 
-        // View matrices - keep in double precision only
-        // Float conversion delayed until GPU upload in updateGPUState()
+        // Pick volumes are recorded by buildTransform in the same camera-relative space
+        bodyPicker = dc.getBodyPicker();
+        bodyPicker.clear();
+
+        // View matrices in double precision for culling, the sun and terrain selection; the float
+        // copies are frame-constant and go to the FrameData block as-is.
         dc.getView().fillViewMatrixDouble(frameState.viewMatrixDouble);
         dc.getView().fillProjectionMatrixDouble(frameState.projMatrixDouble);
+        frameState.viewMatrix.set(frameState.viewMatrixDouble);
+        frameState.projMatrix.set(frameState.projMatrixDouble);
 
         // Calculate sun position and transform to view space
         calculateSunPosition(solarSystem.getSun(), dc);
@@ -348,10 +897,28 @@ public class CelestialRenderer {
                 (float) frameState.sunPosView.y,
                 (float) frameState.sunPosView.z);
 
+        // Camera and sun are frame-constant: one FrameData upload serves every draw. The shaders
+        // subtract the camera position from each body's centre (both split doubles), so the
+        // per-body transforms never depend on the camera.
+        FrameDataUBO frameData = dc.getFrameData();
+        if (frameData != null) {
+            frameData.updateCamera(frameState.viewMatrix, frameState.projMatrix);
+            Vec3d camera = frameState.cameraWorldPos;
+            if (camera != null) {
+                frameData.updateCameraPosition(camera.x, camera.y, camera.z);
+            } else {
+                frameData.updateCameraPosition(0.0, 0.0, 0.0);
+            }
+            frameData.updateSunPosition(frameState.sunPositionView);
+            frameData.flush();
+        }
+
         // View parameters for LOD
+        meshLodBias = dc.getQualityLevel().lodBias;
         frameState.screenHeight = dc.getViewportHeight();
         frameState.fovDegrees = dc.getView().getFieldOfView();
         frameState.pixelsPerDegree = frameState.screenHeight / frameState.fovDegrees;
+        bodyCuller.update(frameState.projMatrix, frameState.screenHeight);
 
         // Update ViewContext for texture LOD (once per frame)
         viewContext.updateFrame(
@@ -370,7 +937,9 @@ public class CelestialRenderer {
         }
 
         // Get sun state (will be cached in ephemeris)
+        long t0 = System.nanoTime();
         FramedState sunState = sun.getState(dc.getTimeContext());
+        ephemerisTime += (System.nanoTime() - t0);
         if (sunState == null) {
             frameState.sunPosWorld.set(0, 0, 0, 1.0);
             return;
@@ -458,11 +1027,10 @@ public class CelestialRenderer {
     }
 
     /**
-     * STEP 4: Render a single body with clear sub-steps.
-     *
-     * @param renderRings if false, skip ring rendering for this pass
+     * STEP 4: Record a single body with clear sub-steps. Writes its UBO block and a draw record;
+     * the GL draw happens later in {@link #drawRecorded}.
      */
-    private void renderBody(CelestialBody body, DrawContext dc, boolean renderRings) {
+    private void recordBody(CelestialBody body, DrawContext dc) {
         // Use the original ID; toLowerCase() would allocate.
         // The body ID should already be in the correct case
         String bodyId = body.getId();
@@ -471,7 +1039,9 @@ public class CelestialRenderer {
         CelestialBodyId bodyEnum = CelestialBodyId.fromString(bodyId);
 
         // 4.1: Get body state (ephemeris)
+        long t0 = System.nanoTime();
         FramedState bodyState = body.getState(dc.getTimeContext());
+        ephemerisTime += (System.nanoTime() - t0);
         if (bodyState == null) {
             return; // Skip body without state
         }
@@ -481,6 +1051,28 @@ public class CelestialRenderer {
         Matrix4f modelMatrix = buildTransform(body, bodyState, dc);
         transformTime += (System.nanoTime() - t1);
 
+        // 4.2a: Off-screen bodies stop here; sub-pixel ones were queued as sprites
+        int visibility = classifyBody(body, bodyEnum);
+        if (visibility != BodyCuller.MESH && visibility != BodyCuller.IMPOSTOR) {
+            return;
+        }
+
+        recordVisibleBody(body, bodyEnum, bodyState, modelMatrix, visibility);
+    }
+
+    /**
+     * Steps 4.3 onward of {@link #recordBody} for a body already transformed and classified as
+     * MESH or IMPOSTOR; {@code modelMatrix} and {@link #transformWork} must still hold its
+     * transform.
+     */
+    private void recordVisibleBody(
+            CelestialBody body,
+            CelestialBodyId bodyEnum,
+            FramedState bodyState,
+            Matrix4f modelMatrix,
+            int visibility) {
+        String bodyId = body.getId();
+
         // 4.3: Calculate distance for LOD
         double distanceAU = calculateDistance(bodyState, frameState.cameraWorldPos);
         viewContext.updateBody(distanceAU, body.getRadius());
@@ -490,9 +1082,38 @@ public class CelestialRenderer {
         TextureArraySystem.TextureHandle texture =
                 textureSystem.requestTexture(bodyId, viewContext);
 
-        // 4.5: Update GPU state
+        // 4.5: Write the UBO block and draw record
         long t2 = System.nanoTime();
-        updateGPUState(modelMatrix, material, texture, bodyEnum, dc);
+        writeBodyBlock(modelMatrix, transformWork.scaledPosition, material);
+        int slot = celestialUbo.commitBlock();
+        if (slot < 0) {
+            recordTime += (System.nanoTime() - t2);
+            return;
+        }
+        DrawRecord record = nextDrawRecord(slot, false);
+        record.impostor = visibility == BodyCuller.IMPOSTOR;
+        record.mesh = record.impostor ? null : selectSphereMesh(bodyEnum);
+        if (record.mesh != null && wantsTerrain(body)) {
+            computeBodyMatrices(modelMatrix);
+            record.terrainStart = terrain.getSelectedCount();
+            record.terrainCount =
+                    terrain.select(
+                            bodyId,
+                            renderWork.modelViewDouble,
+                            renderWork.mvpMatrix,
+                            bodyCuller.getPixelsPerTangent());
+        }
+        record.setTexture(texture);
+        record.bodyType = bodyEnum.getShaderBodyType();
+        record.bodyId = bodyEnum.getId();
+        record.variant =
+                record.impostor
+                        ? CelestialVariant.GENERAL
+                        : CelestialVariant.forBody(
+                                material != null && material.isEmissive(),
+                                record.hasTexture,
+                                record.bodyType,
+                                renderWork.bodyGeometry.w > 0);
 
         // 4.5a: Ring-shadow plumbing for ring-bearing bodies (Saturn).
         // For pass 0 (body draws) the body fragment shader needs to know:
@@ -504,92 +1125,557 @@ public class CelestialRenderer {
             String ringId = bodyEnum.getRingTextureId();
             TextureArraySystem.TextureHandle ringTexture =
                     ringId != null ? textureSystem.requestTexture(ringId, viewContext) : null;
-            int ringLayer =
+            record.ringTextureLayer =
                     (ringTexture != null && ringTexture.isReady())
                             ? ringTexture.getArrayLayer()
                             : -1;
-            uboShader.setUniform("ringTextureLayer", ringLayer);
-            uboShader.setUniform(
-                    "atmosphericRefraction",
-                    material != null ? material.atmosphericRefractionRad : 0.0f);
-            uploadShadowUniforms(body.getId(), transformWork.scaledPosition);
+            record.atmosphericRefraction =
+                    material != null ? material.atmosphericRefractionRad : 0.0f;
+            recordShadow(record, body.getId(), transformWork.scaledPosition);
         } else {
-            uboShader.setUniform("ringTextureLayer", -1);
-            uboShader.setUniform("atmosphericRefraction", 0.0f);
+            record.ringTextureLayer = -1;
+            record.atmosphericRefraction = 0.0f;
+            record.hasShadow = false;
         }
-        gpuTime += (System.nanoTime() - t2);
+        recordTime += (System.nanoTime() - t2);
+
+        // 4.6: Rings are recorded in the second pass (recordBodyRings)
+
+        bodiesRendered++;
+    }
+
+    private DrawRecord nextDrawRecord(int slot, boolean ring) {
+        // commitBlock() caps slots at MAX_BLOCKS_PER_FRAME, so this never overruns
+        DrawRecord record = drawRecords[drawRecordCount++];
+        record.slot = slot;
+        record.ring = ring;
+        record.impostor = false;
+        record.variant = ring ? CelestialVariant.RING : CelestialVariant.GENERAL;
+        record.mesh = null;
+        record.terrainCount = 0;
+        record.ringMaterial = null;
+        record.saturnshineColor = null;
+        return record;
+    }
+
+    private void recordShadow(DrawRecord record, String bodyId, Vector3d bodyPos) {
+        record.hasShadow = true;
+        record.hasAxis = computeShadowVectors(bodyId, bodyPos);
+        record.planetPosView.set(renderWork.planetPosView);
+        record.planetAxisView.set(renderWork.planetAxisView);
+    }
+
+    /**
+     * Issue every recorded per-body and ring draw, each selecting its block with
+     * glBindBufferRange. Records are drawn grouped by {@link CelestialVariant} (mesh records
+     * before impostors, record order within a group), so each program is bound once and each
+     * variant is timed as its own pass. Lighting comes from the FrameData block.
+     */
+    private void drawRecorded(DrawContext dc) {
+        if (drawRecordCount == 0) return;
 
-        // 4.6: Draw
         long t3 = System.nanoTime();
-        sphereMesh.draw();
+        GLState.activeTexture(0);
+        sortDrawRecords();
+
+        // Rings sort last, so the transparent state is entered once for the run
+        BodyUniforms active = null;
+        GpuTimer.Pass activePass = null;
+        boolean ringState = false;
+        for (int i = 0; i < drawRecordCount; i++) {
+            DrawRecord record = drawRecords[drawOrder[i]];
+            CelestialVariant variant = record.variant;
+            BodyUniforms uniforms =
+                    record.impostor ? impostorUniforms : variantUniforms[variant.ordinal()];
+            if (uniforms != active) {
+                uniforms.shader.use();
+                uniforms.textureArray.set(0);
+                uniforms.ringshineLut.set(RingshineLut.TEXTURE_UNIT);
+                active = uniforms;
+            }
+            GpuTimer.Pass pass =
+                    variant.timingPass(!record.impostor && bodyVariants.isSpecialized(variant));
+            if (pass != activePass) {
+                endPass();
+                beginPass(pass);
+                activePass = pass;
+            }
+            celestialUbo.bindBlock(record.slot);
+            if (record.ring) {
+                if (!ringState) {
+                    beginRingState();
+                    ringState = true;
+                }
+                drawRingRecord(record, uniforms);
+            } else {
+                if (ringState) {
+                    endRingState();
+                    ringState = false;
+                }
+                drawBodyRecord(record, uniforms);
+            }
+        }
+        if (ringState) {
+            endRingState();
+        }
+        endPass();
         drawTime += (System.nanoTime() - t3);
+    }
 
-        // 4.7: Skip rings in first pass - they'll be rendered in second pass
-        // This is handled by renderBodyRings() method
+    /** Fill {@link #drawOrder} by a stable counting sort on (variant, impostor). */
+    private void sortDrawRecords() {
+        int[] start = drawKeyStart;
+        Arrays.fill(start, 0);
+        for (int i = 0; i < drawRecordCount; i++) {
+            start[drawKey(drawRecords[i]) + 1]++;
+        }
+        for (int k = 1; k < start.length; k++) {
+            start[k] += start[k - 1];
+        }
+        for (int i = 0; i < drawRecordCount; i++) {
+            drawOrder[start[drawKey(drawRecords[i])]++] = i;
+        }
+    }
 
-        bodiesRendered++;
+    private static int drawKey(DrawRecord record) {
+        return record.variant.ordinal() * 2 + (record.impostor ? 1 : 0);
+    }
+
+    private void drawBodyRecord(DrawRecord record, BodyUniforms uniforms) {
+        // Set body type - O(1) enum lookups done at record time
+        uniforms.bodyType.set(record.bodyType);
+        uniforms.bodyId.set(record.bodyId);
+        setRecordTextureUniforms(record, uniforms);
+        uniforms.isRing.set(false); // Reset ring flag for normal bodies
+
+        uniforms.ringTextureLayer.set(record.ringTextureLayer);
+        uniforms.atmosphericRefraction.set(record.atmosphericRefraction);
+        setRecordShadowUniforms(record, uniforms);
+
+        if (record.impostor) {
+            impostorQuad.draw();
+            trianglesSubmitted += ImpostorQuad.VERTEX_COUNT - 2;
+            drawCalls++;
+        } else if (record.terrainCount > 0) {
+            trianglesSubmitted += terrain.draw(record.terrainStart, record.terrainCount);
+            drawCalls += record.terrainCount; // one per tile
+        } else {
+            record.mesh.draw();
+            trianglesSubmitted += record.mesh.getTriangleCount();
+            drawCalls++;
+        }
+    }
+
+    private void setRecordTextureUniforms(DrawRecord record, BodyUniforms uniforms) {
+        uniforms.hasTexture.set(record.hasTexture);
+        if (record.hasTexture) {
+            GLState.bindTexture(0, GL_TEXTURE_2D_ARRAY, record.textureId);
+            uniforms.textureLayer.set(record.textureLayer);
+            uniforms.texCoordScale.set(record.scaleU, record.scaleV);
+        }
+    }
+
+    private void setRecordShadowUniforms(DrawRecord record, BodyUniforms uniforms) {
+        if (!record.hasShadow) return;
+        uniforms.planetPositionView.set(record.planetPosView);
+        if (record.hasAxis) {
+            uniforms.planetAxisView.set(record.planetAxisView);
+        }
     }
 
     /**
-     * Render only the rings of a body (second pass for transparency). Zero-allocation method that
+     * Pass 0 via instancing: same per-body work as {@link #recordBody}, but written into instance
+     * slots and drawn with one glDrawElementsInstanced per texture array. GL 4.1 has no
+     * base-instance draw, so each batch passes its first slot in the instanceBase uniform. Culled
+     * and sprite bodies never take a slot or request a texture.
+     *
+     * Bodies beyond {@link CelestialInstanceBuffer#MAX_INSTANCES} fall back to {@link
+     * #recordBody} after the batches, when their parents' positions are already cached. Bodies
+     * drawn from terrain tiles are recorded per body in pass (a), reusing its transform.
+     */
+    private void renderBodiesInstanced(DrawContext dc) {
+        InstanceWork work = instanceWork;
+        work.reset();
+
+        // (a) Transform and cull in body order (satellites read their parent from positionCache),
+        // then gather texture and key each visible body by its texture ID
+        int n = bodiesList.size();
+        int overflowStart = n;
+        for (int i = 0; i < n; i++) {
+            if (work.count == InstanceWork.MAX) {
+                overflowStart = i;
+                break;
+            }
+            CelestialBody body = bodiesList.get(i);
+            long t0 = System.nanoTime();
+            FramedState bodyState = body.getState(dc.getTimeContext());
+            ephemerisTime += (System.nanoTime() - t0);
+            if (bodyState == null) continue;
+
+            long t1 = System.nanoTime();
+            Matrix4f modelMatrix = buildTransform(body, bodyState, dc);
+            transformTime += (System.nanoTime() - t1);
+            CelestialBodyId bodyEnum = CelestialBodyId.fromString(body.getId());
+            int visibility = classifyBody(body, bodyEnum);
+            if (visibility != BodyCuller.MESH && visibility != BodyCuller.IMPOSTOR) {
+                continue;
+            }
+            if (visibility == BodyCuller.MESH && wantsTerrain(body)) {
+                // Terrain tiles take the per-body path; record now, while the transform is current
+                recordVisibleBody(body, bodyEnum, bodyState, modelMatrix, visibility);
+                continue;
+            }
+
+            viewContext.updateBody(
+                    calculateDistance(bodyState, frameState.cameraWorldPos), body.getRadius());
+            TextureArraySystem.TextureHandle texture =
+                    textureSystem.requestTexture(body.getId(), viewContext);
+            int textureId = (texture != null && texture.isReady()) ? texture.getTextureId() : 0;
+
+            int g = work.count++;
+            work.bodies[g] = body;
+            work.textures[g] = texture;
+            work.modelMatrices[g].set(modelMatrix);
+            work.positions[g].set(transformWork.scaledPosition);
+            work.bodyGeometry[g].set(renderWork.bodyGeometry);
+            boolean impostor = visibility == BodyCuller.IMPOSTOR;
+            SphereMesh mesh = impostor ? null : selectSphereMesh(bodyEnum);
+            CelestialVariant variant = CelestialVariant.GENERAL;
+            if (!impostor) {
+                MaterialProperties material = MaterialCatalog.getMaterial(body.getId());
+                variant =
+                        CelestialVariant.forBody(
+                                material != null && material.isEmissive(),
+                                textureId != 0,
+                                bodyEnum.getShaderBodyType(),
+                                renderWork.bodyGeometry.w > 0);
+            }
+            int batch = work.batchFor(textureId, impostor, mesh, variant);
+            work.bodyBatch[g] = batch;
+            work.batchSize[batch]++;
+        }
+
+        // (b) Stable slot assignment: batches are contiguous, body order kept within a batch
+        work.layoutBatches();
+
+        // (c) Transform and instance data for each visible body into its slot
+        for (int g = 0; g < work.count; g++) {
+            CelestialBody body = work.bodies[g];
+            CelestialBodyId bodyEnum = CelestialBodyId.fromString(body.getId());
+            int slot = work.nextSlot(work.bodyBatch[g]);
+            renderWork.bodyGeometry.set(work.bodyGeometry[g]);
+
+            long t2 = System.nanoTime();
+            writeInstance(
+                    slot,
+                    body,
+                    bodyEnum,
+                    work.modelMatrices[g],
+                    work.positions[g],
+                    work.textures[g]);
+            recordTime += (System.nanoTime() - t2);
+            bodiesRendered++;
+        }
+
+        // (d) One upload, then one draw per texture array
+        if (work.count > 0) {
+            long t3 = System.nanoTime();
+            instanceBuffer.upload(work.count);
+            instanceBuffer.bind();
+
+            GLState.activeTexture(0);
+            drawInstanceBatches(work, false);
+            if (instancedImpostorShader != null) {
+                drawInstanceBatches(work, true);
+            }
+            endPass();
+            drawTime += (System.nanoTime() - t3);
+        }
+
+        for (int i = overflowStart; i < n; i++) {
+            recordBody(bodiesList.get(i), dc);
+        }
+    }
+
+    /**
+     * Draw the mesh or the impostor batches, one instanced call per texture array and tier,
+     * grouped by variant. Each variant's batches are timed as its pass; the caller ends the last.
+     */
+    private void drawInstanceBatches(InstanceWork work, boolean impostor) {
+        for (CelestialVariant variant : CelestialVariant.VALUES) {
+            InstancedUniforms uniforms =
+                    impostor ? instancedImpostorUniforms : instancedUniforms[variant.ordinal()];
+            boolean programBound = false;
+            for (int b = 0; b < work.batchCount; b++) {
+                if (work.batchImpostor[b] != impostor || work.batchVariant[b] != variant) {
+                    continue;
+                }
+                if (!programBound) {
+                    uniforms.shader.use();
+                    uniforms.textureArray.set(0);
+                    endPass();
+                    beginPass(
+                            variant.timingPass(
+                                    !impostor && instancedVariants.isSpecialized(variant)));
+                    programBound = true;
+                }
+                drawInstanceBatch(work, b, impostor, uniforms);
+            }
+        }
+    }
+
+    private void drawInstanceBatch(
+            InstanceWork work, int b, boolean impostor, InstancedUniforms uniforms) {
+        if (work.batchTexture[b] != 0) {
+            GLState.bindTexture(0, GL_TEXTURE_2D_ARRAY, work.batchTexture[b]);
+        }
+        uniforms.instanceBase.set(work.batchStart[b]);
+        int instances = work.batchSize[b];
+        if (impostor) {
+            impostorQuad.drawInstanced(instances);
+            trianglesSubmitted += (long) (ImpostorQuad.VERTEX_COUNT - 2) * instances;
+        } else {
+            work.batchMesh[b].drawInstanced(instances);
+            trianglesSubmitted += (long) work.batchMesh[b].getTriangleCount() * instances;
+        }
+        drawCalls++;
+    }
+
+    /** Write one body's UBO-equivalent data plus its per-body uniforms into an instance slot. */
+    private void writeInstance(
+            int slot,
+            CelestialBody body,
+            CelestialBodyId bodyEnum,
+            Matrix4f modelMatrix,
+            Vector3d position,
+            TextureArraySystem.TextureHandle texture) {
+        CelestialInstanceBuffer buffer = instanceBuffer;
+        buffer.writeTransform(slot, modelMatrix, position);
+
+        MaterialProperties material = MaterialCatalog.getMaterial(body.getId());
+        if (material != null) {
+            buffer.writeMaterial(
+                    slot,
+                    material.albedo,
+                    material.roughness,
+                    material.metallic,
+                    material.emission,
+                    material.emissionStrength,
+                    material.isEmissive());
+        } else {
+            buffer.writeMaterial(
+                    slot,
+                    renderWork.fallbackColor,
+                    0.5f,
+                    0.0f,
+                    renderWork.fallbackColor,
+                    0.0f,
+                    false);
+        }
+        buffer.writeBodyGeometry(
+                slot,
+                renderWork.bodyGeometry.x,
+                renderWork.bodyGeometry.y,
+                renderWork.bodyGeometry.z,
+                renderWork.bodyGeometry.w);
+
+        if (texture != null && texture.isReady()) {
+            buffer.writeTexture(
+                    slot,
+                    texture.getArrayLayer(),
+                    texture.getScaleU(),
+                    texture.getScaleV(),
+                    true);
+        } else {
+            buffer.writeTexture(slot, 0, 1.0f, 1.0f, false);
+        }
+
+        // Ring-shadow inputs (see recordBody 4.5a); zeroed for ringless bodies, which the
+        // shader gates out on bodyGeometry.w.
+        int ringLayer = -1;
+        float refraction = 0.0f;
+        if (bodyEnum.hasRings()) {
+            String ringId = bodyEnum.getRingTextureId();
+            TextureArraySystem.TextureHandle ringTexture =
+                    ringId != null ? textureSystem.requestTexture(ringId, viewContext) : null;
+            if (ringTexture != null && ringTexture.isReady()) {
+                ringLayer = ringTexture.getArrayLayer();
+            }
+            refraction = material != null ? material.atmosphericRefractionRad : 0.0f;
+            computeShadowVectors(body.getId(), positionCache.get(bodyEnum));
+        } else {
+            renderWork.planetPosView.zero();
+            renderWork.planetAxisView.zero();
+        }
+        buffer.writeBodyParams(slot, bodyEnum.getShaderBodyType(), bodyEnum.getId(), ringLayer);
+        buffer.writeShadow(slot, renderWork.planetPosView, refraction, renderWork.planetAxisView);
+    }
+
+    /**
+     * Record only the rings of a body (second pass for transparency). Zero-allocation method that
      * reuses existing state.
      */
-    private void renderBodyRings(CelestialBody body, DrawContext dc) {
+    private void recordBodyRings(CelestialBody body, DrawContext dc) {
         String bodyId = body.getId();
         CelestialBodyId bodyEnum = CelestialBodyId.fromString(bodyId);
 
-        // Only process bodies that have rings
-        if (!bodyEnum.hasRings()) {
+        // Only process bodies that have rings and were drawn this frame
+        if (!bodyEnum.hasRings() || !wasBodyDrawn(bodyEnum)) {
             return;
         }
 
-        // Get cached body position and transform from first pass
-        Vector3d bodyPos = positionCache.get(bodyEnum);
-        if (bodyPos == null) {
+        // recordRings reads the body position cached by the first pass
+        if (positionCache.get(bodyEnum) == null) {
             // Body wasn't rendered in first pass, need its state
+            long t0 = System.nanoTime();
             FramedState bodyState = body.getState(dc.getTimeContext());
+            ephemerisTime += (System.nanoTime() - t0);
             if (bodyState == null) return;
 
-            // Build transform and cache position (same as first pass)
-            Matrix4f modelMatrix = buildTransform(body, bodyState, dc);
-            bodyPos = positionCache.get(bodyEnum);
-            if (bodyPos == null) return;
+            // Build transform to cache the position (same as first pass)
+            buildTransform(body, bodyState, dc);
+            if (positionCache.get(bodyEnum) == null) return;
         }
 
-        // Build simple model matrix for ring position (reuse work matrices)
-        double visualRadius = ScaleManager.getVisualRadius(body.getRadius(), body.getId());
-
-        Matrix4f ringMatrix = transformWork.modelMatrix; // Reuse work matrix
-        if (frameState.cameraWorldPos != null) {
-            double relX = bodyPos.x - frameState.cameraWorldPos.x;
-            double relY = bodyPos.y - frameState.cameraWorldPos.y;
-            double relZ = bodyPos.z - frameState.cameraWorldPos.z;
-
-            transformWork
-                    .modelMatrixDouble
-                    .identity()
-                    .translate(relX, relY, relZ)
-                    .scale(visualRadius);
-        } else {
-            transformWork
-                    .modelMatrixDouble
-                    .identity()
-                    .translate(bodyPos.x, bodyPos.y, bodyPos.z)
-                    .scale(visualRadius);
-        }
-        ringMatrix.set(transformWork.modelMatrixDouble);
-
         // Get ring texture
         String ringId = bodyEnum.getRingTextureId();
         if (ringId != null) {
             TextureArraySystem.TextureHandle ringTexture =
                     textureSystem.requestTexture(ringId, viewContext);
             if (ringTexture != null) {
-                renderRings(body, ringMatrix, ringTexture, dc);
+                recordRings(body, ringTexture);
             }
         }
     }
 
+    /**
+     * Frustum and screen-size test for the body whose transform was just built (uses
+     * transformWork.modelMatrixDouble and renderWork.bodyGeometry). The bounding sphere covers
+     * the ring extent for ringed bodies. Sprite-sized bodies are queued here; the caller draws
+     * {@link BodyCuller#MESH} and {@link BodyCuller#IMPOSTOR} bodies and skips the rest. Leaves
+     * the body's projected radius in {@link #bodyRadiusPx} for {@link #selectSphereMesh}.
+     */
+    private int classifyBody(CelestialBody body, CelestialBodyId bodyEnum) {
+        Matrix4d model = transformWork.modelMatrixDouble;
+        cullCenter.set(model.m30(), model.m31(), model.m32());
+        frameState.viewMatrixDouble.transformPosition(cullCenter);
+        float bodyRadius = renderWork.bodyGeometry.x;
+        bodyRadiusPx = bodyCuller.projectedRadiusPx((float) cullCenter.length(), bodyRadius);
+
+        int visibility = BodyCuller.MESH;
+        if (CULLING_ENABLED) {
+            float boundingRadius = bodyRadius * Math.max(1.0f, renderWork.bodyGeometry.w);
+            visibility =
+                    bodyCuller.classify(
+                            (float) cullCenter.x,
+                            (float) cullCenter.y,
+                            (float) cullCenter.z,
+                            boundingRadius);
+            if (visibility == BodyCuller.SPRITE) {
+                if (queueSprite(body, model, bodyRadiusPx)) {
+                    spriteBodies++;
+                } else {
+                    visibility = BodyCuller.MESH; // no sprite pass or batch full
+                }
+            } else if (visibility == BodyCuller.IMPOSTOR) {
+                impostorBodies++;
+            } else if (visibility == BodyCuller.CULLED) {
+                culledBodies++;
+            }
+        }
+        if (visibility == BodyCuller.MESH || visibility == BodyCuller.IMPOSTOR) {
+            int index = bodyEnum.ordinal();
+            if (bodyEnum != CelestialBodyId.UNKNOWN && index < bodyDrawn.length) {
+                bodyDrawn[index] = true;
+            }
+        }
+        return visibility;
+    }
+
+    /**
+     * Sphere tier for the body just classified, from its projected radius (divided by the quality
+     * level's LOD bias) and last frame's tier. HIGH for every body when mesh LOD is off.
+     */
+    private SphereMesh selectSphereMesh(CelestialBodyId bodyEnum) {
+        if (lodSelector == null) return sphereMesh;
+
+        int index = bodyEnum.ordinal();
+        boolean tracked = bodyEnum != CelestialBodyId.UNKNOWN && index < bodyLod.length;
+        SphereMesh.Quality quality =
+                lodSelector.select(tracked ? bodyLod[index] : null, bodyRadiusPx / meshLodBias);
+        if (tracked) {
+            bodyLod[index] = quality;
+        }
+        return sphereMeshes[quality.ordinal()];
+    }
+
+    /**
+     * Whether the body just classified is close enough for terrain and its tiles are ready. The
+     * first call for a body starts loading its elevation data in the background.
+     */
+    private boolean wantsTerrain(CelestialBody body) {
+        return terrain != null
+                && bodyRadiusPx >= TERRAIN_MIN_RADIUS_PX
+                && terrain.hasTerrain(body.getId(), body.getRadius());
+    }
+
+    private boolean wasBodyDrawn(CelestialBodyId bodyEnum) {
+        int index = bodyEnum.ordinal();
+        return index < bodyDrawn.length && bodyDrawn[index];
+    }
+
+    /** Queue a sprite at the model translation, colored by albedo or emission. */
+    private boolean queueSprite(CelestialBody body, Matrix4d model, float radiusPx) {
+        if (spriteBatch == null) return false;
+
+        MaterialProperties material = MaterialCatalog.getMaterial(body.getId());
+        float x = (float) model.m30();
+        float y = (float) model.m31();
+        float z = (float) model.m32();
+        if (material == null) {
+            return spriteBatch.add(x, y, z, radiusPx, renderWork.fallbackColor, 1.0f, false);
+        }
+        if (material.isEmissive()) {
+            return spriteBatch.add(
+                    x, y, z, radiusPx, material.emission, material.emissionStrength, true);
+        }
+        return spriteBatch.add(x, y, z, radiusPx, material.albedo, 1.0f, false);
+    }
+
+    /**
+     * Draw the frame's sprites in one call, additively so overlapping sprites and the bodies
+     * behind them sum as unresolved light would. Depth-tested against the meshes, no depth write.
+     */
+    private void drawSprites() {
+        if (spriteBatch == null || spriteBatch.size() == 0) return;
+
+        long t = System.nanoTime();
+        beginPass(GpuTimer.Pass.BODIES);
+        spriteShader.use();
+        GLState.setProgramPointSize(true);
+        GLState.setBlend(true);
+        GLState.blendFunc(GL_ONE, GL_ONE);
+        GLState.setDepthMask(false);
+
+        spriteBatch.draw();
+        drawCalls++;
+
+        GLState.setDepthMask(true);
+        GLState.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        GLState.setBlend(false);
+        GLState.setProgramPointSize(false);
+        endPass();
+        drawTime += (System.nanoTime() - t);
+    }
+
+    private void beginPass(GpuTimer.Pass pass) {
+        if (passTimer != null) passTimer.begin(pass);
+    }
+
+    private void endPass() {
+        if (passTimer != null) passTimer.end();
+    }
+
     /** Calculate distance from camera to body. USES DOUBLE PRECISION throughout for accuracy. */
     private double calculateDistance(FramedState bodyState, Vec3d cameraPos) {
         Vec3d bodyPos = bodyState.getPosition();
@@ -696,23 +1782,17 @@ public class CelestialRenderer {
 
         // T (translate) — scale is applied AFTER rotation below so that for
         // oblate bodies the polar squash happens in body-fixed coordinates.
+        double relX = transformWork.scaledPosition.x;
+        double relY = transformWork.scaledPosition.y;
+        double relZ = transformWork.scaledPosition.z;
         if (frameState.cameraWorldPos != null) {
             // Camera-relative math must stay in double precision (non-negotiable at AU scale).
             // This prevents precision loss that causes stuttering
-            double relX = transformWork.scaledPosition.x - frameState.cameraWorldPos.x;
-            double relY = transformWork.scaledPosition.y - frameState.cameraWorldPos.y;
-            double relZ = transformWork.scaledPosition.z - frameState.cameraWorldPos.z;
-
-            transformWork.modelMatrixDouble.identity().translate(relX, relY, relZ);
-        } else {
-            transformWork
-                    .modelMatrixDouble
-                    .identity()
-                    .translate(
-                            transformWork.scaledPosition.x,
-                            transformWork.scaledPosition.y,
-                            transformWork.scaledPosition.z);
+            relX -= frameState.cameraWorldPos.x;
+            relY -= frameState.cameraWorldPos.y;
+            relZ -= frameState.cameraWorldPos.z;
         }
+        transformWork.modelMatrixDouble.translation(relX, relY, relZ);
 
         // Apply IAU rotation, then non-uniform body-fixed scale.
         // Final matrix: M = T * R * S_body. Vertex transform v' = M * v evaluates
@@ -732,60 +1812,41 @@ public class CelestialRenderer {
             // non-uniform scale (X and Y share the same factor).
             transformWork.workRotation.set(frameState.j2000ToRender).mul(rotation);
             transformWork.workRotation.rotateZ(Math.PI);
-            transformWork.rotation4d.identity().set3x3(transformWork.workRotation);
-            transformWork.modelMatrixDouble.mul(transformWork.rotation4d);
+            // T is a pure translation, so T * R just takes R as its 3x3
+            transformWork.modelMatrixDouble.set3x3(transformWork.workRotation);
+        }
+        if (bodyPicker != null) {
+            bodyPicker.add(
+                    body,
+                    relX,
+                    relY,
+                    relZ,
+                    rotation != null && frameState.j2000ToRender != null
+                            ? transformWork.workRotation
+                            : null,
+                    visualRadius,
+                    visualPolar,
+                    renderWork.bodyGeometry.z,
+                    renderWork.bodyGeometry.w);
         }
 
         // S_body — applied AFTER rotation so squash is in body-fixed coords.
         // For spherical bodies polar == equatorial: degenerates to uniform scale.
         transformWork.modelMatrixDouble.scale(visualRadius, visualRadius, visualPolar);
 
-        // Convert to float and return
+        // Convert to float and return. The GPU takes only the 3x3 (orientation and radii); the
+        // translation stays in double as scaledPosition and is uploaded split (writeBodyBlock).
         transformWork.modelMatrix.set(transformWork.modelMatrixDouble);
         return transformWork.modelMatrix;
     }
 
     /**
-     * Update GPU state and uniforms. FIXED: Use double precision for critical matrix operations.
+     * Stage a body's UBO block (orientation and radii from {@link #buildTransform}, centre,
+     * material, geometry). The caller commits it with {@link CelestialUBO#commitBlock()}.
      */
-    private void updateGPUState(
-            Matrix4f modelMatrix,
-            MaterialProperties material,
-            TextureArraySystem.TextureHandle texture,
-            CelestialBodyId bodyEnum,
-            DrawContext dc) {
-        // Use shader
-        uboShader.use();
-
-        // Convert modelMatrix to double (reuse work matrix)
-        renderWork.modelMatrixDouble.set(modelMatrix);
-
-        // ModelView = View * Model (in double precision)
-        renderWork
-                .modelViewDouble
-                .set(frameState.viewMatrixDouble)
-                .mul(renderWork.modelMatrixDouble);
-        // MVP = Projection * ModelView (in double precision)
-        renderWork.mvpDouble.set(frameState.projMatrixDouble).mul(renderWork.modelViewDouble);
-
-        // Convert to float for GPU
-        renderWork.modelViewMatrix.set(renderWork.modelViewDouble);
-
-        renderWork.mvpMatrix.set(renderWork.mvpDouble);
-        // Normal matrix from ModelView
-        renderWork.modelViewMatrix.normal(renderWork.normalMatrix);
-
-        // Convert double matrices to float only now when needed for GPU
-        frameState.viewMatrix.set(frameState.viewMatrixDouble);
-        frameState.projMatrix.set(frameState.projMatrixDouble);
-
-        // Update UBO
-        celestialUbo.updateMatrices(
-                modelMatrix,
-                frameState.viewMatrix,
-                frameState.projMatrix,
-                renderWork.mvpMatrix,
-                renderWork.normalMatrix);
+    private void writeBodyBlock(
+            Matrix4f modelMatrix, Vector3d position, MaterialProperties material) {
+        celestialUbo.updateTransform(modelMatrix, position);
 
         if (material != null) {
             celestialUbo.updateMaterial(
@@ -800,46 +1861,30 @@ public class CelestialRenderer {
                     renderWork.fallbackColor, 0.5f, 0.0f, renderWork.fallbackColor, 0.0f, false);
         }
 
-        celestialUbo.updateSunPosition(frameState.sunPositionView);
         // Per-body geometry (eq, polar, ringInner, ringOuter) — populated by
-        // buildTransform into renderWork.bodyGeometry. Must be uploaded for
-        // BOTH passes (the UBO is one buffer; pass 1's ring draws would otherwise
-        // read whatever pass 0 last wrote).
+        // buildTransform into renderWork.bodyGeometry. Every block must carry
+        // it: blocks don't inherit values from the previous draw.
         celestialUbo.updateBodyGeometry(
                 renderWork.bodyGeometry.x, renderWork.bodyGeometry.y,
                 renderWork.bodyGeometry.z, renderWork.bodyGeometry.w);
-        celestialUbo.upload();
-        celestialUbo.bind();
-
-        // Set body type - now O(1) enum check instead of string comparisons
-        uboShader.setUniform("bodyType", bodyEnum.getShaderBodyType());
-        uboShader.setUniform("bodyId", bodyEnum.getId());
+    }
 
-        // Apply lighting
-        if (dc != null && dc.getIlluminationManager() != null) {
-            dc.setCurrentShader(uboShader);
-            dc.getIlluminationManager().apply(dc);
-        }
+    /**
+     * Compute model-view and MVP for a body into renderWork, for terrain tile selection; the
+     * shaders build their own from the split centre. Products are formed in double precision.
+     */
+    private void computeBodyMatrices(Matrix4f modelMatrix) {
+        // Convert modelMatrix to double (reuse work matrix)
+        renderWork.modelMatrixDouble.set(modelMatrix);
 
-        // Set texture
-        if (texture != null && texture.isReady()) {
-            glActiveTexture(GL_TEXTURE0);
-            glBindTexture(GL_TEXTURE_2D_ARRAY, texture.getTextureId());
-            uboShader.setUniform("textureArray", 0);
-            uboShader.setUniform("hasTexture", true);
-            uboShader.setUniform("textureLayer", texture.getArrayLayer());
-            renderWork.texCoordScale.set(texture.getScaleU(), texture.getScaleV());
-            uboShader.setUniform("texCoordScale", renderWork.texCoordScale);
-            uboShader.setUniform("isRing", false); // Reset ring flag for normal bodies
-        } else {
-            uboShader.setUniform("hasTexture", false);
-            uboShader.setUniform("isRing", false); // Reset ring flag
-            if (material != null) {
-                uboShader.setUniform("fallbackColor", material.albedo);
-            } else {
-                uboShader.setUniform("fallbackColor", renderWork.fallbackColor);
-            }
-        }
+        // ModelView = View * Model (in double precision)
+        renderWork
+                .modelViewDouble
+                .set(frameState.viewMatrixDouble)
+                .mul(renderWork.modelMatrixDouble);
+        // MVP = Projection * ModelView (in double precision)
+        renderWork.mvpDouble.set(frameState.projMatrixDouble).mul(renderWork.modelViewDouble);
+        renderWork.mvpMatrix.set(renderWork.mvpDouble);
     }
 
     /**
@@ -860,14 +1905,16 @@ public class CelestialRenderer {
     }
 
     /**
-     * Upload per-body shadow uniforms: planetPositionView (camera-relative, in view space) and
-     * planetAxisView (the body's spin axis in view space, normalized).
+     * Compute the ring-shadow inputs into renderWork: planetPosView (camera-relative, in view
+     * space) and planetAxisView (the body's spin axis in view space, normalized).
      *
      * Used by both the body-draw path (Group 3 ring shadow on body) and the ring-draw path
      * (Saturn's analytic shadow on rings + ringshine). Zero allocation — uses scratch vectors on
      * renderWork and frame state.
+     *
+     * @return true if the body has a spin axis model (planetAxisView was written)
      */
-    private void uploadShadowUniforms(String bodyId, Vector3d bodyPos) {
+    private boolean computeShadowVectors(String bodyId, Vector3d bodyPos) {
         // planetPositionView: camera-relative world -> view space
         if (frameState.cameraWorldPos != null) {
             renderWork.planetPosWorld.set(
@@ -883,7 +1930,6 @@ public class CelestialRenderer {
                 (float) renderWork.planetPosViewDouble.x,
                 (float) renderWork.planetPosViewDouble.y,
                 (float) renderWork.planetPosViewDouble.z);
-        uboShader.setUniform("planetPositionView", renderWork.planetPosView);
 
         // planetAxisView: J2000 -> render frame -> view frame (direction transform)
         if (IAURotationModels.getSpinAxisJ2000(
@@ -902,19 +1948,17 @@ public class CelestialRenderer {
                     (float) renderWork.spinAxisRender.y,
                     (float) renderWork.spinAxisRender.z);
             renderWork.planetAxisView.normalize();
-            uboShader.setUniform("planetAxisView", renderWork.planetAxisView);
+            return true;
         }
+        return false;
     }
 
     /**
-     * Render rings for a planet that has them. Creates a separate transform matrix without texture
-     * alignment rotation. Zero allocation - texture handle passed from renderBody().
+     * Record rings for a planet that has them. Builds the ring transform (no texture alignment
+     * rotation) from the cached body position; the shader subtracts the camera from its split
+     * centre. Zero allocation - texture handle passed from recordBodyRings().
      */
-    private void renderRings(
-            CelestialBody body,
-            Matrix4f planetModelMatrix,
-            TextureArraySystem.TextureHandle ringTexture,
-            DrawContext dc) {
+    private void recordRings(CelestialBody body, TextureArraySystem.TextureHandle ringTexture) {
         if (uboShader == null || !uboShader.isValid() || saturnRings == null) {
             return; // Can't render without shader and mesh
         }
@@ -927,23 +1971,10 @@ public class CelestialRenderer {
             return; // Can't render without position
         }
 
-        // Build ring transform matrix with camera-relative positioning
+        // Build ring orientation and scale; the centre goes to the block as a split double.
         // The ring mesh already has the correct proportions (1.0x inner, 2.3x outer)
         double ringScale = ScaleManager.getVisualRadius(body.getRadius(), body.getId());
-
-        if (frameState.cameraWorldPos != null) {
-            double relX = bodyPos.x - frameState.cameraWorldPos.x;
-            double relY = bodyPos.y - frameState.cameraWorldPos.y;
-            double relZ = bodyPos.z - frameState.cameraWorldPos.z;
-
-            transformWork.modelMatrixDouble.identity().translate(relX, relY, relZ).scale(ringScale);
-        } else {
-            transformWork
-                    .modelMatrixDouble
-                    .identity()
-                    .translate(bodyPos.x, bodyPos.y, bodyPos.z)
-                    .scale(ringScale);
-        }
+        transformWork.modelMatrixDouble.scaling(ringScale);
 
         // Apply IAU rotation WITHOUT the texture alignment Z rotation
         Matrix3d rotation =
@@ -952,35 +1983,14 @@ public class CelestialRenderer {
             // Apply only the IAU rotation and frame transform, no texture alignment
             transformWork.workRotation.set(frameState.j2000ToRender).mul(rotation);
             // NO rotateZ(Math.PI) for rings!
-            transformWork.rotation4d.identity().set3x3(transformWork.workRotation);
-            transformWork.modelMatrixDouble.mul(transformWork.rotation4d);
+            transformWork.modelMatrixDouble.set3x3(transformWork.workRotation).scale(ringScale);
         }
 
         // Convert to float for GPU (reuse existing work matrix)
         transformWork.modelMatrix.set(transformWork.modelMatrixDouble);
 
-        // Use the unified UBO shader
-        uboShader.use();
-
-        // Pre-compute matrices for precision - convert to float only now
-        frameState.viewMatrix.set(frameState.viewMatrixDouble);
-        frameState.projMatrix.set(frameState.projMatrixDouble);
-        renderWork.mvpMatrix.set(frameState.projMatrix);
-        renderWork.mvpMatrix.mul(frameState.viewMatrix);
-        renderWork.mvpMatrix.mul(transformWork.modelMatrix);
-
-        // Calculate normal matrix using RING'S transform, not planet's!
-        renderWork.modelViewMatrix.set(frameState.viewMatrix);
-        renderWork.modelViewMatrix.mul(transformWork.modelMatrix); // Use ring's matrix!
-        renderWork.modelViewMatrix.normal(renderWork.normalMatrix);
-
         // Update UBO with RING transform, not planet transform
-        celestialUbo.updateMatrices(
-                transformWork.modelMatrix,
-                frameState.viewMatrix,
-                frameState.projMatrix,
-                renderWork.mvpMatrix,
-                renderWork.normalMatrix);
+        celestialUbo.updateTransform(transformWork.modelMatrix, bodyPos);
 
         // Get ring-specific material properties.
         MaterialProperties ringMaterial = MaterialCatalog.getMaterial("saturn_rings");
@@ -995,84 +2005,99 @@ public class CelestialRenderer {
                 ringMaterial.emissionStrength,
                 false);
 
-        celestialUbo.updateSunPosition(frameState.sunPositionView);
-
-        // Per-body geometry — must be re-uploaded for the ring pass too,
-        // since the UBO is one buffer shared across passes. The geometry is
-        // the parent body's (Saturn's), not the ring's.
+        // Per-body geometry — every block carries its own copy. The geometry
+        // is the parent body's (Saturn's), not the ring's.
         computeBodyGeometry(body, renderWork.bodyGeometry);
         celestialUbo.updateBodyGeometry(
                 renderWork.bodyGeometry.x, renderWork.bodyGeometry.y,
                 renderWork.bodyGeometry.z, renderWork.bodyGeometry.w);
 
-        // Upload and bind UBO
-        celestialUbo.upload();
-        celestialUbo.bind();
+        int slot = celestialUbo.commitBlock();
+        if (slot < 0) {
+            return;
+        }
+
+        // Re-bake the ringshine table if the ring texture changed (first load, mostly)
+        ringshineLut.update(ringTexture);
 
-        // Set texture uniforms for texture array
-        uboShader.setUniform("textureArray", 0);
-        uboShader.setUniform("textureLayer", ringTexture.getArrayLayer());
-        renderWork.texCoordScale.set(ringTexture.getScaleU(), ringTexture.getScaleV());
-        uboShader.setUniform("texCoordScale", renderWork.texCoordScale);
-        uboShader.setUniform("hasTexture", true);
-        uboShader.setUniform("isRing", true); // Enable ring texture sampling mode
+        DrawRecord record = nextDrawRecord(slot, true);
+        record.hasTexture = true; // Ring draws always sample the ring layer
+        record.textureId = ringTexture.getTextureId();
+        record.textureLayer = ringTexture.getArrayLayer();
+        record.scaleU = ringTexture.getScaleU();
+        record.scaleV = ringTexture.getScaleV();
 
         // ringTextureLayer is consumed by the body-shader path (Group 3); the
         // ring path itself uses textureLayer. Set both to the ring's layer
         // for consistency — ring fragments don't read ringTextureLayer.
-        uboShader.setUniform("ringTextureLayer", ringTexture.getArrayLayer());
-
-        // Pass ring-specific optical properties to shader.
-        // ringMaterial.opticalDepthNormal is retained on MaterialProperties as
-        // catalog provenance but not uploaded — the shader classifies per-region
-        // optical depth from the radial coordinate instead.
-        uboShader.setUniform("ringForwardG", ringMaterial.forwardScatteringG);
-        uboShader.setUniform("ringBackwardG", ringMaterial.backwardScatteringG);
-        uboShader.setUniform("ringParticleMix", ringMaterial.particleMixRatio);
-        uboShader.setUniform("saturnshineAlbedo", ringMaterial.saturnshineAlbedo);
+        record.ringTextureLayer = ringTexture.getArrayLayer();
+        record.ringMaterial = ringMaterial;
 
         // Atmospheric refraction broadens the planet's penumbra cast on the rings.
         // Saturn-specific value lives on the saturn (body) material, not the ring.
         // The same body material supplies the Saturnshine day-side reflectance
         // color, keeping it in the catalog rather than duplicated in the shader.
         MaterialProperties bodyMaterial = MaterialCatalog.getMaterial(body.getId());
-        uboShader.setUniform(
-                "atmosphericRefraction",
-                bodyMaterial != null ? bodyMaterial.atmosphericRefractionRad : 0.0f);
-        uboShader.setUniform(
-                "saturnshineColor",
-                bodyMaterial != null ? bodyMaterial.albedo : SATURNSHINE_COLOR_FALLBACK);
+        record.atmosphericRefraction =
+                bodyMaterial != null ? bodyMaterial.atmosphericRefractionRad : 0.0f;
+        record.saturnshineColor =
+                bodyMaterial != null ? bodyMaterial.albedo : SATURNSHINE_COLOR_FALLBACK;
 
-        // Set body type uniform (0 = rocky/ring)
-        uboShader.setUniform("bodyType", 0);
+        // Body type 0 = rocky/ring
+        record.bodyType = 0;
+        record.bodyId = bodyEnum.getId();
 
-        // Shadow uniforms (planetPositionView + planetAxisView). Used by the
+        // Shadow inputs (planetPositionView + planetAxisView). Used by the
         // ring shader's analytic Saturn-on-ring shadow + the ringshine
         // integration. Identical pattern to the body-draw call site.
-        uploadShadowUniforms(body.getId(), bodyPos);
+        recordShadow(record, body.getId(), bodyPos);
+    }
 
-        // Bind ring texture array
-        glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D_ARRAY, ringTexture.getTextureId());
+    private void drawRingRecord(DrawRecord record, BodyUniforms uniforms) {
+        MaterialProperties ringMaterial = record.ringMaterial;
+
+        uniforms.bodyType.set(record.bodyType);
+        uniforms.bodyId.set(record.bodyId);
+        setRecordTextureUniforms(record, uniforms);
+        uniforms.isRing.set(true); // Enable ring texture sampling mode
+        uniforms.ringTextureLayer.set(record.ringTextureLayer);
+
+        // Pass ring-specific optical properties to shader.
+        // ringMaterial.opticalDepthNormal is retained on MaterialProperties as
+        // catalog provenance but not uploaded — the shader classifies per-region
+        // optical depth from the radial coordinate instead.
+        uniforms.ringForwardG.set(ringMaterial.forwardScatteringG);
+        uniforms.ringBackwardG.set(ringMaterial.backwardScatteringG);
+        uniforms.ringParticleMix.set(ringMaterial.particleMixRatio);
+        uniforms.saturnshineAlbedo.set(ringMaterial.saturnshineAlbedo);
+        uniforms.atmosphericRefraction.set(record.atmosphericRefraction);
+        uniforms.saturnshineColor.set(record.saturnshineColor);
+        setRecordShadowUniforms(record, uniforms);
+        ringshineLut.bind();
+
+        // Render the ring mesh
+        saturnRings.render();
+        trianglesSubmitted += saturnRings.getTriangleCount();
+        drawCalls++;
+    }
 
+    private static void beginRingState() {
         // Enable blending for transparency
-        glEnable(GL_BLEND);
-        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        GLState.setBlend(true);
+        GLState.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
 
         // Disable depth writes for transparent objects (required to avoid blocking later opaques).
         // This allows objects behind the ring to render properly
-        glDepthMask(false);
+        GLState.setDepthMask(false);
 
         // Disable backface culling to see both sides of the ring
-        glDisable(GL_CULL_FACE);
-
-        // Render the ring mesh
-        saturnRings.render();
+        GLState.setCullFace(false);
+    }
 
-        // Restore state
-        glEnable(GL_CULL_FACE);
-        glDisable(GL_BLEND);
-        glDepthMask(true); // Re-enable depth writes
+    private static void endRingState() {
+        GLState.setCullFace(true);
+        GLState.setBlend(false);
+        GLState.setDepthMask(true); // Re-enable depth writes
     }
 
     /** Log statistics for performance analysis. */
@@ -1081,8 +2106,26 @@ public class CelestialRenderer {
                 String.format(
                         "CelestialRenderer Statistics:\n"
                                 + "  Frames: %d\n"
-                                + "  Bodies rendered: %d",
-                        frameCount, bodiesRendered));
+                                + "  Bodies rendered: %d (%d impostors; %d culled, %d as sprites)\n"
+                                + "  Draw calls: %d (%s)\n"
+                                + "  Triangles: %d (mesh LOD %s)\n"
+                                + "  Terrain: %s",
+                        frameCount,
+                        bodiesRendered,
+                        impostorBodies,
+                        culledBodies,
+                        spriteBodies,
+                        drawCalls,
+                        instancedShader != null ? "instanced" : "per-body",
+                        trianglesSubmitted,
+                        lodSelector != null ? "on" : "off",
+                        terrain != null
+                                ? String.format(
+                                        "%d tiles resident (%d vertices), %d pending",
+                                        terrain.getResidentTiles(),
+                                        terrain.getResidentVertices(),
+                                        terrain.getPendingTiles())
+                                : "off"));
     }
 
     /**
@@ -1094,9 +2137,25 @@ public class CelestialRenderer {
         if (celestialUbo != null) {
             celestialUbo.dispose();
         }
+        if (instanceBuffer != null) {
+            instanceBuffer.dispose();
+        }
         if (saturnRings != null) {
             saturnRings.dispose();
         }
+        if (ringshineLut != null) {
+            ringshineLut.dispose();
+            ringshineLut = null;
+        }
+        if (spriteBatch != null) {
+            spriteBatch.dispose();
+        }
+        if (impostorQuad != null) {
+            impostorQuad.dispose();
+        }
+        if (terrain != null) {
+            terrain.dispose();
+        }
         LOGGER.info("CelestialRenderer disposed");
     }
 }
@@ -0,0 +1,80 @@
+package com.jda.orrery.graphics.pipeline;
+
+import com.jda.orrery.graphics.core.GpuTimer;
+import com.jda.orrery.graphics.resources.ShaderVariants;
+
+/**
+ * Specializations of the unified celestial shader, one per class of body that shares a shading
+ * path. Each fixes the per-draw selectors (bodyType, bodyId, isRing, hasTexture, ring shadow,
+ * emissive flag) its bodies agree on, so the compiled program carries only the paths they take;
+ * see the VARIANT_* block in celestial_unified_ubo.frag.
+ *
+ * Constant order is draw order: body draws are sorted by variant so each program is bound once
+ * per frame, with the Sun after the opaque bodies and the ring surface last (it is transparent).
+ * Each variant's draws are timed as their own {@link GpuTimer.Pass}.
+ */
+enum CelestialVariant implements ShaderVariants.Key {
+    /** Everything the variants below don't cover; also impostors and the no-variants mode. */
+    GENERAL(null, GpuTimer.Pass.BODIES),
+    ROCKY("VARIANT_ROCKY", GpuTimer.Pass.ROCKY),
+    GAS_GIANT("VARIANT_GAS_GIANT", GpuTimer.Pass.GIANTS),
+    ICE_GIANT("VARIANT_ICE_GIANT", GpuTimer.Pass.GIANTS),
+    RINGED("VARIANT_RINGED", GpuTimer.Pass.RINGED),
+    UNTEXTURED("VARIANT_UNTEXTURED", GpuTimer.Pass.UNTEXTURED),
+    EMISSIVE("VARIANT_EMISSIVE", GpuTimer.Pass.SUN),
+    RING("VARIANT_RING", GpuTimer.Pass.RINGS);
+
+    static final CelestialVariant[] VALUES = values();
+
+    private final String define;
+    private final GpuTimer.Pass pass;
+
+    CelestialVariant(String define, GpuTimer.Pass pass) {
+        this.define = define;
+        this.pass = pass;
+    }
+
+    @Override
+    public String define() {
+        return define;
+    }
+
+    /**
+     * Pass the variant's draws are timed under. Draws that fall back to the general program are
+     * timed with it, so per-variant times only ever show specialized programs.
+     */
+    GpuTimer.Pass timingPass(boolean specialized) {
+        return specialized || this == RING ? pass : GpuTimer.Pass.BODIES;
+    }
+
+    /**
+     * Variant for a body draw.
+     *
+     * @param emissive the material's emissive flag
+     * @param textured the body's texture is resident
+     * @param shaderBodyType {@link CelestialBodyId#getShaderBodyType()}
+     * @param ringed the body has a ring extent (it casts a ring shadow)
+     */
+    static CelestialVariant forBody(
+            boolean emissive, boolean textured, int shaderBodyType, boolean ringed) {
+        if (emissive) {
+            return EMISSIVE;
+        }
+        if (!textured) {
+            return UNTEXTURED;
+        }
+        if (ringed) {
+            return shaderBodyType == 1 ? RINGED : GENERAL;
+        }
+        switch (shaderBodyType) {
+            case 0:
+                return ROCKY;
+            case 1:
+                return GAS_GIANT;
+            case 2:
+                return ICE_GIANT;
+            default:
+                return GENERAL;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.jda.orrery.graphics.pipeline;
+
+import com.jda.orrery.graphics.geometry.MeshTopology;
+import com.jda.orrery.graphics.geometry.SphereMesh;
+
+/**
+ * Screen-space-error LOD choice for sphere meshes: the coarsest {@link SphereMesh.Quality} whose
+ * silhouette error, scaled by the body's projected radius, stays within a pixel tolerance.
+ *
+ * Refining happens as soon as the current tier's error exceeds the tolerance. Coarsening waits
+ * until the coarser tier fits within {@link #DROP_FRACTION} of it, so a body hovering at a tier
+ * boundary does not pop back and forth. Pure math — no GL context required.
+ */
+final class MeshLodSelector {
+    /** A coarser tier must fit within this fraction of the tolerance before switching down. */
+    static final double DROP_FRACTION = 0.7;
+
+    private static final SphereMesh.Quality[] TIERS = SphereMesh.Quality.values();
+
+    private final double[] tierError = new double[TIERS.length];
+    private final double tolerancePx;
+
+    MeshLodSelector(MeshTopology topology, double tolerancePx) {
+        this.tolerancePx = tolerancePx;
+        for (int i = 0; i < TIERS.length; i++) {
+            tierError[i] = TIERS[i].silhouetteError(topology);
+        }
+    }
+
+    /**
+     * Pick the tier for a body this frame.
+     *
+     * @param current the body's tier last frame, or null if it has none yet
+     * @param radiusPx projected radius in pixels
+     */
+    SphereMesh.Quality select(SphereMesh.Quality current, double radiusPx) {
+        SphereMesh.Quality target = coarsestWithin(radiusPx, tolerancePx);
+        if (current == null || target.ordinal() >= current.ordinal()) {
+            return target; // first frame, refine, or unchanged
+        }
+        SphereMesh.Quality relaxed = coarsestWithin(radiusPx, tolerancePx * DROP_FRACTION);
+        return relaxed.ordinal() < current.ordinal() ? relaxed : current;
+    }
+
+    private SphereMesh.Quality coarsestWithin(double radiusPx, double limitPx) {
+        for (int i = 0; i < TIERS.length; i++) {
+            if (tierError[i] * radiusPx <= limitPx) {
+                return TIERS[i];
+            }
+        }
+        return TIERS[TIERS.length - 1];
+    }
+}
@@ -0,0 +1,222 @@
+package com.jda.orrery.graphics.pipeline;
+
+import static org.lwjgl.opengl.GL11.GL_COLOR;
+import static org.lwjgl.opengl.GL11.GL_FLOAT;
+import static org.lwjgl.opengl.GL11.GL_LINEAR;
+import static org.lwjgl.opengl.GL11.GL_RGBA;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MAG_FILTER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_S;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_T;
+import static org.lwjgl.opengl.GL11.glGenTextures;
+import static org.lwjgl.opengl.GL11.glTexParameteri;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL12.GL_TEXTURE_3D;
+import static org.lwjgl.opengl.GL12.GL_TEXTURE_WRAP_R;
+import static org.lwjgl.opengl.GL12.glTexImage3D;
+import static org.lwjgl.opengl.GL30.GL_COLOR_ATTACHMENT0;
+import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
+import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER_COMPLETE;
+import static org.lwjgl.opengl.GL30.GL_RGBA16F;
+import static org.lwjgl.opengl.GL30.GL_TEXTURE_2D_ARRAY;
+import static org.lwjgl.opengl.GL30.glCheckFramebufferStatus;
+import static org.lwjgl.opengl.GL30.glClearBufferfv;
+import static org.lwjgl.opengl.GL30.glFramebufferTextureLayer;
+import static org.lwjgl.opengl.GL30.glGenFramebuffers;
+
+import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.domain.astronomy.catalog.BodyData;
+import com.jda.orrery.graphics.core.GLState;
+import com.jda.orrery.graphics.materials.MaterialProperties;
+import com.jda.orrery.graphics.postfx.FullScreenTriangle;
+import com.jda.orrery.graphics.resources.Shader;
+import com.jda.orrery.graphics.resources.Uniform;
+import com.jda.orrery.graphics.textures.TextureArraySystem;
+import java.nio.FloatBuffer;
+import java.util.logging.Logger;
+
+/**
+ * Baked ringshine: the ring-on-ring scattering integral as a 3D table, so the ring shader does one
+ * trilinear fetch per fragment instead of a radial × azimuth loop.
+ *
+ * The integral is independent of the observer and, with the planet radius as the unit, depends on
+ * the receiving fragment only through its ring radius and its azimuth from the sub-solar direction,
+ * and on the sun only through its elevation above the ring plane. The table spans those three axes
+ * ({@link #RADIAL} × {@link #AZIMUTH} × {@link #ELEVATION}: radius across the ring, azimuth over
+ * [0, π], sin(elevation) over [0, 1]), so the changing season needs no rebuild. Inputs that do
+ * change it are the ring texture and optics; {@link #update} re-bakes when the ring texture handle
+ * changes (first load, a different layer or resolution) and is a field comparison otherwise.
+ *
+ * The bake is a one-off render pass, one draw per elevation slice, of {@code
+ * ringshine_lut_bake.frag} — the same integrand the shader used to evaluate, at 8 × 48 samples per
+ * texel instead of 3 × 12. Until the ring texture is ready the table is zero (no ringshine).
+ */
+final class RingshineLut {
+    private static final Logger LOGGER = Logging.logger(RingshineLut.class);
+
+    /** Texture unit the ring shader samples the table from; textureArray is on unit 0. */
+    static final int TEXTURE_UNIT = 1;
+
+    static final int RADIAL = 64;
+    static final int AZIMUTH = 64;
+    static final int ELEVATION = 32;
+
+    private static final float[] ZERO = {0, 0, 0, 0};
+
+    private final FullScreenTriangle triangle = new FullScreenTriangle();
+    private final int[] savedViewport = new int[4];
+
+    private Shader bakeShader;
+    private Uniform.Float sinElevation;
+    private int texture = 0;
+    private int framebuffer = 0;
+
+    // What the current table was baked from
+    private int bakedTextureId = 0;
+    private int bakedLayer = -1;
+    private float bakedScaleU;
+    private float bakedScaleV;
+
+    /** @param ringData ring extent (planet radii) */
+    void initialize(BodyData ringData, MaterialProperties ringMaterial) {
+        bakeShader =
+                new Shader(
+                        "ringshine_lut_bake",
+                        "/shaders/postfx_fullscreen.vert",
+                        "/shaders/ringshine_lut_bake.frag");
+        if (!bakeShader.isValid()) {
+            LOGGER.warning("Ringshine bake shader unavailable; rings render without ringshine");
+            bakeShader = null;
+        } else {
+            sinElevation = bakeShader.floatUniform("sinElevation");
+            bakeShader.use();
+            bakeShader.setUniform("textureArray", 0);
+            bakeShader.setUniform("ringInnerRadius", ringData.ringInnerRadius().floatValue());
+            bakeShader.setUniform("ringOuterRadius", ringData.ringOuterRadius().floatValue());
+            bakeShader.setUniform("ringForwardG", ringMaterial.forwardScatteringG);
+            bakeShader.setUniform("ringBackwardG", ringMaterial.backwardScatteringG);
+            bakeShader.setUniform("ringParticleMix", ringMaterial.particleMixRatio);
+        }
+        triangle.initialize();
+
+        texture = glGenTextures();
+        GLState.bindTexture(TEXTURE_UNIT, GL_TEXTURE_3D, texture);
+        glTexImage3D(
+                GL_TEXTURE_3D,
+                0,
+                GL_RGBA16F,
+                RADIAL,
+                AZIMUTH,
+                ELEVATION,
+                0,
+                GL_RGBA,
+                GL_FLOAT,
+                (FloatBuffer) null);
+        glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_3D, GL_TEXTURE_WRAP_R, GL_CLAMP_TO_EDGE);
+
+        framebuffer = glGenFramebuffers();
+
+        // Zero until the first bake
+        renderSlices(false);
+    }
+
+    /**
+     * Re-bake if the ring texture changed since the last bake. Restores the framebuffer and
+     * viewport it found, so it may run inside the scene pass.
+     */
+    void update(TextureArraySystem.TextureHandle ringTexture) {
+        if (bakeShader == null
+                || ringTexture == null
+                || ringTexture.getState() != TextureArraySystem.TextureHandle.State.READY
+                || !ringTexture.isReady()) {
+            return;
+        }
+        if (ringTexture.getTextureId() == bakedTextureId
+                && ringTexture.getArrayLayer() == bakedLayer
+                && ringTexture.getScaleU() == bakedScaleU
+                && ringTexture.getScaleV() == bakedScaleV) {
+            return;
+        }
+        bakedTextureId = ringTexture.getTextureId();
+        bakedLayer = ringTexture.getArrayLayer();
+        bakedScaleU = ringTexture.getScaleU();
+        bakedScaleV = ringTexture.getScaleV();
+        bake();
+    }
+
+    private void bake() {
+        long start = System.nanoTime();
+        bakeShader.use();
+        bakeShader.setUniform("textureLayer", bakedLayer);
+        GLState.bindTexture(0, GL_TEXTURE_2D_ARRAY, bakedTextureId);
+        renderSlices(true);
+        LOGGER.info(
+                String.format(
+                        "Baked ringshine table %dx%dx%d from ring layer %d (%.1fms CPU)",
+                        RADIAL,
+                        AZIMUTH,
+                        ELEVATION,
+                        bakedLayer,
+                        (System.nanoTime() - start) / 1_000_000.0));
+    }
+
+    /** Draw (or clear) every elevation slice, then restore the framebuffer and viewport. */
+    private void renderSlices(boolean draw) {
+        int previousFramebuffer = GLState.getDrawFramebuffer();
+        GLState.getViewport(savedViewport);
+
+        GLState.bindFramebuffer(GL_FRAMEBUFFER, framebuffer);
+        GLState.viewport(0, 0, RADIAL, AZIMUTH);
+        GLState.setBlend(false);
+        for (int slice = 0; slice < ELEVATION; slice++) {
+            glFramebufferTextureLayer(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, texture, 0, slice);
+            if (slice == 0) {
+                int status = glCheckFramebufferStatus(GL_FRAMEBUFFER);
+                if (status != GL_FRAMEBUFFER_COMPLETE) {
+                    LOGGER.warning(
+                            "Ringshine table FBO incomplete: 0x" + Integer.toHexString(status));
+                    break;
+                }
+            }
+            if (draw) {
+                // Texel centres: slice k holds sin(elevation) = (k + 0.5) / ELEVATION, which is
+                // where the shader's unscaled sin(elevation) coordinate samples it
+                sinElevation.set((slice + 0.5f) / ELEVATION);
+                triangle.draw();
+            } else {
+                glClearBufferfv(GL_COLOR, 0, ZERO);
+            }
+        }
+
+        GLState.bindFramebuffer(GL_FRAMEBUFFER, Math.max(0, previousFramebuffer));
+        if (savedViewport[2] > 0) {
+            GLState.viewport(
+                    savedViewport[0], savedViewport[1], savedViewport[2], savedViewport[3]);
+        }
+    }
+
+    /** Bind the table to {@link #TEXTURE_UNIT} for the ring draws. */
+    void bind() {
+        GLState.bindTexture(TEXTURE_UNIT, GL_TEXTURE_3D, texture);
+    }
+
+    void dispose() {
+        if (framebuffer != 0) {
+            GLState.deleteFramebuffer(framebuffer);
+            framebuffer = 0;
+        }
+        if (texture != 0) {
+            GLState.deleteTexture(texture);
+            texture = 0;
+        }
+        triangle.dispose();
+        if (bakeShader != null) {
+            bakeShader.dispose();
+            bakeShader = null;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.jda.orrery.graphics.postfx;
+
+import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.graphics.textures.GPUCapabilities;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Anti-aliasing configuration: multisampled scene rendering with a resolve, or single-sample
+ * rendering with an FXAA pass on the tonemapped image, or neither.
+ *
+ * Chosen with -Dorrery.aa = {@code auto} (default), {@code msaa}, {@code msaa2}, {@code msaa4},
+ * {@code msaa8}, {@code fxaa} or {@code none}. {@code auto} picks from the GPU tier: MSAA 4× on
+ * HIGH and ULTRA, FXAA on MEDIUM and LOW (integrated GPUs), where a multisampled RGBA16F target
+ * and its per-frame resolve cost more bandwidth than the whole post pass. The MSAA cost shows up in
+ * the {@code resolve} GPU pass time, the FXAA cost in {@code aa}.
+ */
+public final class AntiAliasing {
+    private static final Logger LOGGER = Logging.logger(AntiAliasing.class);
+
+    public enum Mode {
+        MSAA,
+        FXAA,
+        NONE
+    }
+
+    public static final AntiAliasing NONE = new AntiAliasing(Mode.NONE, 1);
+    public static final AntiAliasing FXAA = new AntiAliasing(Mode.FXAA, 1);
+
+    public final Mode mode;
+
+    /** Scene samples per pixel; 1 for every mode but MSAA. */
+    public final int msaaSamples;
+
+    private AntiAliasing(Mode mode, int msaaSamples) {
+        this.mode = mode;
+        this.msaaSamples = msaaSamples;
+    }
+
+    public static AntiAliasing msaa(int samples) {
+        if (samples < 2) {
+            throw new IllegalArgumentException("MSAA needs at least 2 samples: " + samples);
+        }
+        return new AntiAliasing(Mode.MSAA, samples);
+    }
+
+    /** From -Dorrery.aa, falling back to the tier default. */
+    public static AntiAliasing fromSystemProperty(GPUCapabilities.GPUTier tier) {
+        AntiAliasing aa = parse(System.getProperty("orrery.aa", "auto"), tier);
+        LOGGER.info("Anti-aliasing: " + aa + " (GPU tier " + tier + ")");
+        return aa;
+    }
+
+    /** Parse a mode name; unknown names log a warning and use {@link #forTier}. */
+    static AntiAliasing parse(String value, GPUCapabilities.GPUTier tier) {
+        String name = value.trim().toLowerCase(Locale.ROOT);
+        switch (name) {
+            case "auto":
+                return forTier(tier);
+            case "none":
+            case "off":
+                return NONE;
+            case "fxaa":
+                return FXAA;
+            case "msaa":
+                return msaa(4);
+            default:
+                if (name.startsWith("msaa")) {
+                    try {
+                        int samples = Integer.parseInt(name.substring(4));
+                        if (samples == 2 || samples == 4 || samples == 8) {
+                            return msaa(samples);
+                        }
+                    } catch (NumberFormatException e) {
+                        // fall through to the warning
+                    }
+                }
+                LOGGER.warning("Invalid orrery.aa: " + value + "; using auto");
+                return forTier(tier);
+        }
+    }
+
+    /** Tier default: MSAA where bandwidth is plentiful, FXAA on integrated GPUs. */
+    static AntiAliasing forTier(GPUCapabilities.GPUTier tier) {
+        switch (tier) {
+            case ULTRA:
+            case HIGH:
+                return msaa(4);
+            default:
+                return FXAA;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return mode == Mode.MSAA ? msaaSamples + "x MSAA" : mode.name();
+    }
+}
@@ -2,64 +2,306 @@ package com.jda.orrery.graphics.postfx;
 
 import static org.lwjgl.opengl.GL11.GL_FLOAT;
 import static org.lwjgl.opengl.GL11.GL_LINEAR;
+import static org.lwjgl.opengl.GL11.GL_ONE;
+import static org.lwjgl.opengl.GL11.GL_ONE_MINUS_SRC_ALPHA;
+import static org.lwjgl.opengl.GL11.GL_RGB;
 import static org.lwjgl.opengl.GL11.GL_RGBA;
+import static org.lwjgl.opengl.GL11.GL_SRC_ALPHA;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_MAG_FILTER;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_S;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_T;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glDeleteTextures;
 import static org.lwjgl.opengl.GL11.glGenTextures;
 import static org.lwjgl.opengl.GL11.glTexImage2D;
 import static org.lwjgl.opengl.GL11.glTexParameteri;
 import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL30.GL_COLOR_ATTACHMENT0;
+import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
+import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER_COMPLETE;
+import static org.lwjgl.opengl.GL30.GL_R11F_G11F_B10F;
 import static org.lwjgl.opengl.GL30.GL_RGBA16F;
+import static org.lwjgl.opengl.GL30.glCheckFramebufferStatus;
+import static org.lwjgl.opengl.GL30.glFramebufferTexture2D;
+import static org.lwjgl.opengl.GL30.glGenFramebuffers;
 
-import java.nio.FloatBuffer;
-import org.lwjgl.system.MemoryStack;
+import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.graphics.core.GLState;
+import com.jda.orrery.graphics.resources.Shader;
+import com.jda.orrery.graphics.resources.Uniform;
+import com.jda.orrery.graphics.ubo.FrameDataUBO;
+import java.nio.ByteBuffer;
+import java.util.logging.Logger;
 
 /**
- * Stubbed bloom pipeline. Step 3 owns a 1×1 black RGBA16F texture so the tonemap shader can
- * unconditionally sample {@code u_bloom} without undefined behaviour. Step 4 replaces the internals
- * with a real mip-chain bloom (brightpass + downsample/upsample blurs).
+ * Dual-filter (dual Kawase) bloom at half resolution.
+ *
+ * A prefilter pass thresholds the resolved scene (soft knee, {@code bloomThreshold} from the
+ * FrameData block) into a half-resolution target, Karis-weighting its taps so the Sun's disc
+ * doesn't flicker. That level is then downsampled through up to {@link #LEVELS} targets, each half
+ * the size of the last, and upsampled back with additive blending, so level 0 ends up holding every
+ * blur radius. Each pass is a handful of bilinear taps over a shrinking target: the total cost is
+ * about a third of one half-resolution pass and doesn't depend on the blur radius.
+ *
+ * Targets are R11F_G11F_B10F (half the bandwidth of RGBA16F) where the driver can render to it,
+ * RGBA16F otherwise, and are reallocated by {@link #resize(int, int)}. The chain is timed as
+ * {@code GpuTimer.Pass.BLOOM}; {@link #budgetMs(int, int)} is what DrawContext compares it against.
  */
 public class BloomPipeline {
-    private int bloomTexture = 0;
-
-    public void initialize(int sceneWidth, int sceneHeight) {
-        bloomTexture = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, bloomTexture);
-
-        // Explicit zero upload — OpenGL 4.1 has no glClearTexImage and glTexImage2D with null
-        // data leaves contents undefined. Profiles with non-zero bloomStrength will sample
-        // this every frame.
-        try (MemoryStack stack = MemoryStack.stackPush()) {
-            FloatBuffer zero = stack.mallocFloat(4);
-            zero.put(0.0f).put(0.0f).put(0.0f).put(1.0f).flip();
-            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA16F, 1, 1, 0, GL_RGBA, GL_FLOAT, zero);
+    private static final Logger LOGGER = Logging.logger(BloomPipeline.class);
+
+    /** Mip levels in the chain, the first at half the scene resolution. */
+    public static final int LEVELS = 6;
+
+    /** Target GPU time for the whole chain at 1920×1080 on integrated GPUs. */
+    public static final double BUDGET_MS_1080P = 0.5;
+
+    private static final double BUDGET_MS = resolveBudgetMs();
+
+    private final int[] textures = new int[LEVELS];
+    private final int[] framebuffers = new int[LEVELS];
+    private final int[] widths = new int[LEVELS];
+    private final int[] heights = new int[LEVELS];
+    private int levelCount = 0;
+    private int sceneWidth;
+    private int sceneHeight;
+    private boolean packedFormat = true; // R11F_G11F_B10F until an FBO rejects it
+
+    private FullScreenTriangle triangle;
+    private Shader prefilterShader;
+    private Shader downShader;
+    private Shader upShader;
+    private Uniform.Vec2 prefilterHalfPixel;
+    private Uniform.Vec2 downHalfPixel;
+    private Uniform.Vec2 upHalfPixel;
+
+    /** @param triangle shared with the tonemap pass; not disposed here */
+    public void initialize(int sceneWidth, int sceneHeight, FullScreenTriangle triangle) {
+        this.triangle = triangle;
+
+        prefilterShader = compile("postfx_bloom_prefilter");
+        FrameDataUBO.linkToShader(prefilterShader.getProgramId());
+        downShader = compile("postfx_bloom_down");
+        upShader = compile("postfx_bloom_up");
+
+        prefilterHalfPixel = prefilterShader.vec2Uniform("u_halfPixel");
+        downHalfPixel = downShader.vec2Uniform("u_halfPixel");
+        upHalfPixel = upShader.vec2Uniform("u_halfPixel");
+        for (Shader shader : new Shader[] {prefilterShader, downShader, upShader}) {
+            shader.use();
+            shader.setUniform("u_source", 0);
+        }
+
+        allocate(sceneWidth, sceneHeight);
+        LOGGER.info(
+                String.format(
+                        "Bloom: %d levels from %dx%d, %s",
+                        levelCount,
+                        widths[0],
+                        heights[0],
+                        packedFormat ? "R11F_G11F_B10F" : "RGBA16F"));
+    }
+
+    private static Shader compile(String name) {
+        Shader shader =
+                new Shader(name, "/shaders/postfx_fullscreen.vert", "/shaders/" + name + ".frag");
+        if (!shader.isValid()) {
+            throw new IllegalStateException("BloomPipeline: failed to compile/link " + name);
+        }
+        return shader;
+    }
+
+    /**
+     * Run the chain on the resolved scene color. Leaves the last bloom framebuffer bound, the
+     * viewport at level 0 and blending off; the caller restores what it needs.
+     */
+    public void execute(int sceneTexture) {
+        if (levelCount == 0) {
+            return;
+        }
+        GLState.setBlend(false);
+
+        // Threshold + first downsample: scene -> level 0
+        prefilterShader.use();
+        prefilterHalfPixel.set(0.5f / sceneWidth, 0.5f / sceneHeight);
+        drawInto(0, sceneTexture);
+
+        downShader.use();
+        for (int i = 1; i < levelCount; i++) {
+            downHalfPixel.set(0.5f / widths[i - 1], 0.5f / heights[i - 1]);
+            drawInto(i, textures[i - 1]);
         }
 
+        // Each level keeps its own blur and adds the wider ones from below
+        upShader.use();
+        GLState.setBlend(true);
+        GLState.blendFunc(GL_ONE, GL_ONE);
+        for (int i = levelCount - 2; i >= 0; i--) {
+            upHalfPixel.set(0.5f / widths[i + 1], 0.5f / heights[i + 1]);
+            drawInto(i, textures[i + 1]);
+        }
+        GLState.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        GLState.setBlend(false);
+    }
+
+    private void drawInto(int level, int source) {
+        GLState.bindFramebuffer(GL_FRAMEBUFFER, framebuffers[level]);
+        GLState.viewport(0, 0, widths[level], heights[level]);
+        GLState.bindTexture(0, GL_TEXTURE_2D, source);
+        triangle.draw();
+    }
+
+    /** Reallocate the chain for a new scene size. */
+    public void resize(int sceneWidth, int sceneHeight) {
+        if (sceneWidth == this.sceneWidth && sceneHeight == this.sceneHeight) {
+            return;
+        }
+        release();
+        allocate(sceneWidth, sceneHeight);
+    }
+
+    private void allocate(int sceneWidth, int sceneHeight) {
+        this.sceneWidth = sceneWidth;
+        this.sceneHeight = sceneHeight;
+        levelCount = levelCount(sceneWidth, sceneHeight);
+
+        for (int i = 0; i < levelCount; i++) {
+            widths[i] = levelSize(sceneWidth, i);
+            heights[i] = levelSize(sceneHeight, i);
+            textures[i] = glGenTextures();
+            framebuffers[i] = glGenFramebuffers();
+            if (!allocateLevel(i) && packedFormat) {
+                LOGGER.warning("R11F_G11F_B10F is not renderable here; bloom falls back to RGBA16F");
+                packedFormat = false;
+                for (int j = 0; j <= i; j++) {
+                    allocateLevel(j);
+                }
+            }
+        }
+        GLState.bindFramebuffer(GL_FRAMEBUFFER, 0);
+    }
+
+    /** (Re)specify one level's storage and attach it; false if the framebuffer is incomplete. */
+    private boolean allocateLevel(int level) {
+        GLState.bindTexture(0, GL_TEXTURE_2D, textures[level]);
+        if (packedFormat) {
+            glTexImage2D(
+                    GL_TEXTURE_2D,
+                    0,
+                    GL_R11F_G11F_B10F,
+                    widths[level],
+                    heights[level],
+                    0,
+                    GL_RGB,
+                    GL_FLOAT,
+                    (ByteBuffer) null);
+        } else {
+            glTexImage2D(
+                    GL_TEXTURE_2D,
+                    0,
+                    GL_RGBA16F,
+                    widths[level],
+                    heights[level],
+                    0,
+                    GL_RGBA,
+                    GL_FLOAT,
+                    (ByteBuffer) null);
+        }
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+
+        GLState.bindFramebuffer(GL_FRAMEBUFFER, framebuffers[level]);
+        glFramebufferTexture2D(
+                GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL_TEXTURE_2D, textures[level], 0);
+        int status = glCheckFramebufferStatus(GL_FRAMEBUFFER);
+        if (status == GL_FRAMEBUFFER_COMPLETE) {
+            return true;
+        }
+        if (!packedFormat) {
+            GLState.bindFramebuffer(GL_FRAMEBUFFER, 0);
+            throw new IllegalStateException(
+                    "BloomPipeline level "
+                            + level
+                            + " FBO incomplete: 0x"
+                            + Integer.toHexString(status));
+        }
+        return false;
     }
 
-    /** No-op in Step 3. */
-    public void execute() {}
+    /** Size of a level along one axis: half the scene, halved again per level, at least 1. */
+    static int levelSize(int sceneSize, int level) {
+        return Math.max(1, sceneSize >> (level + 1));
+    }
 
-    /** 1×1 doesn't change with viewport. */
-    public void resize(int sceneWidth, int sceneHeight) {}
+    /** Levels for a scene size: up to {@link #LEVELS}, stopping before either side drops below 2. */
+    static int levelCount(int sceneWidth, int sceneHeight) {
+        int count = 0;
+        while (count < LEVELS
+                && levelSize(sceneWidth, count) >= 2
+                && levelSize(sceneHeight, count) >= 2) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * GPU budget for the chain at a scene size: {@link #BUDGET_MS_1080P} (or -Dorrery.bloomBudgetMs)
+     * scaled by pixel count, since every pass is fill-bound.
+     */
+    public static double budgetMs(int sceneWidth, int sceneHeight) {
+        return BUDGET_MS * ((double) sceneWidth * sceneHeight) / (1920.0 * 1080.0);
+    }
+
+    private static double resolveBudgetMs() {
+        String override = System.getProperty("orrery.bloomBudgetMs");
+        if (override != null) {
+            try {
+                double value = Double.parseDouble(override);
+                if (value > 0) {
+                    return value;
+                }
+                LOGGER.warning("orrery.bloomBudgetMs must be positive: " + override);
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid orrery.bloomBudgetMs: " + override);
+            }
+        }
+        return BUDGET_MS_1080P;
+    }
 
+    /** Final bloom (level 0), or 0 before initialization. */
     public int getBloomTexture() {
-        return bloomTexture;
+        return textures[0];
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    private void release() {
+        for (int i = 0; i < LEVELS; i++) {
+            if (framebuffers[i] != 0) {
+                GLState.deleteFramebuffer(framebuffers[i]);
+                framebuffers[i] = 0;
+            }
+            if (textures[i] != 0) {
+                GLState.deleteTexture(textures[i]);
+                textures[i] = 0;
+            }
+        }
+        levelCount = 0;
     }
 
     public void dispose() {
-        if (bloomTexture != 0) {
-            glDeleteTextures(bloomTexture);
-            bloomTexture = 0;
+        release();
+        for (Shader shader : new Shader[] {prefilterShader, downShader, upShader}) {
+            if (shader != null) {
+                shader.dispose();
+            }
         }
+        prefilterShader = null;
+        downShader = null;
+        upShader = null;
     }
 }
@@ -2,10 +2,10 @@ package com.jda.orrery.graphics.postfx;
 
 import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
 import static org.lwjgl.opengl.GL11.glDrawArrays;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
-import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
 import static org.lwjgl.opengl.GL30.glGenVertexArrays;
 
+import com.jda.orrery.graphics.core.GLState;
+
 /**
  * Empty VAO + {@code gl_VertexID}-driven fullscreen triangle. macOS strict core profile requires a
  * VAO bound for any draw call; the vertex shader synthesises the three clip-space corners from
@@ -19,14 +19,13 @@ public class FullScreenTriangle {
     }
 
     public void draw() {
-        glBindVertexArray(vao);
+        GLState.bindVertexArray(vao);
         glDrawArrays(GL_TRIANGLES, 0, 3);
-        glBindVertexArray(0);
     }
 
     public void dispose() {
         if (vao != 0) {
-            glDeleteVertexArrays(vao);
+            GLState.deleteVertexArray(vao);
             vao = 0;
         }
     }
@@ -0,0 +1,128 @@
+package com.jda.orrery.graphics.postfx;
+
+import static org.lwjgl.opengl.GL11.GL_LINEAR;
+import static org.lwjgl.opengl.GL11.GL_RGBA;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MAG_FILTER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_S;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_T;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
+import static org.lwjgl.opengl.GL11.glGenTextures;
+import static org.lwjgl.opengl.GL11.glTexImage2D;
+import static org.lwjgl.opengl.GL11.glTexParameteri;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL21.GL_SRGB8_ALPHA8;
+import static org.lwjgl.opengl.GL30.GL_COLOR_ATTACHMENT0;
+import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
+import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER_COMPLETE;
+import static org.lwjgl.opengl.GL30.glCheckFramebufferStatus;
+import static org.lwjgl.opengl.GL30.glFramebufferTexture2D;
+import static org.lwjgl.opengl.GL30.glGenFramebuffers;
+
+import com.jda.orrery.graphics.core.GLState;
+import com.jda.orrery.graphics.resources.Shader;
+import com.jda.orrery.graphics.resources.Uniform;
+import java.nio.ByteBuffer;
+
+/**
+ * FXAA stage after tonemapping. The tonemap pass renders into {@link #bindInput()}'s SRGB8_ALPHA8
+ * target at the output size (GL_FRAMEBUFFER_SRGB encodes on write, so the LDR image keeps 8-bit
+ * perceptual precision); {@link #execute()} then filters it into the default framebuffer.
+ */
+public class FxaaPass {
+    private int texture = 0;
+    private int framebuffer = 0;
+    private int width;
+    private int height;
+
+    private FullScreenTriangle triangle;
+    private Shader shader;
+    private Uniform.Vec2 texelSize;
+
+    /** @param triangle shared with the other post passes; not disposed here */
+    public void initialize(int outputWidth, int outputHeight, FullScreenTriangle triangle) {
+        this.triangle = triangle;
+        shader =
+                new Shader(
+                        "postfx_fxaa",
+                        "/shaders/postfx_fullscreen.vert",
+                        "/shaders/postfx_fxaa.frag");
+        if (!shader.isValid()) {
+            throw new IllegalStateException("FxaaPass: failed to compile/link postfx_fxaa");
+        }
+        texelSize = shader.vec2Uniform("u_texelSize");
+        shader.use();
+        shader.setUniform("u_ldr", 0);
+        allocate(outputWidth, outputHeight);
+    }
+
+    /** Bind the LDR target for the tonemap pass, reallocating it if the output size changed. */
+    public void bindInput(int outputWidth, int outputHeight) {
+        if (outputWidth != width || outputHeight != height) {
+            release();
+            allocate(outputWidth, outputHeight);
+        }
+        GLState.bindFramebuffer(GL_FRAMEBUFFER, framebuffer);
+    }
+
+    /** Filter the LDR target into the default framebuffer (viewport already at the output size). */
+    public void execute() {
+        GLState.bindFramebuffer(GL_FRAMEBUFFER, 0);
+        shader.use();
+        texelSize.set(1.0f / width, 1.0f / height);
+        GLState.bindTexture(0, GL_TEXTURE_2D, texture);
+        triangle.draw();
+    }
+
+    private void allocate(int width, int height) {
+        this.width = width;
+        this.height = height;
+
+        texture = glGenTextures();
+        GLState.bindTexture(0, GL_TEXTURE_2D, texture);
+        glTexImage2D(
+                GL_TEXTURE_2D,
+                0,
+                GL_SRGB8_ALPHA8,
+                width,
+                height,
+                0,
+                GL_RGBA,
+                GL_UNSIGNED_BYTE,
+                (ByteBuffer) null);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+
+        framebuffer = glGenFramebuffers();
+        GLState.bindFramebuffer(GL_FRAMEBUFFER, framebuffer);
+        glFramebufferTexture2D(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL_TEXTURE_2D, texture, 0);
+        int status = glCheckFramebufferStatus(GL_FRAMEBUFFER);
+        GLState.bindFramebuffer(GL_FRAMEBUFFER, 0);
+        if (status != GL_FRAMEBUFFER_COMPLETE) {
+            throw new IllegalStateException(
+                    "FxaaPass FBO incomplete: 0x" + Integer.toHexString(status));
+        }
+    }
+
+    private void release() {
+        if (framebuffer != 0) {
+            GLState.deleteFramebuffer(framebuffer);
+            framebuffer = 0;
+        }
+        if (texture != 0) {
+            GLState.deleteTexture(texture);
+            texture = 0;
+        }
+    }
+
+    public void dispose() {
+        release();
+        if (shader != null) {
+            shader.dispose();
+            shader = null;
+        }
+    }
+}
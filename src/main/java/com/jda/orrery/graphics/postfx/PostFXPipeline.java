@@ -1,38 +1,44 @@
 package com.jda.orrery.graphics.postfx;
 
-import static org.lwjgl.opengl.GL11.GL_BLEND;
-import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glDepthMask;
-import static org.lwjgl.opengl.GL11.glDisable;
-import static org.lwjgl.opengl.GL11.glEnable;
-import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.GL_TEXTURE1;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
 import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
-import static org.lwjgl.opengl.GL30.glBindFramebuffer;
 
-import com.jda.orrery.graphics.illumination.IlluminationManager;
-import com.jda.orrery.graphics.illumination.IlluminationManager.IlluminationProfile;
+import com.jda.orrery.graphics.core.GLState;
+import com.jda.orrery.graphics.core.GpuTimer;
 import com.jda.orrery.graphics.resources.Shader;
+import com.jda.orrery.graphics.ubo.FrameDataUBO;
 
 /**
- * Post-processing orchestrator. In Step 3 it runs a stubbed bloom pass (no-op) and a tonemap pass
- * that composites the resolved scene color with the (currently 1×1 black) bloom output and writes
- * to the default framebuffer.
+ * Post-processing orchestrator: runs the half-resolution {@link BloomPipeline} on the resolved
+ * scene color (skipped when the profile's bloom strength is 0), then a tonemap pass that composites
+ * scene and bloom into the default framebuffer at its full size, upscaling a reduced render scale.
+ * With {@link AntiAliasing.Mode#FXAA} the composite goes to an LDR target and a {@link FxaaPass}
+ * writes the framebuffer. Exposure and tonemap parameters come from the FrameData block.
  */
 public class PostFXPipeline {
     private final PostFXTarget target;
-    private final IlluminationManager illuminationManager;
+    private final FrameDataUBO frameData;
+    private final GpuTimer gpuTimer; // may be null
 
     private Shader tonemapShader;
     private FullScreenTriangle fullScreenTriangle;
     private BloomPipeline bloomPipeline;
-
-    public PostFXPipeline(PostFXTarget target, IlluminationManager illuminationManager) {
+    private final AntiAliasing antiAliasing;
+    private FxaaPass fxaaPass; // null unless antiAliasing is FXAA
+
+    /**
+     * @param antiAliasing adds the FXAA stage when its mode is FXAA; MSAA lives in the target
+     * @param gpuTimer times the bloom, tonemap and AA passes; null for none
+     */
+    public PostFXPipeline(
+            PostFXTarget target,
+            FrameDataUBO frameData,
+            AntiAliasing antiAliasing,
+            GpuTimer gpuTimer) {
         this.target = target;
-        this.illuminationManager = illuminationManager;
+        this.frameData = frameData;
+        this.antiAliasing = antiAliasing;
+        this.gpuTimer = gpuTimer;
     }
 
     public void initialize() {
@@ -45,49 +51,78 @@ public class PostFXPipeline {
             throw new IllegalStateException(
                     "PostFXPipeline: failed to compile/link postfx_tonemap");
         }
+        FrameDataUBO.linkToShader(tonemapShader.getProgramId());
 
         fullScreenTriangle = new FullScreenTriangle();
         fullScreenTriangle.initialize();
 
         bloomPipeline = new BloomPipeline();
-        bloomPipeline.initialize(target.getWidth(), target.getHeight());
+        bloomPipeline.initialize(target.getWidth(), target.getHeight(), fullScreenTriangle);
+
+        if (antiAliasing.mode == AntiAliasing.Mode.FXAA) {
+            fxaaPass = new FxaaPass();
+            fxaaPass.initialize(
+                    target.getOutputWidth(), target.getOutputHeight(), fullScreenTriangle);
+        }
     }
 
     public void execute() {
-        bloomPipeline.execute();
-
-        glBindFramebuffer(GL_FRAMEBUFFER, 0);
-        glDisable(GL_DEPTH_TEST);
-        glDepthMask(false);
-        glDisable(GL_BLEND);
+        GLState.setDepthTest(false);
+        GLState.setDepthMask(false);
+        GLState.setBlend(false);
+
+        // No-op unless nothing else uploaded this frame's FrameData yet
+        frameData.flush();
+
+        boolean bloom = frameData.getBloomStrength() > 0.0f;
+        if (bloom) {
+            // The target is resized by the window callback; follow it here (no-op when unchanged)
+            bloomPipeline.resize(target.getWidth(), target.getHeight());
+            if (gpuTimer != null) gpuTimer.begin(GpuTimer.Pass.BLOOM);
+            bloomPipeline.execute(target.getColorTexture());
+            if (gpuTimer != null) gpuTimer.end();
+        }
 
-        IlluminationProfile profile = illuminationManager.getActiveProfile();
+        if (gpuTimer != null) gpuTimer.begin(GpuTimer.Pass.TONEMAP);
+
+        // Scene and bloom ran at the render size; the composite covers the whole framebuffer,
+        // upscaling through the scene texture's bilinear filter when the render scale is below 1.
+        // With FXAA it goes to an LDR target first.
+        int outputWidth = target.getOutputWidth();
+        int outputHeight = target.getOutputHeight();
+        if (fxaaPass != null) {
+            fxaaPass.bindInput(outputWidth, outputHeight);
+        } else {
+            GLState.bindFramebuffer(GL_FRAMEBUFFER, 0);
+        }
+        GLState.viewport(0, 0, outputWidth, outputHeight);
 
         tonemapShader.use();
-        tonemapShader.setUniform("u_exposure", profile.exposure);
-        tonemapShader.setUniform("u_bloomStrength", profile.bloomStrength);
-        tonemapShader.setUniform("u_toneMapOp", profile.toneMapOperator);
-        tonemapShader.setUniform("u_contrastLift", profile.contrastLift);
 
-        glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D, target.getColorTexture());
+        GLState.bindTexture(0, GL_TEXTURE_2D, target.getColorTexture());
         tonemapShader.setUniform("u_sceneHDR", 0);
 
-        glActiveTexture(GL_TEXTURE1);
-        glBindTexture(GL_TEXTURE_2D, bloomPipeline.getBloomTexture());
+        GLState.bindTexture(1, GL_TEXTURE_2D, bloomPipeline.getBloomTexture());
         tonemapShader.setUniform("u_bloom", 1);
 
         fullScreenTriangle.draw();
+        if (gpuTimer != null) gpuTimer.end();
+
+        if (fxaaPass != null) {
+            if (gpuTimer != null) gpuTimer.begin(GpuTimer.Pass.AA);
+            fxaaPass.execute();
+            if (gpuTimer != null) gpuTimer.end();
+        }
 
         // Reset to texture unit 0 so subsequent code that doesn't set glActiveTexture
         // operates on the conventional default.
-        glActiveTexture(GL_TEXTURE0);
+        GLState.activeTexture(0);
 
         // Restore GL state. GL_BLEND must be re-enabled — DrawContext enables it once at
         // init and ring rendering relies on it being sticky across frames.
-        glEnable(GL_DEPTH_TEST);
-        glDepthMask(true);
-        glEnable(GL_BLEND);
+        GLState.setDepthTest(true);
+        GLState.setDepthMask(true);
+        GLState.setBlend(true);
     }
 
     public void dispose() {
@@ -103,5 +138,9 @@ public class PostFXPipeline {
             bloomPipeline.dispose();
             bloomPipeline = null;
         }
+        if (fxaaPass != null) {
+            fxaaPass.dispose();
+            fxaaPass = null;
+        }
     }
 }
@@ -12,8 +12,6 @@ import static org.lwjgl.opengl.GL11.GL_TEXTURE_MAG_FILTER;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_S;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_T;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glDeleteTextures;
 import static org.lwjgl.opengl.GL11.glDrawBuffer;
 import static org.lwjgl.opengl.GL11.glGenTextures;
 import static org.lwjgl.opengl.GL11.glGetInteger;
@@ -31,11 +29,9 @@ import static org.lwjgl.opengl.GL30.GL_MAX_SAMPLES;
 import static org.lwjgl.opengl.GL30.GL_READ_FRAMEBUFFER;
 import static org.lwjgl.opengl.GL30.GL_RENDERBUFFER;
 import static org.lwjgl.opengl.GL30.GL_RGBA16F;
-import static org.lwjgl.opengl.GL30.glBindFramebuffer;
 import static org.lwjgl.opengl.GL30.glBindRenderbuffer;
 import static org.lwjgl.opengl.GL30.glBlitFramebuffer;
 import static org.lwjgl.opengl.GL30.glCheckFramebufferStatus;
-import static org.lwjgl.opengl.GL30.glDeleteFramebuffers;
 import static org.lwjgl.opengl.GL30.glDeleteRenderbuffers;
 import static org.lwjgl.opengl.GL30.glFramebufferRenderbuffer;
 import static org.lwjgl.opengl.GL30.glFramebufferTexture2D;
@@ -44,22 +40,31 @@ import static org.lwjgl.opengl.GL30.glGenRenderbuffers;
 import static org.lwjgl.opengl.GL30.glRenderbufferStorageMultisample;
 
 import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.graphics.core.GLState;
 import java.nio.ByteBuffer;
 import java.util.logging.Logger;
 
 /**
- * Multisample HDR offscreen target with a single-sample resolve.
+ * Multisample HDR offscreen target with a single-sample resolve. At 1 sample (FXAA or no AA) the
+ * multisample FBO is skipped and the scene renders straight into the resolve textures.
  *
  * Scene rendering binds the multisample FBO (RGBA16F color + DEPTH_COMPONENT32F depth
  * renderbuffers). After all layers render, {@link #resolve()} blits both attachments into
  * single-sample textures that the post-FX pass samples. The depth resolve is sampleable for future
  * occlusion queries (e.g. lens-flare).
+ *
+ * The target can render below the framebuffer's resolution: {@link #getWidth()}/{@link
+ * #getHeight()} are the output size times {@link #setRenderScale(float) the render scale}, and the
+ * tonemap pass upscales to the output size while compositing.
  */
 public class PostFXTarget {
     private static final Logger LOGGER = Logging.logger(PostFXTarget.class);
 
     private int width;
     private int height;
+    private int outputWidth;
+    private int outputHeight;
+    private float renderScale = 1.0f;
     private int requestedSampleCount;
     private int sampleCount;
 
@@ -75,17 +80,57 @@ public class PostFXTarget {
 
     public PostFXTarget(int width, int height, int sampleCount) {
         this.requestedSampleCount = sampleCount;
-        allocate(width, height);
+        setOutputSize(width, height);
+        allocate(scaled(width), scaled(height));
     }
 
-    /** Re-allocate at a new size, retrying the originally requested sample count. */
+    /**
+     * Re-allocate for a new output (framebuffer) size, retrying the originally requested sample
+     * count. The render size follows at the current render scale.
+     */
     public void resize(int width, int height) {
+        setOutputSize(width, height);
+        reallocate();
+    }
+
+    /**
+     * Render at {@code scale} times the output size per axis; re-allocates only if the render size
+     * changes.
+     */
+    public void setRenderScale(float scale) {
+        if (!(scale > 0.0f && scale <= 1.0f)) {
+            throw new IllegalArgumentException("Render scale must be in (0, 1]: " + scale);
+        }
+        renderScale = scale;
+        if (scaled(outputWidth) != width || scaled(outputHeight) != height) {
+            reallocate();
+        }
+    }
+
+    /** Request a new MSAA sample count; re-allocates only if it differs from the current request. */
+    public void setSampleCount(int samples) {
+        if (samples != requestedSampleCount) {
+            requestedSampleCount = samples;
+            reallocate();
+        }
+    }
+
+    private void setOutputSize(int width, int height) {
         if (width <= 0 || height <= 0) {
             throw new IllegalArgumentException(
                     "PostFXTarget dimensions must be positive: " + width + "x" + height);
         }
+        this.outputWidth = width;
+        this.outputHeight = height;
+    }
+
+    private int scaled(int size) {
+        return Math.max(1, Math.round(size * renderScale));
+    }
+
+    private void reallocate() {
         deallocate();
-        allocate(width, height);
+        allocate(scaled(outputWidth), scaled(outputHeight));
     }
 
     private void allocate(int width, int height) {
@@ -107,33 +152,37 @@ public class PostFXTarget {
         this.height = height;
         this.sampleCount = effectiveSamples;
 
-        // --- Multisample FBO: color + depth renderbuffers ---
-        msColorRBO = glGenRenderbuffers();
-        glBindRenderbuffer(GL_RENDERBUFFER, msColorRBO);
-        glRenderbufferStorageMultisample(
-                GL_RENDERBUFFER, effectiveSamples, GL_RGBA16F, width, height);
-
-        msDepthRBO = glGenRenderbuffers();
-        glBindRenderbuffer(GL_RENDERBUFFER, msDepthRBO);
-        glRenderbufferStorageMultisample(
-                GL_RENDERBUFFER, effectiveSamples, GL_DEPTH_COMPONENT32F, width, height);
-
-        msFBO = glGenFramebuffers();
-        glBindFramebuffer(GL_FRAMEBUFFER, msFBO);
-        glFramebufferRenderbuffer(
-                GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL_RENDERBUFFER, msColorRBO);
-        glFramebufferRenderbuffer(GL_FRAMEBUFFER, GL_DEPTH_ATTACHMENT, GL_RENDERBUFFER, msDepthRBO);
-
-        int msStatus = glCheckFramebufferStatus(GL_FRAMEBUFFER);
-        if (msStatus != GL_FRAMEBUFFER_COMPLETE) {
-            glBindFramebuffer(GL_FRAMEBUFFER, 0);
-            throw new IllegalStateException(
-                    "PostFXTarget multisample FBO incomplete: 0x" + Integer.toHexString(msStatus));
+        // --- Multisample FBO: color + depth renderbuffers (none at 1 sample) ---
+        if (effectiveSamples > 1) {
+            msColorRBO = glGenRenderbuffers();
+            glBindRenderbuffer(GL_RENDERBUFFER, msColorRBO);
+            glRenderbufferStorageMultisample(
+                    GL_RENDERBUFFER, effectiveSamples, GL_RGBA16F, width, height);
+
+            msDepthRBO = glGenRenderbuffers();
+            glBindRenderbuffer(GL_RENDERBUFFER, msDepthRBO);
+            glRenderbufferStorageMultisample(
+                    GL_RENDERBUFFER, effectiveSamples, GL_DEPTH_COMPONENT32F, width, height);
+
+            msFBO = glGenFramebuffers();
+            GLState.bindFramebuffer(GL_FRAMEBUFFER, msFBO);
+            glFramebufferRenderbuffer(
+                    GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL_RENDERBUFFER, msColorRBO);
+            glFramebufferRenderbuffer(
+                    GL_FRAMEBUFFER, GL_DEPTH_ATTACHMENT, GL_RENDERBUFFER, msDepthRBO);
+
+            int msStatus = glCheckFramebufferStatus(GL_FRAMEBUFFER);
+            if (msStatus != GL_FRAMEBUFFER_COMPLETE) {
+                GLState.bindFramebuffer(GL_FRAMEBUFFER, 0);
+                throw new IllegalStateException(
+                        "PostFXTarget multisample FBO incomplete: 0x"
+                                + Integer.toHexString(msStatus));
+            }
         }
 
         // --- Resolve FBO: color + depth textures (sampleable) ---
         resolvedColorTex = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, resolvedColorTex);
+        GLState.bindTexture(0, GL_TEXTURE_2D, resolvedColorTex);
         glTexImage2D(
                 GL_TEXTURE_2D,
                 0,
@@ -150,7 +199,7 @@ public class PostFXTarget {
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
 
         resolvedDepthTex = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, resolvedDepthTex);
+        GLState.bindTexture(0, GL_TEXTURE_2D, resolvedDepthTex);
         glTexImage2D(
                 GL_TEXTURE_2D,
                 0,
@@ -167,7 +216,7 @@ public class PostFXTarget {
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
 
         resolveFBO = glGenFramebuffers();
-        glBindFramebuffer(GL_FRAMEBUFFER, resolveFBO);
+        GLState.bindFramebuffer(GL_FRAMEBUFFER, resolveFBO);
         glFramebufferTexture2D(
                 GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL_TEXTURE_2D, resolvedColorTex, 0);
         glFramebufferTexture2D(
@@ -175,27 +224,35 @@ public class PostFXTarget {
 
         int resolveStatus = glCheckFramebufferStatus(GL_FRAMEBUFFER);
         if (resolveStatus != GL_FRAMEBUFFER_COMPLETE) {
-            glBindFramebuffer(GL_FRAMEBUFFER, 0);
+            GLState.bindFramebuffer(GL_FRAMEBUFFER, 0);
             throw new IllegalStateException(
                     "PostFXTarget resolve FBO incomplete: 0x" + Integer.toHexString(resolveStatus));
         }
 
-        glBindFramebuffer(GL_FRAMEBUFFER, 0);
+        GLState.bindFramebuffer(GL_FRAMEBUFFER, 0);
         valid = true;
     }
 
-    /** Bind the multisample FBO for scene rendering. */
+    /**
+     * Bind the multisample FBO for scene rendering (the resolve FBO at 1 sample), with the viewport
+     * at the render size.
+     */
     public void bind() {
-        glBindFramebuffer(GL_FRAMEBUFFER, msFBO);
+        GLState.bindFramebuffer(GL_FRAMEBUFFER, sampleCount > 1 ? msFBO : resolveFBO);
+        GLState.viewport(0, 0, width, height);
     }
 
     /**
      * Resolve the multisample FBO into the single-sample resolve textures. Caller is responsible
-     * for unbinding to the default framebuffer afterward via {@link #unbindToDefault()}.
+     * for unbinding to the default framebuffer afterward via {@link #unbindToDefault()}. Nothing to
+     * do at 1 sample: the scene was drawn into the resolve textures directly.
      */
     public void resolve() {
-        glBindFramebuffer(GL_READ_FRAMEBUFFER, msFBO);
-        glBindFramebuffer(GL_DRAW_FRAMEBUFFER, resolveFBO);
+        if (sampleCount == 1) {
+            return;
+        }
+        GLState.bindFramebuffer(GL_READ_FRAMEBUFFER, msFBO);
+        GLState.bindFramebuffer(GL_DRAW_FRAMEBUFFER, resolveFBO);
 
         // Explicit read/draw buffer state on color blit — defends against changes elsewhere
         // and against future multi-attachment FBOs. Ignored by the depth blit.
@@ -209,7 +266,7 @@ public class PostFXTarget {
 
     /** Bind the default framebuffer (0). */
     public void unbindToDefault() {
-        glBindFramebuffer(GL_FRAMEBUFFER, 0);
+        GLState.bindFramebuffer(GL_FRAMEBUFFER, 0);
     }
 
     public int getColorTexture() {
@@ -220,14 +277,30 @@ public class PostFXTarget {
         return resolvedDepthTex;
     }
 
+    /** Render width: the output width times the render scale. */
     public int getWidth() {
         return width;
     }
 
+    /** Render height: the output height times the render scale. */
     public int getHeight() {
         return height;
     }
 
+    /** Framebuffer width the post-FX pass writes. */
+    public int getOutputWidth() {
+        return outputWidth;
+    }
+
+    /** Framebuffer height the post-FX pass writes. */
+    public int getOutputHeight() {
+        return outputHeight;
+    }
+
+    public float getRenderScale() {
+        return renderScale;
+    }
+
     public int getSampleCount() {
         return sampleCount;
     }
@@ -238,11 +311,11 @@ public class PostFXTarget {
 
     private void deallocate() {
         if (msFBO != 0) {
-            glDeleteFramebuffers(msFBO);
+            GLState.deleteFramebuffer(msFBO);
             msFBO = 0;
         }
         if (resolveFBO != 0) {
-            glDeleteFramebuffers(resolveFBO);
+            GLState.deleteFramebuffer(resolveFBO);
             resolveFBO = 0;
         }
         if (msColorRBO != 0) {
@@ -254,11 +327,11 @@ public class PostFXTarget {
             msDepthRBO = 0;
         }
         if (resolvedColorTex != 0) {
-            glDeleteTextures(resolvedColorTex);
+            GLState.deleteTexture(resolvedColorTex);
             resolvedColorTex = 0;
         }
         if (resolvedDepthTex != 0) {
-            glDeleteTextures(resolvedDepthTex);
+            GLState.deleteTexture(resolvedDepthTex);
             resolvedDepthTex = 0;
         }
         valid = false;
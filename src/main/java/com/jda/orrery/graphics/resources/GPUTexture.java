@@ -1,10 +1,9 @@
 package com.jda.orrery.graphics.resources;
 
 import static org.lwjgl.opengl.GL11.*;
-import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
 
 import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.graphics.core.GLState;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
@@ -101,7 +100,7 @@ public class GPUTexture implements AutoCloseable {
             throw new IllegalStateException(
                     "Texture has been disposed" + (debugName != null ? ": " + debugName : ""));
         }
-        glBindTexture(GL_TEXTURE_2D, textureId);
+        GLState.bindTexture(GL_TEXTURE_2D, textureId);
     }
 
     /**
@@ -115,13 +114,12 @@ public class GPUTexture implements AutoCloseable {
             throw new IllegalStateException(
                     "Texture has been disposed" + (debugName != null ? ": " + debugName : ""));
         }
-        glActiveTexture(GL_TEXTURE0 + unit);
-        glBindTexture(GL_TEXTURE_2D, textureId);
+        GLState.bindTexture(unit, GL_TEXTURE_2D, textureId);
     }
 
     /** Unbind any texture from the current unit. Static method as it doesn't depend on instance. */
     public static void unbind() {
-        glBindTexture(GL_TEXTURE_2D, 0);
+        GLState.bindTexture(GL_TEXTURE_2D, 0);
     }
 
     /**
@@ -141,7 +139,7 @@ public class GPUTexture implements AutoCloseable {
     public void close() {
         if (disposed.compareAndSet(false, true)) {
             if (textureId != 0) {
-                glDeleteTextures(textureId);
+                GLState.deleteTexture(textureId);
                 LOGGER.fine(
                         "Disposed GPU texture "
                                 + textureId
@@ -0,0 +1,211 @@
+package com.jda.orrery.graphics.resources;
+
+import com.jda.orrery.core.logging.Logging;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * On-disk cache of linked program binaries (glGetProgramBinary / glProgramBinary), so startup skips
+ * compiling the shader sources. Pure file handling; {@link Shader} does the GL side.
+ *
+ * Entries are keyed by a SHA-256 of everything that can change the binary: both stage sources
+ * (after define injection), the define list and the driver's vendor, renderer and version strings.
+ * The file name is the shader id plus the key, so storing a program replaces the entries an older
+ * source or driver left for the same id. A file that is missing, truncated or from another {@link
+ * #FORMAT_VERSION} is a miss. The driver may still reject a binary it wrote (an update that kept
+ * its version string); the caller then compiles from source and stores the new binary over it.
+ *
+ * Enabled by default under ~/.cache/orrery/programs; -Dorrery.shaderCacheDir picks another
+ * directory, and an empty value turns the cache off.
+ *
+ * File layout: header of 4 ints (magic, version, binary format, binary length), then the binary.
+ */
+final class ProgramBinaryCache {
+    private static final Logger LOGGER = Logging.logger(ProgramBinaryCache.class);
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x4F525042; // "ORPB"
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    private static final String EXTENSION = ".glprog";
+
+    private final Path directory;
+
+    ProgramBinaryCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /** Cache configured by -Dorrery.shaderCacheDir (default ~/.cache/orrery/programs), or null. */
+    static ProgramBinaryCache fromSystemProperty() {
+        String dir =
+                System.getProperty(
+                        "orrery.shaderCacheDir",
+                        Paths.get(System.getProperty("user.home"), ".cache", "orrery", "programs")
+                                .toString());
+        if (dir.isEmpty()) {
+            return null;
+        }
+        return new ProgramBinaryCache(Paths.get(dir));
+    }
+
+    /** A cached binary: its driver-defined format and the bytes, in a direct buffer. */
+    static final class Entry {
+        final int format;
+        final ByteBuffer binary;
+
+        Entry(int format, ByteBuffer binary) {
+            this.format = format;
+            this.binary = binary;
+        }
+    }
+
+    /** Cache key for a program: hex SHA-256 over sources, defines and driver identity. */
+    static String key(
+            String vertexSource, String fragmentSource, List<String> defines, String driver) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Length-prefix each part so no two inputs concatenate to the same bytes
+            for (String part : List.of(vertexSource, fragmentSource, driver)) {
+                update(digest, part);
+            }
+            for (String define : defines) {
+                update(digest, define);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String part) {
+        byte[] bytes = part.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    /** Shader ids carry variant define lists ("name[A,B]"); keep the file name portable. */
+    static String filePrefix(String shaderId) {
+        return shaderId.replaceAll("[^A-Za-z0-9_.-]", "_") + "-";
+    }
+
+    Path fileFor(String shaderId, String key) {
+        return directory.resolve(filePrefix(shaderId) + key + EXTENSION);
+    }
+
+    /**
+     * Map a cached binary.
+     *
+     * @return the binary, or null on a miss
+     */
+    Entry load(String shaderId, String key) {
+        Path file = fileFor(shaderId, key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                LOGGER.warning("Ignoring truncated program cache file " + file);
+                return null;
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            map.order(ByteOrder.nativeOrder());
+
+            int length = map.getInt(3 * Integer.BYTES);
+            if (map.getInt(0) != MAGIC
+                    || map.getInt(Integer.BYTES) != FORMAT_VERSION
+                    || length <= 0
+                    || size != HEADER_BYTES + (long) length) {
+                LOGGER.warning("Ignoring stale or foreign program cache file " + file);
+                return null;
+            }
+
+            int format = map.getInt(2 * Integer.BYTES);
+            map.position(HEADER_BYTES);
+            return new Entry(format, map.slice());
+        } catch (IOException e) {
+            LOGGER.warning("Failed to read program cache file " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write a program binary (the buffer's remaining bytes; its position is not moved) and delete
+     * the entries older keys left for the same shader. Goes through a temporary file and a rename,
+     * so a crash mid-write never leaves a partial file under the real name. Failures are logged
+     * and otherwise ignored; the cache is only an optimization.
+     */
+    void store(String shaderId, String key, int format, ByteBuffer binary) {
+        Path file = fileFor(shaderId, key);
+        ByteBuffer header =
+                ByteBuffer.allocate(HEADER_BYTES)
+                        .order(ByteOrder.nativeOrder())
+                        .putInt(MAGIC)
+                        .putInt(FORMAT_VERSION)
+                        .putInt(format)
+                        .putInt(binary.remaining());
+        header.flip();
+        ByteBuffer body = binary.duplicate();
+
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining() || body.hasRemaining()) {
+                    channel.write(new ByteBuffer[] {header, body});
+                }
+            }
+            Files.move(
+                    temp,
+                    file,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+            LOGGER.fine("Cached program binary " + file);
+            deleteSuperseded(shaderId, file);
+        } catch (IOException e) {
+            LOGGER.warning("Failed to write program cache file " + file + ": " + e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // A stray .tmp file is never mistaken for a cache entry
+                }
+            }
+        }
+    }
+
+    private void deleteSuperseded(String shaderId, Path current) throws IOException {
+        String prefix = filePrefix(shaderId);
+        // Keys are fixed-length hex, so only this id's files have this prefix and this length
+        // (id "basic" must not take "basic-axis-<key>" with it)
+        int nameLength = current.getFileName().toString().length();
+        try (DirectoryStream<Path> entries =
+                Files.newDirectoryStream(directory, prefix + "*" + EXTENSION)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (!entry.equals(current) && name.length() == nameLength) {
+                    Files.deleteIfExists(entry);
+                    LOGGER.fine("Removed superseded program binary " + entry);
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.jda.orrery.graphics.resources;
 
 import com.jda.orrery.core.logging.Logging;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
@@ -31,6 +32,32 @@ public class ResourceManager {
         return shaderCache.computeIfAbsent(name, this::loadShader);
     }
 
+    /**
+     * Get or load a compiled variant of a shader. Sources are the same as {@link #getShader}; the
+     * given defines are injected after the {@code #version} line. Each distinct define list is a
+     * separate cached program.
+     *
+     * @param name Shader name (without extension)
+     * @param defines Preprocessor defines, e.g. {@code "INSTANCED"} or {@code "MAX_INSTANCES 32"}
+     * @return Shader instance (cached or newly loaded)
+     */
+    public Shader getShaderVariant(String name, String... defines) {
+        if (defines.length == 0) return getShader(name);
+        String key = name + "[" + String.join(",", defines) + "]";
+        return shaderCache.computeIfAbsent(key, k -> loadShaderVariant(k, name, List.of(defines)));
+    }
+
+    private Shader loadShaderVariant(String key, String name, List<String> defines) {
+        String basePath = "/shaders/" + name;
+        Shader shader = new Shader(key, basePath + ".vert", basePath + ".frag", defines);
+        if (shader.isValid()) {
+            LOGGER.info("Loaded shader variant: " + key);
+        } else {
+            LOGGER.severe("Failed to load shader variant: " + key);
+        }
+        return shader;
+    }
+
     /**
      * Load a shader from resources.
      *
@@ -1,15 +1,25 @@
 package com.jda.orrery.graphics.resources;
 
 import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL41.GL_NUM_PROGRAM_BINARY_FORMATS;
+import static org.lwjgl.opengl.GL41.GL_PROGRAM_BINARY_LENGTH;
+import static org.lwjgl.opengl.GL41.GL_PROGRAM_BINARY_RETRIEVABLE_HINT;
+import static org.lwjgl.opengl.GL41.glGetProgramBinary;
+import static org.lwjgl.opengl.GL41.glProgramBinary;
+import static org.lwjgl.opengl.GL41.glProgramParameteri;
 
 import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.graphics.core.GLState;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.nio.FloatBuffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -19,8 +29,19 @@ import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 import org.lwjgl.system.MemoryStack;
-
-/** Compiled shader program with cached uniform/attribute locations. */
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * Compiled shader program with cached uniform/attribute locations.
+ *
+ * Active uniform locations are enumerated once after linking. Hot paths should hold typed {@link
+ * Uniform} handles ({@link #intUniform}, {@link #vec3Uniform}, ...), which skip the GL call when the
+ * value is unchanged; the name-based {@code setUniform} overloads go through the same handles.
+ *
+ * Linked programs are kept in a {@link ProgramBinaryCache}: a later run with the same sources,
+ * defines and driver loads the binary instead of compiling, and compiles anyway when the driver
+ * rejects it. {@link #logLoadSummary()} reports the time spent each way.
+ */
 public class Shader {
     private static final Logger LOGGER = Logging.logger(Shader.class);
 
@@ -28,9 +49,22 @@ public class Shader {
     private int program = -1;
     private boolean valid = false;
 
+    private final List<String> defines;
+
     private final Map<String, Integer> uniformLocations = new HashMap<>();
+    private final Map<String, Uniform> uniforms = new HashMap<>();
     private final Map<String, Integer> attributeLocations = new HashMap<>();
 
+    // Program binary cache and load-time totals; shaders are created on the GL thread only
+    private static ProgramBinaryCache binaryCache;
+    private static String driverIdentity;
+    private static boolean binaryCacheResolved = false;
+    private static int compiledCount = 0;
+    private static long compileNanos = 0;
+    private static int cachedCount = 0;
+    private static long cacheLoadNanos = 0;
+    private static int rejectedCount = 0;
+
     /**
      * Load shader by name: resolves to `/shaders/{name}.vert` and `/shaders/{name}.frag` on the
      * classpath.
@@ -41,7 +75,17 @@ public class Shader {
 
     /** Load shader from explicit vertex and fragment source paths (classpath). */
     public Shader(String id, String vertexPath, String fragmentPath) {
+        this(id, vertexPath, fragmentPath, List.of());
+    }
+
+    /**
+     * Load shader from explicit source paths, compiling both stages with the given preprocessor
+     * defines. Each entry becomes a {@code #define} line, so {@code "MAX_INSTANCES 32"} defines a
+     * value and {@code "INSTANCED"} a flag.
+     */
+    public Shader(String id, String vertexPath, String fragmentPath, List<String> defines) {
         this.id = id;
+        this.defines = List.copyOf(defines);
         loadFromPaths(vertexPath, fragmentPath);
     }
 
@@ -54,6 +98,20 @@ public class Shader {
             return;
         }
 
+        vertexSource = injectDefines(vertexSource, defines);
+        fragmentSource = injectDefines(fragmentSource, defines);
+
+        ProgramBinaryCache cache = binaryCache();
+        String key =
+                cache != null
+                        ? ProgramBinaryCache.key(
+                                vertexSource, fragmentSource, defines, driverIdentity)
+                        : null;
+        if (cache != null && loadFromCache(cache, key)) {
+            return;
+        }
+
+        long start = System.nanoTime();
         int vertexShader = compileShader(GL_VERTEX_SHADER, vertexSource, vertexPath);
         int fragmentShader = compileShader(GL_FRAGMENT_SHADER, fragmentSource, fragmentPath);
 
@@ -64,6 +122,9 @@ public class Shader {
         }
 
         program = glCreateProgram();
+        if (cache != null) {
+            glProgramParameteri(program, GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GL_TRUE);
+        }
         glAttachShader(program, vertexShader);
         glAttachShader(program, fragmentShader);
         glLinkProgram(program);
@@ -74,7 +135,14 @@ public class Shader {
             program = -1;
         } else {
             valid = true;
-            LOGGER.fine("Loaded shader: " + id);
+            resolveActiveUniforms();
+            long elapsed = System.nanoTime() - start;
+            compiledCount++;
+            compileNanos += elapsed;
+            LOGGER.fine(String.format("Compiled shader %s in %.1fms", id, elapsed / 1e6));
+            if (cache != null) {
+                storeInCache(cache, key);
+            }
         }
 
         glDetachShader(program, vertexShader);
@@ -83,6 +151,149 @@ public class Shader {
         glDeleteShader(fragmentShader);
     }
 
+    /**
+     * Create the program from a cached binary.
+     *
+     * @return false on a miss or when the driver rejects the binary; nothing is left allocated
+     */
+    private boolean loadFromCache(ProgramBinaryCache cache, String key) {
+        long start = System.nanoTime();
+        ProgramBinaryCache.Entry entry = cache.load(id, key);
+        if (entry == null) {
+            return false;
+        }
+        program = glCreateProgram();
+        glProgramBinary(program, entry.format, entry.binary);
+        if (glGetProgrami(program, GL_LINK_STATUS) == GL_FALSE) {
+            // Typically a driver update that kept its version string; recompile and re-store
+            rejectedCount++;
+            LOGGER.info("Driver rejected cached binary for shader " + id + "; recompiling");
+            glDeleteProgram(program);
+            program = -1;
+            return false;
+        }
+        valid = true;
+        resolveActiveUniforms();
+        long elapsed = System.nanoTime() - start;
+        cachedCount++;
+        cacheLoadNanos += elapsed;
+        LOGGER.fine(
+                String.format("Loaded shader %s from binary cache in %.1fms", id, elapsed / 1e6));
+        return true;
+    }
+
+    private void storeInCache(ProgramBinaryCache cache, String key) {
+        int length = glGetProgrami(program, GL_PROGRAM_BINARY_LENGTH);
+        if (length <= 0) {
+            return;
+        }
+        ByteBuffer binary = MemoryUtil.memAlloc(length);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer written = stack.mallocInt(1);
+            IntBuffer format = stack.mallocInt(1);
+            glGetProgramBinary(program, written, format, binary);
+            binary.limit(written.get(0));
+            cache.store(id, key, format.get(0), binary);
+        } finally {
+            MemoryUtil.memFree(binary);
+        }
+    }
+
+    /**
+     * The process-wide binary cache, resolved on first use (needs the GL context): null when
+     * disabled or when the driver offers no binary formats.
+     */
+    private static ProgramBinaryCache binaryCache() {
+        if (!binaryCacheResolved) {
+            binaryCacheResolved = true;
+            binaryCache = ProgramBinaryCache.fromSystemProperty();
+            if (binaryCache != null && glGetInteger(GL_NUM_PROGRAM_BINARY_FORMATS) == 0) {
+                LOGGER.info("Driver supports no program binary formats; shader cache disabled");
+                binaryCache = null;
+            }
+            driverIdentity =
+                    glGetString(GL_VENDOR)
+                            + '\n'
+                            + glGetString(GL_RENDERER)
+                            + '\n'
+                            + glGetString(GL_VERSION);
+        }
+        return binaryCache;
+    }
+
+    /** Log how many programs were compiled versus loaded from the binary cache, and the time. */
+    public static void logLoadSummary() {
+        LOGGER.info(
+                String.format(
+                        "Shader programs: %d compiled in %.1fms, %d loaded from binary cache in"
+                                + " %.1fms%s",
+                        compiledCount,
+                        compileNanos / 1e6,
+                        cachedCount,
+                        cacheLoadNanos / 1e6,
+                        rejectedCount > 0
+                                ? " (" + rejectedCount + " cached binaries rejected)"
+                                : ""));
+    }
+
+    /**
+     * Insert {@code #define} lines directly after the {@code #version} directive (which must stay
+     * first). A trailing {@code #line} directive keeps compiler error line numbers matching the
+     * source file.
+     */
+    static String injectDefines(String source, List<String> defines) {
+        if (defines.isEmpty()) return source;
+
+        StringBuilder header = new StringBuilder();
+        for (String define : defines) {
+            header.append("#define ").append(define).append('\n');
+        }
+
+        int versionStart = source.indexOf("#version");
+        if (versionStart < 0) {
+            return header.append("#line 1\n").append(source).toString();
+        }
+
+        int lineEnd = source.indexOf('\n', versionStart);
+        if (lineEnd < 0) {
+            return source + "\n" + header;
+        }
+
+        // #line sets the number of the line that follows it: the one after #version
+        int nextLine = 2;
+        for (int i = 0; i < versionStart; i++) {
+            if (source.charAt(i) == '\n') nextLine++;
+        }
+        return source.substring(0, lineEnd + 1)
+                + header
+                + "#line "
+                + nextLine
+                + '\n'
+                + source.substring(lineEnd + 1);
+    }
+
+    /**
+     * Resolve every active uniform's location right after linking so handle creation and
+     * name lookups never query the driver. Array uniforms are also registered without their
+     * "[0]" suffix; uniforms inside blocks have no location and are skipped.
+     */
+    private void resolveActiveUniforms() {
+        int count = glGetProgrami(program, GL_ACTIVE_UNIFORMS);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer size = stack.mallocInt(1);
+            IntBuffer type = stack.mallocInt(1);
+            for (int i = 0; i < count; i++) {
+                String name = glGetActiveUniform(program, i, size, type);
+                int location = glGetUniformLocation(program, name);
+                if (location == -1) continue;
+                uniformLocations.put(name, location);
+                if (name.endsWith("[0]")) {
+                    uniformLocations.put(name.substring(0, name.length() - 3), location);
+                }
+            }
+        }
+    }
+
     private String loadShaderSource(String path) {
         try (InputStream is = getClass().getResourceAsStream(path)) {
             if (is == null) {
@@ -123,11 +334,11 @@ public class Shader {
             LOGGER.warning("Attempting to use invalid shader: " + id);
             return;
         }
-        glUseProgram(program);
+        GLState.useProgram(program);
     }
 
     public static void unuse() {
-        glUseProgram(0);
+        GLState.useProgram(0);
     }
 
     public int getUniformLocation(String name) {
@@ -148,66 +359,100 @@ public class Shader {
                 });
     }
 
+    // Typed uniform handles — resolved once, cached per name
+
+    public Uniform.Int intUniform(String name) {
+        return uniform(name, Uniform.Int.class, Uniform.Int::new);
+    }
+
+    public Uniform.Float floatUniform(String name) {
+        return uniform(name, Uniform.Float.class, Uniform.Float::new);
+    }
+
+    public Uniform.Vec2 vec2Uniform(String name) {
+        return uniform(name, Uniform.Vec2.class, Uniform.Vec2::new);
+    }
+
+    public Uniform.Vec3 vec3Uniform(String name) {
+        return uniform(name, Uniform.Vec3.class, Uniform.Vec3::new);
+    }
+
+    public Uniform.Vec4 vec4Uniform(String name) {
+        return uniform(name, Uniform.Vec4.class, Uniform.Vec4::new);
+    }
+
+    public Uniform.Mat3 mat3Uniform(String name) {
+        return uniform(name, Uniform.Mat3.class, Uniform.Mat3::new);
+    }
+
+    public Uniform.Mat4 mat4Uniform(String name) {
+        return uniform(name, Uniform.Mat4.class, Uniform.Mat4::new);
+    }
+
+    private <U extends Uniform> U uniform(
+            String name, Class<U> type, BiFunction<String, Integer, U> factory) {
+        Uniform existing = uniforms.get(name);
+        if (existing == null) {
+            U created = factory.apply(name, getUniformLocation(name));
+            uniforms.put(name, created);
+            return created;
+        }
+        if (!type.isInstance(existing)) {
+            throw new IllegalArgumentException(
+                    "Uniform '"
+                            + name
+                            + "' in shader "
+                            + id
+                            + " is already a "
+                            + existing.getClass().getSimpleName()
+                            + ", not a "
+                            + type.getSimpleName());
+        }
+        return type.cast(existing);
+    }
+
     public Shader setUniform(String name, int value) {
-        int loc = getUniformLocation(name);
-        if (loc != -1) glUniform1i(loc, value);
+        intUniform(name).set(value);
         return this;
     }
 
     public Shader setUniform(String name, float value) {
-        int loc = getUniformLocation(name);
-        if (loc != -1) glUniform1f(loc, value);
+        floatUniform(name).set(value);
         return this;
     }
 
     public Shader setUniform(String name, boolean value) {
-        int loc = getUniformLocation(name);
-        if (loc != -1) glUniform1i(loc, value ? 1 : 0);
+        intUniform(name).set(value);
         return this;
     }
 
     public Shader setUniform(String name, Vector2f value) {
         if (value == null) return this;
-        int loc = getUniformLocation(name);
-        if (loc != -1) glUniform2f(loc, value.x, value.y);
+        vec2Uniform(name).set(value);
         return this;
     }
 
     public Shader setUniform(String name, Vector3f value) {
         if (value == null) return this;
-        int loc = getUniformLocation(name);
-        if (loc != -1) glUniform3f(loc, value.x, value.y, value.z);
+        vec3Uniform(name).set(value);
         return this;
     }
 
     public Shader setUniform(String name, Vector4f value) {
         if (value == null) return this;
-        int loc = getUniformLocation(name);
-        if (loc != -1) glUniform4f(loc, value.x, value.y, value.z, value.w);
+        vec4Uniform(name).set(value);
         return this;
     }
 
     public Shader setUniform(String name, Matrix3f value) {
         if (value == null) return this;
-        int loc = getUniformLocation(name);
-        if (loc == -1) return this;
-        try (MemoryStack stack = MemoryStack.stackPush()) {
-            FloatBuffer buffer = stack.mallocFloat(9);
-            value.get(buffer);
-            glUniformMatrix3fv(loc, false, buffer);
-        }
+        mat3Uniform(name).set(value);
         return this;
     }
 
     public Shader setUniform(String name, Matrix4f value) {
         if (value == null) return this;
-        int loc = getUniformLocation(name);
-        if (loc == -1) return this;
-        try (MemoryStack stack = MemoryStack.stackPush()) {
-            FloatBuffer buffer = stack.mallocFloat(16);
-            value.get(buffer);
-            glUniformMatrix4fv(loc, false, buffer);
-        }
+        mat4Uniform(name).set(value);
         return this;
     }
 
@@ -215,6 +460,11 @@ public class Shader {
         return id;
     }
 
+    /** Preprocessor defines this program was compiled with (empty for the base program). */
+    public List<String> getDefines() {
+        return defines;
+    }
+
     public boolean isValid() {
         return valid && program != -1;
     }
@@ -229,11 +479,12 @@ public class Shader {
 
     public void dispose() {
         if (program != -1) {
-            glDeleteProgram(program);
+            GLState.deleteProgram(program);
             program = -1;
             valid = false;
             uniformLocations.clear();
             attributeLocations.clear();
+            uniforms.clear();
             LOGGER.fine("Disposed shader: " + id);
         }
     }
@@ -0,0 +1,93 @@
+package com.jda.orrery.graphics.resources;
+
+import com.jda.orrery.core.logging.Logging;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * A family of specialized programs compiled from one shader source: each key adds its own {@code
+ * #define} to a common define list, so the preprocessor folds the runtime branches the key fixes.
+ * Programs come from {@link ResourceManager#getShaderVariant} and are owned by it.
+ *
+ * Every key resolves to a program. Keys that were not requested, keys without a define and
+ * variants that fail to compile all resolve to the general program the family was built around,
+ * which the source must keep able to render anything its variants can.
+ *
+ * @param <K> variant keys; constant order is free for the caller to use as a draw order
+ */
+public final class ShaderVariants<K extends Enum<K> & ShaderVariants.Key> {
+    private static final Logger LOGGER = Logging.logger(ShaderVariants.class);
+
+    /** One specialization of a shader. */
+    public interface Key {
+        /** The define selecting this variant, or null for the general program. */
+        String define();
+    }
+
+    private final Shader general;
+    private final Shader[] programs;
+    private int specializedCount = 0;
+
+    /**
+     * Compile the requested variants of {@code name}.
+     *
+     * @param general the program compiled from {@code name} with {@code baseDefines} alone
+     * @param keyType key enum, sizing the lookup table
+     * @param requested variants to compile; empty for a family that is only the general program
+     */
+    public ShaderVariants(
+            ResourceManager resources,
+            String name,
+            List<String> baseDefines,
+            Shader general,
+            Class<K> keyType,
+            Collection<K> requested) {
+        this.general = general;
+        this.programs = new Shader[keyType.getEnumConstants().length];
+        for (K key : requested) {
+            String define = key.define();
+            if (define == null) {
+                continue;
+            }
+            List<String> defines = new ArrayList<>(baseDefines);
+            defines.add(define);
+            Shader variant = resources.getShaderVariant(name, defines.toArray(new String[0]));
+            if (variant != null && variant.isValid()) {
+                programs[key.ordinal()] = variant;
+                specializedCount++;
+            } else {
+                LOGGER.warning(
+                        "Shader variant " + define + " of " + name + " unavailable; using general");
+            }
+        }
+    }
+
+    /** The program to draw {@code key}'s bodies with. */
+    public Shader get(K key) {
+        Shader program = programs[key.ordinal()];
+        return program != null ? program : general;
+    }
+
+    /** True if {@code key} has its own program rather than the general one. */
+    public boolean isSpecialized(K key) {
+        return programs[key.ordinal()] != null;
+    }
+
+    /** Number of keys with their own program. */
+    public int getSpecializedCount() {
+        return specializedCount;
+    }
+
+    /** Visit each distinct program once, the general one first (e.g. to link uniform blocks). */
+    public void forEachProgram(Consumer<Shader> action) {
+        action.accept(general);
+        for (Shader program : programs) {
+            if (program != null) {
+                action.accept(program);
+            }
+        }
+    }
+}
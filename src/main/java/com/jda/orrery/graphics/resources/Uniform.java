@@ -0,0 +1,256 @@
+package com.jda.orrery.graphics.resources;
+
+import static org.lwjgl.opengl.GL20.*;
+
+import java.util.Arrays;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+/**
+ * Typed handle to one uniform of one shader program, obtained from {@link Shader} (e.g. {@link
+ * Shader#intUniform}). The location is resolved once; {@code set} keeps a shadow copy of the last
+ * value written and skips the GL call when the value has not changed.
+ *
+ * Uniform values are program state and survive glUseProgram switches, so the shadow copy stays
+ * valid for the life of the program. As with {@code glUniform*}, the owning program must be in use
+ * when {@code set} is called. Handles for uniforms the linker removed (location -1) are inert.
+ *
+ * Issued/skipped counts are process-wide and render-thread only; {@link
+ * com.jda.orrery.graphics.core.DrawContext} folds them into FrameStatistics each frame.
+ */
+public abstract class Uniform {
+    private static int issuedCount = 0;
+    private static int skippedCount = 0;
+
+    protected final String name;
+    protected final int location;
+    protected boolean written = false;
+
+    Uniform(String name, int location) {
+        this.name = name;
+        this.location = location;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLocation() {
+        return location;
+    }
+
+    /** True if the uniform survived linking; inactive handles ignore writes. */
+    public boolean isActive() {
+        return location != -1;
+    }
+
+    /** Forget the shadow copy so the next write is always issued (e.g. after a relink). */
+    public void invalidate() {
+        written = false;
+    }
+
+    protected static void issued() {
+        issuedCount++;
+    }
+
+    protected static void skipped() {
+        skippedCount++;
+    }
+
+    /** glUniform* calls issued through handles since the last {@link #resetCounters()}. */
+    public static int getIssuedCount() {
+        return issuedCount;
+    }
+
+    /** Writes skipped because the shadow copy already held the value. */
+    public static int getSkippedCount() {
+        return skippedCount;
+    }
+
+    public static void resetCounters() {
+        issuedCount = 0;
+        skippedCount = 0;
+    }
+
+    /** int, bool and sampler uniforms. */
+    public static final class Int extends Uniform {
+        private int value;
+
+        Int(String name, int location) {
+            super(name, location);
+        }
+
+        public void set(int v) {
+            if (location == -1) return;
+            if (written && value == v) {
+                skipped();
+                return;
+            }
+            value = v;
+            written = true;
+            glUniform1i(location, v);
+            issued();
+        }
+
+        public void set(boolean v) {
+            set(v ? 1 : 0);
+        }
+    }
+
+    /** float uniforms. */
+    public static final class Float extends Uniform {
+        private float value;
+
+        Float(String name, int location) {
+            super(name, location);
+        }
+
+        public void set(float v) {
+            if (location == -1) return;
+            if (written && value == v) {
+                skipped();
+                return;
+            }
+            value = v;
+            written = true;
+            glUniform1f(location, v);
+            issued();
+        }
+    }
+
+    /** vec2 uniforms. */
+    public static final class Vec2 extends Uniform {
+        private float x;
+        private float y;
+
+        Vec2(String name, int location) {
+            super(name, location);
+        }
+
+        public void set(float vx, float vy) {
+            if (location == -1) return;
+            if (written && x == vx && y == vy) {
+                skipped();
+                return;
+            }
+            x = vx;
+            y = vy;
+            written = true;
+            glUniform2f(location, vx, vy);
+            issued();
+        }
+
+        public void set(Vector2f v) {
+            set(v.x, v.y);
+        }
+    }
+
+    /** vec3 uniforms. */
+    public static final class Vec3 extends Uniform {
+        private float x;
+        private float y;
+        private float z;
+
+        Vec3(String name, int location) {
+            super(name, location);
+        }
+
+        public void set(float vx, float vy, float vz) {
+            if (location == -1) return;
+            if (written && x == vx && y == vy && z == vz) {
+                skipped();
+                return;
+            }
+            x = vx;
+            y = vy;
+            z = vz;
+            written = true;
+            glUniform3f(location, vx, vy, vz);
+            issued();
+        }
+
+        public void set(Vector3f v) {
+            set(v.x, v.y, v.z);
+        }
+    }
+
+    /** vec4 uniforms. */
+    public static final class Vec4 extends Uniform {
+        private float x;
+        private float y;
+        private float z;
+        private float w;
+
+        Vec4(String name, int location) {
+            super(name, location);
+        }
+
+        public void set(float vx, float vy, float vz, float vw) {
+            if (location == -1) return;
+            if (written && x == vx && y == vy && z == vz && w == vw) {
+                skipped();
+                return;
+            }
+            x = vx;
+            y = vy;
+            z = vz;
+            w = vw;
+            written = true;
+            glUniform4f(location, vx, vy, vz, vw);
+            issued();
+        }
+
+        public void set(Vector4f v) {
+            set(v.x, v.y, v.z, v.w);
+        }
+    }
+
+    /** mat3 uniforms (column-major, as JOML stores them). */
+    public static final class Mat3 extends Uniform {
+        private final float[] value = new float[9];
+        private final float[] scratch = new float[9];
+
+        Mat3(String name, int location) {
+            super(name, location);
+        }
+
+        public void set(Matrix3f m) {
+            if (location == -1) return;
+            m.get(scratch);
+            if (written && Arrays.equals(value, scratch)) {
+                skipped();
+                return;
+            }
+            System.arraycopy(scratch, 0, value, 0, 9);
+            written = true;
+            glUniformMatrix3fv(location, false, value);
+            issued();
+        }
+    }
+
+    /** mat4 uniforms (column-major, as JOML stores them). */
+    public static final class Mat4 extends Uniform {
+        private final float[] value = new float[16];
+        private final float[] scratch = new float[16];
+
+        Mat4(String name, int location) {
+            super(name, location);
+        }
+
+        public void set(Matrix4f m) {
+            if (location == -1) return;
+            m.get(scratch);
+            if (written && Arrays.equals(value, scratch)) {
+                skipped();
+                return;
+            }
+            System.arraycopy(scratch, 0, value, 0, 16);
+            written = true;
+            glUniformMatrix4fv(location, false, value);
+            issued();
+        }
+    }
+}
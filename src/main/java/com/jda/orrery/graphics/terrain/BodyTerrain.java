@@ -0,0 +1,46 @@
+package com.jda.orrery.graphics.terrain;
+
+/**
+ * Terrain state for one body: its heightfield (loaded on a worker thread), the tile table of its
+ * six quadtrees, and the always-resident root tiles. Roots are the four level-1 tiles of each cube
+ * face, so the poles and the prime meridian fall on tile boundaries from the start.
+ */
+final class BodyTerrain {
+    static final int ROOT_LEVEL = 1;
+    static final int ROOT_COUNT = CubeSphere.FACES * 4;
+
+    final String bodyId;
+    final double heightScale;
+
+    // Set by the loader thread; null until loaded (or forever, if there is no usable data)
+    volatile ElevationMap elevation;
+    volatile boolean unavailable = false;
+
+    // Render-thread state
+    int maxLevel = ROOT_LEVEL;
+    final TileTable tiles = new TileTable(256);
+    final TerrainTile[] roots = new TerrainTile[ROOT_COUNT];
+    boolean rootsRequested = false;
+    int residentRoots = 0;
+
+    /**
+     * @param heightScale unit-sphere units per metre of elevation (exaggeration / radius in m)
+     */
+    BodyTerrain(String bodyId, double heightScale) {
+        this.bodyId = bodyId;
+        this.heightScale = heightScale;
+    }
+
+    /** Every root tile is on the GPU, so the body can be drawn entirely from terrain. */
+    boolean isDrawable() {
+        return residentRoots == ROOT_COUNT;
+    }
+
+    /** Deepest useful level: one grid cell per elevation texel, capped at {@link TileKey}. */
+    static int maxLevelFor(ElevationMap elevation) {
+        // A face spans a quarter of the map width; each tile level halves the cell size
+        double cellsAcrossFace = elevation.getWidth() / 4.0 / (TerrainTileData.GRID - 1);
+        int level = (int) Math.floor(Math.log(cellsAcrossFace) / Math.log(2.0));
+        return Math.max(ROOT_LEVEL, Math.min(16, level));
+    }
+}
@@ -0,0 +1,79 @@
+package com.jda.orrery.graphics.terrain;
+
+import org.joml.Vector3d;
+
+/**
+ * Cube-to-sphere mapping for terrain tiles. Six faces, each parametrized by (s, t) in [-1, 1]
+ * with s × t along the outward normal, so a grid indexed (s, t) winds counter-clockwise seen from
+ * outside. Body-fixed convention: Z-up (north pole), X through prime meridian.
+ *
+ * The prime meridian (+X, y = 0) runs along s = 0 on the +X face and the poles sit at the centres
+ * of the ±Z faces, so from level 1 down both fall on tile edges and corners — no tile straddles
+ * the equirectangular seam. Pure math — no GL context required.
+ */
+final class CubeSphere {
+    static final int FACES = 6;
+
+    private CubeSphere() {}
+
+    /**
+     * Point on the unit sphere for face coordinates. Uses the "spherified cube" mapping, which
+     * keeps tile areas within a factor of ~1.5 of each other instead of the ~5 of plain
+     * normalization.
+     */
+    static Vector3d toSphere(int face, double s, double t, Vector3d out) {
+        double x;
+        double y;
+        double z;
+        switch (face) {
+            case 0: // +X
+                x = 1.0;
+                y = s;
+                z = t;
+                break;
+            case 1: // -X
+                x = -1.0;
+                y = -s;
+                z = t;
+                break;
+            case 2: // +Y
+                x = -s;
+                y = 1.0;
+                z = t;
+                break;
+            case 3: // -Y
+                x = s;
+                y = -1.0;
+                z = t;
+                break;
+            case 4: // +Z
+                x = s;
+                y = t;
+                z = 1.0;
+                break;
+            default: // -Z
+                x = t;
+                y = s;
+                z = -1.0;
+                break;
+        }
+        double x2 = x * x;
+        double y2 = y * y;
+        double z2 = z * z;
+        out.set(
+                x * Math.sqrt(1.0 - y2 / 2.0 - z2 / 2.0 + y2 * z2 / 3.0),
+                y * Math.sqrt(1.0 - z2 / 2.0 - x2 / 2.0 + z2 * x2 / 3.0),
+                z * Math.sqrt(1.0 - x2 / 2.0 - y2 / 2.0 + x2 * y2 / 3.0));
+        return out.normalize();
+    }
+
+    /** Face coordinate of a tile's lower edge: tiles at {@code level} split [-1, 1] evenly. */
+    static double tileOrigin(int level, int index) {
+        return -1.0 + 2.0 * index / (1 << level);
+    }
+
+    /** Width of a tile in face coordinates. */
+    static double tileSize(int level) {
+        return 2.0 / (1 << level);
+    }
+}
@@ -0,0 +1,71 @@
+package com.jda.orrery.graphics.terrain;
+
+/**
+ * Equirectangular 16-bit heightfield for one body. Samples are unsigned and map linearly onto the
+ * dataset's [minMeters, maxMeters] relief range. Column 0 is the prime meridian with longitude
+ * increasing east, row 0 the north pole — the same orientation as the body's colour texture.
+ *
+ * Immutable after construction, so worker threads sample it without locking. Pure math — no GL
+ * context required.
+ */
+final class ElevationMap {
+    private final short[] samples;
+    private final int width;
+    private final int height;
+    private final double minMeters;
+    private final double metersPerStep;
+
+    ElevationMap(short[] samples, int width, int height, double minMeters, double maxMeters) {
+        if (samples.length != width * height) {
+            throw new IllegalArgumentException(
+                    "Expected " + width * height + " samples, got " + samples.length);
+        }
+        this.samples = samples;
+        this.width = width;
+        this.height = height;
+        this.minMeters = minMeters;
+        this.metersPerStep = (maxMeters - minMeters) / 65535.0;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Bilinear height in metres at a colatitude/longitude. Longitude wraps; colatitude clamps at
+     * the poles.
+     *
+     * @param theta colatitude from the north pole, 0 to π
+     * @param phi longitude east of the prime meridian, any range
+     */
+    double sampleMeters(double theta, double phi) {
+        double u = phi / (2.0 * Math.PI) * width - 0.5;
+        double v = theta / Math.PI * height - 0.5;
+
+        double fu = Math.floor(u);
+        double fv = Math.floor(v);
+        double du = u - fu;
+        double dv = v - fv;
+
+        int x0 = Math.floorMod((int) fu, width);
+        int x1 = x0 + 1 == width ? 0 : x0 + 1;
+        int y0 = clampRow((int) fv);
+        int y1 = clampRow((int) fv + 1);
+
+        double top = raw(x0, y0) * (1.0 - du) + raw(x1, y0) * du;
+        double bottom = raw(x0, y1) * (1.0 - du) + raw(x1, y1) * du;
+        return minMeters + (top * (1.0 - dv) + bottom * dv) * metersPerStep;
+    }
+
+    private int clampRow(int row) {
+        return row < 0 ? 0 : (row >= height ? height - 1 : row);
+    }
+
+    private int raw(int x, int y) {
+        return samples[y * width + x] & 0xFFFF;
+    }
+}
@@ -0,0 +1,569 @@
+package com.jda.orrery.graphics.terrain;
+
+import static org.lwjgl.opengl.GL11.GL_FLOAT;
+import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_INT;
+import static org.lwjgl.opengl.GL11.glDrawElements;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+
+import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.graphics.core.GLState;
+import com.jda.orrery.graphics.textures.TextureData;
+import com.jda.orrery.graphics.textures.TextureResolver;
+import com.jda.orrery.graphics.textures.loaders.PNGLoader;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4d;
+import org.joml.Matrix4fc;
+import org.joml.Vector3d;
+import org.lwjgl.stb.STBImage;
+
+/**
+ * Chunked cube-sphere terrain for close-up views of bodies with an ELEVATION layer.
+ *
+ * Each body gets six quadtrees of {@link TerrainTileData} tiles. Every frame the trees are walked
+ * from the roots: a tile splits when its geometric error, projected to the screen, exceeds
+ * {@code orrery.terrainErrorPx}, and merges back only once it falls below {@link #MERGE_FRACTION}
+ * of that, so tiles do not flicker at the threshold. A tile only splits once all four children
+ * are resident; until then it keeps drawing and the missing children are built on worker
+ * threads.
+ *
+ * Frame cost is bounded independent of zoom: at most {@link #MAX_REQUESTS_PER_FRAME} builds are
+ * queued and {@link #MAX_UPLOADS_PER_FRAME} tiles uploaded per frame, and resident vertices are
+ * held under {@code orrery.terrainVertexBudget} by evicting the least recently used tiles.
+ *
+ * Tiles are in the body's unit-sphere model space with the {@code SphereMesh} vertex layout, so
+ * the caller draws them with the body's shader and UBO block in place of the sphere mesh.
+ */
+public final class TerrainRenderer {
+    private static final Logger LOGGER = Logging.logger(TerrainRenderer.class);
+
+    static final double MERGE_FRACTION = 0.7;
+    static final int MAX_REQUESTS_PER_FRAME = 16;
+    static final int MAX_UPLOADS_PER_FRAME = 8;
+    private static final int MAX_IN_FLIGHT = 64;
+
+    private static final int STRIDE = TerrainTileData.FLOATS_PER_VERTEX * Float.BYTES;
+
+    // Elevation dataset relief ranges in metres; 16-bit samples map linearly onto them. Bodies
+    // without an entry never get terrain.
+    private static final Map<String, double[]> RELIEF_METERS =
+            Map.of(
+                    "mercury", new double[] {-5380.0, 4480.0}, // MESSENGER MLA/stereo
+                    "earth", new double[] {-10994.0, 8848.0}, // GEBCO bathymetry + topography
+                    "moon", new double[] {-9130.0, 10786.0}, // LRO LOLA
+                    "mars", new double[] {-8200.0, 21229.0}); // MGS MOLA
+
+    private final float errorTolerancePx = resolveFloatProperty("orrery.terrainErrorPx", 2.0f);
+    private final long vertexBudget =
+            resolveLongProperty("orrery.terrainVertexBudget", 1_500_000L);
+    private final double exaggeration =
+            resolveFloatProperty("orrery.terrainExaggeration", 1.0f);
+
+    // Same texture root as HybridTextureBackend; the ELEVATION layer is only used here
+    private final TextureResolver resolver =
+            new TextureResolver(Paths.get("src/main/resources/textures"));
+    private final ExecutorService workers;
+    private final ConcurrentLinkedQueue<TerrainTile> built = new ConcurrentLinkedQueue<>();
+    private final Map<String, BodyTerrain> bodies = new HashMap<>();
+    private int indexBuffer;
+
+    // LRU of resident non-root tiles, most recently used at the head
+    private TerrainTile lruHead;
+    private TerrainTile lruTail;
+
+    private long frame = 0;
+    private int inFlight = 0;
+    private int requestsThisFrame = 0;
+    private int residentTiles = 0;
+    private long residentVertices = 0;
+    private long evictedTiles = 0;
+
+    // Frame-wide selection; each body's tiles are a contiguous run
+    private TerrainTile[] selected = new TerrainTile[256];
+    private int selectedCount = 0;
+
+    // Traversal work (zero allocation per frame)
+    private final Matrix4d modelToCamera = new Matrix4d();
+    private final Vector3d cameraModel = new Vector3d();
+    private final FrustumIntersection frustum = new FrustumIntersection();
+    private final TerrainTile[] childScratch = new TerrainTile[4];
+    private float pixelsPerTangent;
+
+    public TerrainRenderer() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers =
+                Executors.newFixedThreadPool(
+                        threads,
+                        runnable -> {
+                            Thread thread =
+                                    new Thread(
+                                            runnable,
+                                            "terrain-worker-" + threadIndex.incrementAndGet());
+                            thread.setDaemon(true);
+                            thread.setPriority(Thread.NORM_PRIORITY - 1);
+                            return thread;
+                        });
+
+        indexBuffer = glGenBuffers();
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, indexBuffer);
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, TerrainTileData.buildIndices(), GL_STATIC_DRAW);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+
+        LOGGER.info(
+                String.format(
+                        "TerrainRenderer initialized (%d workers, %.1f px error, %d vertex budget)",
+                        threads, errorTolerancePx, vertexBudget));
+    }
+
+    /**
+     * Start a frame: upload a bounded number of finished tiles and evict down to the vertex
+     * budget. Call once before any {@link #select}.
+     */
+    public void beginFrame() {
+        frame++;
+        requestsThisFrame = 0;
+        selectedCount = 0;
+
+        for (int i = 0; i < MAX_UPLOADS_PER_FRAME; i++) {
+            TerrainTile tile = built.poll();
+            if (tile == null) break;
+            inFlight--;
+            upload(tile);
+        }
+        evictToBudget();
+    }
+
+    /**
+     * Whether a body can be drawn from terrain this frame. The first call for a body with a known
+     * relief range starts loading its elevation data in the background; once that is done the
+     * root tiles are requested, and the body becomes drawable when all of them are resident.
+     *
+     * @param radiusKm the body's equatorial radius, for the metres-to-model-units scale
+     */
+    public boolean hasTerrain(String bodyId, double radiusKm) {
+        BodyTerrain terrain = bodies.get(bodyId);
+        if (terrain == null) {
+            terrain = startLoading(bodyId, radiusKm);
+            bodies.put(bodyId, terrain);
+        }
+        if (terrain.unavailable || terrain.elevation == null) {
+            return false;
+        }
+        if (!terrain.rootsRequested) {
+            requestRoots(terrain);
+        }
+        return terrain.isDrawable();
+    }
+
+    /**
+     * Choose the tiles to draw for a body; only valid after {@link #hasTerrain} returned true
+     * this frame. Appends to the frame's selection.
+     *
+     * @param modelView body model-view matrix (the body is the unit sphere in model space)
+     * @param mvp body model-view-projection matrix, for frustum tests in model space
+     * @param pixelsPerTangent viewport height / 2 / tan(fovY / 2)
+     * @return the number of tiles selected, starting at the previous {@link #getSelectedCount()}
+     */
+    public int select(String bodyId, Matrix4d modelView, Matrix4fc mvp, float pixelsPerTangent) {
+        BodyTerrain terrain = bodies.get(bodyId);
+        int start = selectedCount;
+        if (terrain == null || !terrain.isDrawable()) {
+            return 0;
+        }
+
+        modelView.invertAffine(modelToCamera);
+        modelToCamera.transformPosition(cameraModel.set(0.0, 0.0, 0.0));
+        frustum.set(mvp, false);
+        this.pixelsPerTangent = pixelsPerTangent;
+
+        for (TerrainTile root : terrain.roots) {
+            visit(terrain, root);
+        }
+        return selectedCount - start;
+    }
+
+    /**
+     * Draw a run of selected tiles with whatever program and UBO block are bound.
+     *
+     * @return the number of triangles submitted
+     */
+    public long draw(int start, int count) {
+        for (int i = start; i < start + count; i++) {
+            GLState.bindVertexArray(selected[i].vao);
+            glDrawElements(GL_TRIANGLES, TerrainTileData.INDEX_COUNT, GL_UNSIGNED_INT, 0);
+        }
+        return (long) count * (TerrainTileData.INDEX_COUNT / 3);
+    }
+
+    public int getSelectedCount() {
+        return selectedCount;
+    }
+
+    public int getResidentTiles() {
+        return residentTiles;
+    }
+
+    public long getResidentVertices() {
+        return residentVertices;
+    }
+
+    /** Tiles queued or building on worker threads. */
+    public int getPendingTiles() {
+        return inFlight;
+    }
+
+    // Traversal
+
+    private void visit(BodyTerrain terrain, TerrainTile tile) {
+        tile.lastUsedFrame = frame;
+        touch(tile);
+
+        if (!frustum.testSphere(tile.centerX, tile.centerY, tile.centerZ, tile.radius)) {
+            tile.split = false;
+            return;
+        }
+
+        if (TileKey.level(tile.key) < terrain.maxLevel && wantsRefinement(tile)) {
+            TerrainTile[] children = childScratch;
+            if (gatherChildren(terrain, tile, children)) {
+                tile.split = true;
+                // Copy out before recursing: the scratch array is shared by every level
+                TerrainTile c0 = children[0];
+                TerrainTile c1 = children[1];
+                TerrainTile c2 = children[2];
+                TerrainTile c3 = children[3];
+                visit(terrain, c0);
+                visit(terrain, c1);
+                visit(terrain, c2);
+                visit(terrain, c3);
+                return;
+            }
+        }
+
+        tile.split = false;
+        if (selectedCount == selected.length) {
+            TerrainTile[] grown = new TerrainTile[selected.length * 2];
+            System.arraycopy(selected, 0, grown, 0, selectedCount);
+            selected = grown;
+        }
+        selected[selectedCount++] = tile;
+    }
+
+    /** Screen-space error test, with the lower merge threshold while the tile is split. */
+    private boolean wantsRefinement(TerrainTile tile) {
+        double dx = tile.centerX - cameraModel.x;
+        double dy = tile.centerY - cameraModel.y;
+        double dz = tile.centerZ - cameraModel.z;
+        double distance = Math.sqrt(dx * dx + dy * dy + dz * dz) - tile.radius;
+        if (distance <= 0.0) {
+            return true; // camera inside the tile's bounds
+        }
+        double errorPx = tile.geometricError / distance * pixelsPerTangent;
+        double limit = tile.split ? errorTolerancePx * MERGE_FRACTION : errorTolerancePx;
+        return errorPx > limit;
+    }
+
+    /**
+     * Look up the four children, requesting any that are missing.
+     *
+     * @return true if all four are resident
+     */
+    private boolean gatherChildren(BodyTerrain terrain, TerrainTile tile, TerrainTile[] out) {
+        boolean all = true;
+        for (int i = 0; i < 4; i++) {
+            long key = TileKey.child(tile.key, i);
+            TerrainTile child = terrain.tiles.get(key);
+            if (child == null) {
+                request(terrain, key);
+                all = false;
+            } else if (!child.isResident()) {
+                all = false;
+            }
+            out[i] = child;
+        }
+        return all;
+    }
+
+    // Streaming
+
+    private BodyTerrain startLoading(String bodyId, double radiusKm) {
+        double[] relief = RELIEF_METERS.get(bodyId.toLowerCase(Locale.ROOT));
+        BodyTerrain terrain =
+                new BodyTerrain(bodyId, radiusKm > 0.0 ? exaggeration / (radiusKm * 1000.0) : 0.0);
+        if (relief == null || radiusKm <= 0.0) {
+            terrain.unavailable = true;
+            return terrain;
+        }
+        workers.execute(() -> loadElevation(terrain, relief[0], relief[1]));
+        return terrain;
+    }
+
+    /** Worker thread: find and decode the body's 16-bit elevation PNG. */
+    private void loadElevation(BodyTerrain terrain, double minMeters, double maxMeters) {
+        try {
+            TextureResolver.ResolvedTexture resolved =
+                    resolver.resolve(
+                            terrain.bodyId,
+                            TextureResolver.TextureLayer.ELEVATION,
+                            Integer.MAX_VALUE);
+            // resolve() falls back to the visual layer; only real elevation data is usable
+            if (resolved == null || resolved.layer != TextureResolver.TextureLayer.ELEVATION) {
+                LOGGER.fine("No elevation data for " + terrain.bodyId);
+                terrain.unavailable = true;
+                return;
+            }
+            if (resolved.format != TextureResolver.TextureFormat.PNG) {
+                LOGGER.warning(
+                        "Elevation for " + terrain.bodyId + " must be a PNG: "
+                                + resolved.path);
+                terrain.unavailable = true;
+                return;
+            }
+
+            TextureData data = new PNGLoader().loadSync(resolved.path, resolved);
+            if (data == null || data.data16 == null) {
+                terrain.unavailable = true;
+                return;
+            }
+            short[] samples = new short[data.width * data.height];
+            data.data16.get(0, samples);
+            STBImage.stbi_image_free(data.data16);
+
+            ElevationMap elevation =
+                    new ElevationMap(samples, data.width, data.height, minMeters, maxMeters);
+            terrain.maxLevel = BodyTerrain.maxLevelFor(elevation);
+            terrain.elevation = elevation; // publishes maxLevel too (volatile write)
+            LOGGER.info(
+                    String.format(
+                            "Loaded elevation for %s: %dx%d, %d tile levels",
+                            terrain.bodyId, data.width, data.height, terrain.maxLevel));
+        } catch (Exception e) {
+            LOGGER.warning(
+                    "Failed to load elevation for " + terrain.bodyId + ": " + e.getMessage());
+            terrain.unavailable = true;
+        }
+    }
+
+    private void requestRoots(BodyTerrain terrain) {
+        terrain.rootsRequested = true;
+        int r = 0;
+        for (int face = 0; face < CubeSphere.FACES; face++) {
+            for (int i = 0; i < 4; i++) {
+                long key = TileKey.of(face, BodyTerrain.ROOT_LEVEL, i & 1, i >> 1);
+                terrain.roots[r++] = submit(terrain, key);
+            }
+        }
+    }
+
+    /** Queue a build unless this frame's request or in-flight limits are reached. */
+    private void request(BodyTerrain terrain, long key) {
+        if (requestsThisFrame >= MAX_REQUESTS_PER_FRAME || inFlight >= MAX_IN_FLIGHT) {
+            return;
+        }
+        requestsThisFrame++;
+        submit(terrain, key);
+    }
+
+    private TerrainTile submit(BodyTerrain terrain, long key) {
+        TerrainTile tile = new TerrainTile(terrain, key);
+        terrain.tiles.put(key, tile);
+        build(tile);
+        return tile;
+    }
+
+    private void build(TerrainTile tile) {
+        BodyTerrain terrain = tile.owner;
+        long key = tile.key;
+        ElevationMap elevation = terrain.elevation;
+        inFlight++;
+        workers.execute(
+                () -> {
+                    try {
+                        tile.data = TerrainTileData.build(key, elevation, terrain.heightScale);
+                    } catch (RuntimeException e) {
+                        LOGGER.warning("Terrain tile build failed: " + e.getMessage());
+                    }
+                    tile.state = TerrainTile.State.BUILT;
+                    built.add(tile);
+                });
+    }
+
+    private void upload(TerrainTile tile) {
+        TerrainTileData data = tile.data;
+        tile.data = null;
+        boolean root = TileKey.level(tile.key) == BodyTerrain.ROOT_LEVEL;
+        if (data == null) {
+            // Failed build: retry roots straight away, forget others until they are wanted again
+            tile.state = TerrainTile.State.PENDING;
+            if (root) {
+                build(tile);
+            } else {
+                tile.owner.tiles.remove(tile.key);
+            }
+            return;
+        }
+
+        tile.vao = glGenVertexArrays();
+        GLState.bindVertexArray(tile.vao);
+        tile.vbo = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, tile.vbo);
+        glBufferData(GL_ARRAY_BUFFER, data.vertices, GL_STATIC_DRAW);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, indexBuffer);
+
+        // Same attribute layout as SphereMesh: position, normal, (theta, phi)
+        glVertexAttribPointer(0, 3, GL_FLOAT, false, STRIDE, 0);
+        glEnableVertexAttribArray(0);
+        glVertexAttribPointer(1, 3, GL_FLOAT, false, STRIDE, 3 * Float.BYTES);
+        glEnableVertexAttribArray(1);
+        glVertexAttribPointer(2, 2, GL_FLOAT, false, STRIDE, 6 * Float.BYTES);
+        glEnableVertexAttribArray(2);
+        GLState.bindVertexArray(0);
+
+        tile.geometricError = data.geometricError;
+        tile.centerX = data.centerX;
+        tile.centerY = data.centerY;
+        tile.centerZ = data.centerZ;
+        tile.radius = data.radius;
+        tile.state = TerrainTile.State.RESIDENT;
+        tile.lastUsedFrame = frame;
+        residentTiles++;
+        residentVertices += TerrainTileData.VERTEX_COUNT;
+
+        if (root) {
+            tile.owner.residentRoots++; // roots never enter the LRU and are never evicted
+        } else {
+            linkHead(tile);
+        }
+    }
+
+    /** Evict least recently used tiles not visited last frame until under the vertex budget. */
+    private void evictToBudget() {
+        while (residentVertices > vertexBudget && lruTail != null) {
+            TerrainTile tile = lruTail;
+            if (tile.lastUsedFrame >= frame - 1) {
+                break; // everything left is in use; the budget is exceeded until the view changes
+            }
+            unlink(tile);
+            release(tile);
+            tile.owner.tiles.remove(tile.key);
+            evictedTiles++;
+        }
+    }
+
+    private void release(TerrainTile tile) {
+        GLState.deleteVertexArray(tile.vao);
+        glDeleteBuffers(tile.vbo);
+        tile.vao = 0;
+        tile.vbo = 0;
+        tile.state = TerrainTile.State.PENDING;
+        residentTiles--;
+        residentVertices -= TerrainTileData.VERTEX_COUNT;
+    }
+
+    // LRU list
+
+    private void touch(TerrainTile tile) {
+        if (tile == lruHead || (tile.lruPrev == null && tile.lruNext == null && tile != lruTail)) {
+            return; // already most recent, or not in the list (roots)
+        }
+        unlink(tile);
+        linkHead(tile);
+    }
+
+    private void linkHead(TerrainTile tile) {
+        tile.lruPrev = null;
+        tile.lruNext = lruHead;
+        if (lruHead != null) {
+            lruHead.lruPrev = tile;
+        }
+        lruHead = tile;
+        if (lruTail == null) {
+            lruTail = tile;
+        }
+    }
+
+    private void unlink(TerrainTile tile) {
+        if (tile.lruPrev != null) {
+            tile.lruPrev.lruNext = tile.lruNext;
+        } else {
+            lruHead = tile.lruNext;
+        }
+        if (tile.lruNext != null) {
+            tile.lruNext.lruPrev = tile.lruPrev;
+        } else {
+            lruTail = tile.lruPrev;
+        }
+        tile.lruPrev = null;
+        tile.lruNext = null;
+    }
+
+    /** Stop the workers and free every resident tile. */
+    public void dispose() {
+        workers.shutdownNow();
+        while (lruHead != null) {
+            TerrainTile tile = lruHead;
+            unlink(tile);
+            release(tile);
+        }
+        for (BodyTerrain terrain : bodies.values()) {
+            for (TerrainTile root : terrain.roots) {
+                if (root != null && root.isResident()) {
+                    release(root);
+                }
+            }
+        }
+        if (indexBuffer != 0) {
+            glDeleteBuffers(indexBuffer);
+            indexBuffer = 0;
+        }
+        LOGGER.info(
+                String.format(
+                        "TerrainRenderer disposed (%d tiles evicted over the session)",
+                        evictedTiles));
+    }
+
+    private static float resolveFloatProperty(String name, float fallback) {
+        String override = System.getProperty(name);
+        if (override != null) {
+            try {
+                float value = Float.parseFloat(override);
+                if (value > 0) {
+                    return value;
+                }
+                LOGGER.warning(name + " must be positive: " + override);
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid " + name + ": " + override);
+            }
+        }
+        return fallback;
+    }
+
+    private static long resolveLongProperty(String name, long fallback) {
+        String override = System.getProperty(name);
+        if (override != null) {
+            try {
+                long value = Long.parseLong(override);
+                if (value > 0) {
+                    return value;
+                }
+                LOGGER.warning(name + " must be positive: " + override);
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid " + name + ": " + override);
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,46 @@
+package com.jda.orrery.graphics.terrain;
+
+/**
+ * One quadtree node's lifecycle on the render thread: requested, built by a worker ({@link
+ * #data} set), then resident on the GPU until evicted. Also a link in the renderer's LRU list.
+ */
+final class TerrainTile {
+    enum State {
+        PENDING,
+        BUILT,
+        RESIDENT
+    }
+
+    final BodyTerrain owner;
+    final long key;
+    volatile State state = State.PENDING;
+
+    // Worker output; dropped after upload
+    volatile TerrainTileData data;
+
+    // GPU resources and the bounds/error kept after upload
+    int vao = 0;
+    int vbo = 0;
+    float geometricError;
+    float centerX;
+    float centerY;
+    float centerZ;
+    float radius;
+
+    // Traversal state: last frame the tile was visited, and whether it was refined then
+    long lastUsedFrame = -1;
+    boolean split = false;
+
+    // LRU links (most recently used at the head)
+    TerrainTile lruPrev;
+    TerrainTile lruNext;
+
+    TerrainTile(BodyTerrain owner, long key) {
+        this.owner = owner;
+        this.key = key;
+    }
+
+    boolean isResident() {
+        return state == State.RESIDENT;
+    }
+}
@@ -0,0 +1,334 @@
+package com.jda.orrery.graphics.terrain;
+
+import com.jda.orrery.graphics.geometry.SphereMesh;
+import org.joml.Vector3d;
+
+/**
+ * Geometry for one terrain tile, built on a worker thread by {@link #build}. Vertices use the
+ * {@link SphereMesh} layout (position, normal, theta/phi) in unit-sphere model space, so tiles
+ * draw with the body's own shader and UBO block.
+ *
+ * A tile is a {@link #GRID}×{@link #GRID} vertex grid displaced radially by elevation, plus a
+ * skirt hanging below each edge that hides cracks against neighbours at another level. Every
+ * tile has the same topology, so one index buffer ({@link #buildIndices()}) serves them all.
+ * Pure math — no GL context required.
+ */
+final class TerrainTileData {
+    static final int GRID = 33;
+    static final int FLOATS_PER_VERTEX = 8;
+    static final int VERTEX_COUNT = GRID * GRID + 4 * GRID;
+    static final int INDEX_COUNT = (GRID - 1) * (GRID - 1) * 6 + 4 * (GRID - 1) * 6;
+
+    private static final double TWO_PI = 2.0 * Math.PI;
+
+    final long key;
+    final float[] vertices;
+
+    /** Largest deviation from the true surface, in unit-sphere units. */
+    final float geometricError;
+
+    // Bounding sphere in unit-sphere model space
+    final float centerX;
+    final float centerY;
+    final float centerZ;
+    final float radius;
+
+    private TerrainTileData(
+            long key,
+            float[] vertices,
+            float geometricError,
+            float centerX,
+            float centerY,
+            float centerZ,
+            float radius) {
+        this.key = key;
+        this.vertices = vertices;
+        this.geometricError = geometricError;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.centerZ = centerZ;
+        this.radius = radius;
+    }
+
+    /**
+     * Build a tile.
+     *
+     * @param elevation heightfield, or null for a smooth sphere
+     * @param heightScale unit-sphere units per metre of elevation
+     */
+    static TerrainTileData build(long key, ElevationMap elevation, double heightScale) {
+        int face = TileKey.face(key);
+        int level = TileKey.level(key);
+        double size = CubeSphere.tileSize(level);
+        double s0 = CubeSphere.tileOrigin(level, TileKey.x(key));
+        double t0 = CubeSphere.tileOrigin(level, TileKey.y(key));
+        double step = size / (GRID - 1);
+
+        // Displaced positions with a one-sample border, so edge normals match the neighbour's
+        int b = GRID + 2;
+        double[] pos = new double[b * b * 3];
+        double[] theta = new double[GRID * GRID];
+        double[] phi = new double[GRID * GRID];
+        Vector3d dir = new Vector3d();
+        for (int j = -1; j <= GRID; j++) {
+            for (int i = -1; i <= GRID; i++) {
+                CubeSphere.toSphere(face, s0 + i * step, t0 + j * step, dir);
+                double th = Math.acos(Math.max(-1.0, Math.min(1.0, dir.z)));
+                double ph = Math.atan2(dir.y, dir.x);
+                if (ph < 0.0) ph += TWO_PI;
+                double r = 1.0 + height(elevation, th, ph) * heightScale;
+                int at = ((j + 1) * b + (i + 1)) * 3;
+                pos[at] = dir.x * r;
+                pos[at + 1] = dir.y * r;
+                pos[at + 2] = dir.z * r;
+                if (i >= 0 && i < GRID && j >= 0 && j < GRID) {
+                    theta[j * GRID + i] = th;
+                    phi[j * GRID + i] = ph;
+                }
+            }
+        }
+        fixLongitudes(face, s0 + size * 0.5, t0 + size * 0.5, theta, phi, dir);
+
+        // Bounding sphere around the grid
+        double cx = 0.0;
+        double cy = 0.0;
+        double cz = 0.0;
+        for (int j = 0; j < GRID; j++) {
+            for (int i = 0; i < GRID; i++) {
+                int at = ((j + 1) * b + (i + 1)) * 3;
+                cx += pos[at];
+                cy += pos[at + 1];
+                cz += pos[at + 2];
+            }
+        }
+        int n = GRID * GRID;
+        cx /= n;
+        cy /= n;
+        cz /= n;
+        double radius2 = 0.0;
+        for (int j = 0; j < GRID; j++) {
+            for (int i = 0; i < GRID; i++) {
+                int at = ((j + 1) * b + (i + 1)) * 3;
+                double dx = pos[at] - cx;
+                double dy = pos[at + 1] - cy;
+                double dz = pos[at + 2] - cz;
+                radius2 = Math.max(radius2, dx * dx + dy * dy + dz * dz);
+            }
+        }
+
+        // Geometric error: curvature between grid points (sagitta of a cell) plus the largest
+        // relief the grid misses at cell centres
+        double cellAngle = step * (Math.PI / 4.0);
+        double error = 1.0 - Math.cos(cellAngle * 0.5);
+        if (elevation != null) {
+            double maxMiss = 0.0;
+            for (int j = 0; j < GRID - 1; j++) {
+                for (int i = 0; i < GRID - 1; i++) {
+                    CubeSphere.toSphere(face, s0 + (i + 0.5) * step, t0 + (j + 0.5) * step, dir);
+                    double th = Math.acos(Math.max(-1.0, Math.min(1.0, dir.z)));
+                    double ph = Math.atan2(dir.y, dir.x);
+                    double actual = height(elevation, th, ph) * heightScale;
+                    double interpolated =
+                            (radialHeight(pos, b, i, j)
+                                            + radialHeight(pos, b, i + 1, j)
+                                            + radialHeight(pos, b, i, j + 1)
+                                            + radialHeight(pos, b, i + 1, j + 1))
+                                    * 0.25;
+                    maxMiss = Math.max(maxMiss, Math.abs(actual - interpolated));
+                }
+            }
+            error += maxMiss;
+        }
+
+        // Skirts drop far enough to cover the largest step to a coarser neighbour
+        double skirtDepth = Math.max(error * 2.0, cellAngle);
+
+        float[] vertices = new float[VERTEX_COUNT * FLOATS_PER_VERTEX];
+        double[] normal = new double[3];
+        for (int j = 0; j < GRID; j++) {
+            for (int i = 0; i < GRID; i++) {
+                computeNormal(pos, b, i, j, normal);
+                int v = j * GRID + i;
+                int at = ((j + 1) * b + (i + 1)) * 3;
+                putVertex(
+                        vertices,
+                        v,
+                        pos[at],
+                        pos[at + 1],
+                        pos[at + 2],
+                        normal,
+                        theta[v],
+                        phi[v],
+                        1.0);
+            }
+        }
+        for (int edge = 0; edge < 4; edge++) {
+            for (int k = 0; k < GRID; k++) {
+                int v = edgeVertex(edge, k);
+                int i = v % GRID;
+                int j = v / GRID;
+                computeNormal(pos, b, i, j, normal);
+                int at = ((j + 1) * b + (i + 1)) * 3;
+                putVertex(
+                        vertices,
+                        GRID * GRID + edge * GRID + k,
+                        pos[at],
+                        pos[at + 1],
+                        pos[at + 2],
+                        normal,
+                        theta[v],
+                        phi[v],
+                        1.0 - skirtDepth);
+            }
+        }
+
+        return new TerrainTileData(
+                key,
+                vertices,
+                (float) error,
+                (float) cx,
+                (float) cy,
+                (float) cz,
+                (float) Math.sqrt(radius2));
+    }
+
+    /**
+     * Shared index buffer: two counter-clockwise triangles per grid cell, then each skirt as a
+     * strip walked counter-clockwise around the tile so it faces outward.
+     */
+    static int[] buildIndices() {
+        int[] indices = new int[INDEX_COUNT];
+        int at = 0;
+        for (int j = 0; j < GRID - 1; j++) {
+            for (int i = 0; i < GRID - 1; i++) {
+                int v00 = j * GRID + i;
+                int v10 = v00 + 1;
+                int v01 = v00 + GRID;
+                int v11 = v01 + 1;
+                indices[at++] = v00;
+                indices[at++] = v10;
+                indices[at++] = v11;
+                indices[at++] = v00;
+                indices[at++] = v11;
+                indices[at++] = v01;
+            }
+        }
+        for (int edge = 0; edge < 4; edge++) {
+            int skirt = GRID * GRID + edge * GRID;
+            for (int k = 0; k < GRID - 1; k++) {
+                int a = edgeVertex(edge, k);
+                int b = edgeVertex(edge, k + 1);
+                indices[at++] = a;
+                indices[at++] = skirt + k;
+                indices[at++] = b;
+                indices[at++] = b;
+                indices[at++] = skirt + k;
+                indices[at++] = skirt + k + 1;
+            }
+        }
+        return indices;
+    }
+
+    /** Grid index of the k-th vertex along an edge, walking counter-clockwise from (0, 0). */
+    static int edgeVertex(int edge, int k) {
+        int last = GRID - 1;
+        switch (edge) {
+            case 0: // bottom, s increasing
+                return k;
+            case 1: // right, t increasing
+                return k * GRID + last;
+            case 2: // top, s decreasing
+                return last * GRID + (last - k);
+            default: // left, t decreasing
+                return (last - k) * GRID;
+        }
+    }
+
+    private static double height(ElevationMap elevation, double theta, double phi) {
+        return elevation != null ? elevation.sampleMeters(theta, phi) : 0.0;
+    }
+
+    private static double radialHeight(double[] pos, int b, int i, int j) {
+        int at = ((j + 1) * b + (i + 1)) * 3;
+        return Math.sqrt(pos[at] * pos[at] + pos[at + 1] * pos[at + 1] + pos[at + 2] * pos[at + 2])
+                - 1.0;
+    }
+
+    /** Central-difference normal from the bordered grid; (s, t) × order points outward. */
+    private static void computeNormal(double[] pos, int b, int i, int j, double[] out) {
+        int left = ((j + 1) * b + i) * 3;
+        int right = ((j + 1) * b + (i + 2)) * 3;
+        int down = (j * b + (i + 1)) * 3;
+        int up = ((j + 2) * b + (i + 1)) * 3;
+        double ux = pos[right] - pos[left];
+        double uy = pos[right + 1] - pos[left + 1];
+        double uz = pos[right + 2] - pos[left + 2];
+        double vx = pos[up] - pos[down];
+        double vy = pos[up + 1] - pos[down + 1];
+        double vz = pos[up + 2] - pos[down + 2];
+        double nx = uy * vz - uz * vy;
+        double ny = uz * vx - ux * vz;
+        double nz = ux * vy - uy * vx;
+        double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        out[0] = nx / length;
+        out[1] = ny / length;
+        out[2] = nz / length;
+    }
+
+    /**
+     * Make longitudes continuous across the tile. A tile touching the prime meridian from the
+     * west has its edge at phi = 0 and its interior near 2π; the edge is moved to 2π, matching
+     * the UV sphere's duplicated seam column. Pole vertices, where longitude is undefined, take
+     * the tile centre's longitude.
+     */
+    private static void fixLongitudes(
+            int face, double sc, double tc, double[] theta, double[] phi, Vector3d work) {
+        double min = TWO_PI;
+        double max = 0.0;
+        for (int v = 0; v < phi.length; v++) {
+            if (!isPole(theta[v])) {
+                min = Math.min(min, phi[v]);
+                max = Math.max(max, phi[v]);
+            }
+        }
+        boolean wraps = max - min > Math.PI;
+
+        CubeSphere.toSphere(face, sc, tc, work);
+        double centerPhi = Math.atan2(work.y, work.x);
+        if (centerPhi < 0.0) centerPhi += TWO_PI;
+        if (wraps && centerPhi < Math.PI) centerPhi += TWO_PI;
+
+        for (int v = 0; v < phi.length; v++) {
+            if (isPole(theta[v])) {
+                phi[v] = centerPhi;
+            } else if (wraps && phi[v] < Math.PI) {
+                phi[v] += TWO_PI;
+            }
+        }
+    }
+
+    private static boolean isPole(double theta) {
+        return theta < 1e-9 || theta > Math.PI - 1e-9;
+    }
+
+    private static void putVertex(
+            float[] vertices,
+            int index,
+            double x,
+            double y,
+            double z,
+            double[] normal,
+            double theta,
+            double phi,
+            double scale) {
+        int at = index * FLOATS_PER_VERTEX;
+        vertices[at] = (float) (x * scale);
+        vertices[at + 1] = (float) (y * scale);
+        vertices[at + 2] = (float) (z * scale);
+        vertices[at + 3] = (float) normal[0];
+        vertices[at + 4] = (float) normal[1];
+        vertices[at + 5] = (float) normal[2];
+        vertices[at + 6] = (float) theta;
+        vertices[at + 7] = (float) phi;
+    }
+}
@@ -0,0 +1,53 @@
+package com.jda.orrery.graphics.terrain;
+
+/**
+ * Quadtree tile addresses packed into a {@code long}, so traversal and lookup never allocate.
+ *
+ * Layout: y in bits 0-19, x in bits 20-39, level in bits 40-44, cube face in bits 45-47, and a
+ * marker in bit 48 so no valid key is 0 (the empty slot in {@link TileTable}).
+ */
+final class TileKey {
+    static final int MAX_LEVEL = 20;
+
+    private static final long MARKER = 1L << 48;
+    private static final long COORD_MASK = (1L << 20) - 1;
+
+    private TileKey() {}
+
+    static long of(int face, int level, int x, int y) {
+        return MARKER
+                | ((long) face << 45)
+                | ((long) level << 40)
+                | (((long) x & COORD_MASK) << 20)
+                | ((long) y & COORD_MASK);
+    }
+
+    static int face(long key) {
+        return (int) (key >>> 45) & 0x7;
+    }
+
+    static int level(long key) {
+        return (int) (key >>> 40) & 0x1F;
+    }
+
+    static int x(long key) {
+        return (int) ((key >>> 20) & COORD_MASK);
+    }
+
+    static int y(long key) {
+        return (int) (key & COORD_MASK);
+    }
+
+    /** Child {@code 0..3} in (x, y) bit order: 0 = low x low y, 3 = high x high y. */
+    static long child(long key, int index) {
+        return of(
+                face(key),
+                level(key) + 1,
+                (x(key) << 1) | (index & 1),
+                (y(key) << 1) | (index >> 1));
+    }
+
+    static long parent(long key) {
+        return of(face(key), level(key) - 1, x(key) >> 1, y(key) >> 1);
+    }
+}
@@ -0,0 +1,91 @@
+package com.jda.orrery.graphics.terrain;
+
+/**
+ * {@link TileKey} → {@link TerrainTile} map on primitive arrays: linear probing with
+ * backward-shift deletion, so lookups in the per-frame traversal never box a key. Grows by
+ * doubling past half full. Not thread-safe; owned by the render thread.
+ */
+final class TileTable {
+    private long[] keys;
+    private TerrainTile[] values;
+    private int mask;
+    private int size = 0;
+
+    TileTable(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(4, initialCapacity) * 2 - 1);
+        keys = new long[capacity];
+        values = new TerrainTile[capacity];
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    TerrainTile get(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) return values[slot];
+            if (k == 0L) return null;
+        }
+    }
+
+    void put(long key, TerrainTile tile) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int slot = slot(key);
+        while (keys[slot] != 0L && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == 0L) {
+            size++;
+        }
+        keys[slot] = key;
+        values[slot] = tile;
+    }
+
+    void remove(long key) {
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == 0L) return;
+            slot = (slot + 1) & mask;
+        }
+        size--;
+
+        // Shift later entries of the probe run back into the hole
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != 0L; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            // Movable unless its home lies cyclically within (hole, next]
+            boolean between =
+                    hole <= next ? hole < home && home <= next : hole < home || home <= next;
+            if (!between) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0L;
+        values[hole] = null;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        TerrainTile[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new TerrainTile[oldKeys.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0L) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
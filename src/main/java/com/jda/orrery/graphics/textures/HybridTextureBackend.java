@@ -10,6 +10,7 @@ import static org.lwjgl.opengl.GL42.*;
 import static org.lwjgl.system.MemoryUtil.*;
 
 import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.graphics.core.GLState;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
@@ -543,7 +544,7 @@ public class HybridTextureBackend implements TextureArraySystem.TextureBackend {
             glGenTextures(id);
             bucket.textureArrayId = id[0];
 
-            glBindTexture(GL_TEXTURE_2D_ARRAY, bucket.textureArrayId);
+            GLState.bindTexture(GL_TEXTURE_2D_ARRAY, bucket.textureArrayId);
 
             // Get first texture in bucket to determine format (all should be same type)
             String firstBodyId = bucket.bodies.get(0);
@@ -715,7 +716,7 @@ public class HybridTextureBackend implements TextureArraySystem.TextureBackend {
 
     /** Uploads texture data to a bucket's texture array. */
     private void uploadTextureToBucket(TextureInfo info, TextureBucket bucket, ByteBuffer data) {
-        glBindTexture(GL_TEXTURE_2D_ARRAY, bucket.textureArrayId);
+        GLState.bindTexture(GL_TEXTURE_2D_ARRAY, bucket.textureArrayId);
 
         if (info.isCompressed) {
             // BC3/DXT5 compressed upload - just base level for now
@@ -847,7 +848,7 @@ public class HybridTextureBackend implements TextureArraySystem.TextureBackend {
         // Delete texture arrays
         for (TextureBucket bucket : buckets) {
             if (bucket.textureArrayId != -1) {
-                glDeleteTextures(bucket.textureArrayId);
+                GLState.deleteTexture(bucket.textureArrayId);
             }
         }
 
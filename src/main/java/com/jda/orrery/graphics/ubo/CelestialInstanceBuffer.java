@@ -0,0 +1,240 @@
+package com.jda.orrery.graphics.ubo;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
+
+import com.jda.orrery.core.logging.Logging;
+import java.nio.ByteBuffer;
+import java.util.logging.Logger;
+import org.joml.Matrix4fc;
+import org.joml.Vector3dc;
+import org.joml.Vector3f;
+import org.lwjgl.BufferUtils;
+
+/**
+ * Uniform Buffer Object holding an array of per-body instance blocks for instanced drawing.
+ *
+ * Matches the {@code CelestialInstances} block in celestial_unified_ubo.{vert,frag} when
+ * compiled with {@code INSTANCED}. Each slot starts with the same 144 bytes as {@link
+ * CelestialUBO} and appends the per-body values that are plain uniforms in the single-body path
+ * (texture layer/scale, body type/id, ring shadow vectors).
+ *
+ * Slots are written in any order, then uploaded once per frame with {@link #upload(int)}. The
+ * whole array fits in the 16 KB {@code GL_MAX_UNIFORM_BLOCK_SIZE} that GL 4.1 guarantees.
+ */
+public class CelestialInstanceBuffer {
+    private static final Logger LOGGER = Logging.logger(CelestialInstanceBuffer.class);
+
+    // Offsets within one instance (std140, same prefix as CelestialUBO)
+    private static final int OFFSET_MODEL_MATRIX = 0; // mat3 (3x vec4)
+    private static final int OFFSET_POSITION_HIGH = 48; // vec3
+    private static final int OFFSET_POSITION_LOW = 64; // vec3
+    private static final int OFFSET_ALBEDO = 80; // vec3
+    private static final int OFFSET_EMISSION = 96; // vec3
+    private static final int OFFSET_MATERIAL_PARAMS = 112; // vec4
+    private static final int OFFSET_BODY_GEOMETRY = 128; // vec4
+
+    // Instance-only members
+    private static final int OFFSET_TEXTURE_PARAMS = 144; // vec4 (layer, scaleU, scaleV, has)
+    private static final int OFFSET_BODY_PARAMS = 160; // ivec4 (type, id, ringLayer, unused)
+    private static final int OFFSET_SHADOW_POSITION = 176; // vec4 (planetPosView, refraction)
+    private static final int OFFSET_SHADOW_AXIS = 192; // vec4 (planetAxisView, unused)
+
+    /** Size of one CelestialInstance struct (std140 array stride). */
+    public static final int INSTANCE_SIZE = 208;
+
+    /** Array length compiled into the shader via the MAX_INSTANCES define. */
+    public static final int MAX_INSTANCES = 32;
+
+    public static final int BUFFER_SIZE = INSTANCE_SIZE * MAX_INSTANCES;
+
+    private final ByteBuffer dataBuffer;
+    private final int bindingPoint;
+    private int uboId = -1;
+
+    /**
+     * Create a new instance buffer.
+     *
+     * @param bindingPoint The binding point for this UBO (must differ from CelestialUBO's)
+     */
+    public CelestialInstanceBuffer(int bindingPoint) {
+        this.bindingPoint = bindingPoint;
+        this.dataBuffer = BufferUtils.createByteBuffer(BUFFER_SIZE);
+
+        uboId = glGenBuffers();
+        glBindBuffer(GL_UNIFORM_BUFFER, uboId);
+        glBufferData(GL_UNIFORM_BUFFER, BUFFER_SIZE, GL_DYNAMIC_DRAW);
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+
+        LOGGER.fine(
+                "Created CelestialInstanceBuffer with ID "
+                        + uboId
+                        + " ("
+                        + MAX_INSTANCES
+                        + " slots) at binding point "
+                        + bindingPoint);
+    }
+
+    /**
+     * Write the body transform for one slot: the upper 3x3 of {@code model} and the split-double
+     * centre (see CelestialUBO#updateTransform).
+     */
+    public void writeTransform(int slot, Matrix4fc model, Vector3dc position) {
+        int base = slot * INSTANCE_SIZE;
+        // std140 mat3: each column padded to vec4
+        int m = base + OFFSET_MODEL_MATRIX;
+        putVec4(m, model.m00(), model.m01(), model.m02(), 0.0f);
+        putVec4(m + 16, model.m10(), model.m11(), model.m12(), 0.0f);
+        putVec4(m + 32, model.m20(), model.m21(), model.m22(), 0.0f);
+        putVec4(
+                base + OFFSET_POSITION_HIGH,
+                DoubleSplit.high(position.x()),
+                DoubleSplit.high(position.y()),
+                DoubleSplit.high(position.z()),
+                0.0f);
+        putVec4(
+                base + OFFSET_POSITION_LOW,
+                DoubleSplit.low(position.x()),
+                DoubleSplit.low(position.y()),
+                DoubleSplit.low(position.z()),
+                0.0f);
+    }
+
+    /** Write material properties for one slot. */
+    public void writeMaterial(
+            int slot,
+            Vector3f albedo,
+            float roughness,
+            float metallic,
+            Vector3f emission,
+            float emissionStrength,
+            boolean isEmissive) {
+        int base = slot * INSTANCE_SIZE;
+        putVec4(base + OFFSET_ALBEDO, albedo.x, albedo.y, albedo.z, 0.0f);
+        putVec4(base + OFFSET_EMISSION, emission.x, emission.y, emission.z, 0.0f);
+        putVec4(
+                base + OFFSET_MATERIAL_PARAMS,
+                roughness,
+                metallic,
+                emissionStrength,
+                isEmissive ? 1.0f : 0.0f);
+    }
+
+    /** Write per-body radii and ring extent for one slot (see CelestialUBO#updateBodyGeometry). */
+    public void writeBodyGeometry(
+            int slot, float equatorialRadius, float polarRadius, float ringInner, float ringOuter) {
+        putVec4(
+                slot * INSTANCE_SIZE + OFFSET_BODY_GEOMETRY,
+                equatorialRadius,
+                polarRadius,
+                ringInner,
+                ringOuter);
+    }
+
+    /** Write texture layer and UV scale; {@code hasTexture=false} selects the fallback shading. */
+    public void writeTexture(
+            int slot, int layer, float scaleU, float scaleV, boolean hasTexture) {
+        putVec4(
+                slot * INSTANCE_SIZE + OFFSET_TEXTURE_PARAMS,
+                layer,
+                scaleU,
+                scaleV,
+                hasTexture ? 1.0f : 0.0f);
+    }
+
+    /** Write body type, body id and ring texture layer (-1 if the body has no rings). */
+    public void writeBodyParams(int slot, int bodyType, int bodyId, int ringTextureLayer) {
+        int offset = slot * INSTANCE_SIZE + OFFSET_BODY_PARAMS;
+        dataBuffer.putInt(offset, bodyType);
+        dataBuffer.putInt(offset + 4, bodyId);
+        dataBuffer.putInt(offset + 8, ringTextureLayer);
+        dataBuffer.putInt(offset + 12, 0);
+    }
+
+    /**
+     * Write the ring-shadow inputs: planet centre and spin axis in view space, plus limb
+     * refraction. Only read by the shader when bodyGeometry.w > 0.
+     */
+    public void writeShadow(
+            int slot, Vector3f planetPositionView, float atmosphericRefraction, Vector3f axisView) {
+        int base = slot * INSTANCE_SIZE;
+        putVec4(
+                base + OFFSET_SHADOW_POSITION,
+                planetPositionView.x,
+                planetPositionView.y,
+                planetPositionView.z,
+                atmosphericRefraction);
+        putVec4(base + OFFSET_SHADOW_AXIS, axisView.x, axisView.y, axisView.z, 0.0f);
+    }
+
+    private void putVec4(int offset, float x, float y, float z, float w) {
+        dataBuffer.putFloat(offset, x);
+        dataBuffer.putFloat(offset + 4, y);
+        dataBuffer.putFloat(offset + 8, z);
+        dataBuffer.putFloat(offset + 12, w);
+    }
+
+    /**
+     * Upload the first {@code count} slots. Orphans the buffer so the previous frame's draws can
+     * still read the old storage.
+     */
+    public void upload(int count) {
+        if (count <= 0) return;
+
+        glBindBuffer(GL_UNIFORM_BUFFER, uboId);
+        glBufferData(GL_UNIFORM_BUFFER, BUFFER_SIZE, GL_DYNAMIC_DRAW);
+
+        dataBuffer.limit(Math.min(count, MAX_INSTANCES) * INSTANCE_SIZE);
+        dataBuffer.position(0);
+        glBufferSubData(GL_UNIFORM_BUFFER, 0, dataBuffer);
+        dataBuffer.clear();
+
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+    }
+
+    /** Bind this UBO to its binding point. */
+    public void bind() {
+        glBindBufferBase(GL_UNIFORM_BUFFER, bindingPoint, uboId);
+    }
+
+    /**
+     * Link this UBO to a shader's uniform block (macOS GL 4.1 has no explicit binding in GLSL).
+     *
+     * @param shaderProgramId The shader program ID
+     * @param blockName The name of the uniform block (e.g., "CelestialInstances")
+     */
+    public void linkToShader(int shaderProgramId, String blockName) {
+        int blockIndex = glGetUniformBlockIndex(shaderProgramId, blockName);
+        if (blockIndex != GL_INVALID_INDEX) {
+            glUniformBlockBinding(shaderProgramId, blockIndex, bindingPoint);
+            LOGGER.fine(
+                    "Linked instance UBO to shader block '"
+                            + blockName
+                            + "' at binding point "
+                            + bindingPoint);
+        } else {
+            LOGGER.warning(
+                    "Uniform block '"
+                            + blockName
+                            + "' not found in shader program "
+                            + shaderProgramId);
+        }
+    }
+
+    public int getBindingPoint() {
+        return bindingPoint;
+    }
+
+    /** Clean up resources. */
+    public void dispose() {
+        if (uboId != -1) {
+            glDeleteBuffers(uboId);
+            uboId = -1;
+        }
+    }
+
+    public boolean isValid() {
+        return uboId != -1;
+    }
+}
@@ -3,73 +3,96 @@ package com.jda.orrery.graphics.ubo;
 import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL30.*;
 import static org.lwjgl.opengl.GL31.*;
+import static org.lwjgl.opengl.GL32.*;
 
 import com.jda.orrery.core.logging.Logging;
 import java.nio.ByteBuffer;
 import java.util.logging.Logger;
-import org.joml.Matrix3f;
-import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+import org.joml.Vector3dc;
 import org.joml.Vector3f;
 import org.lwjgl.BufferUtils;
 
 /**
  * Uniform Buffer Object for celestial body rendering.
  *
- * Single UBO updated per body. Uses std140
- * layout for cross-platform compatibility.
+ * Ring of {@link #FRAMES_IN_FLIGHT} frame regions, each holding up to {@link
+ * #MAX_BLOCKS_PER_FRAME} per-draw blocks at a stride rounded up to {@code
+ * GL_UNIFORM_BUFFER_OFFSET_ALIGNMENT}. Blocks are staged on the CPU during the frame, uploaded
+ * with a single glBufferSubData by {@link #flush()}, and selected per draw with
+ * glBindBufferRange. A fence per region keeps the CPU from overwriting a region the GPU may
+ * still be reading. Uses std140 layout for cross-platform compatibility.
+ *
+ * Per frame: {@link #beginFrame()} → (update* + {@link #commitBlock()}) per draw → {@link
+ * #flush()} → {@link #bindBlock(int)} per draw → {@link #endFrame()}.
  *
  * Memory layout (std140 rules): - mat4: 64 bytes (4x vec4, each 16-byte aligned) - mat3: 48
  * bytes (3x vec4, each 16-byte aligned, last component unused) - vec4: 16 bytes - vec3: 16 bytes
  * (padded to vec4) - float: 4 bytes (but often padded to 16 for alignment)
  *
- * Total size: 384 bytes per body
+ * Frame-constant values (view/projection, camera position, sun position) live in {@link
+ * FrameDataUBO}; this block carries only what differs per draw. Nothing in it depends on the
+ * camera: the body's orientation and radii go in as a 3x3 matrix and its centre as a split
+ * double ({@link DoubleSplit}), and the vertex shader subtracts the camera position and applies
+ * view and projection itself.
+ *
+ * Total size: 144 bytes per body (block stride rounded up to the offset alignment)
  */
 public class CelestialUBO {
     private static final Logger LOGGER = Logging.logger(CelestialUBO.class);
 
     // std140 layout constants
-    private static final int MAT4_SIZE = 64; // 4x4 matrix
     private static final int MAT3_SIZE = 48; // 3x3 matrix (3x vec4 with padding)
     private static final int VEC4_SIZE = 16; // vec4 or vec3 padded
     private static final int VEC3_SIZE = 16; // vec3 always padded to vec4
     private static final int FLOAT_SIZE = 4; // single float
 
     // Offsets in bytes (std140 layout)
-    // Matrices (all 16-byte aligned)
-    private static final int OFFSET_MODEL_MATRIX = 0; // mat4: offset 0, size 64
-    private static final int OFFSET_VIEW_MATRIX = 64; // mat4: offset 64, size 64
-    private static final int OFFSET_PROJ_MATRIX = 128; // mat4: offset 128, size 64
-    private static final int OFFSET_MVP_MATRIX = 192; // mat4: offset 192, size 64
-    private static final int OFFSET_NORMAL_MATRIX = 256; // mat3: offset 256, size 48
+    // Transform: orientation times radii (no translation), then the centre as high/low floats
+    private static final int OFFSET_MODEL_MATRIX = 0; // mat3: offset 0, size 48
+    private static final int OFFSET_POSITION_HIGH = 48; // vec3: offset 48, size 16
+    private static final int OFFSET_POSITION_LOW = 64; // vec3: offset 64, size 16
 
     // Vectors (all padded to 16 bytes in std140)
-    private static final int OFFSET_SUN_POSITION = 304; // vec3: offset 304, size 16
-    private static final int OFFSET_ALBEDO = 320; // vec3: offset 320, size 16
-    private static final int OFFSET_EMISSION = 336; // vec3: offset 336, size 16
+    private static final int OFFSET_ALBEDO = 80; // vec3: offset 80, size 16
+    private static final int OFFSET_EMISSION = 96; // vec3: offset 96, size 16
 
     // Scalars (packed together after vectors)
-    private static final int OFFSET_ROUGHNESS = 352; // float: offset 352
-    private static final int OFFSET_METALLIC = 356; // float: offset 356
-    private static final int OFFSET_EMISSION_STRENGTH = 360; // float: offset 360
-    private static final int OFFSET_IS_EMISSIVE = 364; // float: offset 364
+    private static final int OFFSET_ROUGHNESS = 112; // float: offset 112
+    private static final int OFFSET_METALLIC = 116; // float: offset 116
+    private static final int OFFSET_EMISSION_STRENGTH = 120; // float: offset 120
+    private static final int OFFSET_IS_EMISSIVE = 124; // float: offset 124
 
     // Per-body geometry: vec4(equatorialRadius, polarRadius, ringInner, ringOuter)
     // Visual-space radii (after ScaleManager). ringInner/ringOuter in planet-radii units;
     // both 0 indicates the body has no rings (shader gates on bodyGeometry.w > 0).
-    private static final int OFFSET_BODY_GEOMETRY = 368; // vec4: offset 368, size 16
+    private static final int OFFSET_BODY_GEOMETRY = 128; // vec4: offset 128, size 16
 
     // Total size must be multiple of 16 for std140
-    public static final int BUFFER_SIZE = 384; // 368 + 16 (body geometry vec4)
+    public static final int BUFFER_SIZE = 144; // 128 + 16 (body geometry vec4)
+
+    /** Frame regions in the ring; one being written, the others possibly still in flight. */
+    public static final int FRAMES_IN_FLIGHT = 3;
+
+    /** Draw blocks per frame: every body plus its rings, with headroom for more satellites. */
+    public static final int MAX_BLOCKS_PER_FRAME = 64;
+
+    // Upper bound on a single fence wait so a lost context can't hang the render thread
+    private static final long FENCE_TIMEOUT_NS = 100_000_000L;
 
     // Buffer resources
-    private final ByteBuffer dataBuffer;
+    private final ByteBuffer dataBuffer; // CPU staging for the current frame region
+    private final int blockStride;
+    private final int regionSize;
     private int uboId = -1;
     private int bindingPoint = 0;
 
-    // Cached data for change detection
-    private final Matrix4f lastModelMatrix = new Matrix4f();
-    private final Matrix4f lastViewMatrix = new Matrix4f();
-    private boolean needsUpdate = true;
+    // Ring state: current region, blocks committed to it, and one fence per region
+    private final long[] regionFences = new long[FRAMES_IN_FLIGHT];
+    private int frameRegion = 0;
+    private int blockCount = 0;
+    private int blockBase = 0; // Staging offset of the block being written
+    private boolean overflowLogged = false;
 
     /**
      * Create a new CelestialUBO.
@@ -78,48 +101,110 @@ public class CelestialUBO {
      */
     public CelestialUBO(int bindingPoint) {
         this.bindingPoint = bindingPoint;
-        this.dataBuffer = BufferUtils.createByteBuffer(BUFFER_SIZE);
+        this.blockStride = alignUp(BUFFER_SIZE, glGetInteger(GL_UNIFORM_BUFFER_OFFSET_ALIGNMENT));
+        this.regionSize = blockStride * MAX_BLOCKS_PER_FRAME;
+        this.dataBuffer = BufferUtils.createByteBuffer(regionSize + blockStride); // + scratch
 
         // Initialize UBO
         createUBO();
     }
 
+    /** Round {@code size} up to a multiple of {@code alignment} (non-positive = no alignment). */
+    static int alignUp(int size, int alignment) {
+        if (alignment <= 1) return size;
+        return ((size + alignment - 1) / alignment) * alignment;
+    }
+
     /** Create the OpenGL UBO. */
     private void createUBO() {
         uboId = glGenBuffers();
         glBindBuffer(GL_UNIFORM_BUFFER, uboId);
 
-        // Allocate storage with dynamic draw hint (updated frequently)
-        glBufferData(GL_UNIFORM_BUFFER, BUFFER_SIZE, GL_DYNAMIC_DRAW);
-
-        // Bind to the specified binding point
-        glBindBufferBase(GL_UNIFORM_BUFFER, bindingPoint, uboId);
+        // Allocate the whole ring once; regions are rewritten in place, never reallocated
+        glBufferData(GL_UNIFORM_BUFFER, (long) regionSize * FRAMES_IN_FLIGHT, GL_DYNAMIC_DRAW);
 
         glBindBuffer(GL_UNIFORM_BUFFER, 0);
 
-        LOGGER.fine("Created CelestialUBO with ID " + uboId + " at binding point " + bindingPoint);
+        LOGGER.fine(
+                "Created CelestialUBO with ID "
+                        + uboId
+                        + " at binding point "
+                        + bindingPoint
+                        + " ("
+                        + FRAMES_IN_FLIGHT
+                        + " x "
+                        + MAX_BLOCKS_PER_FRAME
+                        + " blocks, stride "
+                        + blockStride
+                        + ")");
     }
 
-    /** Update all matrices at once (most common operation). */
-    public void updateMatrices(
-            Matrix4f model, Matrix4f view, Matrix4f projection, Matrix4f mvp, Matrix3f normal) {
-        dataBuffer.position(OFFSET_MODEL_MATRIX);
-        model.get(dataBuffer);
-
-        dataBuffer.position(OFFSET_VIEW_MATRIX);
-        view.get(dataBuffer);
+    /**
+     * Advance to the next frame region. Waits on that region's fence (normally already signalled
+     * two frames later) so the staged data can't overwrite blocks the GPU is still reading.
+     */
+    public void beginFrame() {
+        frameRegion = (frameRegion + 1) % FRAMES_IN_FLIGHT;
+
+        long fence = regionFences[frameRegion];
+        if (fence != 0L) {
+            int status = glClientWaitSync(fence, GL_SYNC_FLUSH_COMMANDS_BIT, FENCE_TIMEOUT_NS);
+            if (status == GL_TIMEOUT_EXPIRED || status == GL_WAIT_FAILED) {
+                LOGGER.warning("CelestialUBO fence wait did not complete (status " + status + ")");
+            }
+            glDeleteSync(fence);
+            regionFences[frameRegion] = 0L;
+        }
 
-        dataBuffer.position(OFFSET_PROJ_MATRIX);
-        projection.get(dataBuffer);
+        blockCount = 0;
+        blockBase = 0;
+    }
 
-        dataBuffer.position(OFFSET_MVP_MATRIX);
-        mvp.get(dataBuffer);
+    /**
+     * Finish the block staged by the update* calls and start the next one. Every draw must write
+     * all fields (transform, material, geometry) before committing — blocks do not inherit
+     * values from the previous one.
+     *
+     * @return Slot to pass to {@link #bindBlock(int)}, or -1 if the frame region is full
+     */
+    public int commitBlock() {
+        if (blockCount == MAX_BLOCKS_PER_FRAME) {
+            if (!overflowLogged) {
+                LOGGER.warning(
+                        "CelestialUBO frame region full ("
+                                + MAX_BLOCKS_PER_FRAME
+                                + " blocks); extra draws skipped");
+                overflowLogged = true;
+            }
+            return -1;
+        }
+        int slot = blockCount++;
+        // When the region is full this lands on the scratch block past the end, which is never
+        // uploaded, so writes for a rejected draw can't clobber a committed one
+        blockBase = blockCount * blockStride;
+        return slot;
+    }
 
-        // Normal matrix (mat3 in std140 = 3x vec4)
-        dataBuffer.position(OFFSET_NORMAL_MATRIX);
-        writeMatrix3AsStd140(normal, dataBuffer);
+    /**
+     * Update the body transform: the upper 3x3 of {@code model} (orientation and radii; its
+     * translation is ignored) and the body centre in render space, in double precision.
+     * View, projection and the camera position are in FrameData.
+     */
+    public void updateTransform(Matrix4fc model, Vector3dc position) {
+        dataBuffer.position(blockBase + OFFSET_MODEL_MATRIX);
+        writeMatrix3AsStd140(model, dataBuffer);
+
+        dataBuffer.position(blockBase + OFFSET_POSITION_HIGH);
+        dataBuffer.putFloat(DoubleSplit.high(position.x()));
+        dataBuffer.putFloat(DoubleSplit.high(position.y()));
+        dataBuffer.putFloat(DoubleSplit.high(position.z()));
+        dataBuffer.putFloat(0); // Padding for vec3 → vec4
 
-        needsUpdate = true;
+        dataBuffer.position(blockBase + OFFSET_POSITION_LOW);
+        dataBuffer.putFloat(DoubleSplit.low(position.x()));
+        dataBuffer.putFloat(DoubleSplit.low(position.y()));
+        dataBuffer.putFloat(DoubleSplit.low(position.z()));
+        dataBuffer.putFloat(0); // Padding for vec3 → vec4
     }
 
     /** Update material properties. */
@@ -130,31 +215,29 @@ public class CelestialUBO {
             Vector3f emission,
             float emissionStrength,
             boolean isEmissive) {
-        dataBuffer.position(OFFSET_ALBEDO);
+        dataBuffer.position(blockBase + OFFSET_ALBEDO);
         dataBuffer.putFloat(albedo.x);
         dataBuffer.putFloat(albedo.y);
         dataBuffer.putFloat(albedo.z);
         dataBuffer.putFloat(0); // Padding for vec3 → vec4
 
-        dataBuffer.position(OFFSET_EMISSION);
+        dataBuffer.position(blockBase + OFFSET_EMISSION);
         dataBuffer.putFloat(emission.x);
         dataBuffer.putFloat(emission.y);
         dataBuffer.putFloat(emission.z);
         dataBuffer.putFloat(0); // Padding for vec3 → vec4
 
-        dataBuffer.position(OFFSET_ROUGHNESS);
+        dataBuffer.position(blockBase + OFFSET_ROUGHNESS);
         dataBuffer.putFloat(roughness);
 
-        dataBuffer.position(OFFSET_METALLIC);
+        dataBuffer.position(blockBase + OFFSET_METALLIC);
         dataBuffer.putFloat(metallic);
 
-        dataBuffer.position(OFFSET_EMISSION_STRENGTH);
+        dataBuffer.position(blockBase + OFFSET_EMISSION_STRENGTH);
         dataBuffer.putFloat(emissionStrength);
 
-        dataBuffer.position(OFFSET_IS_EMISSIVE);
+        dataBuffer.position(blockBase + OFFSET_IS_EMISSIVE);
         dataBuffer.putFloat(isEmissive ? 1.0f : 0.0f);
-
-        needsUpdate = true;
     }
 
     /**
@@ -167,28 +250,15 @@ public class CelestialUBO {
      */
     public void updateBodyGeometry(
             float equatorialRadius, float polarRadius, float ringInner, float ringOuter) {
-        dataBuffer.position(OFFSET_BODY_GEOMETRY);
+        dataBuffer.position(blockBase + OFFSET_BODY_GEOMETRY);
         dataBuffer.putFloat(equatorialRadius);
         dataBuffer.putFloat(polarRadius);
         dataBuffer.putFloat(ringInner);
         dataBuffer.putFloat(ringOuter);
-
-        needsUpdate = true;
-    }
-
-    /** Update sun position (for lighting). */
-    public void updateSunPosition(Vector3f sunPosition) {
-        dataBuffer.position(OFFSET_SUN_POSITION);
-        dataBuffer.putFloat(sunPosition.x);
-        dataBuffer.putFloat(sunPosition.y);
-        dataBuffer.putFloat(sunPosition.z);
-        dataBuffer.putFloat(0); // Padding for vec3 → vec4
-
-        needsUpdate = true;
     }
 
-    /** Write a Matrix3f in std140 layout (3 rows of vec4). */
-    private void writeMatrix3AsStd140(Matrix3f mat, ByteBuffer buffer) {
+    /** Write the upper 3x3 of a matrix in std140 layout (3 rows of vec4). */
+    private void writeMatrix3AsStd140(Matrix4fc mat, ByteBuffer buffer) {
         // Row 0: m00, m01, m02, padding
         buffer.putFloat(mat.m00());
         buffer.putFloat(mat.m01());
@@ -209,36 +279,48 @@ public class CelestialUBO {
     }
 
     /**
-     * Upload the buffer to GPU if needed. Call this once per body before drawing. Uses buffer
-     * orphaning to avoid GPU synchronization stalls when rendering multiple bodies per frame.
+     * Upload every block committed this frame in one call. The target region is fenced (see
+     * {@link #beginFrame()}), so no orphaning is needed and the driver never has to
+     * synchronize against in-flight draws.
      */
-    public void upload() {
-        if (!needsUpdate) {
+    public void flush() {
+        if (blockCount == 0) {
             return;
         }
 
         glBindBuffer(GL_UNIFORM_BUFFER, uboId);
 
-        // Optimization: Buffer orphaning
-        // This tells the driver to allocate new memory for the buffer,
-        // allowing the GPU to continue using the old buffer while we write to the new one.
-        // This prevents stalls when updating UBO for multiple bodies.
-        glBufferData(GL_UNIFORM_BUFFER, BUFFER_SIZE, GL_DYNAMIC_DRAW);
-
+        dataBuffer.limit(blockCount * blockStride);
         dataBuffer.position(0);
-        glBufferSubData(GL_UNIFORM_BUFFER, 0, dataBuffer);
+        glBufferSubData(GL_UNIFORM_BUFFER, (long) frameRegion * regionSize, dataBuffer);
+        dataBuffer.clear();
 
         glBindBuffer(GL_UNIFORM_BUFFER, 0);
-
-        needsUpdate = false;
     }
 
     /**
-     * Bind this UBO for rendering. The shader must have a corresponding uniform block at the same
-     * binding point.
+     * Bind one committed block for the next draw. The shader must have a corresponding uniform
+     * block at the same binding point.
      */
-    public void bind() {
-        glBindBufferBase(GL_UNIFORM_BUFFER, bindingPoint, uboId);
+    public void bindBlock(int slot) {
+        glBindBufferRange(
+                GL_UNIFORM_BUFFER,
+                bindingPoint,
+                uboId,
+                (long) frameRegion * regionSize + (long) slot * blockStride,
+                BUFFER_SIZE);
+    }
+
+    /** Fence the current region once all of this frame's draws have been issued. */
+    public void endFrame() {
+        if (blockCount > 0) {
+            regionFences[frameRegion] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        }
+    }
+
+    /** Blocks committed in the current frame. */
+    public int getBlockCount() {
+        return blockCount;
     }
 
     /**
@@ -275,6 +357,12 @@ public class CelestialUBO {
 
     /** Clean up resources. */
     public void dispose() {
+        for (int i = 0; i < FRAMES_IN_FLIGHT; i++) {
+            if (regionFences[i] != 0L) {
+                glDeleteSync(regionFences[i]);
+                regionFences[i] = 0L;
+            }
+        }
         if (uboId != -1) {
             glDeleteBuffers(uboId);
             uboId = -1;
@@ -0,0 +1,22 @@
+package com.jda.orrery.graphics.ubo;
+
+/**
+ * Splits a double into two floats whose sum carries about 48 of its 53 mantissa bits (the
+ * DSFUN90 "double-single" representation). Positions are uploaded this way so shaders can
+ * subtract two large coordinates in float without losing the digits that survive in double:
+ * {@code (aHigh - bHigh) + (aLow - bLow)}.
+ */
+final class DoubleSplit {
+
+    private DoubleSplit() {}
+
+    /** The float nearest {@code value}. */
+    static float high(double value) {
+        return (float) value;
+    }
+
+    /** What {@link #high} drops, rounded to float. */
+    static float low(double value) {
+        return (float) (value - (float) value);
+    }
+}
@@ -0,0 +1,223 @@
+package com.jda.orrery.graphics.ubo;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
+
+import com.jda.orrery.core.logging.Logging;
+import com.jda.orrery.graphics.illumination.IlluminationManager.IlluminationProfile;
+import java.nio.ByteBuffer;
+import java.util.logging.Logger;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.lwjgl.BufferUtils;
+
+/**
+ * Uniform Buffer Object for frame-constant data shared by every shader that draws in a frame:
+ * camera matrices and position, view-space sun position, the illumination profile, post-FX
+ * parameters and time.
+ *
+ * Matches the {@code FrameData} block declared in celestial_unified_ubo.{vert,frag} and
+ * postfx_tonemap.frag. Writers stage values during the frame; {@link #flush()} uploads the block
+ * once if anything changed, so consumers can all call it and only the first pays.
+ *
+ * The block always lives at {@link #BINDING_POINT}; shaders are attached with {@link
+ * #linkToShader(int)} at load time, independent of the buffer instance.
+ *
+ * Memory layout (std140): view 0, projection 64, sunPosition 128, sunColor/sunIntensity 144,
+ * ambientColor/ambientStrength 160, illumination struct 176 (6 floats, padded to 32),
+ * postParams 208, frameTime 224, frameFlags 240, cameraHigh 256, cameraLow 272. Total 288 bytes.
+ */
+public class FrameDataUBO {
+    private static final Logger LOGGER = Logging.logger(FrameDataUBO.class);
+
+    /** Binding point reserved for FrameData (0 and 1 are CelestialData / CelestialInstances). */
+    public static final int BINDING_POINT = 2;
+
+    /** Name of the uniform block in GLSL. */
+    public static final String BLOCK_NAME = "FrameData";
+
+    // Offsets in bytes (std140 layout)
+    private static final int OFFSET_VIEW_MATRIX = 0; // mat4
+    private static final int OFFSET_PROJ_MATRIX = 64; // mat4
+    private static final int OFFSET_SUN_POSITION = 128; // vec4 (view-space xyz, unused)
+    private static final int OFFSET_SUN_COLOR = 144; // vec3 sunColor + float sunIntensity
+    private static final int OFFSET_AMBIENT = 160; // vec3 ambientColor + float ambientStrength
+    private static final int OFFSET_ILLUMINATION = 176; // struct of 6 floats, size 32
+    private static final int OFFSET_POST_PARAMS = 208; // vec4 (exposure, bloom, threshold, lift)
+    private static final int OFFSET_FRAME_TIME = 224; // vec4 (seconds, delta, unused, unused)
+    private static final int OFFSET_FRAME_FLAGS = 240; // ivec4 (toneMapOperator, unused...)
+    private static final int OFFSET_CAMERA_HIGH = 256; // vec4 (camera position high floats)
+    private static final int OFFSET_CAMERA_LOW = 272; // vec4 (camera position low floats)
+
+    public static final int BUFFER_SIZE = 288;
+
+    private final ByteBuffer dataBuffer;
+    private int uboId = -1;
+    private boolean dirty = true;
+    private int uploadCount = 0;
+
+    public FrameDataUBO() {
+        this.dataBuffer = BufferUtils.createByteBuffer(BUFFER_SIZE);
+
+        uboId = glGenBuffers();
+        glBindBuffer(GL_UNIFORM_BUFFER, uboId);
+        glBufferData(GL_UNIFORM_BUFFER, BUFFER_SIZE, GL_DYNAMIC_DRAW);
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+        glBindBufferBase(GL_UNIFORM_BUFFER, BINDING_POINT, uboId);
+
+        LOGGER.fine("Created FrameDataUBO with ID " + uboId + " at binding point " + BINDING_POINT);
+    }
+
+    /** Camera matrices for the frame. */
+    public void updateCamera(Matrix4f view, Matrix4f projection) {
+        view.get(OFFSET_VIEW_MATRIX, dataBuffer);
+        projection.get(OFFSET_PROJ_MATRIX, dataBuffer);
+        dirty = true;
+    }
+
+    /**
+     * Camera position in render space, split into high and low floats; the celestial shaders
+     * subtract it from each body's split centre. Zero when the view matrix carries the
+     * translation itself (no camera-relative rendering).
+     */
+    public void updateCameraPosition(double x, double y, double z) {
+        putVec4(
+                OFFSET_CAMERA_HIGH,
+                DoubleSplit.high(x),
+                DoubleSplit.high(y),
+                DoubleSplit.high(z),
+                0.0f);
+        putVec4(
+                OFFSET_CAMERA_LOW,
+                DoubleSplit.low(x),
+                DoubleSplit.low(y),
+                DoubleSplit.low(z),
+                0.0f);
+        dirty = true;
+    }
+
+    /** Sun position in view space. */
+    public void updateSunPosition(Vector3f sunPositionView) {
+        putVec4(OFFSET_SUN_POSITION, sunPositionView.x, sunPositionView.y, sunPositionView.z, 0.0f);
+        dirty = true;
+    }
+
+    /**
+     * Illumination profile plus sun color. Only needs calling when the profile changes; the
+     * values persist in the block until overwritten.
+     */
+    public void updateIllumination(
+            IlluminationProfile profile, Vector3f sunColor, float sunIntensity) {
+        putVec4(OFFSET_SUN_COLOR, sunColor.x, sunColor.y, sunColor.z, sunIntensity);
+        putVec4(
+                OFFSET_AMBIENT,
+                profile.ambientColor.x,
+                profile.ambientColor.y,
+                profile.ambientColor.z,
+                profile.ambientStrength);
+        putVec4(
+                OFFSET_ILLUMINATION,
+                profile.physicalWeight,
+                profile.artisticWeight,
+                profile.falloffExponent,
+                profile.brightnessBoost);
+        putVec4(OFFSET_ILLUMINATION + 16, profile.minimumIntensity, profile.maximumIntensity, 0, 0);
+        putVec4(
+                OFFSET_POST_PARAMS,
+                profile.exposure,
+                profile.bloomStrength,
+                profile.bloomThreshold,
+                profile.contrastLift);
+        dataBuffer.putInt(OFFSET_FRAME_FLAGS, profile.toneMapOperator);
+        dirty = true;
+    }
+
+    /** Bloom strength staged by the last {@link #updateIllumination}; 0 means bloom is off. */
+    public float getBloomStrength() {
+        return dataBuffer.getFloat(OFFSET_POST_PARAMS + 4);
+    }
+
+    /** Wall-clock seconds since start and the frame delta. */
+    public void updateTime(float seconds, float deltaSeconds) {
+        putVec4(OFFSET_FRAME_TIME, seconds, deltaSeconds, 0.0f, 0.0f);
+        dirty = true;
+    }
+
+    private void putVec4(int offset, float x, float y, float z, float w) {
+        dataBuffer.putFloat(offset, x);
+        dataBuffer.putFloat(offset + 4, y);
+        dataBuffer.putFloat(offset + 8, z);
+        dataBuffer.putFloat(offset + 12, w);
+    }
+
+    /**
+     * Upload the block if anything was staged since the last upload. Orphans the buffer so draws
+     * from the previous frame keep reading the old storage.
+     */
+    public void flush() {
+        if (!dirty) {
+            return;
+        }
+
+        glBindBuffer(GL_UNIFORM_BUFFER, uboId);
+        glBufferData(GL_UNIFORM_BUFFER, BUFFER_SIZE, GL_DYNAMIC_DRAW);
+        dataBuffer.position(0);
+        dataBuffer.limit(BUFFER_SIZE);
+        glBufferSubData(GL_UNIFORM_BUFFER, 0, dataBuffer);
+        dataBuffer.clear();
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+
+        dirty = false;
+        uploadCount++;
+    }
+
+    /** Re-attach the buffer to {@link #BINDING_POINT} (e.g. after another owner used it). */
+    public void bind() {
+        glBindBufferBase(GL_UNIFORM_BUFFER, BINDING_POINT, uboId);
+    }
+
+    /** Uploads since the last {@link #resetUploadCount()}. */
+    public int getUploadCount() {
+        return uploadCount;
+    }
+
+    public void resetUploadCount() {
+        uploadCount = 0;
+    }
+
+    /**
+     * Point a shader's FrameData block at {@link #BINDING_POINT} (macOS GL 4.1 has no explicit
+     * binding in GLSL). Shaders that don't declare the block are left alone.
+     *
+     * @param shaderProgramId The shader program ID
+     * @return true if the program declares the block
+     */
+    public static boolean linkToShader(int shaderProgramId) {
+        int blockIndex = glGetUniformBlockIndex(shaderProgramId, BLOCK_NAME);
+        if (blockIndex == GL_INVALID_INDEX) {
+            return false;
+        }
+        glUniformBlockBinding(shaderProgramId, blockIndex, BINDING_POINT);
+        LOGGER.fine(
+                "Linked shader program "
+                        + shaderProgramId
+                        + " block '"
+                        + BLOCK_NAME
+                        + "' to binding point "
+                        + BINDING_POINT);
+        return true;
+    }
+
+    /** Clean up resources. */
+    public void dispose() {
+        if (uboId != -1) {
+            glDeleteBuffers(uboId);
+            uboId = -1;
+        }
+    }
+
+    public boolean isValid() {
+        return uboId != -1;
+    }
+}
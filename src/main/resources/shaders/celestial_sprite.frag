@@ -0,0 +1,15 @@
+#version 410 core
+
+// Round, flat-shaded point for the sub-pixel body pass (see celestial_sprite.vert).
+
+in vec3 vColor;
+
+out vec4 fragColor;
+
+void main() {
+    vec2 p = gl_PointCoord * 2.0 - 1.0;
+    if (dot(p, p) > 1.0) {
+        discard;
+    }
+    fragColor = vec4(vColor, 1.0);
+}
@@ -0,0 +1,94 @@
+#version 410 core
+
+// Point-sprite pass for bodies smaller than a pixel or two on screen. Each point
+// carries the body's camera-relative position and projected radius; lighting is a
+// disc-integrated Lambert sphere so a sprite has the brightness the full
+// celestial_unified_ubo shading would average to over the same pixels.
+
+layout(location = 0) in vec4 spritePosition;  // camera-relative world xyz, projected radius (px)
+layout(location = 1) in vec4 spriteColor;     // albedo (or emission), isEmissive
+
+// Frame-constant data (std140, 288 bytes) — must match FrameDataUBO.
+struct IlluminationProfile {
+    float physicalWeight;
+    float artisticWeight;
+    float falloffExponent;
+    float brightnessBoost;
+    float minIntensity;
+    float maxIntensity;
+};
+
+layout(std140) uniform FrameData {
+    mat4 frameViewMatrix;
+    mat4 frameProjectionMatrix;
+    vec4 frameSunPosition;
+    vec3 sunColor;
+    float sunIntensity;
+    vec3 ambientColor;
+    float ambientStrength;
+    IlluminationProfile illumination;
+    vec4 framePostParams;
+    vec4 frameTime;
+    ivec4 frameFlags;
+    vec4 frameCameraHigh;
+    vec4 frameCameraLow;
+};
+
+out vec3 vColor;
+
+const float PI = 3.14159265;
+
+// Same compressed-distance falloff scale as celestial_unified_ubo.frag.
+const float VIEW_DISTANCE_TO_FALLOFF = 0.1;
+
+// Smallest point drawn; sub-pixel discs spread their flux over this footprint.
+const float MIN_POINT_SIZE = 2.0;
+
+void main() {
+    vec4 viewPos = frameViewMatrix * vec4(spritePosition.xyz, 1.0);
+    gl_Position = frameProjectionMatrix * viewPos;
+
+    float radiusPx = spritePosition.w;
+    float pointSize = max(2.0 * radiusPx, MIN_POINT_SIZE);
+    gl_PointSize = pointSize;
+
+    // Fraction of the round point actually covered by the body's disc: keeps the
+    // total flux of the sprite equal to that of the (unresolved) disc.
+    float pointRadius = 0.5 * pointSize;
+    float coverage = min((radiusPx * radiusPx) / (pointRadius * pointRadius), 1.0);
+
+    vec3 color;
+    if (spriteColor.w > 0.5) {
+        color = spriteColor.rgb;
+    } else {
+        vec3 toSun = frameSunPosition.xyz - viewPos.xyz;
+        vec3 L = normalize(toSun);
+        vec3 V = normalize(-viewPos.xyz);
+        float alpha = acos(clamp(dot(L, V), -1.0, 1.0));
+
+        // Lambert sphere phase function, normalized to 1 at full phase; the mean
+        // cosine over a fully lit disc is 2/3.
+        float phase = (sin(alpha) + (PI - alpha) * cos(alpha)) / PI;
+
+        // Distance falloff, same branches as the non-emissive body path
+        float falloffDistance = length(toSun) * VIEW_DISTANCE_TO_FALLOFF;
+        float falloff;
+        if (abs(illumination.falloffExponent - 2.0) < 0.01) {
+            falloff = sunIntensity / (falloffDistance * falloffDistance);
+        } else if (abs(illumination.falloffExponent - 1.0) < 0.01) {
+            falloff = sunIntensity / falloffDistance;
+        } else {
+            float physicalFalloff = sunIntensity / (falloffDistance * falloffDistance);
+            float artisticFalloff = illumination.brightnessBoost * sunIntensity /
+                                    pow(falloffDistance, illumination.falloffExponent);
+            falloff = mix(artisticFalloff, physicalFalloff, illumination.physicalWeight);
+        }
+        falloff = clamp(falloff, illumination.minIntensity, illumination.maxIntensity);
+
+        vec3 albedo = spriteColor.rgb;
+        color = albedo / PI * sunColor * falloff * (2.0 / 3.0) * phase
+              + ambientColor * ambientStrength * albedo;
+    }
+
+    vColor = color * coverage;
+}
@@ -4,21 +4,86 @@
 // Single shader for ALL bodies using Uniform Buffer Objects
 // Reduces uniform calls by grouping all per-body data
 
+#ifdef IMPOSTOR
+// Ray-cast impostor (see celestial_unified_ubo.vert): the surface values the
+// mesh path interpolates are computed per pixel by traceImpostor() instead.
+flat in vec3 vRayOrigin;
+in vec3 vRayDir;
+
+vec3 fragPosition;
+vec3 fragNormal;
+vec2 fragTexCoord;
+vec3 fragModelPos;
+
+// Texture gradients without the longitude wrap (see traceImpostor)
+vec2 impostorUvDx;
+vec2 impostorUvDy;
+#else
 // Inputs from vertex shader
 in vec3 fragPosition;  // View space position
 in vec3 fragNormal;    // View space normal
 in vec2 fragTexCoord;  // UV coordinates
 in vec3 fragModelPos;  // Model space position for rings
+#endif
 
+// Frame-constant data shared with the ring and post-FX passes (std140, 288 bytes).
+// Must match FrameDataUBO on the CPU side and the declaration in every stage.
+struct IlluminationProfile {
+    float physicalWeight;
+    float artisticWeight;
+    float falloffExponent;
+    float brightnessBoost;
+    float minIntensity;
+    float maxIntensity;
+};
+
+layout(std140) uniform FrameData {
+    mat4 frameViewMatrix;         // Camera transform
+    mat4 frameProjectionMatrix;   // Perspective projection
+    vec4 frameSunPosition;        // Sun position in view space (xyz)
+    vec3 sunColor;
+    float sunIntensity;
+    vec3 ambientColor;
+    float ambientStrength;
+    IlluminationProfile illumination;
+    vec4 framePostParams;         // (exposure, bloomStrength, bloomThreshold, contrastLift)
+    vec4 frameTime;               // (seconds, deltaSeconds, unused, unused)
+    ivec4 frameFlags;             // (toneMapOperator, unused, unused, unused)
+    vec4 frameCameraHigh;         // Camera position, render space: high floats (xyz)
+    vec4 frameCameraLow;          // Camera position - high (xyz); see bodyCenter()
+};
+
+#ifdef INSTANCED
+// Per-instance block array (std140) — must match CelestialInstance in
+// celestial_unified_ubo.vert and CelestialInstanceBuffer on the CPU side.
+struct CelestialInstance {
+    mat3 modelMatrix;
+    vec4 positionHigh;
+    vec4 positionLow;
+    vec3 albedo;
+    vec3 emission;
+    vec4 materialParams;
+    vec4 bodyGeometry;
+    vec4 textureParams;    // (textureLayer, scaleU, scaleV, hasTexture)
+    ivec4 bodyParams;      // (bodyType, bodyId, ringTextureLayer, unused)
+    vec4 shadowPosition;   // (planetPositionView.xyz, atmosphericRefraction)
+    vec4 shadowAxis;       // (planetAxisView.xyz, unused)
+};
+
+layout(std140) uniform CelestialInstances {
+    CelestialInstance instances[MAX_INSTANCES];
+};
+
+flat in int vInstance;
+
+#define celestial instances[vInstance]
+#else
 // Uniform Buffer Object for all per-body data (std140 layout)
 // Note: macOS OpenGL 4.1 doesn't support explicit binding, set from application
 layout(std140) uniform CelestialData {
-    mat4 modelMatrix;      // Body orientation in world (64 bytes)
-    mat4 viewMatrix;       // Camera transform (64 bytes)
-    mat4 projectionMatrix; // Perspective projection (64 bytes)
-    mat4 mvpMatrix;        // Pre-computed MVP (64 bytes)
-    mat3 normalMatrix;     // Pre-computed normal transform (48 bytes)
-    vec3 sunPosition;      // Sun position in view space (16 bytes with padding)
+    mat3 modelMatrix;      // Body orientation and radii in world, no translation (48 bytes)
+    vec4 positionHigh;     // Body centre in render space, high floats (xyz)
+    vec4 positionLow;      // Body centre - high (xyz)
     vec3 albedo;           // Material albedo color (16 bytes with padding)
     vec3 emission;         // Emission color (16 bytes with padding)
     vec4 materialParams;   // roughness, metallic, emissionStrength, isEmissive packed
@@ -27,31 +92,35 @@ layout(std140) uniform CelestialData {
     // Shader gates "this body has rings" on bodyGeometry.w > 0.
     vec4 bodyGeometry;
 } celestial;
+#endif
 
-// Remaining uniforms — shared across frames
-
-// Illumination (from SceneIllumination) - rarely changes
-uniform vec3 sunColor;
-uniform float sunIntensity;
-uniform vec3 ambientColor;
-uniform float ambientStrength;
+// Remaining uniforms — illumination lives in the FrameData block above
 
-// Illumination profile - set once per session
-uniform struct IlluminationProfile {
-    float physicalWeight;
-    float artisticWeight;
-    float falloffExponent;
-    float brightnessBoost;
-    float minIntensity;
-    float maxIntensity;
-} illumination;
+// Texture array shared by every body in a draw
+uniform sampler2DArray textureArray;
 
+// Baked ringshine integral (texture unit 1; see the ring path and RingshineLut)
+uniform sampler3D ringshineLut;
+
+#ifdef INSTANCED
+// Per-body values come from the instance block. Rings are never instanced,
+// so isRing folds to a constant and the ring branch compiles out.
+#define bodyType (celestial.bodyParams.x)
+#define bodyId (celestial.bodyParams.y)
+#define ringTextureLayer (celestial.bodyParams.z)
+#define textureLayer (int(celestial.textureParams.x))
+#define texCoordScale (celestial.textureParams.yz)
+#define hasTexture (celestial.textureParams.w > 0.5)
+#define isRing false
+#define planetPositionView (celestial.shadowPosition.xyz)
+#define atmosphericRefraction (celestial.shadowPosition.w)
+#define planetAxisView (celestial.shadowAxis.xyz)
+#else
 // Body type - could be moved to UBO if needed
 uniform int bodyType;  // 0=rocky, 1=gas, 2=icy
 uniform int bodyId;    // CelestialBodyId ordinal (SUN=0, MERCURY=1, …, MOON=9)
 
 // Texture - changes per body but less frequently than transforms
-uniform sampler2DArray textureArray;
 uniform int textureLayer;
 uniform vec2 texCoordScale;
 uniform bool hasTexture;
@@ -64,6 +133,65 @@ uniform vec3 planetPositionView;
 uniform vec3 planetAxisView;
 uniform int ringTextureLayer;        // Ring texture layer (-1 if body has no rings)
 uniform float atmosphericRefraction; // Limb refraction in radians (penumbra contribution)
+#endif
+
+// Specialized variants (CelestialVariant on the CPU side). The general program
+// picks its path per draw from bodyType, bodyId, isRing, hasTexture,
+// ringTextureLayer and the emissive flag, so every fragment carries the
+// registers of every path. A variant fixes the selectors its bodies share;
+// the compiler folds those branches and drops the paths they exclude.
+// Selectors a variant leaves open keep their per-draw value.
+//   VARIANT_EMISSIVE    the Sun
+//   VARIANT_ROCKY       ringless rocky bodies
+//   VARIANT_GAS_GIANT   ringless gas giants
+//   VARIANT_ICE_GIANT   ringless ice giants
+//   VARIANT_RINGED      ringed gas giants (the ring-shadow path)
+//   VARIANT_RING        the ring surface
+//   VARIANT_UNTEXTURED  non-emissive bodies whose texture is not resident
+#if defined(VARIANT_ROCKY) || defined(VARIANT_GAS_GIANT) || defined(VARIANT_ICE_GIANT)
+#undef ringTextureLayer
+#define ringTextureLayer (-1)
+#define VARIANT_BODY_SURFACE
+#endif
+#if defined(VARIANT_RINGED) || defined(VARIANT_UNTEXTURED)
+#define VARIANT_BODY_SURFACE
+#endif
+#ifdef VARIANT_ROCKY
+#undef bodyType
+#define bodyType 0
+#endif
+#if defined(VARIANT_GAS_GIANT) || defined(VARIANT_RINGED)
+#undef bodyType
+#define bodyType 1
+#endif
+#ifdef VARIANT_ICE_GIANT
+#undef bodyType
+#define bodyType 2
+#endif
+#if defined(VARIANT_GAS_GIANT) || defined(VARIANT_ICE_GIANT) || defined(VARIANT_RINGED)
+// The per-body special cases (Venus, Earth, Mars) are all rocky
+#undef bodyId
+#define bodyId (-1)
+#endif
+#ifdef VARIANT_UNTEXTURED
+#undef hasTexture
+#define hasTexture false
+#endif
+#if defined(VARIANT_BODY_SURFACE) || defined(VARIANT_EMISSIVE)
+#undef isRing
+#define isRing false
+#endif
+#ifdef VARIANT_RING
+#undef isRing
+#define isRing true
+#endif
+#if defined(VARIANT_EMISSIVE)
+#define EMISSIVE_BODY true
+#elif defined(VARIANT_BODY_SURFACE) || defined(VARIANT_RING)
+#define EMISSIVE_BODY false
+#else
+#define EMISSIVE_BODY (celestial.materialParams.w > 0.5)
+#endif
 
 // Ring-specific optical properties from MaterialCatalog.
 // Note: per-region opticalDepth is classified from the radial texture
@@ -247,7 +375,82 @@ const float SUN_ANGULAR_RADIUS = 4.86e-4;
 // against. If ScaleManager's distance law changes, this needs retuning.
 const float VIEW_DISTANCE_TO_FALLOFF = 0.1;
 
+#ifdef IMPOSTOR
+// Camera-relative body centre, model matrix and normal transform; identical to
+// the helpers in celestial_unified_ubo.vert (split-precision centre, see there).
+vec3 bodyCenter() {
+    precise vec3 high = celestial.positionHigh.xyz - frameCameraHigh.xyz;
+    precise vec3 low = celestial.positionLow.xyz - frameCameraLow.xyz;
+    precise vec3 center = high + low;
+    return center;
+}
+
+mat4 bodyModelMatrix() {
+    mat3 m = celestial.modelMatrix;
+    return mat4(vec4(m[0], 0.0), vec4(m[1], 0.0), vec4(m[2], 0.0), vec4(bodyCenter(), 1.0));
+}
+
+vec3 bodyNormalView(vec3 n) {
+    mat3 m = celestial.modelMatrix;
+    mat3 normalModel = mat3(m[0] / dot(m[0], m[0]), m[1] / dot(m[1], m[1]), m[2] / dot(m[2], m[2]));
+    return normalize(mat3(frameViewMatrix) * (normalModel * n));
+}
+
+// Intersect the pixel's ray with the unit sphere in model space (the exact
+// ellipsoid once the model matrix is applied), fill the surface values, and
+// write the hit's depth. Misses are discarded.
+void traceImpostor() {
+    vec3 o = vRayOrigin;
+    vec3 d = vRayDir;
+    float a = dot(d, d);
+    float b = dot(o, d);
+    float c = dot(o, o) - 1.0;
+    float disc = b * b - a * c;
+
+    // Near root; on a miss this is the closest approach, which keeps the
+    // derivatives below defined for the whole quad before discarding.
+    float t = (-b - sqrt(max(disc, 0.0))) / a;
+    vec3 p = normalize(o + t * d);
+
+    fragModelPos = p;
+    vec4 viewPos = frameViewMatrix * bodyModelMatrix() * vec4(p, 1.0);
+    fragPosition = viewPos.xyz;
+    fragNormal = bodyNormalView(p);  // unit-sphere normal is p
+
+    // Same parametrization as SphereMesh: theta from +Z, phi from +X around Z
+    float theta = acos(clamp(p.z, -1.0, 1.0));
+    float phi = atan(p.y, p.x);
+    float u = fract(phi / 6.283185307);
+    float v = theta / 3.141592654;
+    fragTexCoord = vec2(u, v);
+
+    // u jumps 1 -> 0 at the prime meridian; phi / 2pi jumps at the antimeridian.
+    // Take the u gradient from whichever is continuous here so mip selection
+    // doesn't collapse to the smallest level along the seam.
+    float uAlt = phi / 6.283185307;
+    vec2 du = vec2(dFdx(u), dFdy(u));
+    vec2 duAlt = vec2(dFdx(uAlt), dFdy(uAlt));
+    if (abs(duAlt.x) + abs(duAlt.y) < abs(du.x) + abs(du.y)) {
+        du = duAlt;
+    }
+    impostorUvDx = vec2(du.x, dFdx(v));
+    impostorUvDy = vec2(du.y, dFdy(v));
+
+    if (disc < 0.0 || t < 0.0) {
+        discard;
+    }
+
+    vec4 clip = frameProjectionMatrix * viewPos;
+    float ndcDepth = clip.z / clip.w;
+    gl_FragDepth = 0.5 * (gl_DepthRange.diff * ndcDepth + gl_DepthRange.near + gl_DepthRange.far);
+}
+#endif
+
 void main() {
+#ifdef IMPOSTOR
+    traceImpostor();
+#endif
+
     // Sample texture (format-agnostic; OpenGL handles sRGB).
     vec4 texColor = vec4(1.0);
     if (hasTexture && textureLayer >= 0) {
@@ -272,7 +475,12 @@ void main() {
         } else {
             // Normal texture sampling for planets/moons
             texCoord = vec3(fragTexCoord * texCoordScale, float(textureLayer));
+#ifdef IMPOSTOR
+            texColor = textureGrad(textureArray, texCoord,
+                                   impostorUvDx * texCoordScale, impostorUvDy * texCoordScale);
+#else
             texColor = texture(textureArray, texCoord);
+#endif
         }
     }
     
@@ -282,10 +490,9 @@ void main() {
     float roughness = celestial.materialParams.x;
     float metallic = celestial.materialParams.y;
     float emissionStrength = celestial.materialParams.z;
-    float isEmissive = celestial.materialParams.w;
-    
-    // Use float comparison for emissive flag
-    if (isEmissive > 0.5) {
+
+    // Emissive flag (materialParams.w, packed as a float) unless the variant fixes it
+    if (EMISSIVE_BODY) {
         // Emissive path (Sun).
         // Solar photosphere rendering based on a 5778K blackbody.
 
@@ -334,7 +541,7 @@ void main() {
         float ringOuterRadius = celestial.bodyGeometry.w;
 
         // Ring-specific vectors (all in VIEW space)
-        vec3 L = normalize(celestial.sunPosition - fragPosition);
+        vec3 L = normalize(frameSunPosition.xyz - fragPosition);
         vec3 V = normalize(-fragPosition);
 
         // Three-normal strategy for proper ring lighting
@@ -346,7 +553,7 @@ void main() {
         vec3 ringNormalWorld = normalize(mat3(celestial.modelMatrix) * ringNormalModel);
 
         // Transform to VIEW space for calculations.
-        vec3 ringNormalView = normalize(mat3(celestial.viewMatrix) * ringNormalWorld);
+        vec3 ringNormalView = normalize(mat3(frameViewMatrix) * ringNormalWorld);
 
         // Track actual viewing side (are we looking at top or bottom of ring?)
         bool viewingFromAbove = dot(ringNormalView, V) > 0.0;
@@ -365,7 +572,7 @@ void main() {
 
         // Transform model-space radial to view space for lighting.
         // Use the model-view matrix to transform the direction vector
-        mat3 modelViewMatrix = mat3(celestial.viewMatrix * celestial.modelMatrix);
+        mat3 modelViewMatrix = mat3(frameViewMatrix) * celestial.modelMatrix;
         vec3 radialInPlane = normalize(modelViewMatrix * modelRadial);
 
         // Project radial and light directions onto the ring plane.
@@ -411,7 +618,7 @@ void main() {
         vec3 ringNormalViewStable = ringNormalView;  // Already in stable view space
 
         // Sun direction at this ring fragment (in view space)
-        vec3 sunDirAtFragment = normalize(celestial.sunPosition - fragPosition);
+        vec3 sunDirAtFragment = normalize(frameSunPosition.xyz - fragPosition);
 
         // Solar elevation is the sine of the angle between sun and ring plane
         // This is stable because both vectors are consistently in view space
@@ -453,7 +660,7 @@ void main() {
         // shadow into a divergent cone (point-source artifact) instead of
         // the correct cylinder. `L` elsewhere in this branch stays
         // per-fragment — that's correct for lighting (phase angle, falloff).
-        vec3 toSun = normalize(celestial.sunPosition - planetPositionView);
+        vec3 toSun = normalize(frameSunPosition.xyz - planetPositionView);
 
         // World-space displacement to planet center
         vec3 toPlanet = planetPositionView - fragPosition;
@@ -632,7 +839,7 @@ void main() {
 
         // Distance falloff — match the body branch's calculation exactly.
         // (See VIEW_DISTANCE_TO_FALLOFF for what this scale actually is.)
-        float distance = length(celestial.sunPosition - fragPosition);
+        float distance = length(frameSunPosition.xyz - fragPosition);
         float falloffDistance = distance * VIEW_DISTANCE_TO_FALLOFF;
         float falloff = sunIntensity / (falloffDistance * falloffDistance);  // Same as Saturn body
         falloff = clamp(falloff, illumination.minIntensity, illumination.maxIntensity);  // Use same clamp
@@ -793,7 +1000,7 @@ void main() {
         float saturnshineGeom = 0.0;
         if (planetShadow < 0.9) {
             vec3 toPlanetDir = normalize(planetPositionView - fragPosition);
-            vec3 planetToSun = normalize(celestial.sunPosition - planetPositionView);
+            vec3 planetToSun = normalize(frameSunPosition.xyz - planetPositionView);
             float saturnDistance = length(planetPositionView - fragPosition);
             float ratio = planetRadius / saturnDistance;
             float saturnPhase = SaturnshinePhase(planetToSun, toPlanetDir, ratio);
@@ -873,7 +1080,7 @@ void main() {
         vec3 ambient = ambientColor * ambientStrength * baseColor;
 
         // Inter-ring scattering (ringshine) via analytical disc integration.
-        // Each shadowed fragment receives radiance from N stratified lit-ring
+        // Each shadowed fragment receives radiance from stratified lit-ring
         // samples spanning the C-ring inner edge to A-ring outer edge:
         //   E = Σ (sunColor·albedo·density·cos(elevation)·HG(θ_scatter)·dA·falloff) / d²
         // Samples are gated by sun-visibility (sample not in Saturn's umbra)
@@ -889,16 +1096,23 @@ void main() {
         // for ring-particle inter-scattering.
         //
         // Approximations: single bounce; multi-scattering ignored; stratified
-        // centre-of-cell sampling at 12 azimuth × 3 radial = 36 samples;
-        // HG mix uses the catalog particle ratio uniformly (not per-sample).
+        // centre-of-cell sampling; HG mix uses the catalog particle ratio
+        // uniformly (not per-sample).
+        //
+        // The sum depends on the observer not at all, and on the geometry
+        // only through the fragment's ring radius, its azimuth from the
+        // sub-solar direction and the solar elevation — so it is baked into
+        // the ringshineLut 3D table (ringshine_lut_bake.frag, 8 × 48 samples
+        // per texel, rebuilt when the ring texture changes) and read here
+        // with one trilinear fetch. The table holds the sum without the
+        // falloff·sunColor·cos(elevation) factors, which are applied below.
         //
         // Replaces the previous empirical
         //   ringshineLight = baseColor * ringshineContribution * falloff * 0.02
         // where ringshineContribution was a hand-tuned scalar without
         // physical grounding.
-        // Ringshine is evaluated only in deep umbra / inner penumbra for
-        // performance — 36 dependent textureLod calls per fragment, not
-        // globally affordable. After the shadowedLight = planetShadow
+        // Ringshine is evaluated only in deep umbra / inner penumbra, where
+        // it is visible. After the shadowedLight = planetShadow
         // collapse, a hard `if (planetShadow < 0.15)` cutoff would step
         // ringshineLight from ~85% of its max down to 0 at the threshold
         // (the (1 − shadowedLight) envelope is ≈ 0.85 there). smoothstep
@@ -908,109 +1122,15 @@ void main() {
         float ringshineGate = 1.0 - smoothstep(0.12, 0.20, planetShadow);
         vec3 ringshineRaw = vec3(0.0);
         if (ringshineGate > 0.0) {
-            const int N_RADIAL = 3;
-            const int N_AZIMUTH = 12;
-            const float TWO_PI = 6.28318530718;
-
-            // Consistent ring-plane basis in view space, derived from
-            // model-space axes so all samples share one basis regardless of
-            // fragment azimuth. Don't reuse the per-fragment radialInPlane —
-            // each fragment would otherwise integrate over a different basis.
-            mat3 modelToView = mat3(celestial.viewMatrix * celestial.modelMatrix);
-            vec3 ringX = normalize(modelToView * vec3(1.0, 0.0, 0.0));
-            vec3 ringY = normalize(modelToView * vec3(0.0, 1.0, 0.0));
-
-            float dr_norm = (ringOuterRadius - ringInnerRadius) / float(N_RADIAL);
-            float dphi = TWO_PI / float(N_AZIMUTH);
-            float planetRadiusSq = planetRadius * planetRadius;
-
-            for (int j = 0; j < N_RADIAL; j++) {
-                float r_norm = ringInnerRadius + (float(j) + 0.5) * dr_norm;
-                // r_view = r_norm · planetRadius assumes the model matrix
-                // scales the unit-mesh by planetRadius. If the scaling
-                // pipeline ever decouples mesh scale from the planetRadius
-                // uniform, this is the first thing to check when the
-                // integration looks spatially wrong.
-                float r_view = r_norm * planetRadius;
-                float dr_view = dr_norm * planetRadius;
-
-                // Texture fetch hoisted out of the azimuth loop: the ring
-                // texture is radial (samples on the U axis indexed by
-                // r_norm; V axis is constant 0.5), so all azimuth samples in
-                // this radial bin share one reflectance. Cuts texture fetches
-                // from N_RADIAL·N_AZIMUTH = 36 to N_RADIAL = 3 per fragment.
-                float v_tex = clamp((r_norm - ringInnerRadius) /
-                                    (ringOuterRadius - ringInnerRadius),
-                                    0.001, 0.999);
-                vec4 sampleTex = textureLod(textureArray,
-                                             vec3(v_tex, 0.5,
-                                                  float(textureLayer)),
-                                             2.0);
-                float dA = r_view * dr_view * dphi;
-
-                for (int i = 0; i < N_AZIMUTH; i++) {
-                    float phi = (float(i) + 0.5) * dphi;
-                    float cp = cos(phi);
-                    float sp = sin(phi);
-
-                    vec3 samplePos = planetPositionView
-                                   + ringX * (r_view * cp)
-                                   + ringY * (r_view * sp);
-
-                    vec3 fragToSample = samplePos - fragPosition;
-                    float distSq = dot(fragToSample, fragToSample);
-                    float dist = sqrt(distSq);
-                    if (dist < 0.01 * planetRadius) continue;
-                    vec3 fragToSampleDir = fragToSample / dist;
-
-                    // Receiver visibility: does Saturn occlude fragment→sample?
-                    vec3 fragToCenter = planetPositionView - fragPosition;
-                    float t_recv = dot(fragToCenter, fragToSampleDir);
-                    if (t_recv > 0.0 && t_recv < dist) {
-                        vec3 closest = fragToCenter - fragToSampleDir * t_recv;
-                        if (dot(closest, closest) < planetRadiusSq) continue;
-                    }
-
-                    // Sun visibility: is the sample itself in Saturn's umbra?
-                    vec3 sampleToSun = celestial.sunPosition - samplePos;
-                    float sunDist = length(sampleToSun);
-                    sampleToSun /= sunDist;
-                    vec3 sampleToCenter = planetPositionView - samplePos;
-                    float t_sun = dot(sampleToCenter, sampleToSun);
-                    if (t_sun > 0.0) {
-                        vec3 closest = sampleToCenter - sampleToSun * t_sun;
-                        if (dot(closest, closest) < planetRadiusSq) continue;
-                    }
-
-                    // Slab projected lit area. abs() handles double-sided
-                    // rings (samples can illuminate either face).
-                    float cosIncidence = abs(dot(sampleToSun, ringNormalView));
-
-                    // Henyey-Greenstein phase: scattering angle is
-                    // sun→sample→fragment. Two-population mix matches the
-                    // lit-ring path's particle physics (catalog: large
-                    // g≈-0.65 backscatter, small g≈+0.6 forward). For typical
-                    // umbra geometry (lit samples at azimuths ±90° from sun
-                    // direction relative to fragment), scatter angles are
-                    // mostly in the forward regime; small particles dominate
-                    // single-bounce contribution despite being 30% by mix.
-                    float cosScatter = dot(sampleToSun, fragToSampleDir);
-                    float largePhase = HenyeyGreenstein(cosScatter, ringBackwardG);
-                    float smallPhase = HenyeyGreenstein(cosScatter, ringForwardG);
-                    float phase = mix(largePhase, smallPhase, ringParticleMix);
-
-                    // Sample irradiance approximated by fragment's falloff:
-                    // sample-vs-fragment sun-distance differential is
-                    // O(10⁻⁵) at Saturn distances. sampleTex/dA hoisted to
-                    // the outer (radial) loop above.
-                    vec3 contribution = falloff * sunColor *
-                                        sampleTex.rgb * sampleTex.a *
-                                        cosIncidence * phase * dA / distSq;
-
-                    ringshineRaw += contribution;
-                }
-            }
-
+            // Table axes: radius across the ring, azimuth from the sub-solar
+            // direction over [0, π] (the integral is mirror-symmetric), and
+            // sin(solar elevation) — see RingshineLut.
+            vec3 lutCoord = vec3(
+                (length(fragModelPos.xy) - ringInnerRadius) / (ringOuterRadius - ringInnerRadius),
+                acos(clamp(radialDotLight, -1.0, 1.0)) * 0.31830988618,
+                solarElevation);
+            ringshineRaw = falloff * sunColor * solarElevation
+                         * texture(ringshineLut, lutCoord).rgb;
         }
         // Ringshine assembly: integrated raw flux × fragment reflectance
         // × slab transmission to observer × source gate × shadow envelope.
@@ -1094,7 +1214,7 @@ void main() {
 
         // All calculations in VIEW space (camera at origin)
         vec3 N = normalize(fragNormal);
-        vec3 L = normalize(celestial.sunPosition - fragPosition);  // Light direction
+        vec3 L = normalize(frameSunPosition.xyz - fragPosition);  // Light direction
         vec3 V = normalize(-fragPosition);                         // View direction (camera at 0,0,0)
         // Halfway vector. safeNormalize falls back to V at the L = -V
         // degeneracy; non-emissive specular is gated by NdotL elsewhere
@@ -1114,7 +1234,7 @@ void main() {
         // Distance-based brightness falloff in compressed view-space units.
         // (See VIEW_DISTANCE_TO_FALLOFF — this is an artistic falloff over
         // ScaleManager's power-law distances, not physical AU.)
-        float distance = length(celestial.sunPosition - fragPosition);
+        float distance = length(frameSunPosition.xyz - fragPosition);
         float falloffDistance = distance * VIEW_DISTANCE_TO_FALLOFF;
 
         // Optimized falloff calculation
@@ -1515,7 +1635,7 @@ void main() {
         // Recalculate ring normal for alpha calculation (needs to be in scope)
         vec3 ringNormalModel = vec3(0.0, 0.0, 1.0);
         vec3 ringNormalWorld = normalize(mat3(celestial.modelMatrix) * ringNormalModel);
-        vec3 ringNormalForAlpha = normalize(mat3(celestial.viewMatrix) * ringNormalWorld);
+        vec3 ringNormalForAlpha = normalize(mat3(frameViewMatrix) * ringNormalWorld);
 
         // Angle-dependent opacity approximation: more particles in line-
         // of-sight at edge-on viewing → higher apparent opacity.
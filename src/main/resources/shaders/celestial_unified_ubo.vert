@@ -3,27 +3,153 @@
 // Unified celestial vertex shader with UBO.
 // Single shader for all celestial bodies; per-body data is uploaded as one
 // uniform buffer object per draw call instead of dozens of individual uniforms.
+//
+// Compiled with INSTANCED defined (plus MAX_INSTANCES), the same source reads
+// per-body data from an array of instance blocks indexed by gl_InstanceID so
+// every body sharing a texture array is drawn with one instanced call.
+//
+// Compiled with IMPOSTOR defined, the body is not tessellated: four vertices
+// (from gl_VertexID, no attributes) form a camera-facing quad covering the
+// body's silhouette, and the fragment shader ray-casts the exact ellipsoid.
 
+#ifndef IMPOSTOR
 // Vertex attributes
 layout(location = 0) in vec3 aPosition;    // Body-fixed position
 layout(location = 1) in vec3 aNormal;      // Body-fixed normal
 layout(location = 2) in vec2 aParams;      // (theta, phi) parametric coordinates
+#endif
 
+// Frame-constant data shared with the ring and post-FX passes (std140, 288 bytes).
+// Must match FrameDataUBO on the CPU side and the declaration in every stage.
+struct IlluminationProfile {
+    float physicalWeight;
+    float artisticWeight;
+    float falloffExponent;
+    float brightnessBoost;
+    float minIntensity;
+    float maxIntensity;
+};
+
+layout(std140) uniform FrameData {
+    mat4 frameViewMatrix;         // Camera transform
+    mat4 frameProjectionMatrix;   // Perspective projection
+    vec4 frameSunPosition;        // Sun position in view space (xyz)
+    vec3 sunColor;
+    float sunIntensity;
+    vec3 ambientColor;
+    float ambientStrength;
+    IlluminationProfile illumination;
+    vec4 framePostParams;         // (exposure, bloomStrength, bloomThreshold, contrastLift)
+    vec4 frameTime;               // (seconds, deltaSeconds, unused, unused)
+    ivec4 frameFlags;             // (toneMapOperator, unused, unused, unused)
+    vec4 frameCameraHigh;         // Camera position, render space: high floats (xyz)
+    vec4 frameCameraLow;          // Camera position - high (xyz); see bodyCenter()
+};
+
+#ifdef INSTANCED
+// Per-instance block (std140, 208 bytes). The first seven members mirror
+// CelestialData so the shading code reads them through the same names.
+struct CelestialInstance {
+    mat3 modelMatrix;
+    vec4 positionHigh;
+    vec4 positionLow;
+    vec3 albedo;
+    vec3 emission;
+    vec4 materialParams;
+    vec4 bodyGeometry;
+    vec4 textureParams;    // (textureLayer, scaleU, scaleV, hasTexture)
+    ivec4 bodyParams;      // (bodyType, bodyId, ringTextureLayer, unused)
+    vec4 shadowPosition;   // (planetPositionView.xyz, atmosphericRefraction)
+    vec4 shadowAxis;       // (planetAxisView.xyz, unused)
+};
+
+layout(std140) uniform CelestialInstances {
+    CelestialInstance instances[MAX_INSTANCES];
+};
+
+// First slot of the current batch. GL 4.1 has no base-instance draw, so
+// gl_InstanceID restarts at 0 for every glDrawElementsInstanced call.
+uniform int instanceBase;
+
+flat out int vInstance;
+
+#define celestial instances[instanceBase + gl_InstanceID]
+#else
 // Uniform Buffer Object for all per-body data (std140 layout)
 // Note: macOS OpenGL 4.1 doesn't support explicit binding, set from application
 layout(std140) uniform CelestialData {
-    mat4 modelMatrix;      // Body orientation in world (64 bytes)
-    mat4 viewMatrix;       // Camera transform (64 bytes)
-    mat4 projectionMatrix; // Perspective projection (64 bytes)
-    mat4 mvpMatrix;        // Pre-computed MVP (64 bytes)
-    mat3 normalMatrix;     // Pre-computed normal transform (48 bytes)
-    vec3 sunPosition;      // Sun position in view space (16 bytes with padding)
+    mat3 modelMatrix;      // Body orientation and radii in world, no translation (48 bytes)
+    vec4 positionHigh;     // Body centre in render space, high floats (xyz)
+    vec4 positionLow;      // Body centre - high (xyz)
     vec3 albedo;           // Material albedo color (16 bytes with padding)
     vec3 emission;         // Emission color (16 bytes with padding)
     vec4 materialParams;   // roughness, metallic, emissionStrength, isEmissive packed
     vec4 bodyGeometry;     // (equatorialRadius, polarRadius, ringInner, ringOuter)
 } celestial;
+#endif
+
+// Body centre relative to the camera. Body and camera positions arrive as
+// doubles split into high and low floats; subtracting high from high and low
+// from low before summing keeps the difference to double precision however
+// far both are from the origin. precise stops the compiler reassociating it.
+vec3 bodyCenter() {
+    precise vec3 high = celestial.positionHigh.xyz - frameCameraHigh.xyz;
+    precise vec3 low = celestial.positionLow.xyz - frameCameraLow.xyz;
+    precise vec3 center = high + low;
+    return center;
+}
+
+// Camera-relative model matrix: orientation and radii, translated to the body.
+mat4 bodyModelMatrix() {
+    mat3 m = celestial.modelMatrix;
+    return mat4(vec4(m[0], 0.0), vec4(m[1], 0.0), vec4(m[2], 0.0), vec4(bodyCenter(), 1.0));
+}
+
+// Model-space normal to view space. The model columns are orthogonal (a rotation
+// times per-axis radii) and the view is a rigid transform, so the inverse
+// transpose is the model with each column divided by its squared length.
+vec3 bodyNormalView(vec3 n) {
+    mat3 m = celestial.modelMatrix;
+    mat3 normalModel = mat3(m[0] / dot(m[0], m[0]), m[1] / dot(m[1], m[1]), m[2] / dot(m[2], m[2]));
+    return normalize(mat3(frameViewMatrix) * (normalModel * n));
+}
 
+#ifdef IMPOSTOR
+// Ray in model space, where the body is the unit sphere (the model matrix
+// carries the equatorial/polar radii). Interpolating the quad point and
+// subtracting the constant origin gives the exact per-pixel ray.
+flat out vec3 vRayOrigin;      // Camera position in model space
+out vec3 vRayDir;              // Camera -> quad point, model space
+
+void main() {
+#ifdef INSTANCED
+    vInstance = instanceBase + gl_InstanceID;
+#endif
+
+    mat4 modelView = frameViewMatrix * bodyModelMatrix();
+    vec3 center = modelView[3].xyz;
+    float radius = max(celestial.bodyGeometry.x, celestial.bodyGeometry.y);
+    float dist = length(center);
+
+    // Quad through the centre, perpendicular to the line of sight, sized to the
+    // silhouette cone: half-angle asin(r/d), so radius r*d/sqrt(d^2 - r^2) there.
+    // The renderer only uses impostors when the camera is well outside the body.
+    float halfSize = radius * dist / sqrt(max(dist * dist - radius * radius, 1e-6 * dist * dist));
+    vec3 forward = center / dist;
+    vec3 up = abs(forward.y) > 0.99 ? vec3(1.0, 0.0, 0.0) : vec3(0.0, 1.0, 0.0);
+    vec3 right = normalize(cross(up, forward));
+    up = cross(forward, right);
+
+    // Triangle strip corners: (-1,-1), (1,-1), (-1,1), (1,1)
+    vec2 corner = vec2(float(gl_VertexID & 1), float(gl_VertexID >> 1)) * 2.0 - 1.0;
+    vec3 viewPos = center + (right * corner.x + up * corner.y) * halfSize;
+    gl_Position = frameProjectionMatrix * vec4(viewPos, 1.0);
+
+    mat4 viewToModel = inverse(modelView);
+    vRayOrigin = (viewToModel * vec4(0.0, 0.0, 0.0, 1.0)).xyz;
+    vRayDir = (viewToModel * vec4(viewPos, 1.0)).xyz - vRayOrigin;
+}
+#else
 // Outputs to fragment shader
 out vec3 fragPosition;         // View space position for lighting
 out vec3 fragNormal;           // View space normal for lighting
@@ -31,26 +157,26 @@ out vec2 fragTexCoord;         // UV coordinates [0,1] x [0,1]
 out vec3 fragModelPos;         // Model space position for ring radial calculations
 
 void main() {
+#ifdef INSTANCED
+    vInstance = instanceBase + gl_InstanceID;
+#endif
+
     // Convert parametric (theta, phi) to UV (body-fixed, view-independent).
     float theta = aParams.x;  // 0 to π (north to south)
     float phi = aParams.y;    // 0 to 2π (prime meridian around)
-    
+
     fragTexCoord = vec2(phi / 6.283185307, theta / 3.141592654);
 
     // Pass model-space position for rings (camera-independent).
     fragModelPos = aPosition;
 
-    // Use the pre-computed MVP matrix for final position.
-    gl_Position = celestial.mvpMatrix * vec4(aPosition, 1.0);
-
-    // View-space position computed the same way the MVP matrix was built on the CPU.
-    // First transform to world space, then to view space
-    // This matches how the MVP was calculated on CPU
-    vec4 worldPos = celestial.modelMatrix * vec4(aPosition, 1.0);
-    vec4 viewPos = celestial.viewMatrix * worldPos;
+    // Camera-relative world position: the body's offset from the camera
+    // (split-precision, see bodyCenter) plus the vertex in body axes.
+    vec3 worldPos = bodyCenter() + celestial.modelMatrix * aPosition;
+    vec4 viewPos = frameViewMatrix * vec4(worldPos, 1.0);
     fragPosition = viewPos.xyz;
+    gl_Position = frameProjectionMatrix * viewPos;
 
-    // Transform normal using the pre-computed normal matrix.
-    // Normal matrix = (ModelView)^-1^T for correct view-space lighting
-    fragNormal = normalize(celestial.normalMatrix * aNormal);
-}
\ No newline at end of file
+    fragNormal = bodyNormalView(aNormal);
+}
+#endif
@@ -0,0 +1,19 @@
+#version 410 core
+
+// Dual-filter (dual Kawase) downsample: centre plus four diagonal bilinear taps half a source
+// texel out, so five fetches cover a 4x4 source footprint.
+
+in vec2 v_texCoord;
+out vec4 fragColor;
+
+uniform sampler2D u_source;
+uniform vec2 u_halfPixel; // half a source texel, in UV
+
+void main() {
+    vec3 sum = texture(u_source, v_texCoord).rgb * 4.0;
+    sum += texture(u_source, v_texCoord - u_halfPixel).rgb;
+    sum += texture(u_source, v_texCoord + u_halfPixel).rgb;
+    sum += texture(u_source, v_texCoord + vec2(u_halfPixel.x, -u_halfPixel.y)).rgb;
+    sum += texture(u_source, v_texCoord - vec2(u_halfPixel.x, -u_halfPixel.y)).rgb;
+    fragColor = vec4(sum * 0.125, 1.0);
+}
@@ -0,0 +1,68 @@
+#version 410 core
+
+// Bloom prefilter: full-resolution scene -> half-resolution bright pass. Same 5-tap kernel as
+// postfx_bloom_down, but each tap is weighted by 1 / (1 + brightness) (Karis average) so a
+// single very bright texel — the Sun's disc — cannot flicker as it moves across texels.
+
+in vec2 v_texCoord;
+out vec4 fragColor;
+
+uniform sampler2D u_source;
+uniform vec2 u_halfPixel; // half a source texel, in UV
+
+// Frame-constant data (std140) — must match FrameDataUBO and celestial_unified_ubo.*
+struct IlluminationProfile {
+    float physicalWeight;
+    float artisticWeight;
+    float falloffExponent;
+    float brightnessBoost;
+    float minIntensity;
+    float maxIntensity;
+};
+
+layout(std140) uniform FrameData {
+    mat4 frameViewMatrix;
+    mat4 frameProjectionMatrix;
+    vec4 frameSunPosition;
+    vec3 sunColor;
+    float sunIntensity;
+    vec3 ambientColor;
+    float ambientStrength;
+    IlluminationProfile illumination;
+    vec4 framePostParams;         // (exposure, bloomStrength, bloomThreshold, contrastLift)
+    vec4 frameTime;
+    ivec4 frameFlags;             // (toneMapOperator: 0 = Reinhard, 1 = ACES (Narkowicz), ...)
+    vec4 frameCameraHigh;
+    vec4 frameCameraLow;
+};
+
+#define u_bloomThreshold (framePostParams.z)
+
+float brightness(vec3 c) {
+    return max(c.r, max(c.g, c.b));
+}
+
+vec3 karisTap(vec2 uv, out float weight) {
+    vec3 c = texture(u_source, uv).rgb;
+    weight = 1.0 / (1.0 + brightness(c));
+    return c * weight;
+}
+
+void main() {
+    float w0, w1, w2, w3, w4;
+    vec3 sum = karisTap(v_texCoord, w0) * 4.0;
+    sum += karisTap(v_texCoord - u_halfPixel, w1);
+    sum += karisTap(v_texCoord + u_halfPixel, w2);
+    sum += karisTap(v_texCoord + vec2(u_halfPixel.x, -u_halfPixel.y), w3);
+    sum += karisTap(v_texCoord - vec2(u_halfPixel.x, -u_halfPixel.y), w4);
+    vec3 color = sum / (w0 * 4.0 + w1 + w2 + w3 + w4);
+
+    // Soft-knee threshold on the brightest channel: keeps hue, no hard edge at the threshold
+    float b = brightness(color);
+    float knee = u_bloomThreshold * 0.5;
+    float soft = clamp(b - u_bloomThreshold + knee, 0.0, 2.0 * knee);
+    soft = soft * soft / (4.0 * knee + 1e-5);
+    float contribution = max(soft, b - u_bloomThreshold) / max(b, 1e-5);
+
+    fragColor = vec4(color * contribution, 1.0);
+}
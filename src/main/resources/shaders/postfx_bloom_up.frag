@@ -0,0 +1,23 @@
+#version 410 core
+
+// Dual-filter (dual Kawase) upsample: a tent of four axis taps a full source texel out and four
+// diagonal taps half a texel out (weighted twice), eight fetches per output pixel.
+
+in vec2 v_texCoord;
+out vec4 fragColor;
+
+uniform sampler2D u_source;
+uniform vec2 u_halfPixel; // half a source texel, in UV
+
+void main() {
+    vec2 h = u_halfPixel;
+    vec3 sum = texture(u_source, v_texCoord + vec2(-h.x * 2.0, 0.0)).rgb;
+    sum += texture(u_source, v_texCoord + vec2(-h.x, h.y)).rgb * 2.0;
+    sum += texture(u_source, v_texCoord + vec2(0.0, h.y * 2.0)).rgb;
+    sum += texture(u_source, v_texCoord + vec2(h.x, h.y)).rgb * 2.0;
+    sum += texture(u_source, v_texCoord + vec2(h.x * 2.0, 0.0)).rgb;
+    sum += texture(u_source, v_texCoord + vec2(h.x, -h.y)).rgb * 2.0;
+    sum += texture(u_source, v_texCoord + vec2(0.0, -h.y * 2.0)).rgb;
+    sum += texture(u_source, v_texCoord + vec2(-h.x, -h.y)).rgb * 2.0;
+    fragColor = vec4(sum / 12.0, 1.0);
+}
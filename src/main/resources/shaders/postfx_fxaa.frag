@@ -0,0 +1,145 @@
+#version 410 core
+
+// FXAA on the tonemapped image (Lottes, FXAA 3.11 quality path, simplified): find pixels on a
+// luma edge, walk along the edge to its ends, and resample across it by how far the pixel sits
+// from the nearer end. A sub-pixel term softens single-pixel features the walk cannot resolve.
+//
+// The source is sRGB8: fetches return linear colour, and luma is taken as sqrt of linear luminance
+// to approximate the perceptual values FXAA's thresholds are tuned for.
+
+in vec2 v_texCoord;
+out vec4 fragColor;
+
+uniform sampler2D u_ldr;
+uniform vec2 u_texelSize;
+
+const float EDGE_THRESHOLD = 0.125;      // local contrast needed, relative to the brightest tap
+const float EDGE_THRESHOLD_MIN = 0.0312; // ignore edges in near-black space
+const float SUBPIXEL = 0.75;
+const int SEARCH_STEPS = 10;
+
+float luma(vec3 linear) {
+    return sqrt(dot(linear, vec3(0.299, 0.587, 0.114)));
+}
+
+float lumaAt(vec2 uv) {
+    return luma(texture(u_ldr, uv).rgb);
+}
+
+float searchStep(int i) {
+    return i < 4 ? 1.0 : (i < 8 ? 2.0 : 4.0);
+}
+
+void main() {
+    vec2 uv = v_texCoord;
+    vec3 colorCenter = texture(u_ldr, uv).rgb;
+    float lumaCenter = luma(colorCenter);
+
+    float lumaDown = luma(textureOffset(u_ldr, uv, ivec2(0, -1)).rgb);
+    float lumaUp = luma(textureOffset(u_ldr, uv, ivec2(0, 1)).rgb);
+    float lumaLeft = luma(textureOffset(u_ldr, uv, ivec2(-1, 0)).rgb);
+    float lumaRight = luma(textureOffset(u_ldr, uv, ivec2(1, 0)).rgb);
+
+    float lumaMin = min(lumaCenter, min(min(lumaDown, lumaUp), min(lumaLeft, lumaRight)));
+    float lumaMax = max(lumaCenter, max(max(lumaDown, lumaUp), max(lumaLeft, lumaRight)));
+    float lumaRange = lumaMax - lumaMin;
+    if (lumaRange < max(EDGE_THRESHOLD_MIN, lumaMax * EDGE_THRESHOLD)) {
+        fragColor = vec4(colorCenter, 1.0);
+        return;
+    }
+
+    float lumaDownLeft = luma(textureOffset(u_ldr, uv, ivec2(-1, -1)).rgb);
+    float lumaUpRight = luma(textureOffset(u_ldr, uv, ivec2(1, 1)).rgb);
+    float lumaUpLeft = luma(textureOffset(u_ldr, uv, ivec2(-1, 1)).rgb);
+    float lumaDownRight = luma(textureOffset(u_ldr, uv, ivec2(1, -1)).rgb);
+
+    float lumaDownUp = lumaDown + lumaUp;
+    float lumaLeftRight = lumaLeft + lumaRight;
+    float lumaLeftCorners = lumaDownLeft + lumaUpLeft;
+    float lumaDownCorners = lumaDownLeft + lumaDownRight;
+    float lumaRightCorners = lumaDownRight + lumaUpRight;
+    float lumaUpCorners = lumaUpRight + lumaUpLeft;
+
+    // Edge orientation from second differences along each axis
+    float edgeHorizontal = abs(-2.0 * lumaLeft + lumaLeftCorners)
+                         + abs(-2.0 * lumaCenter + lumaDownUp) * 2.0
+                         + abs(-2.0 * lumaRight + lumaRightCorners);
+    float edgeVertical = abs(-2.0 * lumaUp + lumaUpCorners)
+                       + abs(-2.0 * lumaCenter + lumaLeftRight) * 2.0
+                       + abs(-2.0 * lumaDown + lumaDownCorners);
+    bool isHorizontal = edgeHorizontal >= edgeVertical;
+
+    // Which side of the pixel the edge lies on
+    float luma1 = isHorizontal ? lumaDown : lumaLeft;
+    float luma2 = isHorizontal ? lumaUp : lumaRight;
+    float gradient1 = luma1 - lumaCenter;
+    float gradient2 = luma2 - lumaCenter;
+    bool is1Steepest = abs(gradient1) >= abs(gradient2);
+    float gradientScaled = 0.25 * max(abs(gradient1), abs(gradient2));
+
+    float stepLength = isHorizontal ? u_texelSize.y : u_texelSize.x;
+    float lumaLocalAverage;
+    if (is1Steepest) {
+        stepLength = -stepLength;
+        lumaLocalAverage = 0.5 * (luma1 + lumaCenter);
+    } else {
+        lumaLocalAverage = 0.5 * (luma2 + lumaCenter);
+    }
+
+    // Walk both ways along the edge, half a texel across it, until the luma leaves the edge
+    vec2 edgeUv = uv;
+    if (isHorizontal) {
+        edgeUv.y += stepLength * 0.5;
+    } else {
+        edgeUv.x += stepLength * 0.5;
+    }
+    vec2 offset = isHorizontal ? vec2(u_texelSize.x, 0.0) : vec2(0.0, u_texelSize.y);
+    vec2 uv1 = edgeUv - offset;
+    vec2 uv2 = edgeUv + offset;
+
+    float lumaEnd1 = lumaAt(uv1) - lumaLocalAverage;
+    float lumaEnd2 = lumaAt(uv2) - lumaLocalAverage;
+    bool reached1 = abs(lumaEnd1) >= gradientScaled;
+    bool reached2 = abs(lumaEnd2) >= gradientScaled;
+    if (!reached1) uv1 -= offset;
+    if (!reached2) uv2 += offset;
+
+    for (int i = 0; i < SEARCH_STEPS && !(reached1 && reached2); i++) {
+        if (!reached1) {
+            lumaEnd1 = lumaAt(uv1) - lumaLocalAverage;
+            reached1 = abs(lumaEnd1) >= gradientScaled;
+            if (!reached1) uv1 -= offset * searchStep(i);
+        }
+        if (!reached2) {
+            lumaEnd2 = lumaAt(uv2) - lumaLocalAverage;
+            reached2 = abs(lumaEnd2) >= gradientScaled;
+            if (!reached2) uv2 += offset * searchStep(i);
+        }
+    }
+
+    float distance1 = isHorizontal ? (uv.x - uv1.x) : (uv.y - uv1.y);
+    float distance2 = isHorizontal ? (uv2.x - uv.x) : (uv2.y - uv.y);
+    bool isDirection1 = distance1 < distance2;
+    float distanceFinal = min(distance1, distance2);
+    float edgeLength = distance1 + distance2;
+    float pixelOffset = -distanceFinal / edgeLength + 0.5;
+
+    // Only blend if the nearer end moves the luma the way the centre differs from the edge
+    bool isLumaCenterSmaller = lumaCenter < lumaLocalAverage;
+    bool correctVariation = ((isDirection1 ? lumaEnd1 : lumaEnd2) < 0.0) != isLumaCenterSmaller;
+    float finalOffset = correctVariation ? pixelOffset : 0.0;
+
+    float lumaAverage = (1.0 / 12.0) * (2.0 * (lumaDownUp + lumaLeftRight)
+                                        + lumaLeftCorners + lumaRightCorners);
+    float subPixelOffset1 = clamp(abs(lumaAverage - lumaCenter) / lumaRange, 0.0, 1.0);
+    float subPixelOffset2 = (-2.0 * subPixelOffset1 + 3.0) * subPixelOffset1 * subPixelOffset1;
+    finalOffset = max(finalOffset, subPixelOffset2 * subPixelOffset2 * SUBPIXEL);
+
+    vec2 finalUv = uv;
+    if (isHorizontal) {
+        finalUv.y += finalOffset * stepLength;
+    } else {
+        finalUv.x += finalOffset * stepLength;
+    }
+    fragColor = vec4(texture(u_ldr, finalUv).rgb, 1.0);
+}
@@ -5,10 +5,37 @@ out vec4 fragColor;
 
 uniform sampler2D u_sceneHDR;
 uniform sampler2D u_bloom;
-uniform float u_exposure;
-uniform float u_bloomStrength;
-uniform int u_toneMapOp;     // 0 = Reinhard, 1 = ACES (Narkowicz)
-uniform float u_contrastLift;
+
+// Frame-constant data (std140) — must match FrameDataUBO and celestial_unified_ubo.*
+struct IlluminationProfile {
+    float physicalWeight;
+    float artisticWeight;
+    float falloffExponent;
+    float brightnessBoost;
+    float minIntensity;
+    float maxIntensity;
+};
+
+layout(std140) uniform FrameData {
+    mat4 frameViewMatrix;
+    mat4 frameProjectionMatrix;
+    vec4 frameSunPosition;
+    vec3 sunColor;
+    float sunIntensity;
+    vec3 ambientColor;
+    float ambientStrength;
+    IlluminationProfile illumination;
+    vec4 framePostParams;         // (exposure, bloomStrength, bloomThreshold, contrastLift)
+    vec4 frameTime;
+    ivec4 frameFlags;             // (toneMapOperator: 0 = Reinhard, 1 = ACES (Narkowicz), ...)
+    vec4 frameCameraHigh;
+    vec4 frameCameraLow;
+};
+
+#define u_exposure (framePostParams.x)
+#define u_bloomStrength (framePostParams.y)
+#define u_contrastLift (framePostParams.w)
+#define u_toneMapOp (frameFlags.x)
 
 vec3 reinhard(vec3 x) {
     return x / (1.0 + x);
@@ -0,0 +1,104 @@
+#version 410 core
+
+// Ringshine lookup-table bake: one slice (one solar elevation) of the
+// integral the ring path used to evaluate per fragment.
+//
+// Texel (x, y) of a slice is a ring-plane receiver at normalised radius
+// mix(ringInnerRadius, ringOuterRadius, x) and azimuth y·π from the
+// sub-solar direction, with the sun at elevation asin(sinElevation).
+// Planet radius is 1 — the integrand's dA/d² is scale-free — and the sun
+// is at infinity. Symmetry makes ±azimuth and ±elevation identical, so
+// [0, π] × [0, 1] covers every geometry.
+//
+// Stored per texel: Σ reflectance·density·HG(θ_scatter)·dA/d² over the lit,
+// receiver-visible samples. The runtime multiplies by
+// falloff·sunColor·sinElevation (the slab's projected lit area, factored
+// out so the table goes to zero at equinox with the physics, not with the
+// interpolation).
+
+in vec2 v_texCoord;
+out vec4 fragColor;
+
+uniform sampler2DArray textureArray;
+uniform int textureLayer;
+uniform float ringInnerRadius;
+uniform float ringOuterRadius;
+uniform float ringForwardG;
+uniform float ringBackwardG;
+uniform float ringParticleMix;
+uniform float sinElevation;
+
+// Baked once per ring texture, so the sample grid can be far denser than
+// the 3 × 12 the per-fragment loop could afford.
+const int N_RADIAL = 8;
+const int N_AZIMUTH = 48;
+const float PI = 3.14159265;
+const float TWO_PI = 6.28318530718;
+
+float HenyeyGreenstein(float cosTheta, float g) {
+    float g2 = g * g;
+    float num = 1.0 - g2;
+    float denom = pow(1.0 + g2 - 2.0 * g * cosTheta, 1.5);
+    return num / (4.0 * 3.14159265 * denom);
+}
+
+void main() {
+    float r_recv = mix(ringInnerRadius, ringOuterRadius, v_texCoord.x);
+    float phi_recv = v_texCoord.y * PI;
+    vec3 receiver = vec3(r_recv * cos(phi_recv), r_recv * sin(phi_recv), 0.0);
+
+    // Ring plane z = 0, sun azimuth along +x
+    float cosElevation = sqrt(max(0.0, 1.0 - sinElevation * sinElevation));
+    vec3 sampleToSun = vec3(cosElevation, 0.0, sinElevation);
+
+    float dr = (ringOuterRadius - ringInnerRadius) / float(N_RADIAL);
+    float dphi = TWO_PI / float(N_AZIMUTH);
+
+    vec3 sum = vec3(0.0);
+    for (int j = 0; j < N_RADIAL; j++) {
+        float r = ringInnerRadius + (float(j) + 0.5) * dr;
+
+        // Radial ring texture: every azimuth sample in the bin shares one
+        // reflectance (same fetch as the ring path's).
+        float v_tex = clamp((r - ringInnerRadius) / (ringOuterRadius - ringInnerRadius),
+                            0.001, 0.999);
+        vec4 sampleTex = textureLod(textureArray, vec3(v_tex, 0.5, float(textureLayer)), 2.0);
+        float dA = r * dr * dphi;
+
+        for (int i = 0; i < N_AZIMUTH; i++) {
+            float phi = (float(i) + 0.5) * dphi;
+            vec3 samplePos = vec3(r * cos(phi), r * sin(phi), 0.0);
+
+            vec3 toSample = samplePos - receiver;
+            float distSq = dot(toSample, toSample);
+            float dist = sqrt(distSq);
+            if (dist < 0.01) continue;
+            vec3 toSampleDir = toSample / dist;
+
+            // Receiver visibility: does the planet occlude receiver→sample?
+            vec3 toCenter = -receiver;
+            float t_recv = dot(toCenter, toSampleDir);
+            if (t_recv > 0.0 && t_recv < dist) {
+                vec3 closest = toCenter - toSampleDir * t_recv;
+                if (dot(closest, closest) < 1.0) continue;
+            }
+
+            // Sun visibility: is the sample in the planet's umbra?
+            vec3 sampleToCenter = -samplePos;
+            float t_sun = dot(sampleToCenter, sampleToSun);
+            if (t_sun > 0.0) {
+                vec3 closest = sampleToCenter - sampleToSun * t_sun;
+                if (dot(closest, closest) < 1.0) continue;
+            }
+
+            // Scattering angle sun→sample→receiver, two-population HG mix
+            float cosScatter = dot(sampleToSun, toSampleDir);
+            float largePhase = HenyeyGreenstein(cosScatter, ringBackwardG);
+            float smallPhase = HenyeyGreenstein(cosScatter, ringForwardG);
+            float phase = mix(largePhase, smallPhase, ringParticleMix);
+
+            sum += sampleTex.rgb * sampleTex.a * phase * dA / distSq;
+        }
+    }
+    fragColor = vec4(sum, 1.0);
+}
@@ -0,0 +1,16 @@
+#version 410 core
+
+// Star point with a Gaussian-like falloff (see starfield.vert), summed additively.
+
+in vec3 vColor;
+
+out vec4 fragColor;
+
+void main() {
+    vec2 p = gl_PointCoord * 2.0 - 1.0;
+    float r2 = dot(p, p);
+    if (r2 > 1.0) {
+        discard;
+    }
+    fragColor = vec4(vColor * exp(-4.0 * r2), 1.0);
+}
@@ -0,0 +1,64 @@
+#version 410 core
+
+// Catalog starfield (StarfieldLayer). Stars are directions, drawn at infinity:
+// w = 0 drops the camera translation, so only the view rotation applies and the
+// sky stays fixed however far the camera travels.
+
+layout(location = 0) in vec3 starDirection;  // J2000 equatorial unit vector
+layout(location = 1) in vec2 starPhotometry; // visual magnitude, B-V colour index
+
+// projection * view rotation * J2000-to-render rotation
+uniform mat4 starMatrix;
+
+// Stars fainter than this are not drawn; the last magnitude fades in so the limit
+// moving with exposure and zoom does not pop stars in and out.
+uniform float limitingMagnitude;
+
+// Flux of a magnitude-0 star, in scene radiance × pixels
+uniform float zeroMagnitudeFlux;
+
+out vec3 vColor;
+
+const float PI = 3.14159265;
+
+// Point sizes: the faintest stars cover a 2 px footprint, the brightest swell to
+// MAX_POINT_SIZE, as the eye reads a bright point's glare as size.
+const float MIN_POINT_SIZE = 2.0;
+const float MAX_POINT_SIZE = 8.0;
+
+// Integral of the fragment profile exp(-4 r²) over the unit-radius point
+const float PROFILE_INTEGRAL = 0.25 * PI * (1.0 - 0.01831564);
+
+// Linear-light colour of a blackbody from its B-V index: Ballesteros (2012) for
+// the temperature, then a fit to the Planckian locus, normalized to unit luminance.
+vec3 starColor(float bv) {
+    bv = clamp(bv, -0.4, 2.0);
+    float t = 4600.0 * (1.0 / (0.92 * bv + 1.7) + 1.0 / (0.92 * bv + 0.62));
+    float k = t / 100.0;
+    vec3 srgb;
+    srgb.r = k <= 66.0 ? 1.0 : clamp(1.292936 * pow(k - 60.0, -0.1332048), 0.0, 1.0);
+    srgb.g = k <= 66.0 ? clamp(0.3900816 * log(k) - 0.6318414, 0.0, 1.0)
+                       : clamp(1.1298909 * pow(k - 60.0, -0.0755148), 0.0, 1.0);
+    srgb.b = k >= 66.0 ? 1.0
+                       : (k <= 19.0 ? 0.0 : clamp(0.5432068 * log(k - 10.0) - 1.1962541, 0.0, 1.0));
+    vec3 rgb = pow(srgb, vec3(2.2));
+    return rgb / max(dot(rgb, vec3(0.2126, 0.7152, 0.0722)), 1e-4);
+}
+
+void main() {
+    gl_Position = starMatrix * vec4(starDirection, 0.0);
+    // On the far plane (z = w): behind everything the scene draws later
+    gl_Position.z = gl_Position.w;
+
+    float magnitude = starPhotometry.x;
+    float flux = zeroMagnitudeFlux * pow(10.0, -0.4 * magnitude);
+    flux *= clamp(limitingMagnitude - magnitude, 0.0, 1.0);
+
+    float size = clamp(MIN_POINT_SIZE * pow(flux / zeroMagnitudeFlux * 100.0, 0.25),
+                       MIN_POINT_SIZE, MAX_POINT_SIZE);
+    gl_PointSize = size;
+
+    // Spread the flux over the point's profile so the sum over its pixels is the flux
+    float radius = 0.5 * size;
+    vColor = starColor(starPhotometry.y) * flux / (PROFILE_INTEGRAL * radius * radius);
+}
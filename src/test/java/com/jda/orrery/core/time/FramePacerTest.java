@@ -0,0 +1,94 @@
+package com.jda.orrery.core.time;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link FramePacer} delta smoothing and limiter scheduling. */
+public class FramePacerTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    @DisplayName("Jittery present intervals give steady deltas")
+    void smoothsJitter() {
+        FramePacer pacer = new FramePacer(0);
+        long now = 1_000 * MS;
+        pacer.framePresented(now);
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        for (int i = 0; i < 600; i++) {
+            now += (i % 2 == 0) ? 12 * MS : 21 * MS; // 16.5ms average
+            double delta = pacer.framePresented(now);
+            if (i >= 100) {
+                min = Math.min(min, delta);
+                max = Math.max(max, delta);
+            }
+        }
+        assertEquals(0.0165, (min + max) / 2, 0.0005);
+        assertTrue(max - min < 0.002, "spread " + (max - min));
+    }
+
+    @Test
+    @DisplayName("Summed deltas stay locked to wall time")
+    void noDriftAgainstWallTime() {
+        FramePacer pacer = new FramePacer(0);
+        long start = 1_000 * MS;
+        long now = start;
+        pacer.framePresented(now);
+        double delivered = 0;
+        for (int i = 0; i < 100_000; i++) {
+            now += (i % 7 == 0) ? 25 * MS : 15 * MS;
+            delivered += pacer.framePresented(now);
+        }
+        double wall = (now - start) / 1e9;
+        assertEquals(wall, delivered, 0.05);
+    }
+
+    @Test
+    @DisplayName("Hitches pass through unsmoothed and restart the average")
+    void hitchPassesThrough() {
+        FramePacer pacer = new FramePacer(0);
+        long now = 1_000 * MS;
+        pacer.framePresented(now);
+        for (int i = 0; i < 50; i++) {
+            now += 16 * MS;
+            pacer.framePresented(now);
+        }
+        now += 500 * MS;
+        assertEquals(0.5, pacer.framePresented(now), 1e-9);
+        now += 16 * MS;
+        assertEquals(0.016, pacer.framePresented(now), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Before any present the delta is the nominal interval")
+    void nominalDeltaBeforeFirstInterval() {
+        assertEquals(1.0 / 60.0, new FramePacer(60).getDeltaSeconds(), 1e-12);
+        assertEquals(0.0, new FramePacer(0).getDeltaSeconds());
+        assertThrows(IllegalArgumentException.class, () -> new FramePacer(-1));
+    }
+
+    @Test
+    @DisplayName("Spin window is twice the park overshoot, within bounds")
+    void spinWindowBounds() {
+        assertEquals(FramePacer.MIN_SPIN_NANOS, FramePacer.spinWindow(0));
+        assertEquals(600_000, FramePacer.spinWindow(300_000));
+        assertEquals(FramePacer.MAX_SPIN_NANOS, FramePacer.spinWindow(15_000_000));
+    }
+
+    @Test
+    @DisplayName("Limiter holds the frame rate")
+    void limiterHoldsRate() {
+        FramePacer pacer = new FramePacer(200); // 5ms
+        pacer.awaitNextFrame(); // starts the schedule
+        long start = System.nanoTime();
+        for (int i = 0; i < 40; i++) {
+            pacer.awaitNextFrame();
+        }
+        double elapsedMs = (System.nanoTime() - start) / 1e6;
+        assertTrue(elapsedMs >= 195, "elapsed " + elapsedMs);
+        assertTrue(elapsedMs < 400, "elapsed " + elapsedMs);
+    }
+}
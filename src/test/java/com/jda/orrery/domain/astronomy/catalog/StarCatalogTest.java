@@ -0,0 +1,115 @@
+package com.jda.orrery.domain.astronomy.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests for {@link StarCatalogConverter} and the {@link StarCatalog} file it writes. */
+public class StarCatalogTest {
+
+    private static final float EPSILON = 1e-5f;
+
+    @TempDir Path tempDir;
+
+    private StarCatalog convert(String csv, float maxMagnitude) throws IOException {
+        Path file = tempDir.resolve("stars.bin");
+        StarCatalogConverter.convert(new BufferedReader(new StringReader(csv)), file, maxMagnitude);
+        return StarCatalog.open(file);
+    }
+
+    @Test
+    @DisplayName("HYG rows become unit vectors sorted brightest first, without the Sun")
+    void hygRows() throws IOException {
+        String csv =
+                "id,proper,ra,dec,mag,ci\n"
+                        + "0,Sol,0.000000,0.000000,-26.700,0.656\n"
+                        + "1,\"Star, Faint\",6.0,0.0,5.5,1.2\n"
+                        + "2,Sirius,6.752481,-16.716116,-1.440,0.009\n"
+                        + "3,Polar,0.0,90.0,2.0,\n"
+                        + "4,NoMag,1.0,1.0,,0.5\n";
+        StarCatalog catalog = convert(csv, StarCatalogConverter.DEFAULT_MAX_MAGNITUDE);
+
+        assertEquals(3, catalog.getCount());
+        assertEquals(-1.44f, catalog.getMagnitude(0), EPSILON);
+        assertEquals(2.0f, catalog.getMagnitude(1), EPSILON);
+        assertEquals(5.5f, catalog.getMagnitude(2), EPSILON);
+
+        ByteBuffer data = catalog.getStarData();
+        assertEquals(3 * StarCatalog.STAR_BYTES, data.remaining());
+        // Polar star: +Z, default colour index
+        int polar = StarCatalog.STAR_BYTES;
+        assertEquals(0.0f, data.getFloat(polar), EPSILON);
+        assertEquals(1.0f, data.getFloat(polar + 2 * Float.BYTES), EPSILON);
+        assertEquals(
+                StarCatalogConverter.DEFAULT_COLOR_INDEX,
+                data.getFloat(polar + 4 * Float.BYTES),
+                EPSILON);
+        // RA 6h on the equator: +Y; quoted name with a comma did not shift the columns
+        int faint = 2 * StarCatalog.STAR_BYTES;
+        assertEquals(1.0f, data.getFloat(faint + Float.BYTES), EPSILON);
+        assertEquals(1.2f, data.getFloat(faint + 4 * Float.BYTES), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Tycho BT/VT columns give Johnson V and B-V; RA in degrees")
+    void tychoRows() throws IOException {
+        String csv = "RAmdeg,DEmdeg,BTmag,VTmag\n" + "180.0,0.0,9.0,8.0\n" + "90.0,0.0,,7.0\n";
+        StarCatalog catalog = convert(csv, StarCatalogConverter.DEFAULT_MAX_MAGNITUDE);
+
+        assertEquals(2, catalog.getCount());
+        ByteBuffer data = catalog.getStarData();
+        assertEquals(7.0f, catalog.getMagnitude(0), EPSILON);
+        assertEquals(1.0f, data.getFloat(Float.BYTES), EPSILON); // RA 90°: +Y
+        int second = StarCatalog.STAR_BYTES;
+        assertEquals(-1.0f, data.getFloat(second), EPSILON); // RA 180°: -X
+        assertEquals(8.0f - 0.09f, catalog.getMagnitude(1), EPSILON);
+        assertEquals(0.85f, data.getFloat(second + 4 * Float.BYTES), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Magnitude cap drops faint stars; drawn prefix follows the limit")
+    void magnitudeRanges() throws IOException {
+        StringBuilder csv = new StringBuilder("ra,dec,mag\n");
+        for (int i = 0; i < 100; i++) {
+            csv.append(i % 24).append(",0,").append(i * 0.1f).append('\n');
+        }
+        StarCatalog catalog = convert(csv.toString(), 5.0f);
+
+        assertEquals(51, catalog.getCount()); // 0.0 .. 5.0
+        for (int i = 1; i < catalog.getCount(); i++) {
+            assertTrue(catalog.getMagnitude(i - 1) <= catalog.getMagnitude(i));
+        }
+        assertEquals(0, catalog.countBrighterThan(-1.0f));
+        assertEquals(1, catalog.countBrighterThan(0.05f));
+        assertEquals(31, catalog.countBrighterThan(3.05f));
+        assertEquals(51, catalog.countBrighterThan(99.0f));
+    }
+
+    @Test
+    @DisplayName("Catalogs without position or magnitude columns are rejected")
+    void missingColumns() {
+        assertThrows(IllegalArgumentException.class, () -> convert("ra,dec,dist\n1,2,3\n", 6.0f));
+    }
+
+    @Test
+    @DisplayName("Truncated and foreign files fail to open")
+    void invalidFiles() throws IOException {
+        Path file = tempDir.resolve("bad.bin");
+        Files.write(file, new byte[8]);
+        assertThrows(IOException.class, () -> StarCatalog.open(file));
+
+        convert("ra,dec,mag\n1,2,3\n", StarCatalogConverter.DEFAULT_MAX_MAGNITUDE);
+        byte[] bytes = Files.readAllBytes(tempDir.resolve("stars.bin"));
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> StarCatalog.open(file));
+    }
+}
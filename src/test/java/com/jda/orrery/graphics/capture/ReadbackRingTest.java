@@ -0,0 +1,61 @@
+package com.jda.orrery.graphics.capture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link ReadbackRing}'s slot bookkeeping. */
+public class ReadbackRingTest {
+
+    @Test
+    @DisplayName("Slots are issued in order and retired oldest first")
+    void issueAndRetireInOrder() {
+        ReadbackRing ring = new ReadbackRing(3);
+        assertEquals(-1, ring.oldest());
+
+        assertEquals(0, ring.issue(10));
+        assertEquals(1, ring.issue(11));
+        assertEquals(2, ring.pending());
+        assertEquals(0, ring.oldest());
+        assertEquals(10, ring.oldestFrame());
+
+        ring.retire();
+        assertEquals(1, ring.oldest());
+        assertEquals(11, ring.oldestFrame());
+        ring.retire();
+        assertEquals(0, ring.pending());
+        assertEquals(-1, ring.oldest());
+    }
+
+    @Test
+    @DisplayName("Slots wrap around the ring while readbacks are in flight")
+    void wrapAround() {
+        ReadbackRing ring = new ReadbackRing(3);
+        for (long frame = 0; frame < 3; frame++) {
+            ring.issue(frame);
+        }
+        assertTrue(ring.isFull());
+        ring.retire();
+        ring.retire();
+
+        assertEquals(0, ring.issue(3));
+        assertEquals(1, ring.issue(4));
+        assertTrue(ring.isFull());
+        assertEquals(2, ring.oldest());
+        assertEquals(2, ring.oldestFrame());
+        ring.retire();
+        assertEquals(0, ring.oldest());
+        assertEquals(3, ring.oldestFrame());
+    }
+
+    @Test
+    @DisplayName("Issuing into a full ring or retiring an empty one throws")
+    void misuseThrows() {
+        ReadbackRing ring = new ReadbackRing(1);
+        assertThrows(IllegalStateException.class, ring::retire);
+        ring.issue(0);
+        assertThrows(IllegalStateException.class, () -> ring.issue(1));
+        assertThrows(IllegalArgumentException.class, () -> new ReadbackRing(0));
+    }
+}
@@ -0,0 +1,146 @@
+package com.jda.orrery.graphics.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.joml.Matrix3d;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BodyPicker}'s ray tests. Rays are cast directly in render space from the
+ * origin (the camera, as in the renderer's camera-relative scheme); no view or GL context needed.
+ */
+public class BodyPickerTest {
+
+    private static final double EPSILON = 1e-9;
+
+    private BodyPicker picker;
+
+    @BeforeEach
+    void setUp() {
+        picker = new BodyPicker();
+    }
+
+    private void addSphere(double x, double y, double z, double radius) {
+        picker.add(null, x, y, z, null, radius, radius, 0.0, 0.0);
+    }
+
+    @Test
+    @DisplayName("The nearest sphere along the ray wins; bodies behind the camera are ignored")
+    void nearestSphere() {
+        addSphere(0, 0, -10, 1);
+        addSphere(0, 0, -5, 1);
+        addSphere(0, 0, 5, 1);
+        picker.setRay(0, 0, 0, 0, 0, -1);
+
+        BodyPicker.Hit hit = picker.pick(0.0);
+        assertNotNull(hit);
+        assertEquals(1, hit.getIndex());
+        assertEquals(4.0, hit.getDistance(), EPSILON);
+        assertTrue(hit.isExact());
+        assertFalse(hit.isRing());
+
+        picker.setRay(0, 0, 0, 1, 0, 0);
+        assertNull(picker.pick(0.0));
+    }
+
+    @Test
+    @DisplayName("A camera inside a body picks it at the exit distance")
+    void insideBody() {
+        addSphere(0, 0, 0, 2);
+        picker.setRay(0, 0, 0, 0, 1, 0);
+
+        BodyPicker.Hit hit = picker.pick(0.0);
+        assertNotNull(hit);
+        assertEquals(2.0, hit.getDistance(), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Oblate bodies are hit on their tilted ellipsoid, not their bounding sphere")
+    void oblateEllipsoid() {
+        // Spin axis (body Z) rotated onto render -Y: the polar radius 0.5 lies along Y
+        Matrix3d bodyToRender = new Matrix3d().rotationX(Math.PI / 2);
+        picker.add(null, 0, 0, -10, bodyToRender, 1.0, 0.5, 0.0, 0.0);
+
+        // Straight at the centre: front of the equator faces the camera
+        picker.setRay(0, 0, 0, 0, 0, -1);
+        assertEquals(9.0, picker.pick(0.0).getDistance(), EPSILON);
+
+        // 0.75 above the centre: inside the equatorial radius, outside the polar one
+        picker.setRay(0, 0.75, 0, 0, 0, -1);
+        assertNull(picker.pick(0.0));
+        picker.setRay(0, 0.25, 0, 0, 0, -1);
+        assertNotNull(picker.pick(0.0));
+        picker.setRay(0.75, 0, 0, 0, 0, -1);
+        assertNotNull(picker.pick(0.0));
+    }
+
+    @Test
+    @DisplayName("Ring annulus is hit between its radii, in front of the body")
+    void ringAnnulus() {
+        // Ring plane = body equator = render XZ plane after the tilt; rings from 1.5 to 2.5 radii
+        Matrix3d bodyToRender = new Matrix3d().rotationX(Math.PI / 2);
+        picker.add(null, 0, 0, -10, bodyToRender, 1.0, 1.0, 1.5, 2.5);
+
+        // Looking down onto the ring plane from above
+        picker.setRay(2.0, 5, -10, 0, -1, 0);
+        BodyPicker.Hit hit = picker.pick(0.0);
+        assertNotNull(hit);
+        assertTrue(hit.isRing());
+        assertEquals(5.0, hit.getDistance(), EPSILON);
+
+        // Through the gap between the body and the inner edge, and beyond the outer edge
+        picker.setRay(1.25, 5, -10, 0, -1, 0);
+        assertNull(picker.pick(0.0));
+        picker.setRay(2.75, 5, -10, 0, -1, 0);
+        assertNull(picker.pick(0.0));
+
+        // Over the body: its surface, not the ring plane through its centre
+        picker.setRay(0, 5, -10, 0, -1, 0);
+        hit = picker.pick(0.0);
+        assertFalse(hit.isRing());
+        assertEquals(4.0, hit.getDistance(), EPSILON);
+
+        // Slanting through the ring at radius 2 and on into the body: the ring is nearer
+        picker.setRay(4, 1, -10, -1, -0.5, 0);
+        hit = picker.pick(0.0);
+        assertTrue(hit.isRing());
+        assertEquals(Math.sqrt(5.0), hit.getDistance(), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Near misses pick within the angular tolerance, exact hits take precedence")
+    void tolerance() {
+        // Tiny body 1e-4 rad off the ray at distance 1000, radius 0.01 (a 1e-5 rad disc)
+        addSphere(0.1, 0, -1000, 0.01);
+        picker.setRay(0, 0, 0, 0, 0, -1);
+
+        assertNull(picker.pick(0.0));
+        assertNull(picker.pick(5e-5));
+        BodyPicker.Hit hit = picker.pick(2e-4);
+        assertNotNull(hit);
+        assertFalse(hit.isExact());
+        assertEquals(0, hit.getIndex());
+
+        addSphere(0, 0, -2000, 1);
+        hit = picker.pick(2e-4);
+        assertTrue(hit.isExact());
+        assertEquals(1, hit.getIndex());
+    }
+
+    @Test
+    @DisplayName("The body list grows past its initial size and clears per frame")
+    void growAndClear() {
+        for (int i = 0; i < 40; i++) {
+            addSphere(0, 0, -10 - i * 10, 1);
+        }
+        assertEquals(40, picker.getCount());
+        picker.setRay(0, 0, -25, 0, 0, -1);
+        assertEquals(2, picker.pick(0.0).getIndex());
+
+        picker.clear();
+        assertEquals(0, picker.getCount());
+        assertNull(picker.pick(1.0));
+    }
+}
@@ -0,0 +1,87 @@
+package com.jda.orrery.graphics.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests for {@link FrameStatisticsExport}'s CSV and JSON files. */
+public class FrameStatisticsExportTest {
+
+    private static final int FRAMES = 10;
+
+    @TempDir Path tempDir;
+
+    /** {@link #FRAMES} windowed frames whose submit phase takes 1, 2, ... ms. */
+    private static FrameStatistics sampleStats() {
+        FrameStatistics stats = new FrameStatistics(32);
+        stats.beginFrame(); // the first frame only starts the clock
+        for (int i = 1; i <= FRAMES; i++) {
+            stats.recordPhase(FrameStatistics.Phase.SUBMIT, i * 1_000_000L);
+            stats.endFrame();
+            stats.beginFrame();
+        }
+        return stats;
+    }
+
+    @Test
+    @DisplayName("Export writes a CSV and JSON pair into orrery.statsDir")
+    void exportToStatsDir() throws IOException {
+        Path directory = tempDir.resolve("stats");
+        System.setProperty("orrery.statsDir", directory.toString());
+        Path csv;
+        try {
+            csv = FrameStatisticsExport.export(sampleStats());
+        } finally {
+            System.clearProperty("orrery.statsDir");
+        }
+
+        assertNotNull(csv);
+        assertEquals(directory, csv.getParent());
+        String stem = csv.getFileName().toString().replace(".csv", "");
+        assertTrue(Files.exists(directory.resolve(stem + ".json")));
+
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals(
+                "frame,frame_ms,time_ms,ephemeris_ms,transforms_ms,submit_ms,postfx_ms,"
+                        + "capture_ms,swap_ms,pace_ms",
+                lines.get(0));
+        assertEquals(FRAMES + 1, lines.size());
+        int columns = lines.get(0).split(",").length;
+        for (int i = 1; i <= FRAMES; i++) {
+            String[] fields = lines.get(i).split(",");
+            assertEquals(columns, fields.length);
+            assertEquals(Integer.toString(i - 1), fields[0]);
+            assertEquals(i + ".0000", fields[5], "submit column, row " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("JSON summary carries the frame count and nearest-rank phase percentiles")
+    void jsonPercentiles() throws IOException {
+        StringBuilder json = new StringBuilder();
+        FrameStatisticsExport.writeJson(sampleStats(), json);
+        String text = json.toString();
+
+        assertTrue(text.contains("\"frames\": " + FRAMES));
+        assertTrue(
+                text.contains(
+                        "\"submit\": {\"mean\": 5.5000, \"p50\": 5.0000, \"p90\": 9.0000,"
+                                + " \"p99\": 10.0000, \"p99_9\": 10.0000, \"max\": 10.0000}"),
+                text);
+        assertTrue(
+                text.contains(
+                        "\"swap\": {\"mean\": 0.0000, \"p50\": 0.0000, \"p90\": 0.0000,"
+                                + " \"p99\": 0.0000, \"p99_9\": 0.0000, \"max\": 0.0000}"),
+                text);
+        assertTrue(text.contains("\"frame_ms\": {\"mean\": "));
+        assertEquals("p99_9", FrameStatisticsExport.percentileKey(99.9));
+        assertEquals("p50", FrameStatisticsExport.percentileKey(50.0));
+    }
+}
@@ -0,0 +1,127 @@
+package com.jda.orrery.graphics.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the cache and counters behind {@link GLState}, through {@link GLStateCache}: pure
+ * bookkeeping, no GL context required.
+ */
+public class GLStateTest {
+    // GL_TEXTURE_2D, GL_FRAMEBUFFER, GL_DRAW_FRAMEBUFFER, GL_READ_FRAMEBUFFER
+    private static final int TEXTURE_2D = 0x0DE1;
+    private static final int FRAMEBUFFER = 0x8D40;
+    private static final int DRAW_FRAMEBUFFER = 0x8CA9;
+    private static final int READ_FRAMEBUFFER = 0x8CA8;
+
+    private final GLStateCache cache = new GLStateCache();
+
+    @Test
+    @DisplayName("Repeated binds are skipped; a different value is a change")
+    void redundantCallsAreSkipped() {
+        assertTrue(cache.useProgram(3));
+        assertFalse(cache.useProgram(3));
+        assertTrue(cache.useProgram(4));
+        assertTrue(cache.bindVertexArray(7));
+        assertFalse(cache.bindVertexArray(7));
+        assertTrue(cache.setFlag(GLStateCache.BLEND, true));
+        assertFalse(cache.setFlag(GLStateCache.BLEND, true));
+        assertTrue(cache.setFlag(GLStateCache.BLEND, false));
+        assertTrue(cache.setFlag(GLStateCache.DEPTH_TEST, false), "flags are tracked apart");
+        assertTrue(cache.blendFunc(1, 2));
+        assertFalse(cache.blendFunc(1, 2));
+
+        assertEquals(7, cache.changeCount());
+        assertEquals(4, cache.skippedCount());
+        assertEquals(4, cache.program());
+    }
+
+    @Test
+    @DisplayName("Texture bindings are cached per unit and target")
+    void textureUnits() {
+        assertTrue(cache.bindTexture(0, TEXTURE_2D, 10));
+        assertTrue(cache.bindTexture(1, TEXTURE_2D, 11));
+        assertFalse(cache.bindTexture(0, TEXTURE_2D, 10));
+        assertTrue(cache.bindTexture(0, TEXTURE_2D + 1, 10), "same name, other target");
+
+        assertEquals(GLStateCache.UNKNOWN, cache.activeUnit());
+        assertTrue(cache.activeTexture(1));
+        assertFalse(cache.activeTexture(1));
+        assertEquals(1, cache.activeUnit());
+
+        cache.textureDeleted(11);
+        assertFalse(cache.bindTexture(1, TEXTURE_2D, 0), "deleted texture left unit 1 at 0");
+    }
+
+    @Test
+    @DisplayName("Texture units outside 0..MAX_TEXTURE_UNITS-1 are rejected")
+    void textureUnitRange() {
+        int max = GLState.MAX_TEXTURE_UNITS;
+        assertThrows(IllegalArgumentException.class, () -> cache.bindTexture(max, TEXTURE_2D, 1));
+        assertThrows(IllegalArgumentException.class, () -> cache.bindTexture(-1, TEXTURE_2D, 1));
+        assertThrows(IllegalArgumentException.class, () -> cache.activeTexture(max));
+        assertThrows(IllegalArgumentException.class, () -> cache.activeTexture(-1));
+        assertTrue(cache.bindTexture(max - 1, TEXTURE_2D, 1));
+        assertEquals(0, cache.skippedCount());
+    }
+
+    @Test
+    @DisplayName("GL_FRAMEBUFFER sets both bindings; deleting a bound object resets it to 0")
+    void framebuffersAndDeletion() {
+        assertTrue(cache.bindFramebuffer(FRAMEBUFFER, 5));
+        assertFalse(cache.bindFramebuffer(DRAW_FRAMEBUFFER, 5));
+        assertFalse(cache.bindFramebuffer(READ_FRAMEBUFFER, 5));
+        assertEquals(5, cache.drawFramebuffer());
+
+        cache.framebufferDeleted(5);
+        assertEquals(0, cache.drawFramebuffer());
+        assertFalse(cache.bindFramebuffer(READ_FRAMEBUFFER, 0), "read binding followed the delete");
+
+        cache.useProgram(9);
+        cache.programDeleted(9);
+        assertEquals(0, cache.program());
+        cache.bindVertexArray(2);
+        cache.vertexArrayDeleted(2);
+        assertFalse(cache.bindVertexArray(0));
+    }
+
+    @Test
+    @DisplayName("Viewport is skipped only when all four values match")
+    void viewport() {
+        int[] out = new int[4];
+        cache.getViewport(out);
+        assertArrayEquals(new int[] {-1, -1, -1, -1}, out);
+
+        assertTrue(cache.viewport(0, 0, 800, 600));
+        assertFalse(cache.viewport(0, 0, 800, 600));
+        assertTrue(cache.viewport(0, 0, 800, 601));
+        cache.getViewport(out);
+        assertArrayEquals(new int[] {0, 0, 800, 601}, out);
+    }
+
+    @Test
+    @DisplayName("Counters restart each frame while the cache persists; invalidate forgets it")
+    void perFrameCounters() {
+        cache.useProgram(1);
+        cache.setFlag(GLStateCache.DEPTH_TEST, true);
+        assertEquals(2, cache.changeCount());
+
+        // DrawContext reads and resets the counters at the end of each frame
+        cache.resetCounters();
+        assertEquals(0, cache.changeCount());
+        assertEquals(0, cache.skippedCount());
+
+        cache.useProgram(1);
+        cache.setFlag(GLStateCache.DEPTH_TEST, true);
+        assertEquals(0, cache.changeCount());
+        assertEquals(2, cache.skippedCount());
+
+        cache.invalidate();
+        assertEquals(GLStateCache.UNKNOWN, cache.program());
+        assertTrue(cache.useProgram(1));
+        assertTrue(cache.setFlag(GLStateCache.DEPTH_TEST, true));
+        assertEquals(2, cache.changeCount());
+    }
+}
@@ -0,0 +1,139 @@
+package com.jda.orrery.graphics.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link QualityGovernor}: stepping, hysteresis, backoff and ladder bounds. */
+public class QualityGovernorTest {
+
+    private static final double BUDGET_MS = 1000.0 / 60.0;
+    private static final double OVER = BUDGET_MS * 1.5;
+    private static final double FITS = BUDGET_MS * 0.85; // between the two thresholds
+    private static final double HEADROOM = BUDGET_MS * 0.5;
+
+    /** Feed {@code frames} frames of one cost; returns how many of them changed level. */
+    private static int feed(QualityGovernor governor, double costMs, int frames) {
+        int changes = 0;
+        for (int i = 0; i < frames; i++) {
+            if (governor.observe(costMs)) changes++;
+        }
+        return changes;
+    }
+
+    @Test
+    @DisplayName("Over budget steps down once per evaluation window")
+    void stepsDownPerWindow() {
+        QualityGovernor governor = new QualityGovernor(60.0, 0.5f, 4);
+        assertEquals(0, feed(governor, OVER, QualityGovernor.WINDOW_FRAMES - 1));
+        assertEquals(1, feed(governor, OVER, 1));
+        assertEquals(1, governor.getLevelIndex());
+        assertEquals(1, feed(governor, OVER, QualityGovernor.WINDOW_FRAMES));
+        assertEquals(2, governor.getLevelIndex());
+    }
+
+    @Test
+    @DisplayName("The bottom rung holds instead of wrapping or failing")
+    void bottomRungHolds() {
+        QualityGovernor governor = new QualityGovernor(60.0, 0.5f, 4);
+        feed(governor, OVER, QualityGovernor.WINDOW_FRAMES * 20);
+        assertEquals(governor.getLevelCount() - 1, governor.getLevelIndex());
+        assertEquals(0.5f, governor.getLevel().renderScale);
+    }
+
+    @Test
+    @DisplayName("A cost between the thresholds keeps the current level")
+    void deadBandHolds() {
+        QualityGovernor governor = new QualityGovernor(60.0, 0.5f, 4);
+        feed(governor, OVER, QualityGovernor.WINDOW_FRAMES);
+        assertEquals(0, feed(governor, FITS, 10_000));
+        assertEquals(1, governor.getLevelIndex());
+    }
+
+    @Test
+    @DisplayName("Headroom steps up only after the hold period")
+    void stepsUpAfterHold() {
+        QualityGovernor governor = new QualityGovernor(60.0, 0.5f, 4);
+        feed(governor, OVER, QualityGovernor.WINDOW_FRAMES);
+        assertEquals(1, governor.getLevelIndex());
+
+        // The window refills, then the hold counts frames of headroom
+        int steps = QualityGovernor.WINDOW_FRAMES - 1 + QualityGovernor.UPGRADE_HOLD_FRAMES;
+        assertEquals(0, feed(governor, HEADROOM, steps - 1));
+        assertEquals(1, feed(governor, HEADROOM, 1));
+        assertEquals(0, governor.getLevelIndex());
+    }
+
+    @Test
+    @DisplayName("A step up that is immediately undone doubles the next hold")
+    void failedStepUpBacksOff() {
+        QualityGovernor governor = new QualityGovernor(60.0, 0.5f, 4);
+        int window = QualityGovernor.WINDOW_FRAMES;
+        int hold = QualityGovernor.UPGRADE_HOLD_FRAMES;
+
+        feed(governor, OVER, window); // down to 1
+        feed(governor, HEADROOM, window - 1 + hold); // up to 0
+        assertEquals(0, governor.getLevelIndex());
+        feed(governor, OVER, window); // the upgrade didn't fit: back to 1
+        assertEquals(1, governor.getLevelIndex());
+
+        assertEquals(0, feed(governor, HEADROOM, window - 1 + hold));
+        assertEquals(1, feed(governor, HEADROOM, hold));
+        assertEquals(0, governor.getLevelIndex());
+    }
+
+    @Test
+    @DisplayName("Bounds clamp every rung and merge rungs they make identical")
+    void ladderBounds() {
+        QualityGovernor governor = new QualityGovernor(60.0, 0.75f, 1);
+        QualityGovernor.Level previous = null;
+        for (int i = 0; i < governor.getLevelCount(); i++) {
+            QualityGovernor.Level level = governor.getLevel();
+            assertTrue(level.renderScale >= 0.75f);
+            assertEquals(1, level.msaaSamples);
+            if (previous != null) {
+                assertFalse(level.sameAs(previous));
+            }
+            previous = level;
+            feed(governor, OVER, QualityGovernor.WINDOW_FRAMES);
+        }
+    }
+
+    @Test
+    @DisplayName("Rung sample counts halve down from the top rung's")
+    void samplesRelativeToTopRung() {
+        int[] expected4 = {4, 4, 2, 2, 2, 1, 1};
+        int[] expected2 = {2, 2, 1, 1, 1, 1, 1};
+        QualityGovernor.Level[] four = QualityGovernor.ladder(4);
+        QualityGovernor.Level[] two = QualityGovernor.ladder(2);
+        for (int i = 0; i < four.length; i++) {
+            assertEquals(expected4[i], four[i].msaaSamples);
+            assertEquals(expected2[i], two[i].msaaSamples);
+            assertEquals(four[i].renderScale, two[i].renderScale);
+        }
+        for (QualityGovernor.Level level : QualityGovernor.ladder(1)) {
+            assertEquals(1, level.msaaSamples);
+        }
+    }
+
+    @Test
+    @DisplayName("8x MSAA stays on the top rung and halves on the way down")
+    void eightSamplesOnTopRung() {
+        QualityGovernor governor = new QualityGovernor(60.0, 0.5f, 8);
+        assertEquals(8, governor.getLevel().msaaSamples);
+        feed(governor, OVER, QualityGovernor.WINDOW_FRAMES * 2);
+        assertEquals(4, governor.getLevel().msaaSamples);
+
+        QualityGovernor.Level[] clamped =
+                QualityGovernor.clampLadder(QualityGovernor.ladder(8), 0.5f, 8);
+        assertEquals(8, clamped[0].msaaSamples);
+        assertEquals(2, clamped[clamped.length - 1].msaaSamples);
+    }
+
+    @Test
+    @DisplayName("A non-positive target frame rate is rejected")
+    void rejectsZeroTarget() {
+        assertThrows(IllegalArgumentException.class, () -> new QualityGovernor(0.0, 0.5f, 4));
+    }
+}
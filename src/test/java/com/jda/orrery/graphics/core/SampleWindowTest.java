@@ -0,0 +1,121 @@
+package com.jda.orrery.graphics.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link SampleWindow}: exact percentiles, ring order and pacing metrics. */
+public class SampleWindowTest {
+
+    private static final double EPSILON = 1e-12;
+
+    /** Nearest-rank percentile of a sorted copy, the reference for quickselect. */
+    private static double referencePercentile(double[] values, double percent) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    @Test
+    @DisplayName("Percentiles match a full sort for random data")
+    void percentilesMatchSort() {
+        Random random = new Random(42);
+        double[] scratch = new double[1000];
+        for (int trial = 0; trial < 20; trial++) {
+            int n = 1 + random.nextInt(1000);
+            SampleWindow window = new SampleWindow(1000);
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++) {
+                // Few distinct values exercise the duplicate handling in the partition
+                values[i] = trial % 2 == 0 ? random.nextDouble() * 50 : random.nextInt(5);
+                window.add(values[i]);
+            }
+            for (double p : new double[] {0.0, 1.0, 50.0, 90.0, 99.0, 99.9, 100.0}) {
+                assertEquals(referencePercentile(values, p), window.percentile(p, scratch), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Nearest rank: p50 of 1..4 is 2, p99 of 1..100 is 99")
+    void nearestRank() {
+        double[] scratch = new double[100];
+        SampleWindow window = new SampleWindow(100);
+        for (int i = 1; i <= 4; i++) window.add(i);
+        assertEquals(2.0, window.percentile(50.0, scratch), EPSILON);
+        assertEquals(4.0, window.percentile(100.0, scratch), EPSILON);
+
+        window = new SampleWindow(100);
+        for (int i = 1; i <= 100; i++) window.add(i);
+        assertEquals(99.0, window.percentile(99.0, scratch), EPSILON);
+        assertEquals(100.0, window.percentile(99.9, scratch), EPSILON);
+    }
+
+    @Test
+    @DisplayName("A full window keeps only the newest samples, oldest first")
+    void ringOrder() {
+        SampleWindow window = new SampleWindow(4);
+        for (int i = 1; i <= 6; i++) window.add(i);
+        assertEquals(4, window.count());
+        assertEquals(3.0, window.get(0), EPSILON);
+        assertEquals(6.0, window.get(3), EPSILON);
+        assertEquals(4.5, window.mean(), EPSILON);
+        assertEquals(6.0, window.max(), EPSILON);
+        assertEquals(3.0, window.percentile(0.0, new double[4]), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Percentiles leave the window itself untouched")
+    void percentileDoesNotReorder() {
+        SampleWindow window = new SampleWindow(5);
+        double[] values = {5, 1, 4, 2, 3};
+        for (double v : values) window.add(v);
+        window.percentile(50.0, new double[5]);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], window.get(i), EPSILON);
+        }
+    }
+
+    @Test
+    @DisplayName("nearestRank ranks a bare array like the window does")
+    void nearestRankOnArray() {
+        double[] values = {9, 2, 7, 4, 5, 1, 8, 3, 10, 6};
+        assertEquals(5.0, SampleWindow.nearestRank(values.clone(), 10, 50.0), EPSILON);
+        assertEquals(9.0, SampleWindow.nearestRank(values.clone(), 10, 90.0), EPSILON);
+        assertEquals(10.0, SampleWindow.nearestRank(values.clone(), 10, 99.0), EPSILON);
+        assertEquals(5.0, SampleWindow.nearestRank(values.clone(), 5, 50.0), "first n only");
+        assertEquals(0.0, SampleWindow.nearestRank(values.clone(), 0, 50.0), EPSILON);
+    }
+
+    @Test
+    @DisplayName("An empty window reports zeros")
+    void emptyWindow() {
+        SampleWindow window = new SampleWindow(8);
+        assertEquals(0, window.count());
+        assertEquals(0.0, window.percentile(99.0, new double[8]), EPSILON);
+        assertEquals(0.0, window.mean(), EPSILON);
+        assertEquals(0.0, window.meanAbsoluteDelta(), EPSILON);
+        assertEquals(0, window.countAbove(0.0));
+    }
+
+    @Test
+    @DisplayName("Stutter count and jitter follow frame pacing")
+    void pacingMetrics() {
+        SampleWindow window = new SampleWindow(8);
+        double[] frames = {16, 16, 40, 16, 17, 16};
+        for (double f : frames) window.add(f);
+        assertEquals(1, window.countAbove(32.0));
+        // |0| + |24| + |24| + |1| + |1| over 5 deltas
+        assertEquals(50.0 / 5, window.meanAbsoluteDelta(), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Non-positive capacity is rejected")
+    void rejectsEmptyCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SampleWindow(0));
+    }
+}
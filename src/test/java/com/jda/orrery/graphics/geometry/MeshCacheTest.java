@@ -0,0 +1,86 @@
+package com.jda.orrery.graphics.geometry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jda.orrery.graphics.geometry.SphereMesh.Quality;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests for {@link MeshCache}'s file round trip and miss handling. */
+public class MeshCacheTest {
+
+    @TempDir Path tempDir;
+
+    private MeshCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MeshCache(tempDir.resolve("meshes"));
+    }
+
+    @Test
+    @DisplayName("Stored mesh maps back identically")
+    void roundTrip() {
+        SphereMeshData data = SphereMeshData.generate(MeshTopology.UV_SPHERE, Quality.LOW);
+        cache.store(MeshTopology.UV_SPHERE, Quality.LOW, data);
+
+        MeshCache.Entry entry = cache.load(MeshTopology.UV_SPHERE, Quality.LOW);
+        assertNotNull(entry);
+        assertEquals(data.vertices.length, entry.vertices.remaining());
+        assertEquals(data.indices.length, entry.indices.remaining());
+        for (int i = 0; i < data.vertices.length; i++) {
+            assertEquals(data.vertices[i], entry.vertices.get(i));
+        }
+        for (int i = 0; i < data.indices.length; i++) {
+            assertEquals(data.indices[i], entry.indices.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Missing file is a miss")
+    void missingIsMiss() {
+        assertNull(cache.load(MeshTopology.UV_SPHERE, Quality.HIGH));
+    }
+
+    @Test
+    @DisplayName("File name carries topology, quality and format version")
+    void fileNameKey() {
+        String name = cache.fileFor(MeshTopology.ICOSPHERE, Quality.ULTRA).getFileName().toString();
+        assertEquals("sphere-icosphere-ultra-v" + MeshCache.FORMAT_VERSION + ".mesh", name);
+    }
+
+    @Test
+    @DisplayName("Truncated file is a miss")
+    void truncatedIsMiss() throws IOException {
+        SphereMeshData data = SphereMeshData.generate(MeshTopology.UV_SPHERE, Quality.LOW);
+        cache.store(MeshTopology.UV_SPHERE, Quality.LOW, data);
+        Path file = cache.fileFor(MeshTopology.UV_SPHERE, Quality.LOW);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+        assertNull(cache.load(MeshTopology.UV_SPHERE, Quality.LOW));
+    }
+
+    @Test
+    @DisplayName("File from another format version is a miss")
+    void otherVersionIsMiss() throws IOException {
+        SphereMeshData data = SphereMeshData.generate(MeshTopology.UV_SPHERE, Quality.LOW);
+        cache.store(MeshTopology.UV_SPHERE, Quality.LOW, data);
+        Path file = cache.fileFor(MeshTopology.UV_SPHERE, Quality.LOW);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes)
+                .order(ByteOrder.nativeOrder())
+                .putInt(Integer.BYTES, MeshCache.FORMAT_VERSION + 1);
+        Files.write(file, bytes);
+
+        assertNull(cache.load(MeshTopology.UV_SPHERE, Quality.LOW));
+    }
+}
@@ -0,0 +1,121 @@
+package com.jda.orrery.graphics.geometry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jda.orrery.graphics.geometry.SphereMesh.Quality;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/** Tests for {@link SphereMeshData}'s array sizing and geometry; no GL context required. */
+public class SphereMeshDataTest {
+
+    private static final float EPSILON = 1e-5f;
+
+    @ParameterizedTest(name = "UV sphere {0}")
+    @EnumSource(Quality.class)
+    @DisplayName("UV sphere fills exactly the grid-sized arrays")
+    void uvSphereCounts(Quality quality) {
+        SphereMeshData mesh = SphereMeshData.generate(MeshTopology.UV_SPHERE, quality);
+        int lat = quality.latitudeSegments;
+        int lon = quality.longitudeSegments;
+
+        assertEquals((lat + 1) * (lon + 1), mesh.getVertexCount());
+        assertEquals(
+                mesh.getVertexCount() * SphereMeshData.FLOATS_PER_VERTEX, mesh.vertices.length);
+        assertEquals(lat * lon * 6, mesh.indices.length);
+        assertIndicesInRange(mesh);
+        assertUnitSphere(mesh);
+    }
+
+    @ParameterizedTest(name = "Icosphere {0}")
+    @EnumSource(Quality.class)
+    @DisplayName("Icosphere matches Euler's vertex count, so every midpoint is shared")
+    void icosphereCounts(Quality quality) {
+        SphereMeshData mesh = SphereMeshData.generate(MeshTopology.ICOSPHERE, quality);
+        int scale = 1 << (2 * quality.subdivisions);
+
+        assertEquals(10 * scale + 2, mesh.getVertexCount());
+        assertEquals(
+                mesh.getVertexCount() * SphereMeshData.FLOATS_PER_VERTEX, mesh.vertices.length);
+        assertEquals(20 * scale * 3, mesh.indices.length);
+        assertIndicesInRange(mesh);
+        assertUnitSphere(mesh);
+    }
+
+    @Test
+    @DisplayName("Unsubdivided icosphere is the icosahedron")
+    void zeroSubdivisions() {
+        SphereMeshData mesh = SphereMeshData.generateIcosphere(0);
+        assertEquals(12, mesh.getVertexCount());
+        assertEquals(60, mesh.indices.length);
+    }
+
+    @Test
+    @DisplayName("Icosphere triangles are distinct and non-degenerate")
+    void icosphereTrianglesDistinct() {
+        SphereMeshData mesh = SphereMeshData.generateIcosphere(3);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < mesh.indices.length; i += 3) {
+            int a = mesh.indices[i];
+            int b = mesh.indices[i + 1];
+            int c = mesh.indices[i + 2];
+            assertTrue(a != b && b != c && c != a, "degenerate triangle at " + i);
+            int lo = Math.min(a, Math.min(b, c));
+            int hi = Math.max(a, Math.max(b, c));
+            assertTrue(seen.add(lo + "/" + (a + b + c - lo - hi) + "/" + hi));
+        }
+    }
+
+    @Test
+    @DisplayName("Parametric coordinates match the position")
+    void parametricCoordinates() {
+        SphereMeshData mesh = SphereMeshData.generate(MeshTopology.ICOSPHERE, Quality.MEDIUM);
+        float[] v = mesh.vertices;
+        for (int at = 0; at < v.length; at += SphereMeshData.FLOATS_PER_VERTEX) {
+            float theta = v[at + 6];
+            float phi = v[at + 7];
+            assertEquals(Math.cos(theta), v[at + 2], EPSILON);
+            assertTrue(phi >= 0.0f && phi <= 2.0f * (float) Math.PI);
+            assertEquals(Math.sin(theta) * Math.cos(phi), v[at], EPSILON);
+            assertEquals(Math.sin(theta) * Math.sin(phi), v[at + 1], EPSILON);
+        }
+    }
+
+    @Test
+    @DisplayName("Edge midpoint map survives collisions and clearing")
+    void edgeMidpoints() {
+        SphereMeshData.EdgeMidpoints map = new SphereMeshData.EdgeMidpoints(4);
+        for (int i = 1; i <= 8; i++) {
+            map.put(((long) i << 32) | (i + 1), i * 10);
+        }
+        for (int i = 1; i <= 8; i++) {
+            assertEquals(i * 10, map.get(((long) i << 32) | (i + 1)));
+        }
+        assertEquals(-1, map.get((9L << 32) | 10));
+
+        map.clear();
+        assertEquals(-1, map.get((1L << 32) | 2));
+    }
+
+    private static void assertIndicesInRange(SphereMeshData mesh) {
+        for (int index : mesh.indices) {
+            assertTrue(index >= 0 && index < mesh.getVertexCount(), "index " + index);
+        }
+    }
+
+    private static void assertUnitSphere(SphereMeshData mesh) {
+        float[] v = mesh.vertices;
+        for (int at = 0; at < v.length; at += SphereMeshData.FLOATS_PER_VERTEX) {
+            double length =
+                    Math.sqrt(v[at] * v[at] + v[at + 1] * v[at + 1] + v[at + 2] * v[at + 2]);
+            assertEquals(1.0, length, EPSILON);
+            assertEquals(v[at], v[at + 3]);
+            assertEquals(v[at + 1], v[at + 4]);
+            assertEquals(v[at + 2], v[at + 5]);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.jda.orrery.graphics.pipeline;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.joml.Matrix4f;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BodyCuller}'s frustum and projected-size math. View space looks down -Z, as in
+ * the renderer; no GL context required.
+ */
+public class BodyCullerTest {
+
+    private static final float EPSILON = 1e-4f;
+    private static final double VIEWPORT_HEIGHT = 1000.0;
+
+    private BodyCuller culler;
+
+    @BeforeEach
+    void setUp() {
+        // 90° vertical FOV: tan(45°) = 1, so pixelsPerTangent = VIEWPORT_HEIGHT / 2
+        culler = new BodyCuller(1.0f, 100.0f);
+        culler.update(perspective90(), VIEWPORT_HEIGHT);
+    }
+
+    private static Matrix4f perspective90() {
+        return new Matrix4f().perspective((float) Math.toRadians(90.0), 1.0f, 0.1f, 1e6f);
+    }
+
+    @Test
+    @DisplayName("Projected radius is tan(asin(r / d)) in pixels")
+    void projectedRadiusMatchesSilhouette() {
+        // r / d = 1 / sqrt(2): asin = 45°, tan = 1
+        float distance = (float) Math.sqrt(2.0);
+        assertEquals(500.0f, BodyCuller.projectedRadiusPx(distance, 1.0f, 500.0f), EPSILON);
+        assertEquals(500.0f, culler.projectedRadiusPx(distance, 1.0f), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Camera inside the bounding sphere projects to infinity")
+    void insideSphereIsInfinite() {
+        assertEquals(Float.POSITIVE_INFINITY, BodyCuller.projectedRadiusPx(0.5f, 1.0f, 500.0f));
+    }
+
+    @Test
+    @DisplayName("Body behind the camera is culled")
+    void behindCameraIsCulled() {
+        assertEquals(BodyCuller.CULLED, culler.classify(0.0f, 0.0f, 100.0f, 1.0f));
+    }
+
+    @Test
+    @DisplayName("Body off to the side is culled, but not while its sphere reaches the frustum")
+    void sideFrustumPlanes() {
+        // At z = -100 the frustum half-width is 100
+        assertEquals(BodyCuller.CULLED, culler.classify(150.0f, 0.0f, -100.0f, 10.0f));
+        assertNotEquals(BodyCuller.CULLED, culler.classify(105.0f, 0.0f, -100.0f, 10.0f));
+    }
+
+    @Test
+    @DisplayName("Large on-screen body is drawn as a mesh")
+    void largeBodyIsMesh() {
+        // 30 / sqrt(100^2 - 30^2) * 500 px ≈ 157 px
+        assertEquals(BodyCuller.MESH, culler.classify(0.0f, 0.0f, -100.0f, 30.0f));
+    }
+
+    @Test
+    @DisplayName("Mid-size body between the thresholds is an impostor")
+    void midSizeBodyIsImpostor() {
+        // 5 / 100 * 500 px ≈ 25 px
+        assertEquals(BodyCuller.IMPOSTOR, culler.classify(0.0f, 0.0f, -100.0f, 5.0f));
+    }
+
+    @Test
+    @DisplayName("Body under the threshold radius becomes a sprite")
+    void subPixelBodyIsSprite() {
+        // 0.1 / 100 * 500 px = 0.5 px < 1 px threshold
+        assertEquals(BodyCuller.SPRITE, culler.classify(0.0f, 0.0f, -100.0f, 0.1f));
+    }
+
+    @Test
+    @DisplayName("Threshold of zero disables sprites")
+    void zeroThresholdNeverSprites() {
+        BodyCuller noSprites = new BodyCuller(0.0f, 0.0f);
+        noSprites.update(perspective90(), VIEWPORT_HEIGHT);
+        assertEquals(BodyCuller.MESH, noSprites.classify(0.0f, 0.0f, -100.0f, 0.001f));
+    }
+
+    @Test
+    @DisplayName("Impostor limit at or below the sprite threshold disables impostors")
+    void impostorLimitBelowSpriteThreshold() {
+        BodyCuller noImpostors = new BodyCuller(1.0f, 1.0f);
+        noImpostors.update(perspective90(), VIEWPORT_HEIGHT);
+        assertEquals(BodyCuller.SPRITE, noImpostors.classify(0.0f, 0.0f, -100.0f, 0.1f));
+        assertEquals(BodyCuller.MESH, noImpostors.classify(0.0f, 0.0f, -100.0f, 5.0f));
+    }
+}
@@ -0,0 +1,62 @@
+package com.jda.orrery.graphics.pipeline;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jda.orrery.graphics.core.GpuTimer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link CelestialVariant}'s body classification and pass attribution. */
+public class CelestialVariantTest {
+
+    private static final int ROCKY = 0;
+    private static final int GAS = 1;
+    private static final int ICE = 2;
+
+    @Test
+    @DisplayName("Bodies classify by shader body type")
+    void bodyTypes() {
+        assertEquals(CelestialVariant.ROCKY, CelestialVariant.forBody(false, true, ROCKY, false));
+        assertEquals(CelestialVariant.GAS_GIANT, CelestialVariant.forBody(false, true, GAS, false));
+        assertEquals(CelestialVariant.ICE_GIANT, CelestialVariant.forBody(false, true, ICE, false));
+        assertEquals(CelestialVariant.GENERAL, CelestialVariant.forBody(false, true, 7, false));
+    }
+
+    @Test
+    @DisplayName("Emission and a missing texture override the body type")
+    void overrides() {
+        assertEquals(
+                CelestialVariant.EMISSIVE, CelestialVariant.forBody(true, false, ROCKY, false));
+        assertEquals(CelestialVariant.EMISSIVE, CelestialVariant.forBody(true, true, GAS, true));
+        assertEquals(
+                CelestialVariant.UNTEXTURED, CelestialVariant.forBody(false, false, GAS, true));
+    }
+
+    @Test
+    @DisplayName("Only a ringed gas giant takes the ring-shadow variant")
+    void ringed() {
+        assertEquals(CelestialVariant.RINGED, CelestialVariant.forBody(false, true, GAS, true));
+        assertEquals(CelestialVariant.GENERAL, CelestialVariant.forBody(false, true, ICE, true));
+        assertEquals(CelestialVariant.GENERAL, CelestialVariant.forBody(false, true, ROCKY, true));
+    }
+
+    @Test
+    @DisplayName("General-program draws are timed as bodies; rings keep their own pass")
+    void timingPass() {
+        assertEquals(GpuTimer.Pass.ROCKY, CelestialVariant.ROCKY.timingPass(true));
+        assertEquals(GpuTimer.Pass.BODIES, CelestialVariant.ROCKY.timingPass(false));
+        assertEquals(GpuTimer.Pass.GIANTS, CelestialVariant.ICE_GIANT.timingPass(true));
+        assertEquals(GpuTimer.Pass.BODIES, CelestialVariant.GENERAL.timingPass(true));
+        assertEquals(GpuTimer.Pass.RINGS, CelestialVariant.RING.timingPass(false));
+    }
+
+    @Test
+    @DisplayName("The ring surface draws last and only the general variant has no define")
+    void order() {
+        CelestialVariant[] values = CelestialVariant.VALUES;
+        assertEquals(CelestialVariant.RING, values[values.length - 1]);
+        for (CelestialVariant variant : values) {
+            assertEquals(variant == CelestialVariant.GENERAL, variant.define() == null);
+        }
+    }
+}
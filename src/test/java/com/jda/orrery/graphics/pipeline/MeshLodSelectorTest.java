@@ -0,0 +1,78 @@
+package com.jda.orrery.graphics.pipeline;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jda.orrery.graphics.geometry.MeshTopology;
+import com.jda.orrery.graphics.geometry.SphereMesh.Quality;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link MeshLodSelector}'s screen-space-error tier choice and hysteresis. */
+public class MeshLodSelectorTest {
+
+    private static final double TOLERANCE_PX = 0.5;
+
+    private MeshLodSelector selector;
+
+    @BeforeEach
+    void setUp() {
+        selector = new MeshLodSelector(MeshTopology.UV_SPHERE, TOLERANCE_PX);
+    }
+
+    /** Largest projected radius at which a tier still meets the tolerance. */
+    private static double limitPx(Quality quality) {
+        return TOLERANCE_PX / quality.silhouetteError(MeshTopology.UV_SPHERE);
+    }
+
+    @Test
+    @DisplayName("Finer tiers have smaller silhouette error")
+    void errorDecreasesWithQuality() {
+        Quality[] tiers = Quality.values();
+        for (int i = 1; i < tiers.length; i++) {
+            assertTrue(
+                    tiers[i].silhouetteError(MeshTopology.UV_SPHERE)
+                            < tiers[i - 1].silhouetteError(MeshTopology.UV_SPHERE));
+            assertTrue(
+                    tiers[i].silhouetteError(MeshTopology.ICOSPHERE)
+                            < tiers[i - 1].silhouetteError(MeshTopology.ICOSPHERE));
+        }
+    }
+
+    @Test
+    @DisplayName("Small bodies get the coarsest tier, huge ones the finest")
+    void extremesPickEndTiers() {
+        assertEquals(Quality.LOW, selector.select(null, 1.0));
+        assertEquals(Quality.ULTRA, selector.select(null, 1e6));
+    }
+
+    @Test
+    @DisplayName("Chosen tier keeps the on-screen error within tolerance")
+    void chosenTierMeetsTolerance() {
+        for (double radiusPx = 1.0; radiusPx < 10000.0; radiusPx *= 1.5) {
+            Quality q = selector.select(null, radiusPx);
+            assertTrue(q.silhouetteError(MeshTopology.UV_SPHERE) * radiusPx <= TOLERANCE_PX);
+        }
+    }
+
+    @Test
+    @DisplayName("Growing past a tier's limit refines immediately")
+    void refinesImmediately() {
+        assertEquals(Quality.MEDIUM, selector.select(Quality.LOW, limitPx(Quality.LOW) * 1.01));
+    }
+
+    @Test
+    @DisplayName("Shrinking just below a tier boundary keeps the finer tier")
+    void hysteresisHoldsFinerTier() {
+        double justBelow = limitPx(Quality.LOW) * 0.9;
+        assertEquals(Quality.LOW, selector.select(null, justBelow));
+        assertEquals(Quality.MEDIUM, selector.select(Quality.MEDIUM, justBelow));
+    }
+
+    @Test
+    @DisplayName("Shrinking well below the boundary coarsens")
+    void coarsensPastDropFraction() {
+        double wellBelow = limitPx(Quality.LOW) * MeshLodSelector.DROP_FRACTION * 0.99;
+        assertEquals(Quality.LOW, selector.select(Quality.MEDIUM, wellBelow));
+    }
+}
@@ -0,0 +1,45 @@
+package com.jda.orrery.graphics.postfx;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jda.orrery.graphics.textures.GPUCapabilities.GPUTier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link AntiAliasing} mode parsing and tier defaults; no GL context required. */
+public class AntiAliasingTest {
+
+    @Test
+    @DisplayName("Auto picks 4x MSAA on discrete tiers and FXAA on integrated ones")
+    void autoFollowsTier() {
+        assertEquals(AntiAliasing.Mode.MSAA, AntiAliasing.parse("auto", GPUTier.ULTRA).mode);
+        assertEquals(4, AntiAliasing.parse("auto", GPUTier.HIGH).msaaSamples);
+        assertSame(AntiAliasing.FXAA, AntiAliasing.parse("auto", GPUTier.MEDIUM));
+        assertSame(AntiAliasing.FXAA, AntiAliasing.parse("auto", GPUTier.LOW));
+    }
+
+    @Test
+    @DisplayName("Explicit modes override the tier; only MSAA renders more than one sample")
+    void explicitModes() {
+        assertSame(AntiAliasing.FXAA, AntiAliasing.parse("FXAA", GPUTier.ULTRA));
+        assertSame(AntiAliasing.NONE, AntiAliasing.parse("off", GPUTier.ULTRA));
+        assertEquals(1, AntiAliasing.parse("none", GPUTier.LOW).msaaSamples);
+        assertEquals(4, AntiAliasing.parse("msaa", GPUTier.LOW).msaaSamples);
+        assertEquals(2, AntiAliasing.parse("msaa2", GPUTier.LOW).msaaSamples);
+        assertEquals(8, AntiAliasing.parse(" msaa8 ", GPUTier.LOW).msaaSamples);
+    }
+
+    @Test
+    @DisplayName("Unknown names and sample counts fall back to the tier default")
+    void invalidFallsBackToAuto() {
+        assertSame(AntiAliasing.FXAA, AntiAliasing.parse("smaa", GPUTier.LOW));
+        assertSame(AntiAliasing.FXAA, AntiAliasing.parse("msaa3", GPUTier.MEDIUM));
+        assertEquals(4, AntiAliasing.parse("msaax", GPUTier.HIGH).msaaSamples);
+    }
+
+    @Test
+    @DisplayName("MSAA needs at least two samples")
+    void msaaRejectsSingleSample() {
+        assertThrows(IllegalArgumentException.class, () -> AntiAliasing.msaa(1));
+    }
+}
@@ -0,0 +1,35 @@
+package com.jda.orrery.graphics.postfx;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the {@link BloomPipeline} chain geometry and budget; no GL context required. */
+public class BloomPipelineTest {
+
+    @Test
+    @DisplayName("1080p gets the full chain, from 960x540 down to 30x16")
+    void fullChainAt1080p() {
+        assertEquals(BloomPipeline.LEVELS, BloomPipeline.levelCount(1920, 1080));
+        assertEquals(960, BloomPipeline.levelSize(1920, 0));
+        assertEquals(540, BloomPipeline.levelSize(1080, 0));
+        assertEquals(30, BloomPipeline.levelSize(1920, 5));
+        assertEquals(16, BloomPipeline.levelSize(1080, 5));
+    }
+
+    @Test
+    @DisplayName("Small or thin targets stop before a side drops below 2")
+    void shortChainForSmallTargets() {
+        assertEquals(2, BloomPipeline.levelCount(640, 8));
+        assertEquals(0, BloomPipeline.levelCount(3, 3));
+        assertEquals(1, BloomPipeline.levelCount(4, 4));
+    }
+
+    @Test
+    @DisplayName("Budget scales with pixel count from the 1080p figure")
+    void budgetScalesWithPixels() {
+        assertEquals(BloomPipeline.BUDGET_MS_1080P, BloomPipeline.budgetMs(1920, 1080), 1e-12);
+        assertEquals(4 * BloomPipeline.BUDGET_MS_1080P, BloomPipeline.budgetMs(3840, 2160), 1e-12);
+    }
+}
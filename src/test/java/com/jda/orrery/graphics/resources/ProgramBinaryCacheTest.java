@@ -0,0 +1,115 @@
+package com.jda.orrery.graphics.resources;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests for {@link ProgramBinaryCache}'s keys, file round trip and miss handling. */
+public class ProgramBinaryCacheTest {
+
+    private static final String VERT = "#version 410 core\nvoid main() {}";
+    private static final String FRAG = "#version 410 core\nout vec4 c;\nvoid main() {}";
+    private static final String DRIVER = "Vendor\nRenderer\n4.1 1.2.3";
+
+    @TempDir Path tempDir;
+
+    private ProgramBinaryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProgramBinaryCache(tempDir.resolve("programs"));
+    }
+
+    private static ByteBuffer binary(int length, int seed) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+        for (int i = 0; i < length; i++) {
+            buffer.put((byte) (i * 31 + seed));
+        }
+        return buffer.flip();
+    }
+
+    @Test
+    @DisplayName("Stored binary maps back identically with its format")
+    void roundTrip() {
+        String key = ProgramBinaryCache.key(VERT, FRAG, List.of(), DRIVER);
+        ByteBuffer stored = binary(1000, 7);
+        cache.store("celestial", key, 0x8741, stored);
+        assertEquals(0, stored.position(), "store must not consume the caller's buffer");
+
+        ProgramBinaryCache.Entry entry = cache.load("celestial", key);
+        assertNotNull(entry);
+        assertEquals(0x8741, entry.format);
+        assertTrue(entry.binary.isDirect());
+        assertEquals(stored, entry.binary);
+    }
+
+    @Test
+    @DisplayName("Key changes with each source, the defines and the driver")
+    void keyCoversInputs() {
+        String base = ProgramBinaryCache.key(VERT, FRAG, List.of("A"), DRIVER);
+        assertEquals(base, ProgramBinaryCache.key(VERT, FRAG, List.of("A"), DRIVER));
+        assertNotEquals(base, ProgramBinaryCache.key(VERT + " ", FRAG, List.of("A"), DRIVER));
+        assertNotEquals(base, ProgramBinaryCache.key(VERT, FRAG + " ", List.of("A"), DRIVER));
+        assertNotEquals(base, ProgramBinaryCache.key(VERT, FRAG, List.of("B"), DRIVER));
+        assertNotEquals(base, ProgramBinaryCache.key(VERT, FRAG, List.of(), DRIVER));
+        assertNotEquals(base, ProgramBinaryCache.key(VERT, FRAG, List.of("A"), DRIVER + ".1"));
+        // Moving text between parts is a different input, not the same concatenation
+        assertNotEquals(
+                ProgramBinaryCache.key("ab", "c", List.of(), DRIVER),
+                ProgramBinaryCache.key("a", "bc", List.of(), DRIVER));
+    }
+
+    @Test
+    @DisplayName("Missing, truncated and foreign files are misses")
+    void invalidFilesAreMisses() throws IOException {
+        String key = ProgramBinaryCache.key(VERT, FRAG, List.of(), DRIVER);
+        assertNull(cache.load("basic", key));
+
+        cache.store("basic", key, 1, binary(64, 1));
+        Path file = cache.fileFor("basic", key);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertNull(cache.load("basic", key));
+
+        Files.write(file, new byte[8]);
+        assertNull(cache.load("basic", key));
+
+        bytes[0] ^= 0x55; // magic
+        Files.write(file, bytes);
+        assertNull(cache.load("basic", key));
+    }
+
+    @Test
+    @DisplayName("Storing a new key removes the shader's superseded entries only")
+    void storeRemovesSuperseded() {
+        String oldKey = ProgramBinaryCache.key(VERT, FRAG, List.of(), DRIVER);
+        String newKey = ProgramBinaryCache.key(VERT, FRAG, List.of(), DRIVER + " updated");
+        cache.store("basic", oldKey, 1, binary(32, 1));
+        cache.store("basic-axis", oldKey, 1, binary(32, 2));
+
+        cache.store("basic", newKey, 1, binary(32, 3));
+        assertNull(cache.load("basic", oldKey));
+        assertNotNull(cache.load("basic", newKey));
+        assertNotNull(cache.load("basic-axis", oldKey));
+    }
+
+    @Test
+    @DisplayName("Variant ids become portable file names")
+    void variantFileName() {
+        String key = ProgramBinaryCache.key(VERT, FRAG, List.of(), DRIVER);
+        String name =
+                cache.fileFor("celestial_unified_ubo[INSTANCED,MAX_INSTANCES 32]", key)
+                        .getFileName()
+                        .toString();
+        assertEquals("celestial_unified_ubo_INSTANCED_MAX_INSTANCES_32_-" + key + ".glprog", name);
+    }
+}
@@ -0,0 +1,42 @@
+package com.jda.orrery.graphics.resources;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Shader#injectDefines}: pure string handling, no GL context required.
+ */
+public class ShaderTest {
+
+    @Test
+    @DisplayName("No defines leaves the source untouched")
+    void emptyDefinesIsIdentity() {
+        String source = "#version 410 core\nvoid main() {}\n";
+        assertSame(source, Shader.injectDefines(source, List.of()));
+    }
+
+    @Test
+    @DisplayName("Defines follow #version, with #line restoring source line numbers")
+    void definesFollowVersionLine() {
+        String source = "#version 410 core\n\nvoid main() {}\n";
+        String result = Shader.injectDefines(source, List.of("INSTANCED", "MAX_INSTANCES 32"));
+        assertEquals(
+                "#version 410 core\n"
+                        + "#define INSTANCED\n"
+                        + "#define MAX_INSTANCES 32\n"
+                        + "#line 2\n"
+                        + "\nvoid main() {}\n",
+                result);
+    }
+
+    @Test
+    @DisplayName("Leading comment lines are counted in the #line directive")
+    void lineDirectiveAccountsForLeadingLines() {
+        String source = "// header\n#version 410 core\nvoid main() {}";
+        String result = Shader.injectDefines(source, List.of("FOO"));
+        assertTrue(result.contains("#version 410 core\n#define FOO\n#line 3\nvoid main() {}"));
+    }
+}
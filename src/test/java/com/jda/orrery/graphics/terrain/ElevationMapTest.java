@@ -0,0 +1,76 @@
+package com.jda.orrery.graphics.terrain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link ElevationMap} sampling: relief mapping, interpolation and wrapping. */
+public class ElevationMapTest {
+
+    private static final double EPSILON = 1e-6;
+
+    /** 4×2 map: west half 0, east half 65535, relief -1000 m to 1000 m. */
+    private static ElevationMap halves() {
+        short[] samples = new short[8];
+        for (int y = 0; y < 2; y++) {
+            samples[y * 4 + 2] = (short) 0xFFFF;
+            samples[y * 4 + 3] = (short) 0xFFFF;
+        }
+        return new ElevationMap(samples, 4, 2, -1000.0, 1000.0);
+    }
+
+    /** Longitude of a column centre in a map {@code width} texels wide. */
+    private static double columnPhi(int column, int width) {
+        return (column + 0.5) / width * 2.0 * Math.PI;
+    }
+
+    @Test
+    @DisplayName("Samples are unsigned and map onto the relief range")
+    void reliefRange() {
+        ElevationMap map = halves();
+        assertEquals(-1000.0, map.sampleMeters(Math.PI / 4, columnPhi(0, 4)), EPSILON);
+        assertEquals(1000.0, map.sampleMeters(Math.PI / 4, columnPhi(3, 4)), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Values between texel centres are interpolated")
+    void bilinear() {
+        ElevationMap map = halves();
+        // Halfway between column 1 (low) and column 2 (high)
+        assertEquals(0.0, map.sampleMeters(Math.PI / 4, Math.PI), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Longitude wraps across the prime meridian")
+    void wrapsInLongitude() {
+        ElevationMap map = halves();
+        // phi = 0 is halfway between the last column (high) and the first (low)
+        assertEquals(0.0, map.sampleMeters(Math.PI / 4, 0.0), EPSILON);
+        assertEquals(
+                map.sampleMeters(Math.PI / 4, 0.3),
+                map.sampleMeters(Math.PI / 4, 0.3 + 2.0 * Math.PI),
+                EPSILON);
+        assertEquals(
+                map.sampleMeters(Math.PI / 4, 0.3),
+                map.sampleMeters(Math.PI / 4, 0.3 - 2.0 * Math.PI),
+                EPSILON);
+    }
+
+    @Test
+    @DisplayName("Colatitude clamps at the poles")
+    void clampsAtPoles() {
+        short[] samples = {0, 0, (short) 0xFFFF, (short) 0xFFFF};
+        ElevationMap map = new ElevationMap(samples, 2, 2, 0.0, 100.0);
+        assertEquals(0.0, map.sampleMeters(0.0, 1.0), EPSILON);
+        assertEquals(100.0, map.sampleMeters(Math.PI, 1.0), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Sample count must match the dimensions")
+    void rejectsWrongSize() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new ElevationMap(new short[5], 2, 2, 0.0, 1.0));
+    }
+}
@@ -0,0 +1,177 @@
+package com.jda.orrery.graphics.terrain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.joml.Vector3d;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link CubeSphere} and {@link TerrainTileData}: face orientation, tile topology,
+ * winding and the seam handling of the parametric coordinates.
+ */
+public class TerrainTileDataTest {
+
+    private static final double EPSILON = 1e-6;
+    private static final int F = TerrainTileData.FLOATS_PER_VERTEX;
+
+    private static double[] position(float[] vertices, int v) {
+        return new double[] {vertices[v * F], vertices[v * F + 1], vertices[v * F + 2]};
+    }
+
+    /**
+     * Normal of triangle (a, b, c) dotted with {@code a - (cx, cy, cz)}: positive if it faces away
+     * from that point.
+     */
+    private static double facing(
+            float[] vertices, int a, int b, int c, double cx, double cy, double cz) {
+        double[] p = position(vertices, a);
+        double[] q = position(vertices, b);
+        double[] r = position(vertices, c);
+        double ux = q[0] - p[0];
+        double uy = q[1] - p[1];
+        double uz = q[2] - p[2];
+        double vx = r[0] - p[0];
+        double vy = r[1] - p[1];
+        double vz = r[2] - p[2];
+        return (uy * vz - uz * vy) * (p[0] - cx)
+                + (uz * vx - ux * vz) * (p[1] - cy)
+                + (ux * vy - uy * vx) * (p[2] - cz);
+    }
+
+    @Test
+    @DisplayName("Every face maps onto the unit sphere with s × t pointing outward")
+    void facesAreOutward() {
+        Vector3d p = new Vector3d();
+        Vector3d ds = new Vector3d();
+        Vector3d dt = new Vector3d();
+        for (int face = 0; face < CubeSphere.FACES; face++) {
+            CubeSphere.toSphere(face, 0.3, -0.2, p);
+            assertEquals(1.0, p.length(), EPSILON);
+            CubeSphere.toSphere(face, 0.301, -0.2, ds);
+            CubeSphere.toSphere(face, 0.3, -0.199, dt);
+            double ux = ds.x - p.x;
+            double uy = ds.y - p.y;
+            double uz = ds.z - p.z;
+            double vx = dt.x - p.x;
+            double vy = dt.y - p.y;
+            double vz = dt.z - p.z;
+            double outward =
+                    (uy * vz - uz * vy) * p.x
+                            + (uz * vx - ux * vz) * p.y
+                            + (ux * vy - uy * vx) * p.z;
+            assertTrue(outward > 0.0, "face " + face);
+        }
+    }
+
+    @Test
+    @DisplayName("Level-1 tiles tile each face exactly")
+    void tileOrigins() {
+        assertEquals(-1.0, CubeSphere.tileOrigin(1, 0), EPSILON);
+        assertEquals(0.0, CubeSphere.tileOrigin(1, 1), EPSILON);
+        assertEquals(1.0, CubeSphere.tileSize(1), EPSILON);
+    }
+
+    @Test
+    @DisplayName("Shared indices stay in range and every triangle faces outward")
+    void indicesFaceOutward() {
+        TerrainTileData tile = TerrainTileData.build(TileKey.of(0, 2, 1, 2), null, 0.0);
+        int[] indices = TerrainTileData.buildIndices();
+        assertEquals(TerrainTileData.INDEX_COUNT, indices.length);
+        assertEquals(TerrainTileData.VERTEX_COUNT * F, tile.vertices.length);
+        int gridIndices = (TerrainTileData.GRID - 1) * (TerrainTileData.GRID - 1) * 6;
+        for (int i = 0; i < indices.length; i += 3) {
+            for (int k = 0; k < 3; k++) {
+                assertTrue(indices[i + k] >= 0 && indices[i + k] < TerrainTileData.VERTEX_COUNT);
+            }
+            // Surface triangles face away from the body centre, skirts from the tile centre
+            boolean skirt = i >= gridIndices;
+            double facing =
+                    facing(
+                            tile.vertices,
+                            indices[i],
+                            indices[i + 1],
+                            indices[i + 2],
+                            skirt ? tile.centerX : 0.0,
+                            skirt ? tile.centerY : 0.0,
+                            skirt ? tile.centerZ : 0.0);
+            assertTrue(facing > 0.0, "triangle " + i / 3);
+        }
+    }
+
+    @Test
+    @DisplayName("Skirts hang inward from the edges, which they share with the grid")
+    void skirtsBelowEdges() {
+        TerrainTileData tile = TerrainTileData.build(TileKey.of(4, 3, 2, 5), null, 0.0);
+        int grid = TerrainTileData.GRID;
+        for (int edge = 0; edge < 4; edge++) {
+            for (int k = 0; k < grid; k++) {
+                double[] top = position(tile.vertices, TerrainTileData.edgeVertex(edge, k));
+                double[] skirt = position(tile.vertices, grid * grid + edge * grid + k);
+                double lengthTop = Math.sqrt(top[0] * top[0] + top[1] * top[1] + top[2] * top[2]);
+                double lengthSkirt =
+                        Math.sqrt(skirt[0] * skirt[0] + skirt[1] * skirt[1] + skirt[2] * skirt[2]);
+                assertTrue(lengthSkirt < lengthTop);
+                assertEquals(0.0, top[0] / lengthTop - skirt[0] / lengthSkirt, EPSILON);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Smooth tiles sit on the unit sphere with a small positive error")
+    void smoothTile() {
+        TerrainTileData tile = TerrainTileData.build(TileKey.of(1, 1, 0, 1), null, 0.0);
+        for (int v = 0; v < TerrainTileData.GRID * TerrainTileData.GRID; v++) {
+            double[] p = position(tile.vertices, v);
+            assertEquals(1.0, Math.sqrt(p[0] * p[0] + p[1] * p[1] + p[2] * p[2]), 1e-5);
+        }
+        assertTrue(tile.geometricError > 0.0f && tile.geometricError < 1e-2f);
+        assertTrue(tile.radius > 0.0f && tile.radius < 1.0f);
+    }
+
+    @Test
+    @DisplayName("Finer tiles have smaller error")
+    void errorShrinksWithLevel() {
+        float coarse = TerrainTileData.build(TileKey.of(0, 1, 0, 0), null, 0.0).geometricError;
+        float fine = TerrainTileData.build(TileKey.of(0, 4, 0, 0), null, 0.0).geometricError;
+        assertTrue(fine < coarse);
+    }
+
+    @Test
+    @DisplayName("Elevation displaces vertices radially and adds missed relief to the error")
+    void displacement() {
+        // 1 m everywhere at 0.01 units per metre lifts the surface to 1.01
+        short[] samples = new short[16 * 8];
+        java.util.Arrays.fill(samples, (short) 0xFFFF);
+        ElevationMap flat = new ElevationMap(samples, 16, 8, 0.0, 1.0);
+        TerrainTileData tile = TerrainTileData.build(TileKey.of(2, 1, 1, 1), flat, 0.01);
+        double[] p = position(tile.vertices, 0);
+        assertEquals(1.01, Math.sqrt(p[0] * p[0] + p[1] * p[1] + p[2] * p[2]), 1e-5);
+
+        samples[3] = 0; // one low texel
+        ElevationMap bumpy = new ElevationMap(samples, 16, 8, 0.0, 1000.0);
+        TerrainTileData smooth = TerrainTileData.build(TileKey.of(4, 1, 1, 1), null, 0.0);
+        TerrainTileData relief = TerrainTileData.build(TileKey.of(4, 1, 1, 1), bumpy, 1e-4);
+        assertTrue(relief.geometricError > smooth.geometricError);
+    }
+
+    @Test
+    @DisplayName("Longitudes are continuous across the prime meridian and at the poles")
+    void seamAndPoles() {
+        // +X face, s < 0: west of the prime meridian, which is its s = 1 edge
+        TerrainTileData west = TerrainTileData.build(TileKey.of(0, 1, 0, 1), null, 0.0);
+        // +Z face, s > 0, t < 0: the north pole is its (0, 1) corner
+        TerrainTileData polar = TerrainTileData.build(TileKey.of(4, 1, 1, 0), null, 0.0);
+        for (TerrainTileData tile : new TerrainTileData[] {west, polar}) {
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (int v = 0; v < TerrainTileData.VERTEX_COUNT; v++) {
+                double phi = tile.vertices[v * F + 7];
+                min = Math.min(min, phi);
+                max = Math.max(max, phi);
+            }
+            assertTrue(max - min <= Math.PI / 2 + EPSILON, "span " + (max - min));
+            assertTrue(max <= 2.0 * Math.PI + EPSILON);
+        }
+    }
+}
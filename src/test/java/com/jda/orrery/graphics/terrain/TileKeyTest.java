@@ -0,0 +1,86 @@
+package com.jda.orrery.graphics.terrain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link TileKey} packing and {@link TileTable} lookups. */
+public class TileKeyTest {
+
+    @Test
+    @DisplayName("Fields round-trip through the packed key")
+    void fieldsRoundTrip() {
+        long key = TileKey.of(5, TileKey.MAX_LEVEL, (1 << 20) - 1, 12345);
+        assertEquals(5, TileKey.face(key));
+        assertEquals(TileKey.MAX_LEVEL, TileKey.level(key));
+        assertEquals((1 << 20) - 1, TileKey.x(key));
+        assertEquals(12345, TileKey.y(key));
+    }
+
+    @Test
+    @DisplayName("No key is zero, the empty-slot marker")
+    void keysAreNonZero() {
+        assertNotEquals(0L, TileKey.of(0, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Children cover the parent in (x, y) bit order and map back to it")
+    void childAndParent() {
+        long parent = TileKey.of(2, 3, 5, 6);
+        for (int i = 0; i < 4; i++) {
+            long child = TileKey.child(parent, i);
+            assertEquals(2, TileKey.face(child));
+            assertEquals(4, TileKey.level(child));
+            assertEquals(10 + (i & 1), TileKey.x(child));
+            assertEquals(12 + (i >> 1), TileKey.y(child));
+            assertEquals(parent, TileKey.parent(child));
+        }
+    }
+
+    @Test
+    @DisplayName("Table finds, replaces and removes tiles through growth")
+    void tablePutGetRemove() {
+        TileTable table = new TileTable(4);
+        TerrainTile[] tiles = new TerrainTile[200];
+        for (int i = 0; i < tiles.length; i++) {
+            long key = TileKey.of(i % 6, 8, i, i / 3);
+            tiles[i] = new TerrainTile(null, key);
+            table.put(key, tiles[i]);
+        }
+        assertEquals(tiles.length, table.size());
+        for (TerrainTile tile : tiles) {
+            assertSame(tile, table.get(tile.key));
+        }
+
+        TerrainTile replacement = new TerrainTile(null, tiles[0].key);
+        table.put(tiles[0].key, replacement);
+        assertEquals(tiles.length, table.size());
+        assertSame(replacement, table.get(tiles[0].key));
+
+        // Remove every other tile; the rest must stay reachable past the holes
+        for (int i = 0; i < tiles.length; i += 2) {
+            table.remove(tiles[i].key);
+        }
+        assertEquals(tiles.length / 2, table.size());
+        for (int i = 0; i < tiles.length; i++) {
+            if (i % 2 == 0) {
+                assertNull(table.get(tiles[i].key));
+            } else {
+                assertSame(tiles[i], table.get(tiles[i].key));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Removing a missing key is a no-op")
+    void removeMissing() {
+        TileTable table = new TileTable(4);
+        long key = TileKey.of(1, 1, 1, 1);
+        TerrainTile tile = new TerrainTile(null, key);
+        table.put(key, tile);
+        table.remove(TileKey.of(1, 1, 0, 1));
+        assertEquals(1, table.size());
+        assertSame(tile, table.get(key));
+    }
+}
@@ -0,0 +1,42 @@
+package com.jda.orrery.graphics.ubo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pinning test for the {@link CelestialInstanceBuffer} layout.
+ *
+ * INSTANCE_SIZE must match the std140 CelestialInstance struct in
+ * celestial_unified_ubo.{vert,frag}. Constructing the buffer requires a GL context; this test
+ * only locks the static constants.
+ */
+public class CelestialInstanceBufferTest {
+
+    @Test
+    @DisplayName("INSTANCE_SIZE = CelestialUBO.BUFFER_SIZE + 4 vec4 instance members")
+    void instanceSizeMatchesStd140Layout() {
+        assertEquals(
+                CelestialUBO.BUFFER_SIZE + 4 * 16,
+                CelestialInstanceBuffer.INSTANCE_SIZE,
+                "Instance stride must be the CelestialData prefix plus textureParams, "
+                        + "bodyParams, shadowPosition and shadowAxis. Update the "
+                        + "CelestialInstance struct in both shaders if this changes.");
+    }
+
+    @Test
+    @DisplayName("INSTANCE_SIZE is 16-byte aligned (std140 array stride)")
+    void instanceSizeIs16ByteAligned() {
+        assertEquals(0, CelestialInstanceBuffer.INSTANCE_SIZE % 16);
+    }
+
+    @Test
+    @DisplayName("BUFFER_SIZE fits the 16 KB minimum GL_MAX_UNIFORM_BLOCK_SIZE")
+    void bufferFitsMinimumUniformBlockSize() {
+        assertEquals(
+                CelestialInstanceBuffer.INSTANCE_SIZE * CelestialInstanceBuffer.MAX_INSTANCES,
+                CelestialInstanceBuffer.BUFFER_SIZE);
+        assertTrue(CelestialInstanceBuffer.BUFFER_SIZE <= 16384);
+    }
+}
@@ -6,8 +6,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 /**
- * Pinning test for the {@link CelestialUBO} buffer size after the Group 2 vec4 bodyGeometry
- * migration (368 → 384 bytes).
+ * Pinning test for the {@link CelestialUBO} buffer size after frame-constant members (view,
+ * projection, sun position) moved to {@link FrameDataUBO} (384 → 240 bytes) and the MVP and
+ * normal matrices gave way to a 3x3 model matrix and split-double centre (240 → 144 bytes).
  *
  * The buffer size and offset layout must stay in sync with the shader's std140 declaration in
  * celestial_unified_ubo.{vert,frag}. Constructing the UBO requires a GL context; this test only
@@ -16,12 +17,12 @@ import org.junit.jupiter.api.Test;
 public class CelestialUBOTest {
 
     @Test
-    @DisplayName("BUFFER_SIZE = 384 (368-byte original + 16-byte vec4 bodyGeometry)")
+    @DisplayName("BUFFER_SIZE = 144 (model, position high/low, albedo, emission, params, geometry)")
     void bufferSizeMatchesStd140Layout() {
         assertEquals(
-                384,
+                144,
                 CelestialUBO.BUFFER_SIZE,
-                "UBO buffer size must remain 384. If you change this, update the "
+                "UBO buffer size must remain 144. If you change this, update the "
                         + "std140 CelestialData block in both celestial_unified_ubo.vert "
                         + "and celestial_unified_ubo.frag to match.");
     }
@@ -34,4 +35,12 @@ public class CelestialUBOTest {
                 CelestialUBO.BUFFER_SIZE % 16,
                 "std140 layouts must round up to a multiple of 16");
     }
+
+    @Test
+    @DisplayName("Block stride rounds up to GL_UNIFORM_BUFFER_OFFSET_ALIGNMENT")
+    void blockStrideRoundsUpToOffsetAlignment() {
+        assertEquals(144, CelestialUBO.alignUp(CelestialUBO.BUFFER_SIZE, 16));
+        assertEquals(256, CelestialUBO.alignUp(CelestialUBO.BUFFER_SIZE, 256));
+        assertEquals(144, CelestialUBO.alignUp(CelestialUBO.BUFFER_SIZE, 0));
+    }
 }
@@ -0,0 +1,36 @@
+package com.jda.orrery.graphics.ubo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the {@link DoubleSplit} high/low float representation used by the shaders. */
+public class DoubleSplitTest {
+
+    @Test
+    @DisplayName("High plus low reconstructs the double far beyond float precision")
+    void reconstructs() {
+        double[] values = {0.0, 1.0, -1.0, Math.PI, 1.0 / 3.0, 123_456.789_012_345, -9.87e7};
+        for (double value : values) {
+            double sum = (double) DoubleSplit.high(value) + DoubleSplit.low(value);
+            assertEquals(value, sum, Math.abs(value) * 1e-14, "value " + value);
+        }
+    }
+
+    @Test
+    @DisplayName("Split differences match the double difference where plain float fails")
+    void splitDifference() {
+        // Body and camera ~30 AU from the origin, 1e-4 apart (the shader's subtraction order)
+        double body = 30.000_123_456_789;
+        double camera = 30.000_023_456_789;
+        float high = DoubleSplit.high(body) - DoubleSplit.high(camera);
+        float low = DoubleSplit.low(body) - DoubleSplit.low(camera);
+        float split = high + low;
+        float naive = (float) body - (float) camera;
+
+        double expected = body - camera;
+        assertEquals(expected, split, expected * 1e-6);
+        assertTrue(Math.abs(naive - expected) > expected * 1e-3, "float loses the offset");
+    }
+}
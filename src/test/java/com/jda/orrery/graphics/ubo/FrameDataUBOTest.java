@@ -0,0 +1,32 @@
+package com.jda.orrery.graphics.ubo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pinning test for the {@link FrameDataUBO} layout.
+ *
+ * BUFFER_SIZE must match the std140 FrameData block declared in celestial_unified_ubo.{vert,frag}
+ * and postfx_tonemap.frag. Constructing the UBO requires a GL context; this test only locks the
+ * static constants.
+ */
+public class FrameDataUBOTest {
+
+    @Test
+    @DisplayName("BUFFER_SIZE = 2 mat4 + 3 vec4 + illumination struct (32) + 5 vec4")
+    void bufferSizeMatchesStd140Layout() {
+        assertEquals(
+                2 * 64 + 3 * 16 + 32 + 5 * 16,
+                FrameDataUBO.BUFFER_SIZE,
+                "FrameData size changed. Update the FrameData block in every shader that "
+                        + "declares it.");
+    }
+
+    @Test
+    @DisplayName("BUFFER_SIZE is 16-byte aligned (std140 requirement)")
+    void bufferSizeIs16ByteAligned() {
+        assertEquals(0, FrameDataUBO.BUFFER_SIZE % 16);
+    }
+}